@@ -3,14 +3,28 @@ package raf.sk_schedule.api;
 import raf.sk_schedule.exception.ScheduleException;
 import raf.sk_schedule.exception.ScheduleIOException;
 import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.util.catalogue.RoomCascadePolicy;
+import raf.sk_schedule.util.catalogue.RoomCatalogueDiff;
+import raf.sk_schedule.util.conflict.SlotConflict;
+import raf.sk_schedule.util.exporter.ScheduleExportTask;
 import raf.sk_schedule.util.filter.SearchCriteria;
 import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_mapper.SeriesScope;
 import raf.sk_schedule.model.location_node.RoomProperties;
 import raf.sk_schedule.model.schedule_node.ScheduleSlot;
 import raf.sk_schedule.api.Constants.WeekDay;
-
+import raf.sk_schedule.util.room_finder.EarliestFitQuery;
+import raf.sk_schedule.util.room_finder.RoomAvailabilityQuery;
+import raf.sk_schedule.util.solver.LectureRequest;
+import raf.sk_schedule.util.solver.SolverResult;
+import raf.sk_schedule.util.solver.TimetableSolver;
+import raf.sk_schedule.util.transaction.ScheduleTransaction;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * This interface represents the scheduling component API.
@@ -84,6 +98,45 @@ public interface ScheduleManager {
      */
     void updateRoom(String name, RoomProperties newProp);
 
+    /**
+     * Updates the properties of an existing room and applies the policy to the slots booked in it.
+     * With {@link RoomCascadePolicy#REASSIGN} the slots and the series of the room are moved to the new properties, so they follow a renamed room.
+     *
+     * @param name    The name of the room to be updated.
+     * @param newProp The updated properties of the room.
+     * @param policy  What happens to the slots booked in the room.
+     * @return The slots that were booked in the room, with {@link RoomCascadePolicy#CASCADE_DELETE} every slot that was deleted,
+     * including the slots of their series booked in other rooms.
+     * @throws ScheduleException If the room doesn't exist, the new name is taken by another room,
+     *                           or it has booked slots and the policy is {@link RoomCascadePolicy#REJECT_IF_BOOKED}.
+     */
+    List<ScheduleSlot> updateRoom(String name, RoomProperties newProp, RoomCascadePolicy policy) throws ScheduleException;
+
+    /**
+     * Brings the rooms of the schedule in line with the room catalogue in one atomic step. The catalogue is diffed against
+     * the existing rooms (see {@link RoomCatalogueDiff}), the whole diff is validated before anything is changed, and the changes
+     * are applied together: the derived room indexes are updated once for the whole batch, and the slots of the updated
+     * and renamed rooms are moved to the new room instances. If any change fails, the already applied ones are reverted.
+     *
+     * @param catalogue     The new room catalogue.
+     * @param renames       The map of the current room names to their new names in the catalogue, or null if no room is renamed.
+     * @param removeMissing If true, the rooms that are not in the catalogue are removed, otherwise they are kept.
+     * @return The applied difference.
+     * @throws ScheduleException If the catalogue is not consistent or a room that has booked slots would be removed.
+     */
+    RoomCatalogueDiff applyRoomCatalogue(Collection<RoomProperties> catalogue, Map<String, String> renames, boolean removeMissing) throws ScheduleException;
+
+    /**
+     * Imports the room catalogue from a CSV file and applies it with {@link #applyRoomCatalogue(Collection, Map, boolean)}.
+     *
+     * @param csvPath       The path to the CSV file containing room data.
+     * @param renames       The map of the current room names to their new names in the catalogue, or null if no room is renamed.
+     * @param removeMissing If true, the rooms that are not in the catalogue are removed, otherwise they are kept.
+     * @return The applied difference.
+     * @throws ScheduleIOException If there is an issue reading the CSV file.
+     */
+    RoomCatalogueDiff importRoomCatalogueCSV(String csvPath, Map<String, String> renames, boolean removeMissing) throws ScheduleIOException;
+
 
     /**
      * Gets the room properties with the specified name.
@@ -112,6 +165,16 @@ public interface ScheduleManager {
             Map<String, String> attributes
     );
 
+    /**
+     * Finds the rooms that satisfy the room requirements of the query and are free for every occurrence of the queried booking.
+     * The occurrences are mapped from the time window, the duration and the recurrence parameters of the query
+     * the same way {@link RepetitiveScheduleMapper} maps them, so any returned room can be booked with those parameters.
+     *
+     * @param query The query describing the booking and the room requirements.
+     * @return The list of available rooms ordered by the best fit, that is from the smallest sufficient capacity upwards.
+     */
+    List<RoomProperties> findAvailableRooms(RoomAvailabilityQuery query);
+
     /**
      * Delete a room from the schedule.
      *
@@ -121,6 +184,29 @@ public interface ScheduleManager {
      */
     boolean deleteRoom(String name) throws ScheduleException;
 
+    /**
+     * Deletes a room from the schedule together with the slots booked in it, or moves them to another room, depending on the policy.
+     * The slots of the room are found through the per-room booking index, so the cost depends only on the number of slots in the room.
+     * With {@link RoomCascadePolicy#REASSIGN} every slot is checked against the bookings of the replacement room before anything is changed.
+     *
+     * @param name        The name of the room to be deleted.
+     * @param policy      What happens to the slots booked in the room.
+     * @param replacement The room the slots and series are moved to with {@link RoomCascadePolicy#REASSIGN}, ignored otherwise.
+     * @return The slots that were booked in the room, with {@link RoomCascadePolicy#CASCADE_DELETE} every slot that was deleted,
+     * including the slots of their series booked in other rooms.
+     * @throws ScheduleException If the room doesn't exist, it has booked slots and the policy is {@link RoomCascadePolicy#REJECT_IF_BOOKED},
+     *                           or the slots can't be moved to the replacement room.
+     */
+    List<ScheduleSlot> deleteRoom(String name, RoomCascadePolicy policy, RoomProperties replacement) throws ScheduleException;
+
+    /**
+     * Returns the slots booked in the room. The slots are looked up in the per-room booking index.
+     *
+     * @param name The name of the room.
+     * @return The slots of the room ordered by start time.
+     */
+    List<ScheduleSlot> getRoomSlots(String name);
+
 
     /**
      * Adds a time slot to the schedule.
@@ -167,6 +253,18 @@ public interface ScheduleManager {
     List<ScheduleSlot> bookRepetitiveScheduleSlot(RepetitiveScheduleMapper recurrenceInterval) throws ScheduleException;
 
 
+    /**
+     * Places unscheduled weekly lectures into the rooms of the schedule without colliding with the slots that are already booked.
+     * The conflict keys of the schedule are respected together with the ones the solver is configured with.
+     * The schedule itself is not changed, every placement of the result can be booked by passing
+     * {@link raf.sk_schedule.util.solver.LecturePlacement#toRepetitiveScheduleMapper()} to {@link ScheduleManager#bookRepetitiveScheduleSlot(RepetitiveScheduleMapper)}.
+     *
+     * @param solver   The solver configured with the scheduling interval, the conflict keys and the time budget.
+     * @param lectures The lectures to be placed.
+     * @return The best timetable found within the time budget of the solver.
+     */
+    SolverResult solveTimetable(TimetableSolver solver, List<LectureRequest> lectures);
+
     ScheduleSlot getScheduleSlot(Object date, String startTime, String endTime, String location);
 
     /**
@@ -193,6 +291,47 @@ public interface ScheduleManager {
                           String newEndTime,
                           RoomProperties newLocation);
 
+    /**
+     * Moves a time slot, or the occurrences of its series selected by the scope, to a new date, time and location.
+     * Every moved occurrence keeps its distance in days from the provided slot. The {@code null} arguments keep the current
+     * values of the slot, a missing end time keeps its duration. All the targets are validated before any slot is changed.
+     *
+     * @param scheduleSlot The time slot to be moved.
+     * @param newDate      The new date for the time slot, as String or java.util Date instance.
+     * @param newStartTime The new start time for the time slot in "HH:mm" format.
+     * @param newEndTime   The new end time for the time slot in "HH:mm" format.
+     * @param newLocation  The new location for the time slot.
+     * @param scope        The occurrences of the series of the slot that are moved together with it.
+     * @return The list of the moved slots.
+     * @throws ScheduleException If any of the targets collides with a slot that is not moved, or the new location doesn't exist.
+     */
+    List<ScheduleSlot> moveScheduleSlot(ScheduleSlot scheduleSlot,
+                                        Object newDate,
+                                        String newStartTime,
+                                        String newEndTime,
+                                        RoomProperties newLocation,
+                                        SeriesScope scope) throws ScheduleException;
+
+    /**
+     * Validates the schedule as it would be after the transaction is applied, without changing it.
+     *
+     * @param transaction The bookings, deletions and moves to be validated together.
+     * @return The list of conflicts that the transaction would cause, empty if it can be applied.
+     */
+    List<SlotConflict> validateTransaction(ScheduleTransaction transaction);
+
+    /**
+     * Applies the bookings, deletions and moves of the transaction atomically. Only the final state of the schedule is validated,
+     * before any change is made, so slots can be swapped or shifted together. A moved slot is detached from its series,
+     * like a move with {@link SeriesScope#THIS}. If any step fails, the applied steps are rolled back, and the deleted and moved slots
+     * are linked back to their series.
+     *
+     * @param transaction The bookings, deletions and moves to be applied together.
+     * @return The list of slots removed from the schedule by the deletions of the transaction.
+     * @throws ScheduleException If the final schedule would have conflicts, or any step of the transaction fails.
+     */
+    List<ScheduleSlot> applyTransaction(ScheduleTransaction transaction) throws ScheduleException;
+
     /**
      * Checks if a specific time slot is available.
      *
@@ -213,6 +352,37 @@ public interface ScheduleManager {
      */
     List<ScheduleSlot> isScheduleSlotAvailable(Object date, String startTime, String endTime, String location);
 
+    /**
+     * Sets the conflict keys of the schedule. A conflict key is the name of an attribute whose values must not overlap in time,
+     * for example "professor" or "group": two slots with the same professor can't be booked at the same time, even in different rooms.
+     *
+     * @param conflictKeys The names of the attributes whose values must not overlap in time.
+     */
+    void setConflictKeys(String... conflictKeys);
+
+    /**
+     * Returns the conflict keys of the schedule.
+     *
+     * @return The names of the attributes whose values must not overlap in time.
+     */
+    List<String> getConflictKeys();
+
+    /**
+     * Finds the booked slots that share a value of any conflict key with the specified slot and overlap it in time.
+     *
+     * @param scheduleSlot The slot to be checked.
+     * @return The list containing {@link ScheduleSlot} objects that are in attribute conflict with the {@code scheduleSlot} parameter.
+     */
+    List<ScheduleSlot> findAttributeConflicts(ScheduleSlot scheduleSlot);
+
+    /**
+     * Validates the whole schedule and finds every pair of slots that overlap in time while sharing the room
+     * or a value of any conflict key. The validation runs in O(n log n) time plus the number of found conflicts.
+     *
+     * @return The list of found conflicts.
+     */
+    List<SlotConflict> validateSchedule();
+
     /**
      * Gets a list of free time slots within a specified date range.
      *
@@ -222,6 +392,17 @@ public interface ScheduleManager {
      */
     List<FreeScheduleSlot> getFreeScheduleSlots(Object startDate, Object endDate);
 
+    /**
+     * Finds the earliest times within the searched interval when a room satisfying the requirements of the query
+     * is free for the requested duration. The free time is looked for the same way as in {@link ScheduleManager#getFreeScheduleSlots(Object, Object)},
+     * but the search stops as soon as the requested number of results is found.
+     * If the query does not define the acceptable days, the days that are not excluded from the schedule are used.
+     *
+     * @param query The query describing the searched interval, the duration and the room requirements.
+     * @return The list of free slots of the requested duration ordered by start time.
+     */
+    List<FreeScheduleSlot> findEarliestFreeSlots(EarliestFitQuery query);
+
     /**
      * Searches for time slots based on specific criteria.
      *
@@ -230,6 +411,37 @@ public interface ScheduleManager {
      */
     List<ScheduleSlot> searchScheduleSlots(SearchCriteria criteria);
 
+    /**
+     * Searches for time slots based on specific criteria and returns one page of the result.
+     * Only as many slots are evaluated as needed to fill the page.
+     *
+     * @param criteria The search criteria (e.g., room, day, equipment).
+     * @param offset   The number of matching slots to be skipped.
+     * @param limit    The maximum number of matching slots to be returned.
+     * @return A list of matching time slots ordered by date.
+     * @throws ScheduleException If the offset or the limit is negative.
+     */
+    List<ScheduleSlot> searchScheduleSlots(SearchCriteria criteria, int offset, int limit);
+
+    /**
+     * Searches for time slots based on specific criteria without collecting the result.
+     * The slots are evaluated lazily as the stream is consumed.
+     *
+     * @param criteria The search criteria (e.g., room, day, equipment).
+     * @return A stream of matching time slots ordered by date.
+     */
+    Stream<ScheduleSlot> streamScheduleSlots(SearchCriteria criteria);
+
+    /**
+     * Searches for time slots based on specific criteria and publishes the matching slots to the subscribers.
+     * The criteria are evaluated in batches as the subscriber requests more slots, so the result is never buffered as a whole.
+     * Implementations should read the schedule when a subscriber subscribes, not when the publisher is created.
+     *
+     * @param criteria The search criteria (e.g., room, day, equipment).
+     * @return A publisher of matching time slots ordered by date, every subscriber gets the whole result.
+     */
+    Flow.Publisher<ScheduleSlot> publishScheduleSlots(SearchCriteria criteria);
+
     /**
      * Exports the schedule data to a CSV file within specified date bounds.
      *
@@ -271,6 +483,66 @@ public interface ScheduleManager {
      */
     int exportFilteredScheduleJSON(String filePath, SearchCriteria searchCriteria);
 
+    /**
+     * Exports the schedule data to a CSV file within specified date bounds in the background.
+     * The values of the slots of the bounds are captured when the method is called, so the schedule can be changed while the export
+     * is running and the export writes the slots as they were when it was started.
+     *
+     * @param filePath           The path of the file, it is replaced only when the export has finished.
+     * @param lowerDateBound     The lower date bound for export. If null, it will be the earliest date in the schedule.
+     * @param upperDateBound     The upper date bound for export. If null, it will be the latest date in the schedule.
+     * @param includedAttributes Optional additional attributes to include in the CSV string.
+     * @return The running export, completing with the number of exported rows. It reports the progress and can be cancelled.
+     */
+    ScheduleExportTask exportScheduleCSVAsync(String filePath, Object lowerDateBound, Object upperDateBound, String... includedAttributes);
+
+    /**
+     * Exports the filtered schedule data to a CSV file in the background. The slots are filtered by the export thread.
+     *
+     * @param filePath           The path of the file, it is replaced only when the export has finished.
+     * @param searchCriteria     The search criteria for filtering.
+     * @param includedAttributes Optional additional attributes to include in the CSV string.
+     * @return The running export, completing with the number of exported rows. It reports the progress and can be cancelled.
+     */
+    ScheduleExportTask exportFilteredScheduleCSVAsync(String filePath, SearchCriteria searchCriteria, String... includedAttributes);
+
+    /**
+     * Exports the schedule data to a JSON file within specified date bounds in the background.
+     *
+     * @param filePath       The path of the file, it is replaced only when the export has finished.
+     * @param lowerDateBound The lower date bound for export. If null, it will be the earliest date in the schedule.
+     * @param upperDateBound The upper date bound for export. If null, it will be the latest date in the schedule.
+     * @return The running export, completing with the number of exported rows. It reports the progress and can be cancelled.
+     */
+    ScheduleExportTask exportScheduleJSONAsync(String filePath, Object lowerDateBound, Object upperDateBound);
+
+    /**
+     * Exports the filtered schedule data to a JSON file in the background. The slots are filtered by the export thread.
+     *
+     * @param filePath       The path of the file, it is replaced only when the export has finished.
+     * @param searchCriteria The search criteria for filtering.
+     * @return The running export, completing with the number of exported rows. It reports the progress and can be cancelled.
+     */
+    ScheduleExportTask exportFilteredScheduleJSONAsync(String filePath, SearchCriteria searchCriteria);
+
+    /**
+     * Audits the whole schedule for room and conflict key attribute conflicts and streams the found conflicts to a CSV file.
+     * The schedule is partitioned by the shared resource and the date, and the partitions are audited in parallel.
+     *
+     * @param filePath The path to an existing file or path on which a new file will be created if it doesn't exist already.
+     * @return The number of exported conflicts.
+     */
+    int exportConflictAuditCSV(String filePath);
+
+    /**
+     * Audits the whole schedule for room and conflict key attribute conflicts and streams the found conflicts to a JSON file.
+     * The schedule is partitioned by the shared resource and the date, and the partitions are audited in parallel.
+     *
+     * @param filePath The path to an existing file or path on which a new file will be created if it doesn't exist already.
+     * @return The number of exported conflicts.
+     */
+    int exportConflictAuditJSON(String filePath);
+
     /**
      * Returns a list of all room properties available in the schedule.
      *
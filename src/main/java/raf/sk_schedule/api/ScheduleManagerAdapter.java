@@ -2,16 +2,76 @@ package raf.sk_schedule.api;
 
 
 import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_mapper.SeriesScope;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.cache.SearchResultCache;
+import raf.sk_schedule.util.catalogue.RoomCascadePolicy;
+import raf.sk_schedule.util.catalogue.RoomCatalogueDiff;
+import raf.sk_schedule.util.conflict.ConflictAuditor;
+import raf.sk_schedule.util.conflict.ConflictReportWriter;
+import raf.sk_schedule.util.concurrent.ScheduleExecutors;
+import raf.sk_schedule.util.conflict.SlotConflict;
+import raf.sk_schedule.util.exporter.ScheduleExportTask;
+import raf.sk_schedule.util.exporter.ScheduleExportWriter;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.filter.SearchExplanation;
+import raf.sk_schedule.util.filter.SearchPublisher;
+import raf.sk_schedule.util.importer.ScheduleImporter;
+import raf.sk_schedule.util.index.AttributeConflictIndex;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+import raf.sk_schedule.util.index.RoomIntervalIndex;
+import raf.sk_schedule.util.index.ScheduleChangeListener;
+import raf.sk_schedule.util.metrics.Operation;
+import raf.sk_schedule.util.metrics.ScheduleMetrics;
+import raf.sk_schedule.util.room_finder.AvailableRoomFinder;
+import raf.sk_schedule.util.room_finder.EarliestFitFinder;
+import raf.sk_schedule.util.room_finder.EarliestFitQuery;
+import raf.sk_schedule.util.room_finder.FreeSlotMemo;
+import raf.sk_schedule.util.room_finder.RoomAvailabilityQuery;
+import raf.sk_schedule.util.solver.LectureRequest;
+import raf.sk_schedule.util.solver.SolverResult;
+import raf.sk_schedule.util.solver.TimetableSolver;
+import raf.sk_schedule.util.store.PartitionedScheduleStore;
+import raf.sk_schedule.util.store.ScheduleSnapshot;
+import raf.sk_schedule.util.transaction.ScheduleTransaction;
+import raf.sk_schedule.util.transaction.TransactionValidator;
 
+import java.io.File;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static raf.sk_schedule.api.Constants.*;
-import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+import static raf.sk_schedule.util.persistence.ScheduleFileOperationUnit.initializeFile;
 
+/**
+ * The `ScheduleManagerAdapter` class answers the queries of {@link ScheduleManager} from derived structures: the room index,
+ * the booking index, the conflict key index and the date partitioned store, so an implementation only has to store its rooms and slots.
+ * <p>
+ * The structures are maintained in one of two modes, chosen through the constructor:
+ * </p>
+ * <ul>
+ *     <li>An implementation that reports its changes through the notification methods gets structures that are built once
+ *     and updated incrementally, the repeated searches are cached and the free intervals are memoized.</li>
+ *     <li>By default the implementation doesn't report its changes, so every call reading the structures first rebuilds all of them
+ *     from {@link ScheduleManager#getAllRooms()} and {@link ScheduleManager#getWholeSchedule()}. Each such call costs a full pass
+ *     over the schedule however few slots it returns, booking n slots through {@link #validateBooking(ScheduleSlot)} costs O(n²)
+ *     in total, and neither the search cache nor the free slot memo is used. Implementations holding more than a small schedule
+ *     should report their changes.</li>
+ * </ul>
+ * <p>
+ * The methods reading the structures say so in their documentation.
+ * </p>
+ */
 public abstract class ScheduleManagerAdapter implements ScheduleManager {
 
     protected Date startingDate;
@@ -20,14 +80,120 @@ public abstract class ScheduleManagerAdapter implements ScheduleManager {
     protected SimpleDateFormat dateFormat;
     protected SimpleDateFormat dateTimeFormat;
 
+    /**
+     * Index of rooms ordered by capacity, kept in sync through the room notification methods.
+     */
+    protected final RoomFeatureIndex roomIndex;
 
+    /**
+     * Index of booked slots grouped by room, kept in sync through the slot notification methods.
+     */
+    protected final RoomIntervalIndex bookingIndex;
+
+    /**
+     * Indexes of booked slots by the values of the conflict key attributes, kept in sync through the slot notification methods.
+     */
+    protected final AttributeConflictIndex attributeIndex;
+
+    /**
+     * Booked slots partitioned by date, kept in sync through the slot notification methods.
+     */
+    protected final PartitionedScheduleStore dateIndex;
+
+    /**
+     * Results of the repeated searches, invalidated through the slot notification methods.
+     * It is used only if the implementation reports its changes.
+     */
+    protected final SearchResultCache searchCache;
+
+    /**
+     * Free intervals of every room and day, invalidated through the slot notification methods.
+     * If the implementation doesn't report its changes, its capacity is 0 and nothing is memoized.
+     */
+    protected final FreeSlotMemo freeSlotMemo;
+
+    /**
+     * Recorder of the operation latencies and row counts, {@link ScheduleMetrics#NOOP} until a registry is set.
+     * Implementations should record the operations they implement, like booking, import and export, through it as well.
+     */
+    protected ScheduleMetrics metrics;
+
+    /**
+     * Executor of the asynchronous exports, {@link ScheduleExecutors#defaultExecutor()} until another one is set.
+     */
+    protected Executor exportExecutor;
+
+    /**
+     * Derived structures that are notified about every change of the schedule state.
+     */
+    private final List<ScheduleChangeListener> changeListeners;
+
+    /**
+     * True if the implementation reports every change of its rooms and slots through the notification methods.
+     */
+    private final boolean reportsChanges;
+
+    /**
+     * True once the derived structures have been fully built and are kept up to date by the notifications,
+     * read without locking by the concurrent readers. It stays false for implementations that don't report their changes.
+     */
+    private volatile boolean indexesBuilt;
+
+    /**
+     * True while the derived structures are being built or are built, so the notifications are passed to the listeners.
+     */
+    private boolean tracking;
+
+    /**
+     * The room notifications collected during a batch of room changes, null outside of a batch.
+     */
+    private List<RoomProperties> batchRemovedRooms;
+    private List<RoomProperties> batchAddedRooms;
+
+
+    /**
+     * Creates the adapter for an implementation that doesn't report its changes through the notification methods.
+     * The derived structures are rebuilt from {@link ScheduleManager#getAllRooms()} and {@link ScheduleManager#getWholeSchedule()}
+     * before every operation that reads them, so the answers always match the state of the implementation,
+     * at the cost of a full pass over the schedule per operation.
+     */
     protected ScheduleManagerAdapter() {
+        this(false);
+    }
+
+    /**
+     * @param reportsChanges True if the implementation calls {@link #notifySlotBooked}, {@link #notifySlotRemoved},
+     *                       {@link #notifyRoomAdded} and {@link #notifyRoomRemoved} on every change of its rooms and slots.
+     *                       The derived structures are then built once and kept up to date by the notifications,
+     *                       otherwise they are rebuilt before every operation that reads them.
+     */
+    protected ScheduleManagerAdapter(boolean reportsChanges) {
+        this.reportsChanges = reportsChanges;
         acceptableDays = new ArrayList<>();
         acceptableDays.addAll(Arrays.asList(WeekDay.values()));
         dateFormat = new SimpleDateFormat(DATE_FORMAT);
         dateTimeFormat = new SimpleDateFormat(DATE_TIME_FORMAT);
 
-
+        roomIndex = new RoomFeatureIndex();
+        bookingIndex = new RoomIntervalIndex();
+        attributeIndex = new AttributeConflictIndex();
+        dateIndex = new PartitionedScheduleStore();
+        searchCache = new SearchResultCache();
+        freeSlotMemo = new FreeSlotMemo(bookingIndex, reportsChanges ? FreeSlotMemo.DEFAULT_CAPACITY : 0);
+        metrics = ScheduleMetrics.NOOP;
+        exportExecutor = ScheduleExecutors.defaultExecutor();
+        changeListeners = new ArrayList<>();
+        changeListeners.add(roomIndex);
+        changeListeners.add(bookingIndex);
+        changeListeners.add(attributeIndex);
+        changeListeners.add(dateIndex);
+        // without the change reports the structures are rebuilt for every call, so a cached result could never be hit
+        if (reportsChanges) {
+            changeListeners.add(searchCache);
+            changeListeners.add(freeSlotMemo);
+        }
+        indexesBuilt = false;
+        tracking = false;
     }
 
 
@@ -44,6 +210,14 @@ public abstract class ScheduleManagerAdapter implements ScheduleManager {
 
     }
 
+    /**
+     * @return True if the derived structures are maintained by the notifications of the implementation,
+     * false if they are rebuilt before every operation that reads them.
+     */
+    public boolean isReportingChanges() {
+        return reportsChanges;
+    }
+
     public Date getStartingDate() {
         return startingDate;
     }
@@ -52,5 +226,922 @@ public abstract class ScheduleManagerAdapter implements ScheduleManager {
         return endingDate;
     }
 
+    /**
+     * Sets the recorder of the operation metrics, for example a {@link raf.sk_schedule.util.metrics.MetricsRegistry}.
+     *
+     * @param metrics The recorder, or null to stop recording.
+     */
+    public void setMetrics(ScheduleMetrics metrics) {
+        this.metrics = metrics == null ? ScheduleMetrics.NOOP : metrics;
+    }
+
+    public ScheduleMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the executor running the asynchronous exports.
+     *
+     * @param exportExecutor The executor, or null to use the default one.
+     */
+    public void setExportExecutor(Executor exportExecutor) {
+        this.exportExecutor = exportExecutor == null ? ScheduleExecutors.defaultExecutor() : exportExecutor;
+    }
+
+    public Executor getExportExecutor() {
+        return exportExecutor;
+    }
+
+    /**
+     * @return The cache of the search results, exposing the hit rate and the eviction metrics. The cache is used only if the implementation
+     * reports its changes, otherwise the searches bypass it and its counters stay at zero.
+     */
+    public SearchResultCache getSearchResultCache() {
+        return searchCache;
+    }
+
+    @Override
+    public List<ScheduleSlot> getSchedule(String lowerBoundDate, String upperBoundDate) {
+        return getSchedule((Object) lowerBoundDate, upperBoundDate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> getSchedule(Object lowerDateBound, Object upperDateBound) {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            // the range is a view over the live buckets, so the caller gets a copy
+            List<ScheduleSlot> result = new ArrayList<>(dateIndex.range(lowerDateBound, upperDateBound));
+            metrics.record(Operation.GET_SCHEDULE, start, result.size(), result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.GET_SCHEDULE, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> searchScheduleSlots(SearchCriteria criteria) {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            // stays 0 when the result is served from the cache
+            int[] scanned = {0};
+            List<ScheduleSlot> result;
+            if (reportsChanges) {
+                if (criteria.getExplanation() != null)
+                    criteria.getExplanation().setIndexUsed("search result cache");
+                result = new ArrayList<>(searchCache.get(criteria, () -> {
+                    List<ScheduleSlot> candidates = candidateSlots(criteria);
+                    scanned[0] = candidates.size();
+                    return criteria.filter(candidates);
+                }));
+            } else {
+                List<ScheduleSlot> candidates = candidateSlots(criteria);
+                scanned[0] = candidates.size();
+                result = new ArrayList<>(criteria.filter(candidates));
+            }
+            metrics.record(Operation.SEARCH, start, scanned[0], result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.SEARCH, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> searchScheduleSlots(SearchCriteria criteria, int offset, int limit) {
+        long start = metrics.start();
+        try {
+            List<ScheduleSlot> candidates = candidateSlots(criteria);
+            // the candidates the page was evaluated over, the evaluation stops as soon as the page is full
+            int[] scanned = {0};
+            List<ScheduleSlot> result = criteria.filter(() -> new Iterator<>() {
+                private final Iterator<ScheduleSlot> source = candidates.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return source.hasNext();
+                }
+
+                @Override
+                public ScheduleSlot next() {
+                    scanned[0]++;
+                    return source.next();
+                }
+            }, offset, limit);
+            metrics.record(Operation.SEARCH, start, scanned[0], result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.SEARCH, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public Stream<ScheduleSlot> streamScheduleSlots(SearchCriteria criteria) {
+        // the stream is consumed after the call returns, so it can't be backed by the live view
+        return criteria.stream(new ArrayList<>(candidateSlots(criteria)));
+    }
+
+    /**
+     * Nothing is read when the method is called. The values of the slots within the date bounds of the criteria are captured
+     * in a {@link ScheduleSnapshot} on the subscribing thread when a subscriber subscribes, so every subscriber gets copies
+     * of the slots as they were at that moment, even if the slots are moved while its search is running. The subscribers
+     * have to subscribe on the thread that is allowed to read the manager. The slots are matched and emitted on
+     * {@link ScheduleExecutors#defaultExecutor()}.
+     * <p>Every subscription reads the derived structures, without change reports they are first rebuilt from the whole schedule,
+     * see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public Flow.Publisher<ScheduleSlot> publishScheduleSlots(SearchCriteria criteria) {
+        return SearchPublisher.deferred(criteria, () -> captureCandidates(criteria));
+    }
+
+    /**
+     * Captures the values of the slots within the date bounds of the criteria for {@link #publishScheduleSlots(SearchCriteria)}.
+     */
+    ScheduleSnapshot captureCandidates(SearchCriteria criteria) {
+        return ScheduleSnapshot.of(candidateSlots(criteria));
+    }
+
+    /**
+     * Returns the slots that can satisfy the date criteria, the other criteria are not checked.
+     * The date bounds are pushed down to the date partitioned store, so only the buckets within the bounds are visited.
+     *
+     * @param criteria The search criteria.
+     * @return The fail-fast view of the slots within the date bounds of the criteria, it must not be used after the schedule changes.
+     */
+    protected List<ScheduleSlot> candidateSlots(SearchCriteria criteria) {
+        ensureIndexesBuilt();
+        Object lower = criteria.getCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY);
+        Object upper = criteria.getCriteria(CriteriaFilter.UPPER_BOUND_DATE_KEY);
+        if (criteria.hasCriteria(CriteriaFilter.DATE_KEY))
+            lower = upper = criteria.getCriteria(CriteriaFilter.DATE_KEY);
+
+        List<ScheduleSlot> candidates = dateIndex.range(lower, upper);
+        SearchExplanation explanation = criteria.getExplanation();
+        if (explanation != null)
+            explanation.setIndexUsed(lower == null && upper == null
+                    ? null
+                    : "date partitions [" + (lower == null ? "first" : lower) + ", " + (upper == null ? "last" : upper) + "], " + candidates.size() + " candidates");
+        return candidates;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<RoomProperties> findAvailableRooms(RoomAvailabilityQuery query) {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            List<RoomProperties> result = AvailableRoomFinder.findAvailableRooms(query, roomIndex, bookingIndex);
+            metrics.record(Operation.FIND_ROOMS, start, roomIndex.getRooms().size(), result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FIND_ROOMS, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<FreeScheduleSlot> getFreeScheduleSlots(Object startDate, Object endDate) {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            Long fromDay = startDate != null ? toEpochDay(toDateBound(startDate)) : dateIndex.getFirstDay();
+            Long toDay = endDate != null ? toEpochDay(toDateBound(endDate)) : dateIndex.getLastDay();
+            List<FreeScheduleSlot> result = new ArrayList<>();
+            // the room-days whose free intervals were examined
+            int[] scanned = {0};
+            if (fromDay != null && toDay != null) {
+                List<RoomProperties> rooms = new ArrayList<>(roomIndex.getRooms());
+                rooms.sort(Comparator.comparing(RoomProperties::getName));
+                result = freeSlotMemo.findFreeSlots(rooms, fromDay, toDay, acceptableDays, scanned);
+            }
+            metrics.record(Operation.FREE_SLOTS, start, scanned[0], result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FREE_SLOTS, start);
+            throw e;
+        }
+    }
+
+    private static Date toDateBound(Object date) {
+        if (date instanceof Date)
+            return (Date) date;
+        if (date instanceof String)
+            return parseDate((String) date);
+        throw new ScheduleException("Date bound can be set only as String or java.util Date instance!");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<FreeScheduleSlot> findEarliestFreeSlots(EarliestFitQuery query) {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            // the room-days whose free intervals were examined
+            int[] scanned = {0};
+            List<FreeScheduleSlot> result = EarliestFitFinder.findEarliestFreeSlots(query, acceptableDays, roomIndex, bookingIndex, scanned);
+            metrics.record(Operation.FREE_SLOTS, start, scanned[0], result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.FREE_SLOTS, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public SolverResult solveTimetable(TimetableSolver solver, List<LectureRequest> lectures) {
+        ensureIndexesBuilt();
+        return solver.solve(lectures, roomIndex, getWholeSchedule(), attributeIndex.getConflictKeys());
+    }
+
+    @Override
+    public void setConflictKeys(String... conflictKeys) {
+        attributeIndex.setConflictKeys(Arrays.asList(conflictKeys));
+        invalidateIndexes();
+    }
+
+    @Override
+    public List<String> getConflictKeys() {
+        return new ArrayList<>(attributeIndex.getConflictKeys());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> findAttributeConflicts(ScheduleSlot scheduleSlot) {
+        ensureIndexesBuilt();
+        return attributeIndex.findConflicts(scheduleSlot);
+    }
+
+    @Override
+    public List<SlotConflict> validateSchedule() {
+        long start = metrics.start();
+        try {
+            List<ScheduleSlot> schedule = getWholeSchedule();
+            List<SlotConflict> result = new ConflictAuditor().audit(schedule, attributeIndex.getConflictKeys());
+            metrics.record(Operation.VALIDATE, start, schedule.size(), result.size());
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.VALIDATE, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int exportConflictAuditCSV(String filePath) {
+        return exportConflictAudit(filePath, ConflictReportWriter.Format.CSV);
+    }
+
+    @Override
+    public int exportConflictAuditJSON(String filePath) {
+        return exportConflictAudit(filePath, ConflictReportWriter.Format.JSON);
+    }
+
+    private int exportConflictAudit(String filePath, ConflictReportWriter.Format format) {
+        long start = metrics.start();
+        try (ConflictReportWriter report = new ConflictReportWriter(initializeFile(filePath), format)) {
+            List<ScheduleSlot> schedule = getWholeSchedule();
+            int written = new ConflictAuditor().audit(schedule, attributeIndex.getConflictKeys(), report);
+            metrics.record(Operation.EXPORT, start, schedule.size(), written);
+            return written;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.EXPORT, start);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public ScheduleExportTask exportScheduleCSVAsync(String filePath, Object lowerDateBound, Object upperDateBound, String... includedAttributes) {
+        return exportAsync(filePath, ScheduleExportWriter.Format.CSV, getSchedule(lowerDateBound, upperDateBound), null, includedAttributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public ScheduleExportTask exportFilteredScheduleCSVAsync(String filePath, SearchCriteria searchCriteria, String... includedAttributes) {
+        return exportAsync(filePath, ScheduleExportWriter.Format.CSV, candidateSlots(searchCriteria), searchCriteria::matches, includedAttributes);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public ScheduleExportTask exportScheduleJSONAsync(String filePath, Object lowerDateBound, Object upperDateBound) {
+        return exportAsync(filePath, ScheduleExportWriter.Format.JSON, getSchedule(lowerDateBound, upperDateBound), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public ScheduleExportTask exportFilteredScheduleJSONAsync(String filePath, SearchCriteria searchCriteria) {
+        return exportAsync(filePath, ScheduleExportWriter.Format.JSON, candidateSlots(searchCriteria), searchCriteria::matches);
+    }
+
+    private ScheduleExportTask exportAsync(String filePath, ScheduleExportWriter.Format format, List<ScheduleSlot> slots,
+                                           Predicate<ScheduleSlot> filter, String... includedAttributes) {
+        long start = metrics.start();
+        // the slots are moved in place, so their values are captured here and the export thread writes copies of them
+        List<ScheduleSlot> snapshot = ScheduleSnapshot.of(slots);
+        ScheduleExportTask task = ScheduleExportTask.start(exportExecutor, new File(filePath), format,
+                snapshot.iterator(), snapshot.size(), filter, includedAttributes);
+        ScheduleMetrics recorder = metrics;
+        task.whenComplete((written, failure) -> {
+            if (failure == null)
+                recorder.record(Operation.EXPORT, start, task.getScanned(), written);
+            else
+                recorder.recordFailure(Operation.EXPORT, start);
+        });
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public RoomCatalogueDiff applyRoomCatalogue(Collection<RoomProperties> catalogue, Map<String, String> renames, boolean removeMissing) throws ScheduleException {
+        long start = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            RoomCatalogueDiff diff = RoomCatalogueDiff.compute(getAllRooms(), catalogue, renames, removeMissing);
+
+            // the slots of the replaced rooms, looked up in the per-room booking index
+            Map<String, List<ScheduleSlot>> affectedSlots = new HashMap<>();
+            for (RoomCatalogueDiff.Change change : diff.getChanged())
+                affectedSlots.put(change.getPrevious().getName(), bookingIndex.getSlots(change.getPrevious().getName()));
+            for (RoomProperties room : diff.getRemoved())
+                rejectIfBooked(room.getName());
+
+            applyRoomCatalogueDiff(diff, affectedSlots);
+            metrics.record(Operation.IMPORT, start, catalogue.size(), diff.getAdded().size() + diff.getChanged().size() + diff.getRemoved().size());
+            return diff;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.IMPORT, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public RoomCatalogueDiff importRoomCatalogueCSV(String csvPath, Map<String, String> renames, boolean removeMissing) throws ScheduleIOException {
+        return applyRoomCatalogue(ScheduleImporter.importRoomsCSV(csvPath).values(), renames, removeMissing);
+    }
+
+    /**
+     * Applies the validated diff through {@link ScheduleManager#deleteRoom(String)}, {@link ScheduleManager#updateRoom(String, RoomProperties)}
+     * and {@link ScheduleManager#addRoom(RoomProperties)}, with the room notifications collected into one batch.
+     * If a change fails, the applied changes are reverted in the reverse order and the derived structures are rebuilt.
+     */
+    private void applyRoomCatalogueDiff(RoomCatalogueDiff diff, Map<String, List<ScheduleSlot>> affectedSlots) {
+        Deque<Runnable> undo = new ArrayDeque<>();
+        batchRemovedRooms = new ArrayList<>();
+        batchAddedRooms = new ArrayList<>();
+        try {
+            for (RoomProperties room : diff.getRemoved()) {
+                deleteRoom(room.getName());
+                undo.push(() -> addRoom(room));
+            }
+            for (RoomCatalogueDiff.Change change : diff.getChanged()) {
+                RoomProperties previous = change.getPrevious();
+                RoomProperties updated = change.getUpdated();
+                List<ScheduleSlot> slots = affectedSlots.get(previous.getName());
+                updateRoom(previous.getName(), updated);
+                undo.push(() -> updateRoom(updated.getName(), previous));
+                relocateSlots(slots, updated);
+                undo.push(() -> relocateSlots(slots, previous));
+            }
+            for (RoomProperties room : diff.getAdded()) {
+                addRoom(room);
+                undo.push(() -> deleteRoom(room.getName()));
+            }
+        } catch (RuntimeException e) {
+            while (!undo.isEmpty())
+                try {
+                    undo.pop().run();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            batchRemovedRooms = batchAddedRooms = null;
+            invalidateIndexes();
+            throw e;
+        }
+
+        List<RoomProperties> removed = batchRemovedRooms;
+        List<RoomProperties> added = batchAddedRooms;
+        batchRemovedRooms = batchAddedRooms = null;
+        if (tracking)
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onRoomsChanged(removed, added);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> getRoomSlots(String name) {
+        ensureIndexesBuilt();
+        return bookingIndex.getSlots(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> deleteRoom(String name, RoomCascadePolicy policy, RoomProperties replacement) throws ScheduleException {
+        ensureIndexesBuilt();
+        if (!hasRoom(name))
+            throw new ScheduleException("Room " + name + " can't be deleted, it doesn't exist!");
+
+        List<ScheduleSlot> slots = bookingIndex.getSlots(name);
+        switch (policy) {
+            case REJECT_IF_BOOKED -> rejectIfBooked(name);
+            case CASCADE_DELETE -> slots = deleteSlots(slots);
+            case REASSIGN -> {
+                if (replacement == null || replacement.getName().equals(name) || !hasRoom(replacement.getName()))
+                    throw new ScheduleException("Slots of the room " + name + " can't be reassigned, the replacement room " + replacement + " doesn't exist!");
+                for (ScheduleSlot slot : slots) {
+                    long start = slot.getAbsoluteStartMinute();
+                    List<ScheduleSlot> collisions = bookingIndex.overlapping(replacement.getName(), start, start + slot.getDuration());
+                    if (!collisions.isEmpty())
+                        throw new ScheduleException("Slot " + slot + " can't be reassigned to the room " + replacement.getName() + ", it collides with: " + collisions);
+                }
+                relocateSlots(slots, replacement);
+            }
+        }
+        deleteRoom(name);
+        return slots;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> updateRoom(String name, RoomProperties newProp, RoomCascadePolicy policy) throws ScheduleException {
+        ensureIndexesBuilt();
+        if (!hasRoom(name))
+            throw new ScheduleException("Room " + name + " can't be updated, it doesn't exist!");
+        if (!newProp.getName().equals(name) && hasRoom(newProp.getName()))
+            throw new ScheduleException("Room " + name + " can't be renamed to " + newProp.getName() + ", the room with that name already exists!");
+
+        List<ScheduleSlot> slots = bookingIndex.getSlots(name);
+        switch (policy) {
+            case REJECT_IF_BOOKED -> rejectIfBooked(name);
+            case CASCADE_DELETE -> slots = deleteSlots(slots);
+        }
+        updateRoom(name, newProp);
+        if (policy == RoomCascadePolicy.REASSIGN)
+            relocateSlots(slots, newProp);
+        return slots;
+    }
+
+    private void rejectIfBooked(String name) throws ScheduleException {
+        int booked = bookingIndex.count(name);
+        if (booked > 0)
+            throw new ScheduleException("Room " + name + " has " + booked + " booked slots!");
+    }
+
+    /**
+     * Deletes the slots, deleting a slot can delete the other slots of its series as well, including the ones in other rooms.
+     *
+     * @return Every slot that was deleted, in the order of deletion.
+     */
+    private List<ScheduleSlot> deleteSlots(List<ScheduleSlot> slots) {
+        Set<ScheduleSlot> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ScheduleSlot> result = new ArrayList<>();
+        for (ScheduleSlot slot : slots)
+            if (!deleted.contains(slot))
+                for (ScheduleSlot removed : deleteScheduleSlot(slot))
+                    if (deleted.add(removed))
+                        result.add(removed);
+        return result;
+    }
+
+    /**
+     * Moves the slots and their series to the room, every slot is moved through {@link #relocateSlot}
+     * so both the implementation and the derived structures learn about it.
+     */
+    private void relocateSlots(List<ScheduleSlot> slots, RoomProperties room) {
+        Set<RepetitiveScheduleMapper> series = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ScheduleSlot slot : slots) {
+            int startMinute = toMinuteOfDay(slot.getStartTime());
+            relocateSlot(slot, slot.getDate(), startMinute, startMinute + slot.getDuration(), room);
+            if (slot.getSharedState() != null)
+                series.add(slot.getSharedState());
+        }
+        for (RepetitiveScheduleMapper mapper : series)
+            mapper.setLocation(room);
+    }
+
+    /**
+     * Moves the slot in place through {@link #moveScheduleSlot(ScheduleSlot, Object, String, String, RoomProperties, SeriesScope)}.
+     * Implementations that keep the slots in structures ordered by time or location should override
+     * {@link #relocateSlot(ScheduleSlot, Date, int, int, RoomProperties)} instead, the transactions move the slots through it as well.
+     */
+    @Override
+    public void moveScheduleSlot(ScheduleSlot scheduleSlot, Object newDate, String newStartTime, String newEndTime, RoomProperties newLocation) {
+        moveScheduleSlot(scheduleSlot, newDate, newStartTime, newEndTime, newLocation, SeriesScope.THIS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> moveScheduleSlot(ScheduleSlot scheduleSlot, Object newDate, String newStartTime, String newEndTime,
+                                               RoomProperties newLocation, SeriesScope scope) throws ScheduleException {
+        long started = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            long dayShift = newDate == null ? 0 : toEpochDay(toDateBound(newDate)) - toEpochDay(scheduleSlot.getDate());
+            int startMinute = toMinuteOfDay(newStartTime == null ? scheduleSlot.getStartTime() : newStartTime);
+            int endMinute = newEndTime == null ? startMinute + scheduleSlot.getDuration() : toMinuteOfDay(newEndTime);
+            RoomProperties location = newLocation == null ? scheduleSlot.getLocation() : newLocation;
+
+            if (startMinute >= endMinute || endMinute > LAST_MINUTE_OF_DAY)
+                throw new ScheduleException("Slot " + scheduleSlot + " can't be moved, the new time interval is not within one day!");
+            if (location != null && !hasRoom(location.getName()))
+                throw new ScheduleException("Slot " + scheduleSlot + " can't be moved, the room " + location.getName() + " doesn't exist!");
+
+            List<ScheduleSlot> moved = seriesOccurrences(scheduleSlot, scope);
+            Set<ScheduleSlot> movedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            movedSet.addAll(moved);
+
+            // every target is validated first, so a rejected move leaves the schedule untouched
+            List<Date> dates = new ArrayList<>(moved.size());
+            for (ScheduleSlot slot : moved) {
+                long day = toEpochDay(slot.getDate()) + dayShift;
+                long start = day * MINUTES_IN_DAY + startMinute;
+                long end = day * MINUTES_IN_DAY + endMinute;
+
+                List<ScheduleSlot> collisions = new ArrayList<>();
+                Set<ScheduleSlot> reported = Collections.newSetFromMap(new IdentityHashMap<>());
+                if (location != null)
+                    for (ScheduleSlot other : bookingIndex.overlapping(location.getName(), start, end))
+                        if (!movedSet.contains(other) && reported.add(other))
+                            collisions.add(other);
+                for (ScheduleSlot other : attributeIndex.findConflicts(slot, start, end))
+                    if (!movedSet.contains(other) && reported.add(other))
+                        collisions.add(other);
+                if (!collisions.isEmpty())
+                    throw new ScheduleException("Slot " + slot + " can't be moved, it collides with: " + collisions);
+                dates.add(fromEpochDay(day));
+            }
+
+            RepetitiveScheduleMapper series = scope == SeriesScope.THIS ? null : scheduleSlot.getSharedState();
+            if (series != null && moved.size() < series.getLinkedSlotInstances().size())
+                series = series.splitAt(scheduleSlot.getDate());
+            else if (scope == SeriesScope.THIS)
+                scheduleSlot.stopListeningToStatePropagation();
+
+            for (int i = 0; i < moved.size(); i++)
+                relocateSlot(moved.get(i), dates.get(i), startMinute, endMinute, location);
+            if (series != null)
+                series.reschedule((int) dayShift, formatMinuteOfDay(startMinute), formatMinuteOfDay(endMinute), endMinute - startMinute, location);
+
+            metrics.record(Operation.MOVE_SLOT, started, moved.size(), moved.size());
+            return moved;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.MOVE_SLOT, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the slot in place, the derived structures are notified about the slot leaving its old position and taking the new one.
+     * Every move of a booked slot goes through this method, the moves of {@link #moveScheduleSlot} as well as the moves
+     * of a transaction and their rollback. Implementations that store the slots by their date, time or location
+     * should override it, call the super method and then update their storage.
+     *
+     * @param slot        The booked slot to be moved.
+     * @param date        The new date of the slot.
+     * @param startMinute The new start time in minutes since midnight.
+     * @param endMinute   The new end time in minutes since midnight.
+     * @param location    The new location of the slot.
+     */
+    protected void relocateSlot(ScheduleSlot slot, Date date, int startMinute, int endMinute, RoomProperties location) {
+        notifySlotRemoved(slot);
+        slot.moveTo(date, startMinute, endMinute, location);
+        notifySlotBooked(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<SlotConflict> validateTransaction(ScheduleTransaction transaction) {
+        long started = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            List<SlotConflict> conflicts = TransactionValidator.validate(transaction, bookingIndex, attributeIndex);
+            metrics.record(Operation.VALIDATE, started, transaction.size(), conflicts.size());
+            return conflicts;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.VALIDATE, started);
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Reads the derived structures, without change reports they are first rebuilt from the whole schedule, see {@link ScheduleManagerAdapter}.</p>
+     */
+    @Override
+    public List<ScheduleSlot> applyTransaction(ScheduleTransaction transaction) throws ScheduleException {
+        long started = metrics.start();
+        try {
+            ensureIndexesBuilt();
+            for (ScheduleTransaction.Move move : transaction.getMoves())
+                if (move.getLocation() != null && !hasRoom(move.getLocation().getName()))
+                    throw new ScheduleException("Slot " + move.getSlot() + " can't be moved, the room " + move.getLocation().getName() + " doesn't exist!");
+
+            // the final state is validated once, the steps below are not validated against the intermediate states
+            List<SlotConflict> conflicts = TransactionValidator.validate(transaction, bookingIndex, attributeIndex);
+            if (!conflicts.isEmpty())
+                throw new ScheduleException("Transaction can't be applied, it would cause the conflicts: " + conflicts);
+
+            List<ScheduleSlot> deleted = applyTransactionSteps(transaction);
+            metrics.record(Operation.TRANSACTION, started, transaction.size(), transaction.size());
+            return deleted;
+        } catch (RuntimeException e) {
+            metrics.recordFailure(Operation.TRANSACTION, started);
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the deletions, the moves and the bookings of the transaction in that order. A moved slot is detached from its series,
+     * like a move with {@link SeriesScope#THIS}. If any step fails, the applied steps are undone in the reverse order,
+     * the deleted and moved slots are linked back to their series, and the derived structures are rebuilt.
+     */
+    private List<ScheduleSlot> applyTransactionSteps(ScheduleTransaction transaction) {
+        Deque<Runnable> undo = new ArrayDeque<>();
+        Set<ScheduleSlot> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ScheduleSlot> result = new ArrayList<>();
+        try {
+            for (ScheduleSlot slot : transaction.getDeletions()) {
+                // deleting a slot can delete other slots of its series as well, the implementation may unlink them from the series
+                RepetitiveScheduleMapper series = slot.getSharedState();
+                List<ScheduleSlot> removed = deleteScheduleSlot(slot);
+                deleted.addAll(removed);
+                result.addAll(removed);
+                undo.push(() -> {
+                    for (ScheduleSlot occurrence : removed) {
+                        relinkSlot(occurrence, series);
+                        bookScheduleSlot(occurrence);
+                    }
+                });
+            }
+
+            for (ScheduleTransaction.Move move : transaction.getMoves()) {
+                ScheduleSlot slot = move.getSlot();
+                if (deleted.contains(slot))
+                    throw new ScheduleException("Slot " + slot + " can't be moved, it has been deleted together with its series!");
+                Date date = slot.getDate();
+                int startMinute = toMinuteOfDay(slot.getStartTime());
+                int endMinute = startMinute + slot.getDuration();
+                RoomProperties location = slot.getLocation();
+                RepetitiveScheduleMapper series = slot.getSharedState();
+                relocateSlot(slot, move.getDate(), move.getStartMinute(), move.getEndMinute(), move.getLocation());
+                slot.stopListeningToStatePropagation();
+                undo.push(() -> {
+                    relocateSlot(slot, date, startMinute, endMinute, location);
+                    relinkSlot(slot, series);
+                });
+            }
+
+            for (ScheduleSlot slot : transaction.getBookings()) {
+                if (!bookScheduleSlot(slot))
+                    throw new ScheduleException("Slot " + slot + " couldn't be booked!");
+                undo.push(() -> deleteScheduleSlot(slot));
+            }
+        } catch (RuntimeException e) {
+            while (!undo.isEmpty())
+                try {
+                    undo.pop().run();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            invalidateIndexes();
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Links the slot back to the series it belonged to, unless it is still linked to it.
+     */
+    private static void relinkSlot(ScheduleSlot slot, RepetitiveScheduleMapper series) {
+        if (series == null)
+            return;
+        for (ScheduleSlot linked : series.getLinkedSlotInstances())
+            if (linked == slot && slot.getSharedState() == series)
+                return;
+        slot.stopListeningToStatePropagation();
+        slot.listenToStatePropagation(series);
+    }
+
+    /**
+     * Collects the slot and the occurrences of its series selected by the scope.
+     */
+    private static List<ScheduleSlot> seriesOccurrences(ScheduleSlot scheduleSlot, SeriesScope scope) {
+        RepetitiveScheduleMapper series = scheduleSlot.getSharedState();
+        if (series == null || scope == SeriesScope.THIS)
+            return new ArrayList<>(List.of(scheduleSlot));
+
+        List<ScheduleSlot> occurrences = series.getLinkedSlotInstances();
+        if (scope == SeriesScope.THIS_AND_FOLLOWING) {
+            long from = toEpochDay(scheduleSlot.getDate());
+            occurrences.removeIf(occurrence -> toEpochDay(occurrence.getDate()) < from);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Validates the slot before it is booked. Implementations should call this method from
+     * {@link ScheduleManager#bookScheduleSlot(ScheduleSlot)} so that both the room and the conflict key attributes are checked.
+     * <p>Without change reports the derived structures are rebuilt from the whole schedule for every validated slot,
+     * so booking n slots one by one costs O(n²), see {@link ScheduleManagerAdapter}.</p>
+     *
+     * @param scheduleSlot The slot that is about to be booked.
+     * @throws ScheduleException If the slot collides with a slot in the same room or with a slot sharing a conflict key value.
+     */
+    protected void validateBooking(ScheduleSlot scheduleSlot) throws ScheduleException {
+        long started = metrics.start();
+        ensureIndexesBuilt();
+        long start = scheduleSlot.getAbsoluteStartMinute();
+
+        List<ScheduleSlot> collisions = new ArrayList<>();
+        Set<ScheduleSlot> reported = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (scheduleSlot.getLocation() != null)
+            for (ScheduleSlot other : bookingIndex.overlapping(scheduleSlot.getLocation().getName(), start, start + scheduleSlot.getDuration()))
+                if (other != scheduleSlot && reported.add(other))
+                    collisions.add(other);
+        for (ScheduleSlot other : attributeIndex.findConflicts(scheduleSlot))
+            if (reported.add(other))
+                collisions.add(other);
+
+        // the returned row is the confirmation that the slot is available
+        metrics.record(Operation.CHECK_AVAILABILITY, started, collisions.size(), collisions.isEmpty() ? 1 : 0);
+        if (!collisions.isEmpty())
+            throw new ScheduleException("Slot " + scheduleSlot + " can't be booked, it collides with: " + collisions);
+    }
+
+    /* Index maintenance support methods */
+
+    /**
+     * Registers a structure that is derived from the schedule state. If the indexes are already built,
+     * the listener is brought up to date with the current rooms and slots.
+     *
+     * @param listener The listener to be notified about the schedule changes.
+     */
+    public void addScheduleChangeListener(ScheduleChangeListener listener) {
+        changeListeners.add(listener);
+        if (indexesBuilt) {
+            for (RoomProperties room : getAllRooms())
+                listener.onRoomAdded(room);
+            for (ScheduleSlot slot : getWholeSchedule())
+                listener.onSlotBooked(slot);
+        }
+    }
+
+    public void removeScheduleChangeListener(ScheduleChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Builds the indexes from {@link ScheduleManager#getAllRooms()} and {@link ScheduleManager#getWholeSchedule()}.
+     * If the implementation reports its changes, the indexes are built the first time they are needed and the notification
+     * methods keep them in sync after that. Otherwise they are rebuilt on every call, so they can't fall behind the implementation.
+     */
+    protected void ensureIndexesBuilt() {
+        if (indexesBuilt)
+            return;
+        // concurrent readers, like the ones of ScheduleService, wait for the one building the structures
+        synchronized (changeListeners) {
+            if (indexesBuilt)
+                return;
+            if (tracking)
+                for (ScheduleChangeListener listener : changeListeners)
+                    listener.onCleared();
+            tracking = true;
+
+            // the listeners are notified directly, so a rebuild within a batch of room changes isn't buffered
+            List<RoomProperties> rooms = getAllRooms();
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onRoomsChanged(Collections.emptyList(), rooms);
+            for (ScheduleSlot slot : getWholeSchedule())
+                for (ScheduleChangeListener listener : changeListeners)
+                    listener.onSlotBooked(slot);
+            indexesBuilt = reportsChanges;
+        }
+    }
+
+    /**
+     * Drops the state of all derived structures, so they are rebuilt from the schedule the next time they are needed.
+     * Implementations should call this method after a change that was not reported through the notification methods.
+     */
+    protected void invalidateIndexes() {
+        for (ScheduleChangeListener listener : changeListeners)
+            listener.onCleared();
+        indexesBuilt = false;
+        tracking = false;
+    }
+
+    /**
+     * Has to be called by implementations that report their changes after the slot has been added to the schedule.
+     *
+     * @param slot The slot that has been booked.
+     */
+    protected void notifySlotBooked(ScheduleSlot slot) {
+        if (tracking)
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onSlotBooked(slot);
+    }
+
+    /**
+     * Has to be called by implementations that report their changes when the slot is removed from the schedule,
+     * or before its time or location fields are changed.
+     *
+     * @param slot The slot that has been removed.
+     */
+    protected void notifySlotRemoved(ScheduleSlot slot) {
+        if (tracking)
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onSlotRemoved(slot);
+    }
+
+    /**
+     * Has to be called by implementations that report their changes after the room has been added to the schedule.
+     *
+     * @param room The room that has been added.
+     */
+    protected void notifyRoomAdded(RoomProperties room) {
+        if (batchAddedRooms != null)
+            batchAddedRooms.add(room);
+        else if (tracking)
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onRoomAdded(room);
+    }
+
+    /**
+     * Has to be called by implementations that report their changes when the room is removed from the schedule,
+     * or before its properties are changed.
+     *
+     * @param room The room that has been removed.
+     */
+    protected void notifyRoomRemoved(RoomProperties room) {
+        if (batchRemovedRooms != null)
+            batchRemovedRooms.add(room);
+        else if (tracking)
+            for (ScheduleChangeListener listener : changeListeners)
+                listener.onRoomRemoved(room);
+    }
 
 }
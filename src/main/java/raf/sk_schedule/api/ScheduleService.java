@@ -0,0 +1,445 @@
+package raf.sk_schedule.api;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.SeriesScope;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.catalogue.RoomCascadePolicy;
+import raf.sk_schedule.util.catalogue.RoomCatalogueDiff;
+import raf.sk_schedule.util.concurrent.Bulkhead;
+import raf.sk_schedule.util.concurrent.ScheduleExecutors;
+import raf.sk_schedule.util.conflict.SlotConflict;
+import raf.sk_schedule.util.exporter.ScheduleExportTask;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.filter.SearchPublisher;
+import raf.sk_schedule.util.importer.ScheduleImporter;
+import raf.sk_schedule.util.metrics.Operation;
+import raf.sk_schedule.util.room_finder.RoomAvailabilityQuery;
+import raf.sk_schedule.util.transaction.ScheduleTransaction;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * The `ScheduleService` class is a thread-safe facade over a {@link ScheduleManager} for serving the component to concurrent
+ * requests, for example from an HTTP endpoint.
+ * <p>
+ * Every call is run on the executor of the service, by default {@link ScheduleExecutors#defaultExecutor()} which uses virtual
+ * threads where the JVM provides them, and completes the returned future. The calls reading the schedule share a read lock
+ * and the calls changing it take the write lock, so the manager itself doesn't have to be thread-safe. A {@link ScheduleManagerAdapter}
+ * that doesn't report its changes rebuilds its indexes while reading, so all the calls to it take the write lock. Heavy operations,
+ * imports, exports and audits, additionally pass through a {@link Bulkhead} of their kind, which limits how many of them run
+ * at once so they can't starve the rest of the requests. Imports parse the file before they take the write lock. Exports of a
+ * {@link ScheduleManagerAdapter} hold the read lock only while the values of the slots are copied into a snapshot and write the file
+ * from the snapshot, so the file I/O doesn't block the other requests and a slot moved meanwhile is written as it was when the export
+ * started. The exports of other managers are only as isolated as their {@code export...Async} methods make them.
+ * Cheap lookups by the room name are answered on the calling thread.
+ * </p>
+ */
+public class ScheduleService {
+
+    public static final int DEFAULT_IMPORT_PERMITS = 1;
+    public static final int DEFAULT_EXPORT_PERMITS = 2;
+    public static final int DEFAULT_VALIDATE_PERMITS = 1;
+    public static final long DEFAULT_BULKHEAD_TIMEOUT_MILLIS = 5000;
+
+    private final ScheduleManager manager;
+    private final Executor executor;
+    private final Map<Operation, Bulkhead> bulkheads;
+    private final ReadWriteLock lock;
+
+    /**
+     * True if reading the manager changes its state, so the reads can't share the read lock.
+     */
+    private final boolean exclusiveReads;
+
+
+    private ScheduleService(ScheduleManager manager, Executor executor, Map<Operation, Bulkhead> bulkheads) {
+        this.manager = manager;
+        this.executor = executor;
+        this.bulkheads = bulkheads;
+        this.lock = new ReentrantReadWriteLock();
+        this.exclusiveReads = manager instanceof ScheduleManagerAdapter && !((ScheduleManagerAdapter) manager).isReportingChanges();
+    }
+
+    /**
+     * Runs the call on the executor under the read lock.
+     *
+     * @param call The call reading the schedule. It must not keep the views returned by the manager after it returns.
+     * @param <T>  The type of the result.
+     * @return The future completed with the result of the call.
+     */
+    public <T> CompletableFuture<T> read(Function<? super ScheduleManager, ? extends T> call) {
+        return submit(null, false, call);
+    }
+
+    /**
+     * Runs the call on the executor under the write lock.
+     *
+     * @param call The call changing the schedule.
+     * @param <T>  The type of the result.
+     * @return The future completed with the result of the call.
+     */
+    public <T> CompletableFuture<T> write(Function<? super ScheduleManager, ? extends T> call) {
+        return submit(null, true, call);
+    }
+
+    /**
+     * Runs the call on the executor.
+     *
+     * @param operation The operation whose bulkhead the call has to pass, or null if it is not limited.
+     * @param exclusive True if the call changes the schedule and needs the write lock, false for the read lock.
+     * @param call      The call to the manager.
+     * @param <T>       The type of the result.
+     * @return The future completed with the result of the call, or exceptionally if the bulkhead rejects the call or the call fails.
+     */
+    public <T> CompletableFuture<T> submit(Operation operation, boolean exclusive, Function<? super ScheduleManager, ? extends T> call) {
+        Bulkhead bulkhead = operation == null ? null : bulkheads.get(operation);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(result, () -> {
+            if (bulkhead != null)
+                bulkhead.acquire();
+            try {
+                result.complete(locked(exclusive, call));
+            } finally {
+                if (bulkhead != null)
+                    bulkhead.release();
+            }
+        });
+        return result;
+    }
+
+    private void execute(CompletableFuture<?> result, Runnable task) {
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) // cancelled while waiting in the executor queue
+                    return;
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <T> T locked(boolean exclusive, Function<? super ScheduleManager, ? extends T> call) {
+        Lock held = exclusive || exclusiveReads ? lock.writeLock() : lock.readLock();
+        held.lock();
+        try {
+            return call.apply(manager);
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /* Cheap lookups, answered on the calling thread */
+
+    public boolean hasRoom(String roomName) {
+        return locked(false, manager -> manager.hasRoom(roomName));
+    }
+
+    public RoomProperties getRoomByName(String roomName) {
+        return locked(false, manager -> manager.getRoomByName(roomName));
+    }
+
+    public List<RoomProperties> getAllRooms() {
+        return locked(false, manager -> new ArrayList<>(manager.getAllRooms()));
+    }
+
+    /* Reads */
+
+    public CompletableFuture<List<ScheduleSlot>> getSchedule(Object lowerDateBound, Object upperDateBound) {
+        return read(manager -> new ArrayList<>(manager.getSchedule(lowerDateBound, upperDateBound)));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> searchScheduleSlots(SearchCriteria criteria) {
+        return read(manager -> new ArrayList<>(manager.searchScheduleSlots(criteria)));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> searchScheduleSlots(SearchCriteria criteria, int offset, int limit) {
+        return read(manager -> new ArrayList<>(manager.searchScheduleSlots(criteria, offset, limit)));
+    }
+
+    /**
+     * Returns the publisher of the matching slots, which evaluates the criteria as the subscriber requests them.
+     * For a {@link ScheduleManagerAdapter} the values of the slots within the date bounds of the criteria are captured
+     * under the read lock on the subscribing thread when a subscriber subscribes, so every subscriber gets copies that
+     * are not changed by later writes and nothing is captured before there is a subscriber. The publishers of other
+     * managers are created under the read lock on the calling thread.
+     *
+     * @param criteria The search criteria.
+     * @return The publisher of the matching slots.
+     */
+    public Flow.Publisher<ScheduleSlot> publishScheduleSlots(SearchCriteria criteria) {
+        if (manager instanceof ScheduleManagerAdapter)
+            return SearchPublisher.deferred(criteria,
+                    () -> locked(false, manager -> ((ScheduleManagerAdapter) manager).captureCandidates(criteria)));
+        return locked(false, manager -> manager.publishScheduleSlots(criteria));
+    }
+
+    public CompletableFuture<List<RoomProperties>> findAvailableRooms(RoomAvailabilityQuery query) {
+        return read(manager -> new ArrayList<>(manager.findAvailableRooms(query)));
+    }
+
+    public CompletableFuture<List<FreeScheduleSlot>> getFreeScheduleSlots(Object startDate, Object endDate) {
+        return read(manager -> new ArrayList<>(manager.getFreeScheduleSlots(startDate, endDate)));
+    }
+
+    /* Writes */
+
+    public CompletableFuture<Boolean> bookScheduleSlot(ScheduleSlot scheduleSlot) {
+        return write(manager -> manager.bookScheduleSlot(scheduleSlot));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> deleteScheduleSlot(ScheduleSlot scheduleSlot) {
+        return write(manager -> manager.deleteScheduleSlot(scheduleSlot));
+    }
+
+    public CompletableFuture<Void> moveScheduleSlot(ScheduleSlot scheduleSlot, Object newDate, String newStartTime, String newEndTime, RoomProperties newLocation) {
+        return write(manager -> {
+            manager.moveScheduleSlot(scheduleSlot, newDate, newStartTime, newEndTime, newLocation);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> moveScheduleSlot(ScheduleSlot scheduleSlot, Object newDate, String newStartTime, String newEndTime,
+                                                                  RoomProperties newLocation, SeriesScope scope) {
+        return write(manager -> manager.moveScheduleSlot(scheduleSlot, newDate, newStartTime, newEndTime, newLocation, scope));
+    }
+
+    public CompletableFuture<List<SlotConflict>> validateTransaction(ScheduleTransaction transaction) {
+        return read(manager -> manager.validateTransaction(transaction));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> applyTransaction(ScheduleTransaction transaction) {
+        return write(manager -> manager.applyTransaction(transaction));
+    }
+
+    public CompletableFuture<Void> addRoom(RoomProperties room) {
+        return write(manager -> {
+            manager.addRoom(room);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteRoom(String roomName) {
+        return write(manager -> manager.deleteRoom(roomName));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> deleteRoom(String roomName, RoomCascadePolicy policy, RoomProperties replacement) {
+        return write(manager -> manager.deleteRoom(roomName, policy, replacement));
+    }
+
+    public CompletableFuture<List<ScheduleSlot>> updateRoom(String roomName, RoomProperties newProp, RoomCascadePolicy policy) {
+        return write(manager -> manager.updateRoom(roomName, newProp, policy));
+    }
+
+    /* Heavy operations, limited by the bulkheads */
+
+    /**
+     * Imports the rooms from a CSV file. The file is parsed before the write lock is taken; the rooms that already exist are updated.
+     *
+     * @param csvPath The path to the CSV file containing room data.
+     * @return The future completed with the number of imported rooms.
+     */
+    public CompletableFuture<Integer> importRoomsCSV(String csvPath) {
+        return importRoomCatalogueCSV(csvPath, null, false).thenApply(diff -> diff.getAdded().size() + diff.getChanged().size() + diff.getUnchanged());
+    }
+
+    /**
+     * Imports the room catalogue from a CSV file and applies it with {@link ScheduleManager#applyRoomCatalogue(Collection, Map, boolean)}.
+     * The file is parsed before the write lock is taken.
+     *
+     * @param csvPath       The path to the CSV file containing room data.
+     * @param renames       The map of the current room names to their new names in the catalogue, or null if no room is renamed.
+     * @param removeMissing If true, the rooms that are not in the catalogue are removed, otherwise they are kept.
+     * @return The future completed with the applied difference.
+     */
+    public CompletableFuture<RoomCatalogueDiff> importRoomCatalogueCSV(String csvPath, Map<String, String> renames, boolean removeMissing) {
+        CompletableFuture<RoomCatalogueDiff> result = new CompletableFuture<>();
+        execute(result, () -> withBulkhead(Operation.IMPORT, () -> {
+            Collection<RoomProperties> catalogue = ScheduleImporter.importRoomsCSV(csvPath).values();
+            result.complete(locked(true, manager -> manager.applyRoomCatalogue(catalogue, renames, removeMissing)));
+        }));
+        return result;
+    }
+
+    /**
+     * Imports the slots from a CSV file. The file is parsed before the write lock is taken and the slots are booked one by one,
+     * the import stops at the first slot that can't be booked.
+     *
+     * @param csvPath The path to the CSV file containing schedule data.
+     * @return The future completed with the number of booked slots.
+     */
+    public CompletableFuture<Integer> importScheduleCSV(String csvPath) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        execute(result, () -> withBulkhead(Operation.IMPORT, () -> {
+            Map<String, RoomProperties> rooms = new HashMap<>();
+            for (RoomProperties room : getAllRooms())
+                rooms.put(room.getName(), room);
+
+            List<ScheduleSlot> slots = ScheduleImporter.importScheduleCSV(csvPath, rooms);
+            result.complete(locked(true, manager -> {
+                int booked = 0;
+                for (ScheduleSlot slot : slots)
+                    if (manager.bookScheduleSlot(slot))
+                        booked++;
+                return booked;
+            }));
+        }));
+        return result;
+    }
+
+    public CompletableFuture<Integer> exportScheduleCSV(String filePath, Object lowerDateBound, Object upperDateBound, String... includedAttributes) {
+        return export(manager -> manager.exportScheduleCSVAsync(filePath, lowerDateBound, upperDateBound, includedAttributes));
+    }
+
+    public CompletableFuture<Integer> exportFilteredScheduleCSV(String filePath, SearchCriteria searchCriteria, String... includedAttributes) {
+        return export(manager -> manager.exportFilteredScheduleCSVAsync(filePath, searchCriteria, includedAttributes));
+    }
+
+    public CompletableFuture<Integer> exportScheduleJSON(String filePath, Object lowerDateBound, Object upperDateBound) {
+        return export(manager -> manager.exportScheduleJSONAsync(filePath, lowerDateBound, upperDateBound));
+    }
+
+    public CompletableFuture<Integer> exportFilteredScheduleJSON(String filePath, SearchCriteria searchCriteria) {
+        return export(manager -> manager.exportFilteredScheduleJSONAsync(filePath, searchCriteria));
+    }
+
+    /**
+     * Starts the export of the manager under the read lock and holds the export permit until the export completes.
+     * Cancelling the returned future cancels the export.
+     */
+    private CompletableFuture<Integer> export(Function<? super ScheduleManager, ScheduleExportTask> start) {
+        Bulkhead bulkhead = bulkheads.get(Operation.EXPORT);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        execute(result, () -> {
+            bulkhead.acquire();
+            ScheduleExportTask task;
+            try {
+                task = locked(false, start);
+            } catch (RuntimeException e) {
+                bulkhead.release();
+                throw e;
+            }
+            task.whenComplete((written, failure) -> {
+                bulkhead.release();
+                if (failure == null)
+                    result.complete(written);
+                else
+                    result.completeExceptionally(failure);
+            });
+            result.whenComplete((written, failure) -> {
+                if (result.isCancelled())
+                    task.cancel(true);
+            });
+        });
+        return result;
+    }
+
+    public CompletableFuture<List<SlotConflict>> validateSchedule() {
+        return submit(Operation.VALIDATE, false, ScheduleManager::validateSchedule);
+    }
+
+    public CompletableFuture<Integer> exportConflictAuditCSV(String filePath) {
+        return submit(Operation.VALIDATE, false, manager -> manager.exportConflictAuditCSV(filePath));
+    }
+
+    public CompletableFuture<Integer> exportConflictAuditJSON(String filePath) {
+        return submit(Operation.VALIDATE, false, manager -> manager.exportConflictAuditJSON(filePath));
+    }
+
+    private void withBulkhead(Operation operation, Runnable task) {
+        Bulkhead bulkhead = bulkheads.get(operation);
+        bulkhead.acquire();
+        try {
+            task.run();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * @param operation The limited operation.
+     * @return The bulkhead of the operation, or null if the operation is not limited.
+     */
+    public Bulkhead getBulkhead(Operation operation) {
+        return bulkheads.get(operation);
+    }
+
+    public ScheduleManager getManager() {
+        return manager;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+
+    public static class Builder {
+        private final ScheduleManager manager;
+        private Executor executor;
+        private final Map<Operation, Integer> permits;
+        private long bulkheadTimeoutMillis;
+
+        /**
+         * @param manager The manager the service calls. It must not be used directly while the service is in use.
+         */
+        public Builder(ScheduleManager manager) {
+            this.manager = manager;
+            this.executor = ScheduleExecutors.defaultExecutor();
+            this.permits = new EnumMap<>(Operation.class);
+            this.permits.put(Operation.IMPORT, DEFAULT_IMPORT_PERMITS);
+            this.permits.put(Operation.EXPORT, DEFAULT_EXPORT_PERMITS);
+            this.permits.put(Operation.VALIDATE, DEFAULT_VALIDATE_PERMITS);
+            this.bulkheadTimeoutMillis = DEFAULT_BULKHEAD_TIMEOUT_MILLIS;
+        }
+
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets how many calls of the operation can run at once. The import, export and validate operations are limited by default.
+         *
+         * @param operation The operation to be limited.
+         * @param permits   The maximum number of concurrent calls.
+         */
+        public Builder setBulkhead(Operation operation, int permits) {
+            this.permits.put(operation, permits);
+            return this;
+        }
+
+        /**
+         * Sets how long a call waits for a free permit of its bulkhead before it is rejected.
+         */
+        public Builder setBulkheadTimeoutMillis(long bulkheadTimeoutMillis) {
+            this.bulkheadTimeoutMillis = bulkheadTimeoutMillis;
+            return this;
+        }
+
+        public ScheduleService build() {
+            if (manager == null)
+                throw new ScheduleException("ScheduleService needs a ScheduleManager!");
+            if (executor == null)
+                throw new ScheduleException("ScheduleService needs an executor!");
+
+            Map<Operation, Bulkhead> bulkheads = new EnumMap<>(Operation.class);
+            for (Map.Entry<Operation, Integer> entry : permits.entrySet())
+                bulkheads.put(entry.getKey(), new Bulkhead(entry.getKey().name().toLowerCase(), entry.getValue(), bulkheadTimeoutMillis));
+            return new ScheduleService(manager, executor, bulkheads);
+        }
+    }
+}
@@ -40,6 +40,15 @@ public class RoomProperties {
         return false;
     }
 
+    /**
+     * Consistent with {@link RoomProperties#equals(Object)}, rooms are equal by name.
+     * The name of a room that is used as a key of a hash based collection must not be changed.
+     */
+    @Override
+    public int hashCode() {
+        return name == null ? 0 : name.hashCode();
+    }
+
     public String getName() {
         return name;
     }
@@ -8,6 +8,7 @@ import raf.sk_schedule.model.schedule_node.ScheduleSlot;
 import java.util.*;
 
 import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.toEpochDay;
 
 /**
  * The `RepetitiveScheduleMapper` class is responsible for creating a set of linked `ScheduleSlot` instances
@@ -95,8 +96,8 @@ public class RepetitiveScheduleMapper {
         // Time difference between each linked slot is the number of days (recurrencePeriod) multiplied by the milliseconds in one day
         long deltaTimeMills = recurrencePeriod > 0 ? (long) recurrencePeriod * oneDayMills : DEFAULT_RECURRENCE_PERIOD;
 
-        // Finding all the slot occurrences starting from the first occurrence since we already had found that
-        for (long time = slotOccurrences.get(0).getTime(); time < this.recurrenceIntervalEnd.getTime(); time += deltaTimeMills) {
+        // Finding all the slot occurrences following the first occurrence since we already had found that
+        for (long time = slotOccurrences.get(0).getTime() + deltaTimeMills; time < this.recurrenceIntervalEnd.getTime(); time += deltaTimeMills) {
             slotOccurrences.add(new Date(time));
         }
 
@@ -129,7 +130,8 @@ public class RepetitiveScheduleMapper {
         // Set the value of the linkedSlotInstances field as the list of mapped slots
         linkedSlotInstances = mappedSchedule;
 
-        return linkedSlotInstances;
+        // a copy, so detaching an occurrence from the series later doesn't change the returned list
+        return new ArrayList<>(linkedSlotInstances);
     }
 
     /* Observer pattern support methods */
@@ -162,7 +164,65 @@ public class RepetitiveScheduleMapper {
      * @param linkedSlot The `ScheduleSlot` instance to be removed from the set of linked slots.
      */
     public void removeLinkedSlot(ScheduleSlot linkedSlot) {
-        linkedSlotInstances.remove(linkedSlot);
+        // the occurrences are compared by identity, an equal slot of another series may be linked as well
+        linkedSlotInstances.removeIf(slot -> slot == linkedSlot);
+    }
+
+    /**
+     * Splits this series at the provided date. The linked slots on that date and later are detached into a new series
+     * with the same shared state, whose recurrence interval starts at that date, while the recurrence interval of this series
+     * ends there.
+     *
+     * @param date The date from which the occurrences belong to the new series.
+     * @return The new series holding the detached slots.
+     */
+    public RepetitiveScheduleMapper splitAt(Date date) {
+        RepetitiveScheduleMapper following = new RepetitiveScheduleMapper(location, date, recurrenceIntervalEnd,
+                recurrencePeriod, startTime, endTime, duration, weekDay);
+        following.attributes = attributes == null ? null : new HashMap<>(attributes);
+
+        long splitDay = toEpochDay(date);
+        for (Iterator<ScheduleSlot> it = linkedSlotInstances.iterator(); it.hasNext(); ) {
+            ScheduleSlot linkedSlot = it.next();
+            if (toEpochDay(linkedSlot.getDate()) >= splitDay) {
+                it.remove();
+                linkedSlot.listenToStatePropagation(following);
+            }
+        }
+        recurrenceIntervalEnd = date;
+        return following;
+    }
+
+    /**
+     * Shifts the recurrence settings of this series by the number of days and replaces its shared time and location.
+     * The linked slots are not synchronized, it is expected that they have already been moved by the caller.
+     *
+     * @param dayShift  The number of days the occurrences are moved by.
+     * @param startTime The new start time of the occurrences.
+     * @param endTime   The new end time of the occurrences.
+     * @param duration  The new duration of the occurrences.
+     * @param location  The new location of the occurrences.
+     */
+    public void reschedule(int dayShift, String startTime, String endTime, int duration, RoomProperties location) {
+        if (dayShift != 0) {
+            recurrenceIntervalStart = shiftDays(recurrenceIntervalStart, dayShift);
+            recurrenceIntervalEnd = shiftDays(recurrenceIntervalEnd, dayShift);
+            if (weekDay != null)
+                weekDay = WeekDay.values()[Math.floorMod(weekDay.ordinal() + dayShift, WeekDay.values().length)];
+        }
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.duration = duration;
+        this.location = location;
+    }
+
+    private static Date shiftDays(Date date, int days) {
+        if (date == null)
+            return null;
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.add(Calendar.DAY_OF_MONTH, days);
+        return calendar.getTime();
     }
 
 
@@ -0,0 +1,25 @@
+package raf.sk_schedule.model.schedule_mapper;
+
+/**
+ * Which occurrences of a recurring series are affected when one of its slots is changed.
+ * For slots that are not linked to a {@link RepetitiveScheduleMapper} all the scopes affect only the slot itself.
+ */
+public enum SeriesScope {
+
+    /**
+     * Only the slot itself is changed, the other occurrences of the series remain as they are.
+     * The slot is detached from its series, so the later changes of the series don't apply to it.
+     */
+    THIS,
+
+    /**
+     * The slot and the occurrences of the series on its date and later are changed. They are split into a new series,
+     * while the recurrence interval of the original series ends before the slot.
+     */
+    THIS_AND_FOLLOWING,
+
+    /**
+     * All the occurrences of the series are changed.
+     */
+    ALL
+}
@@ -0,0 +1,105 @@
+package raf.sk_schedule.model.schedule_node;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.util.index.RoomRegistry;
+import raf.sk_schedule.util.store.AttributeTable;
+
+import java.util.Date;
+import java.util.HashMap;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * Immutable value form of a {@link ScheduleSlot} holding only primitives: the epoch day of the date, the start minute of the day,
+ * the duration in minutes, the id of the room in a {@link RoomRegistry} and the handle of the attributes in an {@link AttributeTable}.
+ * The record takes 32 bytes on the heap, and since it can't be changed it can be shared between engines, caches and snapshots
+ * without defensive copies.
+ *
+ * @param epochDay         The number of days since 1970-01-01.
+ * @param startMinute      The start of the slot in minutes since the midnight.
+ * @param duration         The duration of the slot in minutes.
+ * @param roomId           The id of the room, or {@link RoomRegistry#NO_ROOM} if the slot has no location.
+ * @param attributesHandle The handle of the attributes, {@link AttributeTable#EMPTY} if the slot has none.
+ */
+public record CompactScheduleSlot(int epochDay, short startMinute, short duration, int roomId, int attributesHandle) {
+
+    public CompactScheduleSlot {
+        if (startMinute < 0 || duration < 0 || startMinute + duration > LAST_MINUTE_OF_DAY)
+            throw new ScheduleException("Compact slot must start and end within one day!");
+    }
+
+    /**
+     * Converts the slot to the compact form, the room of the slot is registered if the registry doesn't know it yet.
+     *
+     * @param slot       The slot to be converted.
+     * @param rooms      The registry of the room ids.
+     * @param attributes The intern table of the attributes.
+     * @return The compact form of the slot.
+     * @throws ScheduleException If the slot overflows to the next day.
+     */
+    public static CompactScheduleSlot of(ScheduleSlot slot, RoomRegistry rooms, AttributeTable attributes) {
+        int roomId = RoomRegistry.NO_ROOM;
+        if (slot.getLocation() != null) {
+            roomId = rooms.idOf(slot.getLocation().getName());
+            if (roomId == RoomRegistry.NO_ROOM)
+                roomId = rooms.register(slot.getLocation());
+        }
+        return new CompactScheduleSlot(
+                (int) toEpochDay(slot.getDate()),
+                (short) toMinuteOfDay(slot.getStartTime()),
+                (short) slot.getDuration(),
+                roomId,
+                attributes.intern(slot.getAttributes()));
+    }
+
+    /**
+     * Converts the compact form back to a new mutable {@link ScheduleSlot}.
+     *
+     * @param rooms      The registry the room id was issued by.
+     * @param attributes The intern table the attributes handle was issued by.
+     * @return The new slot with a copy of the attributes.
+     */
+    public ScheduleSlot toScheduleSlot(RoomRegistry rooms, AttributeTable attributes) {
+        return new ScheduleSlot.Builder()
+                .setDate(getDate())
+                .setStartTime(formatMinuteOfDay(startMinute))
+                .setEndTime(formatMinuteOfDay(startMinute + duration))
+                .setLocation(getLocation(rooms))
+                .setAttributes(new HashMap<>(attributes.get(attributesHandle)))
+                .build();
+    }
+
+    public Date getDate() {
+        return fromEpochDay(epochDay);
+    }
+
+    public RoomProperties getLocation(RoomRegistry rooms) {
+        return roomId == RoomRegistry.NO_ROOM ? null : rooms.resolve(roomId);
+    }
+
+    /**
+     * @return The absolute start time of the slot in minutes since the epoch day 0, the same as {@link ScheduleSlot#getAbsoluteStartMinute()}.
+     */
+    public long getAbsoluteStartMinute() {
+        return (long) epochDay * MINUTES_IN_DAY + startMinute;
+    }
+
+    public long getAbsoluteEndMinute() {
+        return getAbsoluteStartMinute() + duration;
+    }
+
+    /**
+     * Checks whether the slots are located in the same room and overlap in time.
+     *
+     * @param other The other slot.
+     * @return True if there's a collision, false otherwise.
+     */
+    public boolean isCollidingWith(CompactScheduleSlot other) {
+        return roomId != RoomRegistry.NO_ROOM
+                && roomId == other.roomId
+                && epochDay == other.epochDay
+                && startMinute < other.startMinute + other.duration
+                && other.startMinute < startMinute + duration;
+    }
+}
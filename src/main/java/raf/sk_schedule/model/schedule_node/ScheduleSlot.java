@@ -23,7 +23,7 @@ import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
  * in addition, experience a time collision within that shared space. The concept of space refers to the location or venue
  * associated with the schedule slot that is also a {@link RoomProperties} instance.
  */
-public class ScheduleSlot {
+public class ScheduleSlot implements ScheduleSlotView {
 
     /**
      * Date of the time slot is contained.
@@ -157,7 +157,7 @@ public class ScheduleSlot {
      * @return The absolute start time of this time slot in milliseconds.
      */
     public long getAbsoluteStartTimeMillis() {
-        return parseDateTime(formatDateTime(this.date) + " " + startTime).getTime();
+        return parseDateTime(formatDate(this.date) + " " + startTime).getTime();
     }
 
     /**
@@ -174,6 +174,26 @@ public class ScheduleSlot {
     }
 
 
+    /**
+     * Retrieves the absolute start time of this time slot in minutes since the epoch day 0.
+     * Unlike {@link ScheduleSlot#getAbsoluteStartTimeMillis()} the value is calculated without formatting and parsing
+     * the date-time string, so it is the preferred key for indexes and sorts.
+     *
+     * @return The absolute start time of this time slot in minutes.
+     */
+    public long getAbsoluteStartMinute() {
+        return toEpochDay(date) * MINUTES_IN_DAY + toMinuteOfDay(startTime);
+    }
+
+    /**
+     * Retrieves the absolute end time of this time slot in minutes since the epoch day 0.
+     *
+     * @return The absolute end time of this time slot in minutes.
+     */
+    public long getAbsoluteEndMinute() {
+        return getAbsoluteStartMinute() + duration;
+    }
+
     /**
      * Checks if this time slot is colliding with another time slot.
      *
@@ -181,10 +201,14 @@ public class ScheduleSlot {
      * @return True if there's a collision, false otherwise.
      */
     public boolean isCollidingWith(ScheduleSlot otherSlot) {
-        long start_1 = getAbsoluteStartTimeMillis();
-        long end_1 = getAbsoluteEndTimeMillis();
-        long start_2 = otherSlot.getAbsoluteStartTimeMillis();
-        long end_2 = otherSlot.getAbsoluteEndTimeMillis();
+        // the same room is the same reference in most cases, so the names are compared only for distinct references
+        if (location != otherSlot.location && (location == null || !location.equals(otherSlot.location)))
+            return false;
+
+        long start_1 = getAbsoluteStartMinute();
+        long end_1 = start_1 + duration;
+        long start_2 = otherSlot.getAbsoluteStartMinute();
+        long end_2 = start_2 + otherSlot.duration;
 
         //  collision cases for [1] {2}
         //  1.start >= 2.start >= 2.end >= 1.end // [ {\\\\} ]
@@ -193,9 +217,9 @@ public class ScheduleSlot {
         //  2.start >= 1.start >= 2.end >= 1.end // { [\\\\} ]
 
 
-        // Check if the slots share the same location and if the time collision has occurred
+        // Check if the time collision has occurred
 
-        return location.equals(otherSlot.location) && (start_1 <= start_2 && start_2 < end_1) || (start_2 <= start_1 && start_1 < end_2);
+        return (start_1 <= start_2 && start_2 < end_1) || (start_2 <= start_1 && start_1 < end_2);
     }
 
     /**
@@ -212,6 +236,20 @@ public class ScheduleSlot {
         return this;
     }
 
+    /**
+     * Unsubscribes this {@link ScheduleSlot} instance from its shared RepetitiveScheduleMapper, so the slot no longer belongs
+     * to the series and the changes of the series are not propagated to it.
+     *
+     * @return This ScheduleSlot instance for method chaining.
+     */
+    public ScheduleSlot stopListeningToStatePropagation() {
+        if (sharedState != null) {
+            sharedState.removeLinkedSlot(this);
+            sharedState = null;
+        }
+        return this;
+    }
+
     public RepetitiveScheduleMapper getSharedState() {
         return sharedState;
     }
@@ -236,10 +274,7 @@ public class ScheduleSlot {
         if (this.location == sharedState.getLocation())
             this.location = sharedState.getLocation();
 
-        for (String attribute : attributes.keySet()) {
-            if (!sharedState.hasAttribute(attribute))
-                attributes.remove(attribute);
-        }
+        attributes.keySet().removeIf(attribute -> !sharedState.hasAttribute(attribute));
 
         //looping through the shared states attributes map to find out if this slot has "dirty" attributes and if so updating it
         for (String sharedAttr : sharedState.getAttributes().keySet()) {
@@ -285,6 +320,27 @@ public class ScheduleSlot {
         endTime = formatTime(new Date(intervalStart + (long) duration * 1000 * 60 /*|mills in minute|*/));
     }
 
+    /**
+     * Moves this slot to the new day, time and location in one step. Unlike the setters of the time fields,
+     * the duration is computed from the minutes directly and no date or time string is parsed.
+     *
+     * @param date        The new date of the slot.
+     * @param startMinute The new start time in minutes since midnight.
+     * @param endMinute   The new end time in minutes since midnight.
+     * @param location    The new location of the slot.
+     * @throws ScheduleException If the interval is empty or overflows to another day.
+     */
+    public void moveTo(Date date, int startMinute, int endMinute, RoomProperties location) {
+        if (startMinute < 0 || endMinute > LAST_MINUTE_OF_DAY || startMinute >= endMinute)
+            throw new ScheduleException("Invalid time slot parameters: " + formatMinuteOfDay(startMinute) + "-" + formatMinuteOfDay(endMinute)
+                    + " is not an interval within one day.");
+        this.date = date;
+        this.startTime = formatMinuteOfDay(startMinute);
+        this.endTime = formatMinuteOfDay(endMinute);
+        this.duration = endMinute - startMinute;
+        this.location = location;
+    }
+
     public void setLocation(RoomProperties location) {
         this.location = location;
     }
@@ -410,7 +466,7 @@ public class ScheduleSlot {
          * @return The absolute start time of this time slot in milliseconds.
          */
         public long getAbsoluteStartTimeMillis() {
-            return parseDateTime(formatDateTime(this.date) + " " + startTime).getTime();
+            return parseDateTime(formatDate(this.date) + " " + startTime).getTime();
         }
 
         /**
@@ -0,0 +1,42 @@
+package raf.sk_schedule.model.schedule_node;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * The read side of a schedule slot. It is implemented by {@link ScheduleSlot} and by the flyweight cursors of the stores
+ * that keep the slots outside of the Java objects, so read-only code like exports can work with both.
+ */
+public interface ScheduleSlotView {
+
+    Date getDate();
+
+    String getStartTime();
+
+    String getEndTime();
+
+    int getDuration();
+
+    RoomProperties getLocation();
+
+    Object getAttribute(String attributeName);
+
+    boolean hasAttribute(String attributeName);
+
+    Map<String, Object> getAttributes();
+
+    WeekDay getDayOfWeek();
+
+    /**
+     * @return The absolute start time of the slot in minutes since the epoch day 0.
+     */
+    long getAbsoluteStartMinute();
+
+    /**
+     * @return The absolute end time of the slot in minutes since the epoch day 0.
+     */
+    long getAbsoluteEndMinute();
+}
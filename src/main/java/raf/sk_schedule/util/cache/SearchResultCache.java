@@ -0,0 +1,190 @@
+package raf.sk_schedule.util.cache;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.index.ScheduleChangeListener;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.toEpochDay;
+
+/**
+ * Bounded cache of search results keyed by the canonical form of the {@link SearchCriteria}, see {@link SearchCriteria#canonicalKey()}.
+ * When the cache is full the least recently used result is evicted.
+ * <p>
+ * Every cached result remembers the date range and the room its criteria are limited to. When a slot is booked or removed,
+ * only the results whose date range contains the date of the slot and whose room is the room of the slot are invalidated,
+ * so a booking in one room and week leaves the results of the other rooms and weeks in the cache.
+ * </p>
+ */
+public class SearchResultCache implements ScheduleChangeListener {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final class Entry {
+        private final List<ScheduleSlot> result;
+        private final Long fromDay;
+        private final Long toDay;
+        private final String room;
+
+        private Entry(List<ScheduleSlot> result, Long fromDay, Long toDay, String room) {
+            this.result = result;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.room = room;
+        }
+
+        private boolean isAffectedBy(long day, String slotRoom) {
+            return (fromDay == null || day >= fromDay)
+                    && (toDay == null || day <= toDay)
+                    && (room == null || room.equals(slotRoom));
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Map<Integer, Object>, Entry> entries;
+
+    /**
+     * Incremented by every change, so a result computed while the schedule was changing is not stored.
+     */
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+
+    public SearchResultCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity The maximum number of cached results.
+     */
+    public SearchResultCache(int capacity) {
+        this.capacity = capacity;
+        // access ordered, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Map<Integer, Object>, Entry> eldest) {
+                if (size() <= SearchResultCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result of the criteria, or computes the result and caches it.
+     *
+     * @param criteria The search criteria.
+     * @param search   The search that computes the result on a miss.
+     * @return The read-only list of the slots matching the criteria.
+     */
+    public List<ScheduleSlot> get(SearchCriteria criteria, Supplier<List<ScheduleSlot>> search) {
+        Map<Integer, Object> key = criteria.canonicalKey();
+        long searchedVersion;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return entry.result;
+            }
+            misses++;
+            searchedVersion = version;
+        }
+
+        List<ScheduleSlot> result = Collections.unmodifiableList(new ArrayList<>(search.get()));
+
+        synchronized (this) {
+            if (capacity > 0 && searchedVersion == version)
+                entries.put(key, new Entry(result, day(key, CriteriaFilter.LOWER_BOUND_DATE_KEY), day(key, CriteriaFilter.UPPER_BOUND_DATE_KEY), room(key)));
+        }
+        return result;
+    }
+
+    private static Long day(Map<Integer, Object> key, int boundKey) {
+        // the exact date narrows the range more than the bounds
+        Object date = key.containsKey(CriteriaFilter.DATE_KEY) ? key.get(CriteriaFilter.DATE_KEY) : key.get(boundKey);
+        return date instanceof Long ? toEpochDay(new Date((Long) date)) : null;
+    }
+
+    private static String room(Map<Integer, Object> key) {
+        Object location = key.get(CriteriaFilter.LOCATION_KEY);
+        return location instanceof String ? (String) location : null;
+    }
+
+    private synchronized void invalidate(long day, String room) {
+        version++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isAffectedBy(day, room)) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+        invalidate(toEpochDay(slot.getDate()), slot.getLocation() == null ? null : slot.getLocation().getName());
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+        invalidate(toEpochDay(slot.getDate()), slot.getLocation() == null ? null : slot.getLocation().getName());
+    }
+
+    @Override
+    public void onCleared() {
+        clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of results evicted because the cache was full.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return The number of results dropped because the schedule has changed.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return The share of lookups answered from the cache, or 0 if there were no lookups.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,23 @@
+package raf.sk_schedule.util.catalogue;
+
+/**
+ * What happens to the slots and the series booked in a room when the room is deleted or updated.
+ */
+public enum RoomCascadePolicy {
+
+    /**
+     * The slots booked in the room are deleted together with the room, along with the other slots of their series.
+     */
+    CASCADE_DELETE,
+
+    /**
+     * The operation is rejected if any slot is booked in the room.
+     */
+    REJECT_IF_BOOKED,
+
+    /**
+     * The slots and the series of the room are moved to another room: to the replacement room when the room is deleted,
+     * or to the new properties of the room when it is updated.
+     */
+    REASSIGN
+}
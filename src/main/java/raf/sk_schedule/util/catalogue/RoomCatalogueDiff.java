@@ -0,0 +1,179 @@
+package raf.sk_schedule.util.catalogue;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import java.util.*;
+
+/**
+ * The `RoomCatalogueDiff` class is the difference between the rooms of the schedule and a new room catalogue,
+ * for example the rooms imported from a CSV file. The rooms are matched by name, a room of the catalogue can take over
+ * an existing room under a new name through the renames map, and the slots of the renamed room are then moved to it.
+ * <p>
+ * The diff is computed and validated as a whole before anything is changed, so it can be previewed and applied atomically.
+ * </p>
+ */
+public class RoomCatalogueDiff {
+
+    /**
+     * Replacement of an existing room by a room of the catalogue, with the same or with a new name.
+     */
+    public static final class Change {
+        private final RoomProperties previous;
+        private final RoomProperties updated;
+
+        private Change(RoomProperties previous, RoomProperties updated) {
+            this.previous = previous;
+            this.updated = updated;
+        }
+
+        public RoomProperties getPrevious() {
+            return previous;
+        }
+
+        public RoomProperties getUpdated() {
+            return updated;
+        }
+
+        public boolean isRenamed() {
+            return !previous.getName().equals(updated.getName());
+        }
+
+        @Override
+        public String toString() {
+            return previous.getName() + (isRenamed() ? " -> " + updated.getName() : "");
+        }
+    }
+
+    private final List<RoomProperties> added;
+    private final List<Change> changed;
+    private final List<RoomProperties> removed;
+    private final int unchanged;
+
+
+    private RoomCatalogueDiff(List<RoomProperties> added, List<Change> changed, List<RoomProperties> removed, int unchanged) {
+        this.added = Collections.unmodifiableList(added);
+        this.changed = Collections.unmodifiableList(changed);
+        this.removed = Collections.unmodifiableList(removed);
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * Computes the difference between the current rooms and the catalogue.
+     *
+     * @param current       The rooms of the schedule.
+     * @param catalogue     The new room catalogue.
+     * @param renames       The map of the current room names to their names in the catalogue, or null if no room is renamed.
+     * @param removeMissing If true, the current rooms that are not in the catalogue are removed, otherwise they are kept.
+     * @return The difference.
+     * @throws ScheduleException If the catalogue contains a room name twice, a renamed room doesn't exist or is not in the catalogue,
+     *                           or a room is renamed to the name of a room that is not removed.
+     */
+    public static RoomCatalogueDiff compute(Collection<RoomProperties> current, Collection<RoomProperties> catalogue,
+                                            Map<String, String> renames, boolean removeMissing) throws ScheduleException {
+        Map<String, RoomProperties> existing = new LinkedHashMap<>();
+        for (RoomProperties room : current)
+            existing.put(room.getName(), room);
+
+        Map<String, RoomProperties> incoming = new LinkedHashMap<>();
+        for (RoomProperties room : catalogue)
+            if (incoming.put(room.getName(), room) != null)
+                throw new ScheduleException("Room catalogue contains the room " + room.getName() + " more than once!");
+
+        // the names in the catalogue mapped back to the current names
+        Map<String, String> previousNames = new HashMap<>();
+        if (renames != null)
+            for (Map.Entry<String, String> rename : renames.entrySet()) {
+                if (!existing.containsKey(rename.getKey()))
+                    throw new ScheduleException("Room " + rename.getKey() + " can't be renamed, it doesn't exist!");
+                if (!incoming.containsKey(rename.getValue()))
+                    throw new ScheduleException("Room " + rename.getKey() + " can't be renamed to " + rename.getValue() + ", the new name is not in the catalogue!");
+                if (previousNames.put(rename.getValue(), rename.getKey()) != null)
+                    throw new ScheduleException("More than one room is renamed to " + rename.getValue() + "!");
+            }
+
+        List<RoomProperties> added = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        Set<String> matched = new HashSet<>();
+        int unchanged = 0;
+        for (RoomProperties room : incoming.values()) {
+            String previousName = previousNames.getOrDefault(room.getName(), room.getName());
+            RoomProperties previous = existing.get(previousName);
+
+            if (previous == null || (renames != null && !previousNames.containsKey(room.getName()) && renames.containsKey(room.getName()))) {
+                // the name is new, or it is freed by a renamed room and taken by another room
+                added.add(room);
+                continue;
+            }
+            matched.add(previousName);
+            if (!previousName.equals(room.getName()) || !hasSameProperties(previous, room))
+                changed.add(new Change(previous, room));
+            else
+                unchanged++;
+        }
+
+        List<RoomProperties> removed = new ArrayList<>();
+        for (RoomProperties room : existing.values())
+            if (!matched.contains(room.getName()) && removeMissing)
+                removed.add(room);
+
+        // a renamed room can take only a free name or the name of a removed room, chains of renames are not supported
+        for (Change change : changed)
+            if (change.isRenamed()) {
+                String name = change.getUpdated().getName();
+                RoomProperties holder = existing.get(name);
+                if (holder != null && !removed.contains(holder))
+                    throw new ScheduleException("Room " + change.getPrevious().getName() + " can't be renamed to " + name + ", the room with that name is kept!");
+            }
+
+        return new RoomCatalogueDiff(added, changed, removed, unchanged);
+    }
+
+    /**
+     * @return True if the rooms have the same name, capacity, equipment and attributes.
+     */
+    public static boolean hasSameProperties(RoomProperties first, RoomProperties second) {
+        return Objects.equals(first.getName(), second.getName())
+                && first.getCapacity() == second.getCapacity()
+                && first.hasComputers() == second.hasComputers()
+                && first.hasProjector() == second.hasProjector()
+                && Objects.equals(first.getAttributes(), second.getAttributes());
+    }
+
+    /**
+     * @return The rooms of the catalogue that don't exist yet.
+     */
+    public List<RoomProperties> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return The existing rooms replaced by the rooms of the catalogue, including the renamed ones.
+     */
+    public List<Change> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return The existing rooms that are not in the catalogue, empty if the missing rooms are kept.
+     */
+    public List<RoomProperties> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return The number of rooms of the catalogue equal to the existing rooms.
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "RoomCatalogueDiff{added=" + added + ", changed=" + changed + ", removed=" + removed + ", unchanged=" + unchanged + "}";
+    }
+}
@@ -0,0 +1,84 @@
+package raf.sk_schedule.util.concurrent;
+
+import raf.sk_schedule.exception.ScheduleException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `Bulkhead` class limits the number of concurrent executions of one kind of operation, so a burst of heavy operations
+ * like imports or exports can't take all the threads and the locks of the service. A caller that can't get a permit
+ * within the timeout is rejected with a {@link ScheduleException}.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long timeoutMillis;
+    private final Semaphore semaphore;
+    private final LongAdder rejected;
+
+
+    /**
+     * @param name          The name of the bulkhead used in the rejection messages.
+     * @param permits       The maximum number of concurrent executions.
+     * @param timeoutMillis How long a caller waits for a permit, 0 to reject immediately.
+     * @throws ScheduleException If the number of permits is not positive or the timeout is negative.
+     */
+    public Bulkhead(String name, int permits, long timeoutMillis) {
+        if (permits <= 0)
+            throw new ScheduleException("Bulkhead " + name + " needs at least one permit!");
+        if (timeoutMillis < 0)
+            throw new ScheduleException("Bulkhead " + name + " timeout can't be negative!");
+        this.name = name;
+        this.permits = permits;
+        this.timeoutMillis = timeoutMillis;
+        this.semaphore = new Semaphore(permits, true);
+        this.rejected = new LongAdder();
+    }
+
+    /**
+     * Takes a permit, waiting at most the timeout of the bulkhead. Every successful call has to be paired with {@link #release()}.
+     *
+     * @throws ScheduleException If no permit became available within the timeout or the thread has been interrupted.
+     */
+    public void acquire() throws ScheduleException {
+        try {
+            if (semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS))
+                return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new ScheduleException("Interrupted while waiting for the " + name + " bulkhead!");
+        }
+        rejected.increment();
+        throw new ScheduleException("The " + name + " bulkhead is full, " + permits + " operations are already running!");
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * @return The number of operations that are running at the moment.
+     */
+    public int getActive() {
+        return permits - semaphore.availablePermits();
+    }
+
+    /**
+     * @return The number of callers rejected so far.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,68 @@
+package raf.sk_schedule.util.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The `ScheduleExecutors` class provides the executors for the long-running background work of the component, like exports.
+ * Virtual threads are used when the running JVM supports them (Java 21+); they are looked up by reflection, so the component
+ * still builds for older releases and falls back to a cached pool of daemon platform threads there.
+ */
+public class ScheduleExecutors {
+
+    private static final String THREAD_NAME_PREFIX = "sk-schedule-worker-";
+
+    /**
+     * Holder of the shared default executor, created on first use.
+     */
+    private static final class DefaultExecutorHolder {
+        private static final ExecutorService VIRTUAL = newVirtualThreadExecutor();
+        private static final ExecutorService INSTANCE = VIRTUAL != null ? VIRTUAL : Executors.newCachedThreadPool(daemonThreadFactory());
+    }
+
+    /**
+     * @return The shared executor of the component. Its threads are daemon threads, so it never has to be shut down.
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a new executor that starts a virtual thread per task if they are supported, or a cached pool of daemon threads otherwise.
+     *
+     * @return The new executor, to be shut down by the caller.
+     */
+    public static ExecutorService newExecutor() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : Executors.newCachedThreadPool(daemonThreadFactory());
+    }
+
+    /**
+     * @return True if the running JVM supports virtual threads.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return DefaultExecutorHolder.VIRTUAL != null;
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available, or available only as a preview feature that is not enabled
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
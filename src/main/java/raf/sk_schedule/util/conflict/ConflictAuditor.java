@@ -0,0 +1,159 @@
+package raf.sk_schedule.util.conflict;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.MINUTES_IN_DAY;
+
+/**
+ * The `ConflictAuditor` class finds every conflicting pair of slots in the whole schedule, both room conflicts and
+ * conflict key attribute conflicts. Since a slot can not overflow to another day, two slots can collide only if they fall on
+ * the same day, so the schedule is partitioned by the shared resource (room or attribute value) and the date.
+ * The partitions are independent and are processed by {@link ConflictDetector#sweep} on a fork-join pool.
+ */
+public class ConflictAuditor {
+
+    /**
+     * Number of partitions below which a fork-join task stops splitting and sweeps the partitions itself.
+     */
+    private static final int PARTITIONS_PER_TASK = 64;
+
+    private final ForkJoinPool pool;
+
+
+    public ConflictAuditor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ConflictAuditor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * One group of slots sharing the resource and the date.
+     */
+    private static final class Partition {
+        private final SlotConflict.Type type;
+        private final String key;
+        private final Object value;
+        private final List<ScheduleSlot> slots;
+
+        private Partition(SlotConflict.Type type, String key, Object value) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+            this.slots = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Audits the schedule and streams the found conflicts into the sink. Conflicts of one partition are delivered together,
+     * the order between partitions is not defined. The sink is called by one thread at a time.
+     *
+     * @param schedule     The slots to be audited.
+     * @param conflictKeys The names of the attributes whose values must not overlap in time.
+     * @param sink         The consumer receiving the found conflicts.
+     * @return The number of found conflicts.
+     */
+    public int audit(Collection<ScheduleSlot> schedule, Collection<String> conflictKeys, Consumer<SlotConflict> sink) {
+        List<Partition> partitions = partition(schedule, conflictKeys);
+        return pool.invoke(new SweepTask(partitions, 0, partitions.size(), sink));
+    }
+
+    /**
+     * Audits the schedule and collects the found conflicts.
+     *
+     * @param schedule     The slots to be audited.
+     * @param conflictKeys The names of the attributes whose values must not overlap in time.
+     * @return The list of found conflicts.
+     */
+    public List<SlotConflict> audit(Collection<ScheduleSlot> schedule, Collection<String> conflictKeys) {
+        List<SlotConflict> conflicts = new ArrayList<>();
+        audit(schedule, conflictKeys, conflicts::add);
+        return conflicts;
+    }
+
+    private static List<Partition> partition(Collection<ScheduleSlot> schedule, Collection<String> conflictKeys) {
+        // grouped by the resource first and by the day second, so the day keys of one resource never collide with other resources
+        Map<Object, Map<Long, Partition>> rooms = new HashMap<>();
+        Map<String, Map<Object, Map<Long, Partition>>> attributes = new HashMap<>();
+        for (String key : conflictKeys)
+            attributes.put(key, new HashMap<>());
+
+        for (ScheduleSlot slot : schedule) {
+            long day = Math.floorDiv(slot.getAbsoluteStartMinute(), MINUTES_IN_DAY);
+
+            if (slot.getLocation() != null) {
+                String room = slot.getLocation().getName();
+                rooms.computeIfAbsent(room, r -> new HashMap<>())
+                        .computeIfAbsent(day, d -> new Partition(SlotConflict.Type.ROOM, ConflictDetector.LOCATION_KEY, room))
+                        .slots.add(slot);
+            }
+            for (Map.Entry<String, Map<Object, Map<Long, Partition>>> key : attributes.entrySet()) {
+                Object value = slot.getAttribute(key.getKey());
+                if (value != null)
+                    key.getValue().computeIfAbsent(value, v -> new HashMap<>())
+                            .computeIfAbsent(day, d -> new Partition(SlotConflict.Type.ATTRIBUTE, key.getKey(), value))
+                            .slots.add(slot);
+            }
+        }
+
+        List<Partition> result = new ArrayList<>();
+        collect(rooms, result);
+        for (Map<Object, Map<Long, Partition>> values : attributes.values())
+            collect(values, result);
+        return result;
+    }
+
+    private static void collect(Map<Object, Map<Long, Partition>> resources, List<Partition> result) {
+        for (Map<Long, Partition> days : resources.values())
+            for (Partition partition : days.values())
+                if (partition.slots.size() > 1)
+                    result.add(partition);
+    }
+
+    private static final class SweepTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Partition> partitions;
+        private final int from;
+        private final int to;
+        private final Consumer<SlotConflict> sink;
+
+        private SweepTask(List<Partition> partitions, int from, int to, Consumer<SlotConflict> sink) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from > PARTITIONS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                SweepTask left = new SweepTask(partitions, from, middle, sink);
+                left.fork();
+                int right = new SweepTask(partitions, middle, to, sink).compute();
+                return left.join() + right;
+            }
+
+            int found = 0;
+            List<SlotConflict> buffer = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Partition partition = partitions.get(i);
+                found += ConflictDetector.sweep(partition.slots, partition.type, partition.key, partition.value, buffer::add);
+                if (!buffer.isEmpty()) {
+                    synchronized (sink) {
+                        buffer.forEach(sink);
+                    }
+                    buffer.clear();
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package raf.sk_schedule.util.conflict;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * The `ConflictDetector` class finds overlapping slots without comparing every pair of slots.
+ * Slots are grouped by the shared resource (room or conflict key attribute value), and every group is processed
+ * by a sweep line: the slots are sorted by start time, and every slot is compared only with the slots that are still active
+ * when it starts. The cost is O(n log n + k) where k is the number of conflicts.
+ */
+public class ConflictDetector {
+
+    /**
+     * Name of the key reported by room conflicts.
+     */
+    public static final String LOCATION_KEY = "location";
+
+    /**
+     * Finds all overlapping pairs within a group of slots that share the same resource.
+     *
+     * @param group    The slots sharing the resource.
+     * @param type     The type of the shared resource.
+     * @param key      The name of the resource key.
+     * @param value    The shared value of the resource.
+     * @param conflicts The consumer receiving the found conflicts.
+     * @return The number of found conflicts.
+     */
+    public static int sweep(List<ScheduleSlot> group, SlotConflict.Type type, String key, Object value, Consumer<SlotConflict> conflicts) {
+        int n = group.size();
+        if (n < 2)
+            return 0;
+
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            ScheduleSlot slot = group.get(i);
+            starts[i] = slot.getAbsoluteStartMinute();
+            ends[i] = starts[i] + slot.getDuration();
+        }
+        return sweep(group, starts, ends, type, key, value, conflicts);
+    }
+
+    /**
+     * Finds all overlapping pairs within a group of slots that share the same resource, where the time intervals
+     * of the slots are provided separately. This way the slots can be validated at the positions they are about to be moved to.
+     *
+     * @param group     The slots sharing the resource.
+     * @param starts    The absolute start minutes of the slots, in the order of the group.
+     * @param ends      The absolute end minutes of the slots, in the order of the group.
+     * @param type      The type of the shared resource.
+     * @param key       The name of the resource key.
+     * @param value     The shared value of the resource.
+     * @param conflicts The consumer receiving the found conflicts.
+     * @return The number of found conflicts.
+     */
+    public static int sweep(List<ScheduleSlot> group, long[] starts, long[] ends, SlotConflict.Type type, String key, Object value,
+                            Consumer<SlotConflict> conflicts) {
+        int n = group.size();
+        if (n < 2)
+            return 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> starts[i]));
+
+        // the active slots ordered by end time, so the ones that have ended are polled from the head
+        PriorityQueue<Integer> active = new PriorityQueue<>(Comparator.comparingLong(i -> ends[i]));
+        int found = 0;
+        for (int i : order) {
+            while (!active.isEmpty() && ends[active.peek()] <= starts[i])
+                active.poll();
+            for (int other : active) {
+                conflicts.accept(new SlotConflict(type, key, value, group.get(other), group.get(i)));
+                found++;
+            }
+            active.add(i);
+        }
+        return found;
+    }
+
+    /**
+     * Finds all pairs of slots that share a value of any of the conflict keys and overlap in time.
+     *
+     * @param schedule     The slots to be validated.
+     * @param conflictKeys The names of the attributes whose values must not overlap in time.
+     * @return The list of found conflicts.
+     */
+    public static List<SlotConflict> findAttributeConflicts(Collection<ScheduleSlot> schedule, Collection<String> conflictKeys) {
+        List<SlotConflict> conflicts = new ArrayList<>();
+        for (String key : conflictKeys) {
+            Map<Object, List<ScheduleSlot>> groups = new HashMap<>();
+            for (ScheduleSlot slot : schedule) {
+                Object value = slot.getAttribute(key);
+                if (value != null)
+                    groups.computeIfAbsent(value, v -> new ArrayList<>()).add(slot);
+            }
+            for (Map.Entry<Object, List<ScheduleSlot>> group : groups.entrySet())
+                sweep(group.getValue(), SlotConflict.Type.ATTRIBUTE, key, group.getKey(), conflicts::add);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Finds all pairs of slots that share the room and overlap in time.
+     *
+     * @param schedule The slots to be validated.
+     * @return The list of found conflicts.
+     */
+    public static List<SlotConflict> findRoomConflicts(Collection<ScheduleSlot> schedule) {
+        Map<String, List<ScheduleSlot>> groups = new HashMap<>();
+        for (ScheduleSlot slot : schedule) {
+            if (slot.getLocation() != null)
+                groups.computeIfAbsent(slot.getLocation().getName(), v -> new ArrayList<>()).add(slot);
+        }
+        List<SlotConflict> conflicts = new ArrayList<>();
+        for (Map.Entry<String, List<ScheduleSlot>> group : groups.entrySet())
+            sweep(group.getValue(), SlotConflict.Type.ROOM, LOCATION_KEY, group.getKey(), conflicts::add);
+        return conflicts;
+    }
+}
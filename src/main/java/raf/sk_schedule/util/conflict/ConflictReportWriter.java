@@ -0,0 +1,116 @@
+package raf.sk_schedule.util.conflict;
+
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.io.*;
+import java.util.function.Consumer;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.exporter.ScheduleExporterJSON.serializeObject;
+
+/**
+ * The `ConflictReportWriter` class streams conflict records to a CSV or JSON file while the audit is running,
+ * so the report never has to be held in memory. Every record is written as soon as it is accepted.
+ */
+public class ConflictReportWriter implements Consumer<SlotConflict>, Closeable {
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private static final String CSV_HEADER = "type, key, value, date, first_start, first_end, first_location, second_start, second_end, second_location";
+
+    private final Writer writer;
+    private final Format format;
+    private int written;
+
+
+    /**
+     * Opens the report file, the existing content of the file is overwritten.
+     *
+     * @param file   The file the report is written to.
+     * @param format The format of the report.
+     * @throws ScheduleIOException If the file can't be opened for writing.
+     */
+    public ConflictReportWriter(File file, Format format) throws ScheduleIOException {
+        Writer opened;
+        try {
+            opened = new BufferedWriter(new FileWriter(file, false));
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+        try {
+            opened.write(format == Format.CSV ? CSV_HEADER + "\n" : "[");
+        } catch (IOException e) {
+            // the file is already open, so it has to be released before the failure is reported
+            try {
+                opened.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new ScheduleIOException(e);
+        }
+        this.writer = opened;
+        this.format = format;
+        this.written = 0;
+    }
+
+    @Override
+    public synchronized void accept(SlotConflict conflict) {
+        try {
+            if (format == Format.CSV)
+                writer.write(toCSV(conflict));
+            else
+                writer.write((written == 0 ? "\n" : ",\n") + toJSON(conflict));
+            written++;
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of records written so far.
+     */
+    public synchronized int getWritten() {
+        return written;
+    }
+
+    @Override
+    public synchronized void close() throws ScheduleIOException {
+        try {
+            if (format == Format.JSON)
+                writer.write(written == 0 ? " ]\n" : "\n]\n");
+            writer.close();
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    private static String toCSV(SlotConflict conflict) {
+        ScheduleSlot first = conflict.getFirst();
+        ScheduleSlot second = conflict.getSecond();
+        return conflict.getType() + ", "
+                + conflict.getKey() + ", "
+                + conflict.getValue() + ", "
+                + formatDate(first.getDate()) + ", "
+                + first.getStartTime() + ", " + first.getEndTime() + ", " + locationName(first) + ", "
+                + second.getStartTime() + ", " + second.getEndTime() + ", " + locationName(second) + "\n";
+    }
+
+    private static String locationName(ScheduleSlot slot) {
+        return slot.getLocation() == null ? "not_defined" : slot.getLocation().getName();
+    }
+
+    private static String toJSON(SlotConflict conflict) {
+        return "{ " +
+                "\"type\": " + serializeObject(conflict.getType().name()) + ", " +
+                "\"key\": " + serializeObject(conflict.getKey()) + ", " +
+                "\"value\": " + serializeObject(String.valueOf(conflict.getValue())) + ", " +
+                "\"date\": " + serializeObject(formatDate(conflict.getFirst().getDate())) + ", " +
+                "\"first\": " + serializeObject(conflict.getFirst()) + ", " +
+                "\"second\": " + serializeObject(conflict.getSecond()) +
+                "}";
+    }
+}
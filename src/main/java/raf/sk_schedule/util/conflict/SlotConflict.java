@@ -0,0 +1,66 @@
+package raf.sk_schedule.util.conflict;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import static raf.sk_schedule.util.exporter.ScheduleExporterJSON.serializeObject;
+
+/**
+ * The `SlotConflict` class represents a pair of slots that overlap in time while sharing a resource that can't be shared.
+ * The resource is either the room ({@link Type#ROOM}) or the value of a conflict key attribute ({@link Type#ATTRIBUTE}),
+ * for example the same professor or the same student group.
+ */
+public class SlotConflict {
+
+    public enum Type {
+        ROOM,
+        ATTRIBUTE
+    }
+
+    private final Type type;
+    private final String key;
+    private final Object value;
+    private final ScheduleSlot first;
+    private final ScheduleSlot second;
+
+    public SlotConflict(Type type, String key, Object value, ScheduleSlot first, ScheduleSlot second) {
+        this.type = type;
+        this.key = key;
+        this.value = value;
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public String toString() {
+        return "<conflict: " + type + "> <" + key + ": " + serializeObject(value) + "> <first: " + first + "> <second: " + second + ">";
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The name of the conflict key attribute, or "location" for room conflicts.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The shared value of the conflict key attribute, or the name of the room for room conflicts.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return The slot of the pair that starts first.
+     */
+    public ScheduleSlot getFirst() {
+        return first;
+    }
+
+    public ScheduleSlot getSecond() {
+        return second;
+    }
+}
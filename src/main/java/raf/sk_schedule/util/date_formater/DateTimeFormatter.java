@@ -4,6 +4,9 @@ import raf.sk_schedule.exception.ScheduleException;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 
 import static raf.sk_schedule.api.Constants.*;
@@ -13,9 +16,10 @@ import static raf.sk_schedule.api.Constants.*;
  */
 public class DateTimeFormatter {
 
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
-    private static final SimpleDateFormat dateTimeFormat = new SimpleDateFormat(DATE_TIME_FORMAT);
-    private static final SimpleDateFormat timeFormat = new SimpleDateFormat(TIME_FORMAT);
+    // SimpleDateFormat is not thread safe, so every thread gets its own instances for the parallel filters and sorts
+    private static final ThreadLocal<SimpleDateFormat> dateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat(DATE_FORMAT));
+    private static final ThreadLocal<SimpleDateFormat> dateTimeFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat(DATE_TIME_FORMAT));
+    private static final ThreadLocal<SimpleDateFormat> timeFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat(TIME_FORMAT));
 
     /**
      * Formats a Date object to a string using the specified date format.
@@ -24,7 +28,7 @@ public class DateTimeFormatter {
      * @return A string representing the formatted date.
      */
     public static String formatDate(Date date) {
-        return dateFormat.format(date);
+        return dateFormat.get().format(date);
     }
 
     /**
@@ -36,7 +40,7 @@ public class DateTimeFormatter {
      */
     public static Date parseDate(String date) {
         try {
-            return dateFormat.parse(date);
+            return dateFormat.get().parse(date);
         } catch (ParseException e) {
             throw new ScheduleException(" The value: " + date + " couldn't be parsed. The universal format for date within schedule component is: " + DATE_FORMAT + " !");
         }
@@ -49,7 +53,7 @@ public class DateTimeFormatter {
      * @return A string representing the formatted time.
      */
     public static String formatTime(Date date) {
-        return timeFormat.format(date);
+        return timeFormat.get().format(date);
     }
 
     /**
@@ -68,7 +72,7 @@ public class DateTimeFormatter {
      */
     public static Date parseTime(String time) {
         try {
-            return timeFormat.parse(time);
+            return timeFormat.get().parse(time);
         } catch (ParseException e) {
             throw new ScheduleException(" The value: " + time + " couldn't be parsed. The universal format for time within schedule component is: " + TIME_FORMAT + " !");
         }
@@ -81,7 +85,7 @@ public class DateTimeFormatter {
      * @return A string representing the formatted date and time.
      */
     public static String formatDateTime(Date date) {
-        return dateTimeFormat.format(date);
+        return dateTimeFormat.get().format(date);
     }
 
     /**
@@ -93,10 +97,98 @@ public class DateTimeFormatter {
      */
     public static Date parseDateTime(String dateAndTime) {
         try {
-            return dateTimeFormat.parse(dateAndTime);
+            return dateTimeFormat.get().parse(dateAndTime);
         } catch (ParseException e) {
             throw new ScheduleException(" The value: " + dateAndTime + " couldn't be parsed. The universal format for date & time within schedule component is: " + DATE_TIME_FORMAT + " !");
 
         }
     }
+
+    /**
+     * Number of minutes in one day, used when the absolute time is represented as minutes since the epoch day 0.
+     */
+    public static final int MINUTES_IN_DAY = 24 * 60;
+
+    /**
+     * The latest minute of the day a slot can end at, {@code 23:59}. A slot ending at {@code 24:00} would end on the next day,
+     * which {@link raf.sk_schedule.model.schedule_node.ScheduleSlot} rejects, so no time of the day is later than this one.
+     */
+    public static final int LAST_MINUTE_OF_DAY = MINUTES_IN_DAY - 1;
+
+    /**
+     * Converts a Date object to the number of days since 1970-01-01 in the system default time zone.
+     * Unlike the {@code SimpleDateFormat} based methods this conversion does not allocate intermediate strings.
+     *
+     * @param date The Date object to be converted.
+     * @return The epoch day of the provided date.
+     */
+    public static long toEpochDay(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    /**
+     * Converts the epoch day back to a Date object that points at the midnight of that day in the system default time zone.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The Date object representing the start of the provided epoch day.
+     */
+    public static Date fromEpochDay(long epochDay) {
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Parses the time of the day in the universal {@code HH:mm} format to the number of minutes since midnight.
+     * The hours are in the range 0-23, so the latest time is {@code 23:59}, see {@link #LAST_MINUTE_OF_DAY}.
+     * The characters are read directly, so no {@code Date} object is created in the process.
+     *
+     * @param time The string representing the time of the day.
+     * @return The number of minutes since midnight.
+     * @throws ScheduleException If the time string is not in the expected format.
+     */
+    public static int toMinuteOfDay(String time) {
+        int separator = time == null ? -1 : time.indexOf(':');
+        if (separator < 1 || separator != time.length() - 3)
+            throw new ScheduleException(" The value: " + time + " couldn't be parsed. The universal format for time within schedule component is: " + TIME_FORMAT + " !");
+
+        int hours = 0;
+        for (int i = 0; i < separator; i++) {
+            char c = time.charAt(i);
+            if (c < '0' || c > '9')
+                throw new ScheduleException(" The value: " + time + " couldn't be parsed. The universal format for time within schedule component is: " + TIME_FORMAT + " !");
+            hours = hours * 10 + (c - '0');
+        }
+
+        char tens = time.charAt(separator + 1);
+        char ones = time.charAt(separator + 2);
+        if (tens < '0' || tens > '5' || ones < '0' || ones > '9' || hours > 23)
+            throw new ScheduleException(" The value: " + time + " couldn't be parsed. The universal format for time within schedule component is: " + TIME_FORMAT + " !");
+
+        return hours * 60 + (tens - '0') * 10 + (ones - '0');
+    }
+
+    /**
+     * Formats the number of minutes since midnight to the universal {@code HH:mm} time format.
+     *
+     * @param minuteOfDay The number of minutes since midnight.
+     * @return A string representing the formatted time.
+     */
+    public static String formatMinuteOfDay(int minuteOfDay) {
+        int hours = minuteOfDay / 60;
+        int minutes = minuteOfDay % 60;
+        return new String(new char[]{
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':', (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)
+        });
+    }
+
+    /**
+     * Converts the absolute time expressed in minutes since the epoch day 0 to a Date object.
+     *
+     * @param absoluteMinute The number of minutes since 1970-01-01 00:00 in the system default time zone.
+     * @return The Date object representing the provided absolute minute.
+     */
+    public static Date fromAbsoluteMinute(long absoluteMinute) {
+        Instant midnight = LocalDate.ofEpochDay(Math.floorDiv(absoluteMinute, MINUTES_IN_DAY))
+                .atStartOfDay(ZoneId.systemDefault()).toInstant();
+        return Date.from(midnight.plusSeconds(Math.floorMod(absoluteMinute, MINUTES_IN_DAY) * 60L));
+    }
 }
@@ -0,0 +1,171 @@
+package raf.sk_schedule.util.exporter;
+
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The `ScheduleExportTask` class is an export running in the background. It completes with the number of exported slots.
+ * <p>
+ * The slots are streamed through a {@link ScheduleExportWriter} into a temporary file next to the target file, which replaces
+ * the target only when the export has finished, so a failed or cancelled export leaves the previous content of the target intact.
+ * The progress can be polled or observed with {@link #onProgress(Consumer)}, and {@link #cancel(boolean)} stops the export
+ * after the slot that is being written.
+ * </p>
+ */
+public class ScheduleExportTask extends CompletableFuture<Integer> {
+
+    /**
+     * Number of scanned slots between two progress notifications.
+     */
+    public static final int PROGRESS_INTERVAL = 4096;
+
+    private final File target;
+    private final int total;
+
+    private volatile int scanned;
+    private volatile int written;
+    private volatile Consumer<? super ScheduleExportTask> progressListener;
+
+
+    private ScheduleExportTask(File target, int total) {
+        this.target = target;
+        this.total = total;
+    }
+
+    /**
+     * Starts the export on the executor.
+     *
+     * @param executor           The executor running the export.
+     * @param target             The file the slots are exported to.
+     * @param format             The format of the export.
+     * @param source             The slots to be scanned. It is read only by the export thread, so it must not be backed by a collection that is changed meanwhile.
+     * @param total              The number of slots in the source, used to report the progress.
+     * @param filter             The predicate a scanned slot has to match to be written, or null to write all slots.
+     * @param includedAttributes Optional additional attributes to include in the CSV rows, ignored for JSON.
+     * @return The running export.
+     */
+    public static ScheduleExportTask start(Executor executor, File target, ScheduleExportWriter.Format format,
+                                           Iterator<ScheduleSlot> source, int total,
+                                           Predicate<ScheduleSlot> filter, String... includedAttributes) {
+        ScheduleExportTask task = new ScheduleExportTask(target, total);
+        try {
+            executor.execute(() -> task.run(format, source, filter, includedAttributes));
+        } catch (RejectedExecutionException e) {
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    private void run(ScheduleExportWriter.Format format, Iterator<ScheduleSlot> source,
+                     Predicate<ScheduleSlot> filter, String[] includedAttributes) {
+        if (isDone())
+            return;
+
+        Path temporary = null;
+        try {
+            Path targetPath = target.getAbsoluteFile().toPath();
+            temporary = Files.createTempFile(targetPath.getParent(), target.getName(), ".part");
+
+            try (ScheduleExportWriter writer = new ScheduleExportWriter(temporary.toFile(), format, includedAttributes)) {
+                while (source.hasNext() && !isDone()) {
+                    ScheduleSlot slot = source.next();
+                    if (filter == null || filter.test(slot)) {
+                        writer.accept(slot);
+                        written++;
+                    }
+                    if (++scanned % PROGRESS_INTERVAL == 0)
+                        notifyProgress();
+                }
+            }
+            if (isDone())
+                return;
+
+            notifyProgress();
+            moveToTarget(temporary, targetPath);
+            temporary = null;
+            complete(written);
+        } catch (IOException e) {
+            completeExceptionally(new ScheduleIOException(e));
+        } catch (RuntimeException e) {
+            completeExceptionally(e);
+        } finally {
+            if (temporary != null)
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // the temporary file is left behind
+                }
+        }
+    }
+
+    private static void moveToTarget(Path temporary, Path target) throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void notifyProgress() {
+        Consumer<? super ScheduleExportTask> listener = progressListener;
+        if (listener != null)
+            listener.accept(this);
+    }
+
+    /**
+     * Sets the listener notified from the export thread every {@value #PROGRESS_INTERVAL} scanned slots and once more
+     * before the export completes.
+     *
+     * @param listener The progress listener.
+     * @return This task.
+     */
+    public ScheduleExportTask onProgress(Consumer<? super ScheduleExportTask> listener) {
+        this.progressListener = listener;
+        return this;
+    }
+
+    public File getTarget() {
+        return target;
+    }
+
+    /**
+     * @return The number of slots to be scanned.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The number of slots scanned so far.
+     */
+    public int getScanned() {
+        return scanned;
+    }
+
+    /**
+     * @return The number of slots written so far.
+     */
+    public int getWritten() {
+        return written;
+    }
+
+    /**
+     * @return The scanned part of the slots between 0 and 1.
+     */
+    public double getProgress() {
+        return total == 0 ? (isDone() ? 1 : 0) : Math.min(1, (double) scanned / total);
+    }
+}
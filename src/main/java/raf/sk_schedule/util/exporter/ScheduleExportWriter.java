@@ -0,0 +1,87 @@
+package raf.sk_schedule.util.exporter;
+
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.io.*;
+import java.util.function.Consumer;
+
+import static raf.sk_schedule.util.exporter.ScheduleExporterCSV.slotToCSV;
+import static raf.sk_schedule.util.exporter.ScheduleExporterJSON.serializeObject;
+
+/**
+ * The `ScheduleExportWriter` class streams slots to a CSV or JSON file one by one, so an export never has to build the whole
+ * file in memory. The output is the same as writing {@link ScheduleExporterCSV#listToCSV} or {@link ScheduleExporterJSON#serializeObject}
+ * of the whole list to the file.
+ */
+public class ScheduleExportWriter implements Consumer<ScheduleSlot>, Closeable {
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private final Format format;
+    private final String[] includedAttributes;
+    private int written;
+
+
+    /**
+     * Opens the export file, the existing content of the file is overwritten.
+     *
+     * @param file               The file the slots are written to.
+     * @param format             The format of the export.
+     * @param includedAttributes Optional additional attributes to include in the CSV rows, ignored for JSON.
+     * @throws ScheduleIOException If the file can't be opened for writing.
+     */
+    public ScheduleExportWriter(File file, Format format, String... includedAttributes) throws ScheduleIOException {
+        try {
+            this.writer = new BufferedWriter(new FileWriter(file, false), BUFFER_SIZE);
+            this.format = format;
+            this.includedAttributes = includedAttributes;
+            this.written = 0;
+            if (format == Format.CSV)
+                writer.write("date, start, end, location"
+                        + (includedAttributes.length > 0 ? ", " + String.join(", ", includedAttributes) : "") + "\n");
+            else
+                writer.write("[ ");
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    @Override
+    public void accept(ScheduleSlot slot) {
+        try {
+            if (format == Format.CSV)
+                writer.write(slotToCSV(slot, includedAttributes) + '\n');
+            else
+                writer.write((written == 0 ? "" : ",") + serializeObject(slot));
+            written++;
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    /**
+     * @return The number of slots written so far.
+     */
+    public int getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() throws ScheduleIOException {
+        try {
+            if (format == Format.JSON)
+                writer.write(written == 0 ? "]" : " ]");
+            writer.write(System.lineSeparator());
+            writer.close();
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+}
@@ -76,7 +76,7 @@ public class ScheduleExporterJSON {
     private static String slotToJSON(ScheduleSlot slot) {
         return "{ " +
                 "\"startTime\": " + serializeObject(slot.getStartTime()) + ", " +
-                "\"endTime\": " + serializeObject(slot.getStartTime()) + ", " +
+                "\"endTime\": " + serializeObject(slot.getEndTime()) + ", " +
                 "\"duration\": " + serializeObject(slot.getDuration()) + ", " +
                 "\"location\": " + serializeObject(slot.getLocation()) + ", " +
                 "\"attributes\": " + serializeObject(slot.getAttributes()) +
@@ -116,9 +116,9 @@ public class ScheduleExporterJSON {
                     .append(", ");
         }
         if (!map.isEmpty()) {
-            result.setLength(result.length() - 1); // Remove the trailing comma
+            result.setLength(result.length() - 2); // Remove the trailing comma and space
         }
-        result.append("}");
+        result.append(" }");
         return result.toString();
     }
 
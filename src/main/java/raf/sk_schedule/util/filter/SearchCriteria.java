@@ -1,11 +1,18 @@
 package raf.sk_schedule.util.filter;
 
 
+import raf.sk_schedule.api.Constants.WeekDay;
 import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
 import raf.sk_schedule.model.schedule_node.ScheduleSlot;
 import raf.sk_schedule.util.filter.default_filters.*;
+import raf.sk_schedule.util.sort.ScheduleSlotSorter;
 
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
 
 /**
  * The `SearchCriteria` class provides a flexible way to filter a list of `ScheduleSlot` instances based on various criteria.
@@ -41,6 +48,11 @@ public class SearchCriteria {
 
     private final CriteriaFilter[] supportedFilters;
 
+    /**
+     * The profile of the searches, null unless the explain mode is enabled.
+     */
+    private volatile SearchExplanation explanation;
+
 
     /**
      * Private constructor to create an instance of `SearchCriteria`.
@@ -67,6 +79,64 @@ public class SearchCriteria {
     }
 
 
+    /**
+     * Checks whether the slot satisfies all set criteria.
+     *
+     * @param slot The `ScheduleSlot` instance to be checked.
+     * @return {@code true} if none of the set criteria filters the slot out, otherwise {@code false}.
+     */
+    public boolean matches(ScheduleSlot slot) {
+        if (explanation != null)
+            return explainedMatches(slot);
+
+        for (int filterKey : searchCriteria.keySet()) {
+            if (supportedFilters[filterKey].filter(slot, this))
+                return false;   //  the slot is removed once for any matching filter
+        }
+        return true;
+    }
+
+    private boolean explainedMatches(ScheduleSlot slot) {
+        SearchExplanation profile = explanation;
+        for (int filterKey : searchCriteria.keySet()) {
+            long start = System.nanoTime();
+            boolean rejected = supportedFilters[filterKey].filter(slot, this);
+            profile.recordFilter(filterKey, rejected, System.nanoTime() - start);
+            if (rejected) {
+                profile.recordSlot(false);
+                return false;
+            }
+        }
+        profile.recordSlot(true);
+        return true;
+    }
+
+    /**
+     * Enables the explain mode. From now on every filter invocation of this criteria is profiled,
+     * which slows the search down, so the mode is meant for tuning the criteria and not for the production searches.
+     *
+     * @return The explanation collecting the profile of the searches, the same instance is returned if the mode is already enabled.
+     */
+    public SearchExplanation explain() {
+        if (explanation == null)
+            explanation = new SearchExplanation();
+        return explanation;
+    }
+
+    /**
+     * @return The explanation of the searches if the explain mode is enabled, otherwise null.
+     */
+    public SearchExplanation getExplanation() {
+        return explanation;
+    }
+
+    /**
+     * Disables the explain mode, the collected explanation is kept by its holders.
+     */
+    public void disableExplain() {
+        explanation = null;
+    }
+
     /**
      * Filters a list of `ScheduleSlot` instances based on the set criteria.
      *
@@ -74,24 +144,39 @@ public class SearchCriteria {
      * @return The filtered list of `ScheduleSlot` instances.
      */
     public List<ScheduleSlot> filter(List<ScheduleSlot> schedule) {
-        // perform operations on buffer list with passed value
-        List<ScheduleSlot> bufferList = new ArrayList<>(schedule);
-        Iterator<ScheduleSlot> iterator = bufferList.iterator();
-        while (iterator.hasNext()) {
-            ScheduleSlot slot = iterator.next();
-            for (int filterKey : searchCriteria.keySet()) {
-                if (supportedFilters[filterKey].filter(slot, this)) {
-                    iterator.remove();  //  iterators remove method so we dont get get
-                    break;  //  remove the slot once for any matching filter so break
-                }
-            }
+        // single pass over the passed value, the matching slots are copied once into the result
+        List<ScheduleSlot> result = new ArrayList<>();
+        for (ScheduleSlot slot : schedule) {
+            if (matches(slot))
+                result.add(slot);
         }
-        //set the passed value to be newly created list with value of computed buffer list
-        schedule = new ArrayList<>(bufferList);
-        //return the reference all tho its unnecessary because it was changed via memory reference of passed args (pointer)
-        return schedule;
+        return result;
     }
 
+    /**
+     * Filters a list of `ScheduleSlot` instances based on the set criteria using all cores of the common fork-join pool.
+     * The result keeps the order of the passed list. Custom filters set through the criteria have to be thread safe.
+     *
+     * @param schedule  The list of `ScheduleSlot` instances to be filtered.
+     * @param threshold The size of the list from which the filter runs in parallel, smaller lists are filtered sequentially.
+     * @return The filtered list of `ScheduleSlot` instances.
+     */
+    public List<ScheduleSlot> parallelFilter(List<ScheduleSlot> schedule, int threshold) {
+        if (schedule.size() < threshold)
+            return filter(schedule);
+        return schedule.parallelStream().filter(this::matches).collect(Collectors.toList());
+    }
+
+    /**
+     * Filters a list of `ScheduleSlot` instances based on the set criteria in parallel,
+     * using the {@link ScheduleSlotSorter#DEFAULT_PARALLEL_THRESHOLD} shared with the parallel sorts.
+     *
+     * @param schedule The list of `ScheduleSlot` instances to be filtered.
+     * @return The filtered list of `ScheduleSlot` instances.
+     */
+    public List<ScheduleSlot> parallelFilter(List<ScheduleSlot> schedule) {
+        return parallelFilter(schedule, ScheduleSlotSorter.DEFAULT_PARALLEL_THRESHOLD);
+    }
 
     /**
      * Filters a list of `ScheduleSlot` instances using a custom filter.
@@ -101,10 +186,82 @@ public class SearchCriteria {
      * @return The filtered list of `ScheduleSlot` instances.
      */
     public List<ScheduleSlot> filter(List<ScheduleSlot> schedule, CriteriaFilter customFilter) {
-        List<ScheduleSlot> bufferList = new ArrayList<>(schedule);
-        bufferList.removeIf(scheduleSlot -> customFilter.filter(scheduleSlot, this));
-        schedule = new ArrayList<>(bufferList);
-        return schedule;
+        List<ScheduleSlot> result = new ArrayList<>();
+        for (ScheduleSlot slot : schedule) {
+            if (!customFilter.filter(slot, this))
+                result.add(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Returns one page of the `ScheduleSlot` instances that satisfy the set criteria.
+     * The slots are evaluated in iteration order and the evaluation stops as soon as the page is full,
+     * so the cost depends on the position of the page and not on the size of the schedule.
+     *
+     * @param schedule The `ScheduleSlot` instances to be filtered.
+     * @param offset   The number of matching slots to be skipped.
+     * @param limit    The maximum number of matching slots to be returned.
+     * @return The matching slots of the requested page.
+     * @throws ScheduleException If the offset or the limit is negative.
+     */
+    public List<ScheduleSlot> filter(Iterable<ScheduleSlot> schedule, int offset, int limit) {
+        if (offset < 0 || limit < 0)
+            throw new ScheduleException("Offset and limit must not be negative!");
+
+        List<ScheduleSlot> page = new ArrayList<>(Math.min(limit, 1024));
+        Iterator<ScheduleSlot> iterator = iterator(schedule.iterator());
+        while (page.size() < limit && iterator.hasNext()) {
+            ScheduleSlot slot = iterator.next();
+            if (offset > 0)
+                offset--;
+            else
+                page.add(slot);
+        }
+        return page;
+    }
+
+    /**
+     * Returns a lazy stream of the `ScheduleSlot` instances that satisfy the set criteria.
+     * Nothing is copied, the slots are tested only when the stream pulls them, so {@code skip} and {@code limit}
+     * on the returned stream bound the number of evaluated slots.
+     *
+     * @param schedule The `ScheduleSlot` instances to be filtered.
+     * @return The stream of matching slots.
+     */
+    public Stream<ScheduleSlot> stream(Collection<ScheduleSlot> schedule) {
+        return schedule.stream().filter(this::matches);
+    }
+
+    /**
+     * Returns a lazy iterator over the `ScheduleSlot` instances of the source that satisfy the set criteria.
+     *
+     * @param source The iterator over the `ScheduleSlot` instances to be filtered.
+     * @return The iterator over the matching slots.
+     */
+    public Iterator<ScheduleSlot> iterator(Iterator<ScheduleSlot> source) {
+        return new Iterator<>() {
+            private ScheduleSlot next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && source.hasNext()) {
+                    ScheduleSlot slot = source.next();
+                    if (matches(slot))
+                        next = slot;
+                }
+                return next != null;
+            }
+
+            @Override
+            public ScheduleSlot next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                ScheduleSlot slot = next;
+                next = null;
+                return slot;
+            }
+        };
     }
 
 
@@ -221,6 +378,52 @@ public class SearchCriteria {
         }
     }
 
+    /**
+     * Returns the canonical form of the set criteria. Equivalent criteria produce equal keys even if their values are
+     * given in different forms: dates given as String or java.util Date are represented by their time in milliseconds,
+     * a location given as RoomProperties is represented by the room name and the list of week days by the set of days.
+     * The key is a snapshot, later changes of the criteria don't affect it, so it can be used as a key of a cache.
+     *
+     * @return The unmodifiable map of the criteria keys and their canonical values.
+     */
+    public Map<Integer, Object> canonicalKey() {
+        Map<Integer, Object> key = new TreeMap<>();
+        for (Map.Entry<Integer, Object> criteria : searchCriteria.entrySet())
+            key.put(criteria.getKey(), canonicalValue(criteria.getKey(), criteria.getValue()));
+        return Collections.unmodifiableMap(key);
+    }
+
+    private static Object canonicalValue(int criteriaKey, Object value) {
+        switch (criteriaKey) {
+            case CriteriaFilter.DATE_KEY:
+            case CriteriaFilter.LOWER_BOUND_DATE_KEY:
+            case CriteriaFilter.UPPER_BOUND_DATE_KEY:
+                if (value instanceof Date)
+                    return ((Date) value).getTime();
+                if (value instanceof String) {
+                    try {
+                        return parseDate((String) value).getTime();
+                    } catch (ScheduleException e) {
+                        return value;   // the filter reports the invalid value when it is applied
+                    }
+                }
+                return value;
+            case CriteriaFilter.LOCATION_KEY:
+                return value instanceof RoomProperties ? ((RoomProperties) value).getName() : value;
+            case CriteriaFilter.WEEK_DAY_KEY:
+                if (value instanceof List<?> days && days.stream().allMatch(day -> day instanceof WeekDay)) {
+                    EnumSet<WeekDay> set = EnumSet.noneOf(WeekDay.class);
+                    days.forEach(day -> set.add((WeekDay) day));
+                    return set;
+                }
+                return value;
+            case CriteriaFilter.DYNAMIC_ATTRIBUTES_KEY:
+                return value instanceof Map ? new HashMap<>((Map<?, ?>) value) : value;
+            default:
+                return value;
+        }
+    }
+
     /**
      * Builder class for creating an instance of `SearchCriteria`.
      */
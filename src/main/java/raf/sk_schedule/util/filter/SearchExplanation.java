@@ -0,0 +1,167 @@
+package raf.sk_schedule.util.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The `SearchExplanation` class profiles the searches performed with a {@link SearchCriteria} that has the explain mode enabled,
+ * see {@link SearchCriteria#explain()}. For every criteria key it records how many times the filter was invoked,
+ * how many slots it rejected and how much time it spent, together with the index the candidate slots were taken from.
+ * Since a slot is rejected by the first filter that filters it out, the filters evaluated later see fewer slots,
+ * so the selectivity of a filter is its number of rejections divided by its number of invocations.
+ */
+public class SearchExplanation {
+
+    private static final String[] FILTER_NAMES = new String[9];
+
+    static {
+        FILTER_NAMES[CriteriaFilter.DATE_KEY] = "date";
+        FILTER_NAMES[CriteriaFilter.WEEK_DAY_KEY] = "week_day";
+        FILTER_NAMES[CriteriaFilter.DURATION_KEY] = "duration";
+        FILTER_NAMES[CriteriaFilter.LOWER_BOUND_TIME_KEY] = "lower_bound_time";
+        FILTER_NAMES[CriteriaFilter.UPPER_BOUND_TIME_KEY] = "upper_bound_time";
+        FILTER_NAMES[CriteriaFilter.LOCATION_KEY] = "location";
+        FILTER_NAMES[CriteriaFilter.DYNAMIC_ATTRIBUTES_KEY] = "dynamic_attributes";
+        FILTER_NAMES[CriteriaFilter.UPPER_BOUND_DATE_KEY] = "upper_bound_date";
+        FILTER_NAMES[CriteriaFilter.LOWER_BOUND_DATE_KEY] = "lower_bound_date";
+    }
+
+    /**
+     * Measurements of the filter of one criteria key.
+     */
+    public static class FilterProfile {
+        private final int criteriaKey;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private FilterProfile(int criteriaKey) {
+            this.criteriaKey = criteriaKey;
+        }
+
+        public int getCriteriaKey() {
+            return criteriaKey;
+        }
+
+        public String getName() {
+            return FILTER_NAMES[criteriaKey];
+        }
+
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        public long getRejections() {
+            return rejections.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * @return The share of the evaluated slots the filter has rejected, or 0 if it was never invoked.
+         */
+        public double getSelectivity() {
+            long invoked = invocations.sum();
+            return invoked == 0 ? 0 : (double) rejections.sum() / invoked;
+        }
+
+        @Override
+        public String toString() {
+            return getName() + ": invocations=" + getInvocations()
+                    + " rejections=" + getRejections()
+                    + " selectivity=" + String.format("%.3f", getSelectivity())
+                    + " time=" + getNanos() / 1000 + "us";
+        }
+    }
+
+    private final FilterProfile[] profiles;
+    private final LongAdder evaluated;
+    private final LongAdder matched;
+    private volatile String indexUsed;
+
+
+    SearchExplanation() {
+        profiles = new FilterProfile[FILTER_NAMES.length];
+        for (int i = 0; i < profiles.length; i++)
+            profiles[i] = new FilterProfile(i);
+        evaluated = new LongAdder();
+        matched = new LongAdder();
+        indexUsed = null;
+    }
+
+    void recordFilter(int criteriaKey, boolean rejected, long nanos) {
+        FilterProfile profile = profiles[criteriaKey];
+        profile.invocations.increment();
+        if (rejected)
+            profile.rejections.increment();
+        profile.nanos.add(nanos);
+    }
+
+    void recordSlot(boolean slotMatched) {
+        evaluated.increment();
+        if (slotMatched)
+            matched.increment();
+    }
+
+    /**
+     * Records the index the candidate slots were taken from. Called by the schedule manager when it narrows the searched slots.
+     *
+     * @param indexUsed The description of the index and the range that was used.
+     */
+    public void setIndexUsed(String indexUsed) {
+        this.indexUsed = indexUsed;
+    }
+
+    /**
+     * @return The description of the index the candidate slots were taken from, or null if the whole schedule was scanned.
+     */
+    public String getIndexUsed() {
+        return indexUsed;
+    }
+
+    /**
+     * @return The profiles of the filters that were invoked at least once, in the order of the criteria keys.
+     */
+    public List<FilterProfile> getFilterProfiles() {
+        List<FilterProfile> invoked = new ArrayList<>();
+        for (FilterProfile profile : profiles)
+            if (profile.getInvocations() > 0)
+                invoked.add(profile);
+        return invoked;
+    }
+
+    public long getEvaluatedSlots() {
+        return evaluated.sum();
+    }
+
+    public long getMatchedSlots() {
+        return matched.sum();
+    }
+
+    /**
+     * Discards the recorded measurements, so the next search is profiled on its own.
+     */
+    public void reset() {
+        for (FilterProfile profile : profiles) {
+            profile.invocations.reset();
+            profile.rejections.reset();
+            profile.nanos.reset();
+        }
+        evaluated.reset();
+        matched.reset();
+        indexUsed = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("index: ").append(indexUsed == null ? "none (full scan)" : indexUsed).append('\n');
+        builder.append("evaluated: ").append(getEvaluatedSlots()).append(", matched: ").append(getMatchedSlots()).append('\n');
+        for (FilterProfile profile : getFilterProfiles())
+            builder.append("  ").append(profile).append('\n');
+        return builder.toString();
+    }
+}
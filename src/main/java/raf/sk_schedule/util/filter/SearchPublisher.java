@@ -0,0 +1,221 @@
+package raf.sk_schedule.util.filter;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.concurrent.ScheduleExecutors;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The `SearchPublisher` class publishes the slots matching the search criteria to {@link Flow.Subscriber}s.
+ * The criteria are evaluated lazily through {@link SearchCriteria#iterator(Iterator)} and only as many slots are matched
+ * as the subscriber has requested, so a slow subscriber holds back the evaluation instead of the result being buffered.
+ * <p>
+ * Every subscriber gets its own pass over the source. A {@link #deferred} publisher captures the source for every subscriber
+ * when it subscribes, so nothing is captured before there is a subscriber. The slots are emitted on the executor in batches
+ * of at most {@code batchSize} slots, after a full batch the task gives its thread back to the executor and is resubmitted,
+ * so a subscriber with unbounded demand doesn't occupy a thread for the whole search.
+ * </p>
+ */
+public class SearchPublisher implements Flow.Publisher<ScheduleSlot> {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final SearchCriteria criteria;
+    private final Supplier<? extends Iterable<ScheduleSlot>> source;
+    private final Executor executor;
+    private final int batchSize;
+
+
+    /**
+     * @param criteria The search criteria.
+     * @param source   The slots to be searched. It is iterated by the executor threads, so it must not be changed during the search.
+     */
+    public SearchPublisher(SearchCriteria criteria, Iterable<ScheduleSlot> source) {
+        this(criteria, source, ScheduleExecutors.defaultExecutor(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param criteria  The search criteria.
+     * @param source    The slots to be searched. It is iterated by the executor threads, so it must not be changed during the search.
+     * @param executor  The executor evaluating the criteria and calling the subscribers.
+     * @param batchSize The maximum number of slots emitted by one executor task.
+     * @throws ScheduleException If the batch size is not positive.
+     */
+    public SearchPublisher(SearchCriteria criteria, Iterable<ScheduleSlot> source, Executor executor, int batchSize) {
+        this(criteria, () -> source, executor, batchSize);
+    }
+
+    private SearchPublisher(SearchCriteria criteria, Supplier<? extends Iterable<ScheduleSlot>> source, Executor executor, int batchSize) {
+        if (batchSize <= 0)
+            throw new ScheduleException("Batch size of SearchPublisher has to be positive!");
+        this.criteria = criteria;
+        this.source = source;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param criteria The search criteria.
+     * @param source   Captures the slots to be searched on the subscribing thread, once for every subscriber before its subscription starts.
+     *                 The captured slots are iterated by the executor threads, so they must not be changed during the search.
+     * @return The publisher calling the source for every subscriber.
+     */
+    public static SearchPublisher deferred(SearchCriteria criteria, Supplier<? extends Iterable<ScheduleSlot>> source) {
+        return deferred(criteria, source, ScheduleExecutors.defaultExecutor(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param criteria  The search criteria.
+     * @param source    Captures the slots to be searched on the subscribing thread, once for every subscriber before its subscription starts.
+     *                  The captured slots are iterated by the executor threads, so they must not be changed during the search.
+     * @param executor  The executor evaluating the criteria and calling the subscribers.
+     * @param batchSize The maximum number of slots emitted by one executor task.
+     * @return The publisher calling the source for every subscriber.
+     * @throws ScheduleException If the batch size is not positive.
+     */
+    public static SearchPublisher deferred(SearchCriteria criteria, Supplier<? extends Iterable<ScheduleSlot>> source, Executor executor, int batchSize) {
+        return new SearchPublisher(criteria, Objects.requireNonNull(source), executor, batchSize);
+    }
+
+    /**
+     * Captures the source and starts the subscription, a failure to capture the source is signalled to the subscriber through onError.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ScheduleSlot> subscriber) {
+        Objects.requireNonNull(subscriber);
+        Iterable<ScheduleSlot> captured;
+        try {
+            captured = source.get();
+        } catch (RuntimeException e) {
+            SearchSubscription failed = new SearchSubscription(subscriber, null);
+            subscriber.onSubscribe(failed);
+            failed.terminate(e);
+            return;
+        }
+        subscriber.onSubscribe(new SearchSubscription(subscriber, captured));
+    }
+
+    private final class SearchSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super ScheduleSlot> subscriber;
+        private final Iterable<ScheduleSlot> source;
+        private final AtomicLong demand;
+
+        /**
+         * Number of signals (requests or resubmits) not processed yet; the thread that raised it from 0 owns the emission.
+         */
+        private final AtomicInteger pending;
+
+        private volatile boolean terminated;
+        private volatile IllegalArgumentException invalidRequest;
+        private Iterator<ScheduleSlot> matches;
+
+        private SearchSubscription(Flow.Subscriber<? super ScheduleSlot> subscriber, Iterable<ScheduleSlot> source) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.demand = new AtomicLong();
+            this.pending = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0)
+                invalidRequest = new IllegalArgumentException("Requested " + n + " slots, the demand has to be positive.");
+            else
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+
+            if (pending.getAndIncrement() == 0)
+                submit();
+        }
+
+        @Override
+        public void cancel() {
+            terminated = true;
+        }
+
+        private void submit() {
+            try {
+                executor.execute(this::emit);
+            } catch (RejectedExecutionException e) {
+                terminate(e);
+            }
+        }
+
+        private void terminate(Throwable error) {
+            if (terminated)
+                return;
+            terminated = true;
+            if (error == null)
+                subscriber.onComplete();
+            else
+                subscriber.onError(error);
+        }
+
+        private void emit() {
+            int signals = pending.get();
+            if (terminated)
+                return;
+            if (invalidRequest != null) {
+                terminate(invalidRequest);
+                return;
+            }
+
+            long requested = demand.get();
+            int emitted = 0;
+            while (emitted < batchSize && emitted < requested && !terminated) {
+                ScheduleSlot next;
+                try {
+                    if (matches == null)
+                        matches = criteria.iterator(source.iterator());
+                    if (!matches.hasNext()) {
+                        terminate(null);
+                        return;
+                    }
+                    next = matches.next();
+                } catch (RuntimeException e) {
+                    terminate(e);
+                    return;
+                }
+
+                try {
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    // a failing subscriber is treated as cancelled
+                    terminated = true;
+                    return;
+                }
+                emitted++;
+            }
+
+            if (emitted > 0 && emitted == requested && !terminated)
+                // the demand is met, the subscriber learns that the search is over without requesting slots that don't exist
+                try {
+                    if (!matches.hasNext()) {
+                        terminate(null);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    terminate(e);
+                    return;
+                }
+
+            if (requested != Long.MAX_VALUE)
+                requested = demand.addAndGet(-emitted);
+
+            if (emitted == batchSize && requested > 0) {
+                // keeps the ownership and gives the thread back between the batches
+                submit();
+                return;
+            }
+            if (pending.addAndGet(-signals) != 0)
+                submit();
+        }
+    }
+}
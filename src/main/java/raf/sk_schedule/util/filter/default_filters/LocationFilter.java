@@ -24,10 +24,12 @@ public class LocationFilter implements CriteriaFilter {
     public boolean filter(ScheduleSlot slot, SearchCriteria searchCriteria) {
         // Implementation for location filter
         Object searchParam = searchCriteria.getCriteria(LOCATION_KEY);
+        RoomProperties location = slot.getLocation();
+        // the room of the criteria is usually the same reference as the location of the slot, the names are compared otherwise
         if (searchParam instanceof RoomProperties)
-            return !slot.getLocation().equals(searchParam);
+            return location == null || (location != searchParam && !location.equals(searchParam));
         if ( searchParam instanceof String)
-            return !slot.getLocation().getName().equals((String) searchParam);
+            return location == null || !location.getName().equals((String) searchParam);
 
         throw new ScheduleException("Location search parameter can be set by stating the name of the room or a RoomProperties class object!");
     }
@@ -0,0 +1,393 @@
+package raf.sk_schedule.util.importer;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.exception.ScheduleIOException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static raf.sk_schedule.api.Constants.DATE_FORMAT;
+import static raf.sk_schedule.api.Constants.TIME_FORMAT;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `MappedCSVReader` class reads a comma separated file by memory-mapping it and tokenising the bytes in place.
+ * After {@link #nextRow()} the fields of the current row are exposed as offsets into the mapped buffer, so numbers, dates
+ * and times are parsed directly from the bytes and a {@code String} is created only for the fields that are stored as text.
+ * The file is expected in UTF-8 (or plain ASCII); a leading byte order mark is skipped, the whitespace around the fields
+ * is trimmed and both {@code \n} and {@code \r\n} line endings are accepted. Quoted fields are not supported, the same as
+ * in the rest of the component.
+ */
+public class MappedCSVReader implements Closeable {
+
+    private static final int INITIAL_FIELDS = 16;
+
+    /**
+     * Size of the intern table of {@link #getInternedString(int)}, a power of two.
+     */
+    private static final int INTERN_TABLE_SIZE = 1 << 12;
+
+    /**
+     * The formatted times of the day, so the time fields are returned without creating a String.
+     */
+    private static final String[] TIMES = new String[MINUTES_IN_DAY];
+
+    static {
+        for (int minute = 0; minute < MINUTES_IN_DAY; minute++)
+            TIMES[minute] = formatMinuteOfDay(minute);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int limit;
+
+    private int position;
+    private int row;
+    private int fieldCount;
+    private int[] starts;
+    private int[] ends;
+
+    private byte[] scratch;
+    private final String[] internTable;
+
+
+    /**
+     * Maps the file into memory.
+     *
+     * @param csvPath The path to the CSV file.
+     * @throws ScheduleIOException If the file can't be opened or it is larger than 2 GiB.
+     */
+    public MappedCSVReader(String csvPath) throws ScheduleIOException {
+        try {
+            channel = FileChannel.open(Path.of(csvPath), StandardOpenOption.READ);
+            if (channel.size() > Integer.MAX_VALUE) {
+                channel.close();
+                throw new ScheduleIOException("The file " + csvPath + " is too large to be mapped, the limit is 2 GiB.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ScheduleIOException("An loading error has occurred in MappedCSVReader.\nError message: " + e.getMessage());
+        }
+        limit = buffer.limit();
+
+        // skip the UTF-8 byte order mark
+        if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF)
+            position = 3;
+
+        starts = new int[INITIAL_FIELDS];
+        ends = new int[INITIAL_FIELDS];
+        scratch = new byte[64];
+        internTable = new String[INTERN_TABLE_SIZE];
+    }
+
+    /**
+     * Advances to the next non-blank row and records the offsets of its fields.
+     *
+     * @return True if a row has been read, false if the end of the file has been reached.
+     */
+    public boolean nextRow() {
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+                lineEnd++;
+
+            int lineStart = position;
+            position = lineEnd + 1;
+            row++;
+
+            if (tokenise(lineStart, lineEnd))
+                return true;
+        }
+        fieldCount = 0;
+        return false;
+    }
+
+    private boolean tokenise(int lineStart, int lineEnd) {
+        fieldCount = 0;
+        boolean blank = true;
+        int fieldStart = lineStart;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || buffer.get(i) == ',') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            } else if (blank && !isWhitespace(buffer.get(i))) {
+                blank = false;
+            }
+        }
+        return !blank;
+    }
+
+    private void addField(int start, int end) {
+        while (start < end && isWhitespace(buffer.get(start)))
+            start++;
+        while (end > start && isWhitespace(buffer.get(end - 1)))
+            end--;
+
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * @return The number of the current row, counted from 1 and including the blank rows.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return The number of fields in the current row.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param field The index of the field in the current row.
+     * @return The offset of the first byte of the trimmed field in the mapped buffer.
+     */
+    public int getFieldStart(int field) {
+        checkField(field);
+        return starts[field];
+    }
+
+    /**
+     * @param field The index of the field in the current row.
+     * @return The offset after the last byte of the trimmed field in the mapped buffer.
+     */
+    public int getFieldEnd(int field) {
+        checkField(field);
+        return ends[field];
+    }
+
+    /**
+     * @return The read-only view of the mapped file the field offsets point into.
+     */
+    public MappedByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount)
+            throw new ScheduleException("Row " + row + " has no column " + (field + 1) + ", it has " + fieldCount + " columns.");
+    }
+
+    public boolean isEmpty(int field) {
+        checkField(field);
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * Decodes the field to a new String. Fields made of ASCII bytes are copied without running the UTF-8 decoder.
+     *
+     * @param field The index of the field in the current row.
+     * @return The value of the field.
+     */
+    public String getString(int field) {
+        checkField(field);
+        int start = starts[field];
+        int length = ends[field] - start;
+        if (scratch.length < length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            scratch[i] = b;
+            ascii &= b >= 0;
+        }
+        return new String(scratch, 0, length, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the value of the field, reusing the String of an earlier field with the same bytes if it is still in the intern table.
+     * Meant for the columns with few distinct values, like room names or the professor and group attributes, which would
+     * otherwise create a new String on every row.
+     *
+     * @param field The index of the field in the current row.
+     * @return The value of the field.
+     */
+    public String getInternedString(int field) {
+        checkField(field);
+        int start = starts[field];
+        int end = ends[field];
+
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + buffer.get(i);
+        int slot = (hash ^ (hash >>> 16)) & (INTERN_TABLE_SIZE - 1);
+
+        String cached = internTable[slot];
+        if (cached != null && equalsAscii(start, end, cached))
+            return cached;
+
+        String value = getString(field);
+        internTable[slot] = value;
+        return value;
+    }
+
+    private boolean equalsAscii(int start, int end, String value) {
+        if (value.length() != end - start)
+            return false;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < 0 || b != value.charAt(i - start))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses the field as a decimal integer, directly from the bytes.
+     *
+     * @param field The index of the field in the current row.
+     * @return The value of the field.
+     * @throws ScheduleException If the field is not a valid integer.
+     */
+    public int getInt(int field) {
+        checkField(field);
+        int start = starts[field];
+        int end = ends[field];
+        boolean negative = start < end && buffer.get(start) == '-';
+        if (negative || start < end && buffer.get(start) == '+')
+            start++;
+        if (start == end)
+            throw invalidValue(field, "an integer");
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || (value = value * 10 + digit) > Integer.MAX_VALUE + 1L)
+                throw invalidValue(field, "an integer");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE)
+            throw invalidValue(field, "an integer");
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as a boolean the same way {@link Boolean#parseBoolean(String)} does, only "true" ignoring the case is true.
+     *
+     * @param field The index of the field in the current row.
+     * @return The value of the field.
+     */
+    public boolean getBoolean(int field) {
+        checkField(field);
+        int start = starts[field];
+        if (ends[field] - start != 4)
+            return false;
+        return (buffer.get(start) | 0x20) == 't' && (buffer.get(start + 1) | 0x20) == 'r'
+                && (buffer.get(start + 2) | 0x20) == 'u' && (buffer.get(start + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * Parses the field as a date in the universal {@code yyyy-MM-dd} format, directly from the bytes.
+     *
+     * @param field The index of the field in the current row.
+     * @return The number of days since 1970-01-01.
+     * @throws ScheduleException If the field is not a valid date.
+     */
+    public long getEpochDay(int field) {
+        checkField(field);
+        int[] parts = new int[3];
+        int part = 0;
+        int digits = 0;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            byte b = buffer.get(i);
+            if (b == '-' && digits > 0 && part < 2) {
+                part++;
+                digits = 0;
+            } else if (b >= '0' && b <= '9' && digits < 9) {
+                parts[part] = parts[part] * 10 + (b - '0');
+                digits++;
+            } else {
+                throw invalidValue(field, "a date in the " + DATE_FORMAT + " format");
+            }
+        }
+        if (part != 2 || digits == 0)
+            throw invalidValue(field, "a date in the " + DATE_FORMAT + " format");
+
+        try {
+            return LocalDate.of(parts[0], parts[1], parts[2]).toEpochDay();
+        } catch (DateTimeException e) {
+            throw invalidValue(field, "a date in the " + DATE_FORMAT + " format");
+        }
+    }
+
+    /**
+     * Parses the field as a time of the day in the universal {@code HH:mm} format, directly from the bytes.
+     *
+     * @param field The index of the field in the current row.
+     * @return The number of minutes since midnight.
+     * @throws ScheduleException If the field is not a valid time.
+     */
+    public int getMinuteOfDay(int field) {
+        checkField(field);
+        int start = starts[field];
+        int separator = ends[field] - 3;
+        if (separator < start + 1 || separator > start + 2 || buffer.get(separator) != ':')
+            throw invalidValue(field, "a time in the " + TIME_FORMAT + " format");
+
+        int hours = 0;
+        for (int i = start; i < separator; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9)
+                throw invalidValue(field, "a time in the " + TIME_FORMAT + " format");
+            hours = hours * 10 + digit;
+        }
+        int tens = buffer.get(separator + 1) - '0';
+        int ones = buffer.get(separator + 2) - '0';
+        int minute = hours * 60 + tens * 10 + ones;
+        if (tens < 0 || tens > 5 || ones < 0 || ones > 9 || minute > LAST_MINUTE_OF_DAY)
+            throw invalidValue(field, "a time in the " + TIME_FORMAT + " format");
+        return minute;
+    }
+
+    /**
+     * Parses the field as a time of the day and returns it formatted as {@code HH:mm} from a shared table of the times,
+     * so no String is created.
+     *
+     * @param field The index of the field in the current row.
+     * @return The normalised time of the day.
+     * @throws ScheduleException If the field is not a valid time.
+     */
+    public String getTime(int field) {
+        return TIMES[getMinuteOfDay(field)];
+    }
+
+    private ScheduleException invalidValue(int field, String expected) {
+        return new ScheduleException("The value: " + getString(field) + " in row " + row + ", column " + (field + 1)
+                + " couldn't be parsed as " + expected + "!");
+    }
+
+    /**
+     * Closes the file channel. The mapping itself is released when the buffer is collected.
+     *
+     * @throws ScheduleIOException If the channel can't be closed.
+     */
+    @Override
+    public void close() throws ScheduleIOException {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+}
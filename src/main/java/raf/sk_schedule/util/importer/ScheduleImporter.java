@@ -10,8 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
-import static raf.sk_schedule.util.persistence.ScheduleFileOperationUnit.readFileToString;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.fromEpochDay;
 
 /**
  * The `ScheduleImporter` class provides utility methods for importing schedule and room data from CSV files.
@@ -21,6 +20,8 @@ public class ScheduleImporter {
 
     /**
      * Imports schedule data from a CSV file and constructs a list of `ScheduleSlot` instances.
+     * The file is memory-mapped and parsed by {@link MappedCSVReader}, so dates, times and durations are read directly
+     * from the bytes and the repeated room names and attribute values share their String instances.
      *
      * @param csvPath The path to the CSV file containing schedule data.
      * @param rooms   A map of room names to `RoomProperties` instances for location lookup.
@@ -28,8 +29,9 @@ public class ScheduleImporter {
      * @throws ScheduleIOException If an I/O error occurs during file reading or if there is an issue parsing date and time information.
      */
     public static List<ScheduleSlot> importScheduleCSV(String csvPath, Map<String, RoomProperties> rooms) throws ScheduleIOException {
-        String fileContent = readFileToString(csvPath);
-        return parseScheduleCSV(fileContent, rooms);
+        try (MappedCSVReader reader = new MappedCSVReader(csvPath)) {
+            return parseScheduleCSV(reader, rooms);
+        }
     }
 
     /**
@@ -40,25 +42,40 @@ public class ScheduleImporter {
      * @throws ScheduleIOException If an I/O error occurs during file reading or if there is an issue parsing date and time information.
      */
     public static Map<String, RoomProperties> importRoomsCSV(String csvPath) throws ScheduleIOException {
-        String fileContent = readFileToString(csvPath);
-        return parseRoomsCSV(fileContent);
+        try (MappedCSVReader reader = new MappedCSVReader(csvPath)) {
+            return parseRoomsCSV(reader);
+        }
+    }
+
+    /**
+     * Reads the header row of the CSV file.
+     *
+     * @param reader The reader positioned before the header row.
+     * @return The trimmed column names.
+     * @throws ScheduleIOException If the file is empty.
+     */
+    private static String[] readHeader(MappedCSVReader reader) throws ScheduleIOException {
+        if (!reader.nextRow())
+            throw new ScheduleIOException("The CSV file is empty.");
+
+        String[] columnNames = new String[reader.getFieldCount()];
+        for (int i = 0; i < columnNames.length; i++)
+            columnNames[i] = reader.getString(i);
+        return columnNames;
     }
 
     /**
-     * Parses the content of a CSV file and constructs a list of `ScheduleSlot` instances.
+     * Parses the rows of a CSV file and constructs a list of `ScheduleSlot` instances.
      *
-     * @param fileContent The content of the CSV file.
-     * @param rooms       A map of room names to `RoomProperties` instances for location lookup.
+     * @param reader The reader of the CSV file.
+     * @param rooms  A map of room names to `RoomProperties` instances for location lookup.
      * @return A list of `ScheduleSlot` instances parsed from the CSV file.
      * @throws ScheduleException If an issue parsing date and time information.
      */
-    private static List<ScheduleSlot> parseScheduleCSV(String fileContent, Map<String, RoomProperties> rooms) throws ScheduleIOException {
+    private static List<ScheduleSlot> parseScheduleCSV(MappedCSVReader reader, Map<String, RoomProperties> rooms) throws ScheduleIOException {
         List<ScheduleSlot> scheduleSlotsList = new ArrayList<>();
 
-        // Split the file content into lines
-        String[] lines = fileContent.split("\n");
-
-        String[] columnNames = lines[0].split(",");
+        String[] columnNames = readHeader(reader);
 
         // Find the indices of the mandatory columns
         int dateIndex = -1;
@@ -69,7 +86,7 @@ public class ScheduleImporter {
 
         // match mandatory columns names
         for (int i = 0; i < columnNames.length; i++) {
-            String columnName = columnNames[i].trim().toLowerCase();
+            String columnName = columnNames[i].toLowerCase();
             switch (columnName) {
                 case "date" -> dateIndex = i;
                 case "start" -> startIndex = i;
@@ -85,39 +102,36 @@ public class ScheduleImporter {
                     + (dateIndex == -1 ? " 'date' " : "")
                     + (startIndex == -1 ? " 'start' " : "")
                     + (locationIndex == -1 ? " 'location' " : "")
-                    + (startIndex == -1 ? " 'start' " : "")
                     + (durationIndex == -1 && endIndex == -1 ? " 'duration' or 'end' " : "."));
         }
 
         // read the rest of the rows and build slots
-        for (int row = 1; row < lines.length; row++) {
-
-            String[] values = lines[row].split(",");
+        while (reader.nextRow()) {
 
-            if (values.length < 4)  // check if there is non-sufficient number of columns missing from the current row
+            if (reader.getFieldCount() < 4)  // check if there is non-sufficient number of columns missing from the current row
                 throw new ScheduleIOException("There is a column missing in a row.");
 
-
             ScheduleSlot.Builder slotBuilder = new ScheduleSlot.Builder()
-                    .setDate(parseDate(values[dateIndex].trim()))
-                    .setStartTime(values[startIndex].trim());
+                    .setDate(fromEpochDay(reader.getEpochDay(dateIndex)))
+                    .setStartTime(reader.getTime(startIndex));
 
-            if (rooms.containsKey(values[locationIndex] = values[locationIndex].trim()))
-                slotBuilder.setLocation(rooms.get(values[locationIndex]));
+            String location = reader.getInternedString(locationIndex);
+            if (rooms.containsKey(location))
+                slotBuilder.setLocation(rooms.get(location));
             else
-                throw new ScheduleIOException("ScheduleSCV parse failed! Room with name " + values[locationIndex] + " couldn't be linked.");
+                throw new ScheduleIOException("ScheduleSCV parse failed! Room with name " + location + " couldn't be linked.");
 
             if (durationIndex != -1)
-                slotBuilder.setDuration(Integer.parseInt(values[durationIndex].trim()));
+                slotBuilder.setDuration(reader.getInt(durationIndex));
 
             if (endIndex != -1)
-                slotBuilder.setEndTime(values[endIndex].trim());
+                slotBuilder.setEndTime(reader.getTime(endIndex));
 
             // Add additional attributes for columns beyond the mandatory ones
             for (int i = 0; i < columnNames.length; i++) {
                 if (i != dateIndex && i != startIndex && i != locationIndex && i != durationIndex && i != endIndex) {
                     // This column is an extra attribute
-                    slotBuilder.setAttribute(columnNames[i].trim(), values[i].trim());
+                    slotBuilder.setAttribute(columnNames[i], reader.getInternedString(i));
                 }
             }
 
@@ -129,21 +143,17 @@ public class ScheduleImporter {
 
 
     /**
-     * Parses the content of a CSV file and constructs a map of room names to respective `RoomProperties` instances.
+     * Parses the rows of a CSV file and constructs a map of room names to respective `RoomProperties` instances.
      *
-     * @param fileContent The content of the CSV file.
+     * @param reader The reader of the CSV file.
      * @return A map of room names to `RoomProperties` instances.
      * @throws ScheduleIOException If an I/O error occurs during file reading.
      */
-    private static Map<String, RoomProperties> parseRoomsCSV(String fileContent) throws ScheduleIOException {
+    private static Map<String, RoomProperties> parseRoomsCSV(MappedCSVReader reader) throws ScheduleIOException {
         Map<String, RoomProperties> roomPropertiesMap = new HashMap<>();
 
-        // Split the file content into lines
-        String[] lines = fileContent.split("\n");
-
         // Extract column names from the header row
-        String header = lines[0];
-        String[] columnNames = header.split(",");
+        String[] columnNames = readHeader(reader);
 
         // Find the indices of the mandatory columns
         int nameIndex = -1;
@@ -152,7 +162,7 @@ public class ScheduleImporter {
         int hasProjectorIndex = -1;
 
         for (int i = 0; i < columnNames.length; i++) {
-            String columnName = columnNames[i].trim().toLowerCase();
+            String columnName = columnNames[i].toLowerCase();
             switch (columnName) {
                 case "name" -> nameIndex = i;
                 case "capacity" -> capacityIndex = i;
@@ -166,29 +176,23 @@ public class ScheduleImporter {
         }
 
         // Iterate through the rows and build room properties
-        for (int row = 1; row < lines.length; row++) {
-            String[] values = lines[row].split(",");
+        while (reader.nextRow()) {
 
-            if (values.length < 4) {
+            if (reader.getFieldCount() < 4) {
                 // Handle the case where there are not enough columns
                 continue;
             }
 
-            String name = values[nameIndex].trim();
-            int capacity = Integer.parseInt(values[capacityIndex].trim());
-            int hasComputers = Integer.parseInt(values[hasComputersIndex].trim());
-            boolean hasProjector = Boolean.parseBoolean(values[hasProjectorIndex].trim());
-
             RoomProperties.Builder roomBuilder = new RoomProperties.Builder()
-                    .setName(name)
-                    .setCapacity(capacity)
-                    .setHasComputers(hasComputers)
-                    .setHasProjector(hasProjector);
+                    .setName(reader.getString(nameIndex))
+                    .setCapacity(reader.getInt(capacityIndex))
+                    .setHasComputers(reader.getInt(hasComputersIndex))
+                    .setHasProjector(reader.getBoolean(hasProjectorIndex));
 
             for (int i = 0; i < columnNames.length; i++) {
                 if (i != nameIndex && i != capacityIndex && i != hasComputersIndex && i != hasProjectorIndex) {
                     // This column is an extra attribute
-                    roomBuilder.setAttribute(columnNames[i].trim(), values[i].trim());
+                    roomBuilder.setAttribute(columnNames[i], reader.getInternedString(i));
                 }
             }
 
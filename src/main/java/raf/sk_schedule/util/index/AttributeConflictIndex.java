@@ -0,0 +1,119 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+/**
+ * Interval indexes of booked slots for the configured conflict keys. A conflict key is the name of an attribute
+ * whose values must not overlap in time, for example "professor" or "group". Every key gets its own interval index
+ * grouped by the attribute value, so checking a new booking touches only the slots with the same professor or group.
+ */
+public class AttributeConflictIndex implements ScheduleChangeListener {
+
+    private final Map<String, IntervalIndex<Object>> indexes;
+
+
+    public AttributeConflictIndex() {
+        indexes = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sets the conflict keys, the indexes of the keys that are no longer configured are dropped.
+     * The indexes of the newly added keys are empty until the slots are booked again, so the owner of the index
+     * is expected to rebuild it after the keys are changed.
+     *
+     * @param conflictKeys The names of the attributes whose values must not overlap in time.
+     */
+    public void setConflictKeys(Collection<String> conflictKeys) {
+        indexes.keySet().retainAll(conflictKeys);
+        for (String key : conflictKeys)
+            indexes.computeIfAbsent(key, k -> new IntervalIndex<>());
+    }
+
+    public Set<String> getConflictKeys() {
+        return Collections.unmodifiableSet(indexes.keySet());
+    }
+
+    /**
+     * Finds the indexed slots that share a value of any conflict key with the slot and overlap it in time.
+     * The slot itself is never reported, so the method can be used to validate a slot that is already booked.
+     *
+     * @param slot The slot to be checked.
+     * @return The list of conflicting slots.
+     */
+    public List<ScheduleSlot> findConflicts(ScheduleSlot slot) {
+        return findConflicts(slot, slot.getAbsoluteStartMinute(), slot.getAbsoluteStartMinute() + slot.getDuration());
+    }
+
+    /**
+     * Finds the indexed slots that share a value of any conflict key with the slot and overlap the interval [start, end).
+     *
+     * @param slot  The slot whose attribute values are checked.
+     * @param start The absolute start minute of the interval (inclusive).
+     * @param end   The absolute end minute of the interval (exclusive).
+     * @return The list of conflicting slots.
+     */
+    public List<ScheduleSlot> findConflicts(ScheduleSlot slot, long start, long end) {
+        List<ScheduleSlot> conflicts = new ArrayList<>();
+        // slots are compared by identity, a slot sharing the values of more keys is reported once
+        Set<ScheduleSlot> reported = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<String, IntervalIndex<Object>> index : indexes.entrySet()) {
+            Object value = slot.getAttribute(index.getKey());
+            if (value == null)
+                continue;
+            for (ScheduleSlot other : index.getValue().overlapping(value, start, end)) {
+                if (other != slot && reported.add(other))
+                    conflicts.add(other);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Finds the indexed slots with the value of the conflict key that overlap the interval [start, end).
+     *
+     * @param key   The name of the conflict key.
+     * @param value The value of the conflict key.
+     * @param start The absolute start minute of the interval (inclusive).
+     * @param end   The absolute end minute of the interval (exclusive).
+     * @return The list of overlapping slots, empty if the key is not configured.
+     */
+    public List<ScheduleSlot> overlapping(String key, Object value, long start, long end) {
+        IntervalIndex<Object> index = indexes.get(key);
+        return index == null ? new ArrayList<>() : index.overlapping(value, start, end);
+    }
+
+    /**
+     * Checks whether the interval [start, end) is free for every conflict key value of the slot.
+     *
+     * @param slot  The slot whose attribute values are checked.
+     * @param start The absolute start minute of the interval (inclusive).
+     * @param end   The absolute end minute of the interval (exclusive).
+     * @return {@code true} if no conflicting slot exists.
+     */
+    public boolean isFree(ScheduleSlot slot, long start, long end) {
+        return findConflicts(slot, start, end).isEmpty();
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+        for (Map.Entry<String, IntervalIndex<Object>> index : indexes.entrySet()) {
+            Object value = slot.getAttribute(index.getKey());
+            if (value != null)
+                index.getValue().add(value, slot);
+        }
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+        for (IntervalIndex<Object> index : indexes.values())
+            index.remove(slot);
+    }
+
+    @Override
+    public void onCleared() {
+        for (IntervalIndex<Object> index : indexes.values())
+            index.clear();
+    }
+}
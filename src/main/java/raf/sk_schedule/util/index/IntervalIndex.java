@@ -0,0 +1,261 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.MINUTES_IN_DAY;
+
+/**
+ * Interval index of {@link ScheduleSlot} instances grouped by a key (room name, attribute value...).
+ * Slots of every key are kept in a tree ordered by the absolute start minute, so overlap checks and free interval
+ * lookups cost O(log n + k) instead of scanning the whole schedule.
+ * <p>
+ * Since a slot can not overflow to another day its duration is never longer than one day,
+ * so every slot overlapping the interval [start, end) has to start within [start - one day, end).
+ * </p>
+ *
+ * @param <K> The type of the key slots are grouped by.
+ */
+public class IntervalIndex<K> {
+
+    /**
+     * The indexed position of a slot. The position is captured when the slot is added,
+     * so the slot can be removed even after its time fields have been changed.
+     */
+    private static final class Interval<K> {
+        private final K key;
+        private final long start;
+        private final long end;
+        private final ScheduleSlot slot;
+
+        private Interval(K key, long start, long end, ScheduleSlot slot) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.slot = slot;
+        }
+    }
+
+    private final Map<K, TreeMap<Long, List<Interval<K>>>> intervals;
+
+    private final Map<ScheduleSlot, Interval<K>> positions;
+
+
+    public IntervalIndex() {
+        intervals = new HashMap<>();
+        positions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Adds the slot to the index under the specified key. If the slot is already indexed its old position is replaced.
+     *
+     * @param key  The key the slot is grouped by.
+     * @param slot The slot to be indexed.
+     */
+    public void add(K key, ScheduleSlot slot) {
+        remove(slot);
+
+        long start = slot.getAbsoluteStartMinute();
+        Interval<K> interval = new Interval<>(key, start, start + slot.getDuration(), slot);
+
+        intervals.computeIfAbsent(key, k -> new TreeMap<>())
+                .computeIfAbsent(start, s -> new ArrayList<>(1))
+                .add(interval);
+        positions.put(slot, interval);
+    }
+
+    /**
+     * Removes the slot from the index.
+     *
+     * @param slot The slot to be removed.
+     * @return {@code true} if the slot was indexed, {@code false} otherwise.
+     */
+    public boolean remove(ScheduleSlot slot) {
+        Interval<K> interval = positions.remove(slot);
+        if (interval == null)
+            return false;
+
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(interval.key);
+        List<Interval<K>> sameStart = tree.get(interval.start);
+        sameStart.remove(interval);
+        if (sameStart.isEmpty())
+            tree.remove(interval.start);
+        if (tree.isEmpty())
+            intervals.remove(interval.key);
+        return true;
+    }
+
+    /**
+     * Checks whether the slot is contained in the index.
+     *
+     * @param slot The slot to look for.
+     * @return {@code true} if the slot is indexed, {@code false} otherwise.
+     */
+    public boolean contains(ScheduleSlot slot) {
+        return positions.containsKey(slot);
+    }
+
+    /**
+     * Returns the key the slot is indexed under.
+     *
+     * @param slot The indexed slot.
+     * @return The key of the slot or null if the slot is not indexed.
+     */
+    public K getKey(ScheduleSlot slot) {
+        Interval<K> interval = positions.get(slot);
+        return interval == null ? null : interval.key;
+    }
+
+    /**
+     * Finds all slots of the specified key that overlap the interval [start, end).
+     *
+     * @param key   The key to look up.
+     * @param start The absolute start minute of the interval (inclusive).
+     * @param end   The absolute end minute of the interval (exclusive).
+     * @return The list of overlapping slots ordered by start time.
+     */
+    public List<ScheduleSlot> overlapping(K key, long start, long end) {
+        List<ScheduleSlot> result = new ArrayList<>();
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(key);
+        if (tree == null)
+            return result;
+
+        for (List<Interval<K>> sameStart : tree.subMap(start - MINUTES_IN_DAY, true, end, false).values()) {
+            for (Interval<K> interval : sameStart) {
+                if (interval.end > start)
+                    result.add(interval.slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether no slot of the specified key overlaps the interval [start, end).
+     *
+     * @param key   The key to look up.
+     * @param start The absolute start minute of the interval (inclusive).
+     * @param end   The absolute end minute of the interval (exclusive).
+     * @return {@code true} if the interval is free, {@code false} otherwise.
+     */
+    public boolean isFree(K key, long start, long end) {
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(key);
+        if (tree == null)
+            return true;
+
+        for (List<Interval<K>> sameStart : tree.subMap(start - MINUTES_IN_DAY, true, end, false).values()) {
+            for (Interval<K> interval : sameStart) {
+                if (interval.end > start)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lazily iterates the free intervals of the specified key within [from, to).
+     * Each element is a two element array holding the absolute start minute (inclusive) and end minute (exclusive)
+     * of a maximal free interval. The gaps are computed while iterating, so only the part of the tree that is consumed is visited.
+     *
+     * @param key  The key to look up.
+     * @param from The absolute start minute of the searched interval (inclusive).
+     * @param to   The absolute end minute of the searched interval (exclusive).
+     * @return The iterator over free intervals ordered by start time.
+     */
+    public Iterator<long[]> freeIntervals(K key, long from, long to) {
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(key);
+        Iterator<List<Interval<K>>> booked = tree == null
+                ? Collections.emptyIterator()
+                : tree.subMap(from - MINUTES_IN_DAY, true, to, false).values().iterator();
+
+        return new Iterator<>() {
+            private long cursor = from;
+            private long[] next = advance();
+
+            private long[] advance() {
+                while (booked.hasNext()) {
+                    long gapEnd = Long.MAX_VALUE;
+                    long occupiedUntil = cursor;
+                    for (Interval<K> interval : booked.next()) {
+                        if (interval.end > cursor) {
+                            gapEnd = Math.min(gapEnd, interval.start);
+                            occupiedUntil = Math.max(occupiedUntil, interval.end);
+                        }
+                    }
+                    if (gapEnd == Long.MAX_VALUE)
+                        continue;
+
+                    long gapStart = cursor;
+                    cursor = occupiedUntil;
+                    if (gapEnd > gapStart)
+                        return new long[]{gapStart, Math.min(gapEnd, to)};
+                }
+                if (cursor < to) {
+                    long[] last = new long[]{cursor, to};
+                    cursor = to;
+                    return last;
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public long[] next() {
+                if (next == null)
+                    throw new NoSuchElementException();
+                long[] current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Returns all slots indexed under the specified key ordered by start time.
+     *
+     * @param key The key to look up.
+     * @return The list of slots of the key.
+     */
+    public List<ScheduleSlot> getSlots(K key) {
+        List<ScheduleSlot> result = new ArrayList<>();
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(key);
+        if (tree != null)
+            for (List<Interval<K>> sameStart : tree.values())
+                for (Interval<K> interval : sameStart)
+                    result.add(interval.slot);
+        return result;
+    }
+
+    /**
+     * Returns the number of slots indexed under the specified key.
+     *
+     * @param key The key to look up.
+     * @return The number of slots of the key.
+     */
+    public int count(K key) {
+        TreeMap<Long, List<Interval<K>>> tree = intervals.get(key);
+        if (tree == null)
+            return 0;
+        int count = 0;
+        for (List<Interval<K>> sameStart : tree.values())
+            count += sameStart.size();
+        return count;
+    }
+
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(intervals.keySet());
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public void clear() {
+        intervals.clear();
+        positions.clear();
+    }
+}
@@ -0,0 +1,134 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+/**
+ * Index of rooms ordered by capacity. Rooms that can not satisfy the required capacity are skipped without being visited,
+ * and the candidates are returned from the smallest sufficient capacity upwards, which is the best fit order for booking.
+ */
+public class RoomFeatureIndex implements ScheduleChangeListener {
+
+    private final Map<String, RoomProperties> roomsByName;
+
+    private final TreeMap<Integer, TreeMap<String, RoomProperties>> roomsByCapacity;
+
+
+    public RoomFeatureIndex() {
+        roomsByName = new HashMap<>();
+        roomsByCapacity = new TreeMap<>();
+    }
+
+    public void addRoom(RoomProperties room) {
+        removeRoom(room.getName());
+        roomsByName.put(room.getName(), room);
+        roomsByCapacity.computeIfAbsent(room.getCapacity(), c -> new TreeMap<>()).put(room.getName(), room);
+    }
+
+    public RoomProperties removeRoom(String name) {
+        RoomProperties room = roomsByName.remove(name);
+        if (room == null)
+            return null;
+
+        // the capacity could have been changed through the setter, so the room is looked up by identity as a fallback
+        TreeMap<String, RoomProperties> sameCapacity = roomsByCapacity.get(room.getCapacity());
+        if (sameCapacity == null || sameCapacity.remove(name) == null) {
+            for (Iterator<TreeMap<String, RoomProperties>> it = roomsByCapacity.values().iterator(); it.hasNext(); ) {
+                TreeMap<String, RoomProperties> rooms = it.next();
+                if (rooms.values().removeIf(r -> r == room) && rooms.isEmpty())
+                    it.remove();
+            }
+        } else if (sameCapacity.isEmpty())
+            roomsByCapacity.remove(room.getCapacity());
+
+        return room;
+    }
+
+    public RoomProperties getRoom(String name) {
+        return roomsByName.get(name);
+    }
+
+    public Collection<RoomProperties> getRooms() {
+        return Collections.unmodifiableCollection(roomsByName.values());
+    }
+
+    /**
+     * Finds the rooms satisfying the specified requirements ordered by the best fit,
+     * that is from the smallest sufficient capacity upwards (rooms with the same capacity are ordered by name).
+     *
+     * @param minCapacity  The minimal capacity of the room.
+     * @param minComputers The minimal number of computers in the room.
+     * @param hasProjector Whether the room has to have a projector. If null the projector is not considered.
+     * @param attributes   Additional room attributes that have to match. If null or empty the attributes are not considered.
+     * @return The list of matching rooms ordered by the best fit.
+     */
+    public List<RoomProperties> candidates(int minCapacity, int minComputers, Boolean hasProjector, Map<String, ?> attributes) {
+        List<RoomProperties> result = new ArrayList<>();
+        for (TreeMap<String, RoomProperties> sameCapacity : roomsByCapacity.tailMap(minCapacity, true).values()) {
+            for (RoomProperties room : sameCapacity.values()) {
+                if (matches(room, minComputers, hasProjector, attributes))
+                    result.add(room);
+            }
+        }
+        return result;
+    }
+
+    static boolean matches(RoomProperties room, int minComputers, Boolean hasProjector, Map<String, ?> attributes) {
+        if (room.hasComputers() < minComputers)
+            return false;
+        if (hasProjector != null && room.hasProjector() != hasProjector)
+            return false;
+        if (attributes != null)
+            for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+                if (!room.hasAttribute(attribute.getKey())
+                        || !String.valueOf(room.getAttribute(attribute.getKey())).equals(String.valueOf(attribute.getValue())))
+                    return false;
+            }
+        return true;
+    }
+
+    public int size() {
+        return roomsByName.size();
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+    }
+
+    @Override
+    public void onRoomAdded(RoomProperties room) {
+        addRoom(room);
+    }
+
+    @Override
+    public void onRoomRemoved(RoomProperties room) {
+        removeRoom(room.getName());
+    }
+
+    /**
+     * Applies the batch to the name map and rebuilds the capacity order in one pass.
+     */
+    @Override
+    public void onRoomsChanged(Collection<RoomProperties> removed, Collection<RoomProperties> added) {
+        for (RoomProperties room : removed)
+            roomsByName.remove(room.getName());
+        for (RoomProperties room : added)
+            roomsByName.put(room.getName(), room);
+
+        roomsByCapacity.clear();
+        for (RoomProperties room : roomsByName.values())
+            roomsByCapacity.computeIfAbsent(room.getCapacity(), c -> new TreeMap<>()).put(room.getName(), room);
+    }
+
+    @Override
+    public void onCleared() {
+        roomsByName.clear();
+        roomsByCapacity.clear();
+    }
+}
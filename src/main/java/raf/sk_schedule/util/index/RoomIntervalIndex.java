@@ -0,0 +1,44 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+/**
+ * Per-room interval index of booked slots. The slots are grouped by the name of their location,
+ * so checking whether a room is free or listing its free intervals touches only the bookings of that room.
+ * It is also the reverse index from a room to its slots and series used by the cascading room operations.
+ */
+public class RoomIntervalIndex extends IntervalIndex<String> implements ScheduleChangeListener {
+
+    /**
+     * Returns the series that have at least one slot booked in the room, found through the shared state of the room's slots.
+     *
+     * @param room The name of the room.
+     * @return The distinct series of the room.
+     */
+    public List<RepetitiveScheduleMapper> getSeries(String room) {
+        Set<RepetitiveScheduleMapper> series = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ScheduleSlot slot : getSlots(room))
+            if (slot.getSharedState() != null)
+                series.add(slot.getSharedState());
+        return new ArrayList<>(series);
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+        if (slot.getLocation() != null)
+            add(slot.getLocation().getName(), slot);
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+        remove(slot);
+    }
+
+    @Override
+    public void onCleared() {
+        clear();
+    }
+}
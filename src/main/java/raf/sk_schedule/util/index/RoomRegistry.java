@@ -0,0 +1,103 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+/**
+ * Registry assigning dense int ids to rooms, so the compact slot records, see {@link raf.sk_schedule.model.schedule_node.CompactScheduleSlot},
+ * can refer to their room by an int instead of holding a {@link RoomProperties} reference. An id is assigned to a room name
+ * the first time the room is registered. The registry only grows, an id is never reassigned to another name,
+ * so the records written with it stay valid as long as they live; the {@link RoomProperties} object is resolved from the id
+ * only when a slot is read back.
+ * <p>
+ * The registry is owned by the structure holding the records, like a {@link raf.sk_schedule.util.store.ScheduleSnapshot}
+ * or an {@link raf.sk_schedule.util.store.OffHeapSlotStore}, it isn't kept in sync with the rooms of a schedule manager.
+ * </p>
+ */
+public class RoomRegistry {
+
+    public static final int NO_ROOM = -1;
+
+    private final Map<String, Integer> ids;
+    private final List<String> names;
+    private final List<RoomProperties> rooms;
+
+
+    public RoomRegistry() {
+        ids = new HashMap<>();
+        names = new ArrayList<>();
+        rooms = new ArrayList<>();
+    }
+
+    /**
+     * Returns the id of the room, the room is registered if it is not known yet.
+     *
+     * @param room The room to be registered.
+     * @return The id of the room.
+     */
+    public synchronized int register(RoomProperties room) {
+        int id = register(room.getName());
+        rooms.set(id, room);
+        return id;
+    }
+
+    private int register(String name) {
+        Integer id = ids.get(name);
+        if (id != null)
+            return id;
+        ids.put(name, names.size());
+        names.add(name);
+        rooms.add(null);
+        return names.size() - 1;
+    }
+
+    /**
+     * @param name The name of the room.
+     * @return The id of the room, or {@link RoomRegistry#NO_ROOM} if no room with the name has been registered.
+     */
+    public synchronized int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? NO_ROOM : id;
+    }
+
+    /**
+     * @param room The room given as {@link RoomProperties} or by its name.
+     * @return The id of the room, or {@link RoomRegistry#NO_ROOM} if the room has not been registered.
+     */
+    public int idOf(Object room) {
+        if (room instanceof RoomProperties)
+            return idOf(((RoomProperties) room).getName());
+        if (room instanceof String)
+            return idOf((String) room);
+        return NO_ROOM;
+    }
+
+    /**
+     * @param slot The slot whose location is looked up.
+     * @return The id of the location of the slot, or {@link RoomRegistry#NO_ROOM} if the slot has no registered location.
+     */
+    public int idOf(ScheduleSlot slot) {
+        return slot.getLocation() == null ? NO_ROOM : idOf(slot.getLocation().getName());
+    }
+
+    /**
+     * @param id The id of the room.
+     * @return The room with the id, or null if no room has the id.
+     */
+    public synchronized RoomProperties resolve(int id) {
+        return id < 0 || id >= rooms.size() ? null : rooms.get(id);
+    }
+
+    public synchronized String nameOf(int id) {
+        return id < 0 || id >= names.size() ? null : names.get(id);
+    }
+
+    /**
+     * @return The number of assigned ids, every id is lower than this number.
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,68 @@
+package raf.sk_schedule.util.index;
+
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.Collection;
+
+/**
+ * Observer interface for structures that are derived from the schedule state (indexes, caches, statistics).
+ * The schedule manager notifies every registered listener after the state of the schedule has been changed,
+ * so the derived structures can be updated incrementally instead of being rebuilt by scanning the whole schedule.
+ * <p>
+ * Moving a slot is reported as {@link ScheduleChangeListener#onSlotRemoved(ScheduleSlot)} before the slot fields are changed
+ * followed by {@link ScheduleChangeListener#onSlotBooked(ScheduleSlot)} after the change has been applied.
+ * Updating a room is reported in the same way with the room callbacks.
+ * </p>
+ */
+public interface ScheduleChangeListener {
+
+    /**
+     * Called after the slot has been added to the schedule.
+     *
+     * @param slot The slot that has been booked.
+     */
+    void onSlotBooked(ScheduleSlot slot);
+
+    /**
+     * Called when the slot is being removed from the schedule.
+     *
+     * @param slot The slot that has been removed.
+     */
+    void onSlotRemoved(ScheduleSlot slot);
+
+    /**
+     * Called after the room has been added to the schedule.
+     *
+     * @param room The room that has been added.
+     */
+    default void onRoomAdded(RoomProperties room) {
+    }
+
+    /**
+     * Called when the room is being removed from the schedule.
+     *
+     * @param room The room that has been removed.
+     */
+    default void onRoomRemoved(RoomProperties room) {
+    }
+
+    /**
+     * Called once after a batch of room changes, like an import of the room catalogue, instead of the callbacks of the single rooms.
+     * The default implementation replays the batch through {@link #onRoomRemoved(RoomProperties)} and {@link #onRoomAdded(RoomProperties)},
+     * structures that can be rebuilt in one pass should override it.
+     *
+     * @param removed The rooms that have been removed, including the previous versions of the updated rooms.
+     * @param added   The rooms that have been added, including the new versions of the updated rooms.
+     */
+    default void onRoomsChanged(Collection<RoomProperties> removed, Collection<RoomProperties> added) {
+        removed.forEach(this::onRoomRemoved);
+        added.forEach(this::onRoomAdded);
+    }
+
+    /**
+     * Called when the derived structures have to drop all of their state, for example before a full rebuild.
+     */
+    default void onCleared() {
+    }
+}
@@ -0,0 +1,17 @@
+package raf.sk_schedule.util.metrics;
+
+import java.util.List;
+
+/**
+ * Receiver of the metric snapshots, implemented to forward the measurements to a monitoring system.
+ *
+ * @see MetricsRegistry#exportTo(MetricsExporter)
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    /**
+     * @param snapshots The snapshots of all operations that have been recorded at least once.
+     */
+    void export(List<OperationSnapshot> snapshots);
+}
@@ -0,0 +1,146 @@
+package raf.sk_schedule.util.metrics;
+
+import raf.sk_schedule.exception.ScheduleException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry holding a latency histogram and row counters for every {@link Operation}. Recording is lock-free and
+ * doesn't allocate, the measurements are read as snapshots and can be pushed to a {@link MetricsExporter} or read through JMX.
+ */
+public class MetricsRegistry implements ScheduleMetrics, ScheduleMetricsMXBean {
+
+    public static final String DEFAULT_JMX_NAME = "raf.sk_schedule:type=ScheduleMetrics";
+
+    private static final class OperationMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder returned = new LongAdder();
+    }
+
+    private final OperationMetrics[] operations;
+
+
+    public MetricsRegistry() {
+        operations = new OperationMetrics[Operation.values().length];
+        for (int i = 0; i < operations.length; i++)
+            operations[i] = new OperationMetrics();
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void record(Operation operation, long startNanos, long scanned, long returned) {
+        OperationMetrics metrics = operations[operation.ordinal()];
+        metrics.latency.record(System.nanoTime() - startNanos);
+        metrics.scanned.add(scanned);
+        metrics.returned.add(returned);
+    }
+
+    @Override
+    public void recordFailure(Operation operation, long startNanos) {
+        OperationMetrics metrics = operations[operation.ordinal()];
+        metrics.latency.record(System.nanoTime() - startNanos);
+        metrics.failures.increment();
+    }
+
+    /**
+     * @param operation The recorded operation.
+     * @return The latency histogram of the operation.
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return operations[operation.ordinal()].latency;
+    }
+
+    /**
+     * @param operation The recorded operation.
+     * @return The snapshot of the measurements of the operation.
+     */
+    public OperationSnapshot snapshot(Operation operation) {
+        OperationMetrics metrics = operations[operation.ordinal()];
+        LatencyHistogram latency = metrics.latency;
+        return new OperationSnapshot(operation.name(), latency.getCount(), metrics.failures.sum(),
+                metrics.scanned.sum(), metrics.returned.sum(), latency.getMeanNanos(),
+                latency.getPercentileNanos(50), latency.getPercentileNanos(90), latency.getPercentileNanos(99), latency.getMaxNanos());
+    }
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for (Operation operation : Operation.values())
+            if (operations[operation.ordinal()].latency.getCount() > 0)
+                snapshots.add(snapshot(operation));
+        return snapshots;
+    }
+
+    /**
+     * Passes the snapshots of all recorded operations to the exporter.
+     *
+     * @param exporter The exporter receiving the snapshots.
+     */
+    public void exportTo(MetricsExporter exporter) {
+        exporter.export(getOperations());
+    }
+
+    @Override
+    public void reset() {
+        for (OperationMetrics metrics : operations) {
+            metrics.latency.reset();
+            metrics.failures.reset();
+            metrics.scanned.reset();
+            metrics.returned.reset();
+        }
+    }
+
+    /**
+     * Registers the registry in the platform MBean server under the {@link MetricsRegistry#DEFAULT_JMX_NAME}.
+     *
+     * @return The name the registry is registered under.
+     * @throws ScheduleException If the registry can't be registered.
+     */
+    public ObjectName registerMBean() {
+        return registerMBean(DEFAULT_JMX_NAME);
+    }
+
+    /**
+     * Registers the registry in the platform MBean server.
+     *
+     * @param name The object name, for example "raf.sk_schedule:type=ScheduleMetrics,name=faculty".
+     * @return The name the registry is registered under.
+     * @throws ScheduleException If the name is malformed or already registered.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new ScheduleException(e);
+        }
+    }
+
+    /**
+     * Removes the registry from the platform MBean server.
+     *
+     * @param name The object name the registry has been registered under.
+     * @throws ScheduleException If the name is not registered.
+     */
+    public void unregisterMBean(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new ScheduleException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package raf.sk_schedule.util.metrics;
+
+/**
+ * The operations of the schedule manager whose latency and row counts are recorded by {@link ScheduleMetrics}.
+ */
+public enum Operation {
+    BOOK_SLOT,
+    MOVE_SLOT,
+    DELETE_SLOT,
+    CHECK_AVAILABILITY,
+    GET_SCHEDULE,
+    SEARCH,
+    FREE_SLOTS,
+    FIND_ROOMS,
+    VALIDATE,
+    IMPORT,
+    EXPORT,
+    TRANSACTION
+}
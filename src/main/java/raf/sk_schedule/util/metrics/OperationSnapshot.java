@@ -0,0 +1,92 @@
+package raf.sk_schedule.util.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable snapshot of the measurements of one operation, handed to the {@link MetricsExporter} and exposed through JMX.
+ */
+public class OperationSnapshot {
+
+    private final String operation;
+    private final long count;
+    private final long failures;
+    private final long scannedRows;
+    private final long returnedRows;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+
+    @ConstructorProperties({"operation", "count", "failures", "scannedRows", "returnedRows", "meanNanos", "p50Nanos", "p90Nanos", "p99Nanos", "maxNanos"})
+    public OperationSnapshot(String operation, long count, long failures, long scannedRows, long returnedRows,
+                             double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+        this.operation = operation;
+        this.count = count;
+        this.failures = failures;
+        this.scannedRows = scannedRows;
+        this.returnedRows = returnedRows;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return operation + ": count=" + count
+                + " failures=" + failures
+                + " scanned=" + scannedRows
+                + " returned=" + returnedRows
+                + " mean=" + Math.round(meanNanos) + "ns"
+                + " p50=" + p50Nanos + "ns"
+                + " p90=" + p90Nanos + "ns"
+                + " p99=" + p99Nanos + "ns"
+                + " max=" + maxNanos + "ns";
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return The number of completed operations, failures included.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    public long getReturnedRows() {
+        return returnedRows;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
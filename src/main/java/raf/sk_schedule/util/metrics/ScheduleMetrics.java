@@ -0,0 +1,55 @@
+package raf.sk_schedule.util.metrics;
+
+/**
+ * Recorder of the latency and row counts of the schedule manager operations. An instrumented operation takes the start time
+ * from {@link ScheduleMetrics#start()} and reports it together with the number of scanned and returned rows when it finishes:
+ * <pre>
+ *     long start = metrics.start();
+ *     ...
+ *     metrics.record(Operation.SEARCH, start, scanned, returned);
+ * </pre>
+ * Neither call allocates. The {@link ScheduleMetrics#NOOP} recorder, used until a registry is set, doesn't even read the clock.
+ */
+public interface ScheduleMetrics {
+
+    /**
+     * Recorder that ignores every measurement.
+     */
+    ScheduleMetrics NOOP = new ScheduleMetrics() {
+        @Override
+        public long start() {
+            return 0;
+        }
+
+        @Override
+        public void record(Operation operation, long startNanos, long scanned, long returned) {
+        }
+
+        @Override
+        public void recordFailure(Operation operation, long startNanos) {
+        }
+    };
+
+    /**
+     * @return The start time of the measured operation in nanoseconds.
+     */
+    long start();
+
+    /**
+     * Records the successful completion of the operation.
+     *
+     * @param operation  The finished operation.
+     * @param startNanos The start time returned by {@link ScheduleMetrics#start()}.
+     * @param scanned    The number of slots the operation has examined.
+     * @param returned   The number of rows the operation has returned, written or booked.
+     */
+    void record(Operation operation, long startNanos, long scanned, long returned);
+
+    /**
+     * Records the operation that has finished with an exception.
+     *
+     * @param operation  The failed operation.
+     * @param startNanos The start time returned by {@link ScheduleMetrics#start()}.
+     */
+    void recordFailure(Operation operation, long startNanos);
+}
@@ -0,0 +1,19 @@
+package raf.sk_schedule.util.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of the {@link MetricsRegistry}.
+ */
+public interface ScheduleMetricsMXBean {
+
+    /**
+     * @return The snapshots of all operations that have been recorded at least once.
+     */
+    List<OperationSnapshot> getOperations();
+
+    /**
+     * Discards all recorded measurements.
+     */
+    void reset();
+}
@@ -0,0 +1,52 @@
+package raf.sk_schedule.util.room_finder;
+
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.util.index.IntervalIndex;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `AvailableRoomFinder` class answers "which rooms can host this booking" in a single pass.
+ * It joins the room feature index (rooms satisfying the requirements, ordered by the best fit)
+ * with the per-room interval index of bookings, so the availability of every candidate is checked only against the bookings of that room.
+ */
+public class AvailableRoomFinder {
+
+    /**
+     * Finds all rooms that satisfy the requirements of the query and are free for every occurrence of the queried booking.
+     *
+     * @param query    The query describing the booking and the room requirements.
+     * @param rooms    The index of rooms by their features.
+     * @param bookings The index of booked slots grouped by room name.
+     * @return The list of available rooms ordered by the best fit (the smallest sufficient capacity first).
+     */
+    public static List<RoomProperties> findAvailableRooms(RoomAvailabilityQuery query, RoomFeatureIndex rooms, IntervalIndex<String> bookings) {
+        long[] occurrences = query.mapOccurrences();
+        List<RoomProperties> available = new ArrayList<>();
+
+        for (RoomProperties room : rooms.candidates(query.getCapacity(), query.hasComputers(), query.hasProjector(), query.getAttributes())) {
+            if (isFree(room.getName(), occurrences, query.getDuration(), bookings))
+                available.add(room);
+        }
+        return available;
+    }
+
+    /**
+     * Checks whether the room is free for all occurrences.
+     *
+     * @param roomName    The name of the room.
+     * @param occurrences The absolute start minutes of the occurrences.
+     * @param duration    The duration of every occurrence in minutes.
+     * @param bookings    The index of booked slots grouped by room name.
+     * @return {@code true} if none of the occurrences collides with a booking of the room.
+     */
+    static boolean isFree(String roomName, long[] occurrences, int duration, IntervalIndex<String> bookings) {
+        for (long start : occurrences) {
+            if (!bookings.isFree(roomName, start, start + duration))
+                return false;
+        }
+        return true;
+    }
+}
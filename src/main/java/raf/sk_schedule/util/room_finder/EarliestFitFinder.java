@@ -0,0 +1,151 @@
+package raf.sk_schedule.util.room_finder;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.util.index.IntervalIndex;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `EarliestFitFinder` class finds the earliest free times across many rooms and days.
+ * Every candidate room gets a lazy cursor over its free intervals, and the cursors are merged through a priority queue
+ * ordered by the start of their next fitting interval. The search stops as soon as the requested number of results is found,
+ * so the free intervals after the last result are never computed.
+ */
+public class EarliestFitFinder {
+
+    /**
+     * Lazy iterator over the starts of the free intervals of one room that are long enough for the requested duration.
+     */
+    private static final class RoomCursor {
+        private final RoomProperties room;
+        private final IntervalIndex<String> bookings;
+        private final EarliestFitQuery query;
+        private final boolean[] acceptableDays;
+        private final long lastDay;
+        private final int earliestMinute;
+        private final int latestMinute;
+        private final int[] examined;
+
+        private long day;
+        private Iterator<long[]> dayIntervals;
+        private long nextStart;
+
+        private RoomCursor(RoomProperties room, IntervalIndex<String> bookings, EarliestFitQuery query, boolean[] acceptableDays, long firstDay, long lastDay,
+                           int[] examined) {
+            this.room = room;
+            this.bookings = bookings;
+            this.query = query;
+            this.acceptableDays = acceptableDays;
+            this.lastDay = lastDay;
+            this.earliestMinute = toMinuteOfDay(query.getEarliestTime());
+            this.latestMinute = toMinuteOfDay(query.getLatestTime());
+            this.examined = examined;
+            this.day = firstDay - 1;
+            this.dayIntervals = Collections.emptyIterator();
+        }
+
+        /**
+         * Moves the cursor to the next free interval that can fit the requested duration.
+         *
+         * @return {@code true} if such an interval exists, {@code false} if the cursor is exhausted.
+         */
+        private boolean advance() {
+            while (true) {
+                while (dayIntervals.hasNext()) {
+                    long[] interval = dayIntervals.next();
+                    if (interval[1] - interval[0] >= query.getDuration()) {
+                        nextStart = interval[0];
+                        return true;
+                    }
+                }
+                do {
+                    if (++day >= lastDay)
+                        return false;
+                } while (!acceptableDays[weekDayIndex(day)]);
+
+                long midnight = day * MINUTES_IN_DAY;
+                dayIntervals = bookings.freeIntervals(room.getName(), midnight + earliestMinute, midnight + latestMinute);
+                examined[0]++;
+            }
+        }
+    }
+
+    /**
+     * Finds the earliest free times that satisfy the query.
+     *
+     * @param query          The query describing the searched interval, the duration and the room requirements.
+     * @param acceptableDays The days of the week the results can fall on, used if the query does not define its own.
+     * @param rooms          The index of rooms by their features.
+     * @param bookings       The index of booked slots grouped by room name.
+     * @return Up to {@link EarliestFitQuery#getLimit()} free slots of the requested duration ordered by start time,
+     * ties are ordered by the best fitting room.
+     */
+    public static List<FreeScheduleSlot> findEarliestFreeSlots(EarliestFitQuery query, List<WeekDay> acceptableDays,
+                                                               RoomFeatureIndex rooms, IntervalIndex<String> bookings) {
+        return findEarliestFreeSlots(query, acceptableDays, rooms, bookings, new int[1]);
+    }
+
+    /**
+     * Finds the earliest free times that satisfy the query, and counts the room-days whose free intervals were examined.
+     *
+     * @param query          The query describing the searched interval, the duration and the room requirements.
+     * @param acceptableDays The days of the week the results can fall on, used if the query does not define its own.
+     * @param rooms          The index of rooms by their features.
+     * @param bookings       The index of booked slots grouped by room name.
+     * @param examined       The counter the number of examined room-days is added to, at index 0.
+     * @return Up to {@link EarliestFitQuery#getLimit()} free slots of the requested duration ordered by start time,
+     * ties are ordered by the best fitting room.
+     */
+    public static List<FreeScheduleSlot> findEarliestFreeSlots(EarliestFitQuery query, List<WeekDay> acceptableDays,
+                                                               RoomFeatureIndex rooms, IntervalIndex<String> bookings, int[] examined) {
+        boolean[] acceptable = new boolean[WeekDay.values().length];
+        for (WeekDay day : query.getAcceptableDays() != null ? query.getAcceptableDays() : acceptableDays)
+            acceptable[day.ordinal()] = true;
+
+        long firstDay = toEpochDay(query.getSearchIntervalStart());
+        long lastDay = toEpochDay(query.getSearchIntervalEnd());
+
+        // candidates are already ordered by the best fit, so the candidate rank breaks the ties between equal start times
+        List<RoomProperties> candidates = rooms.candidates(query.getCapacity(), query.hasComputers(), query.hasProjector(), query.getAttributes());
+        Map<RoomCursor, Integer> rank = new IdentityHashMap<>();
+        PriorityQueue<RoomCursor> queue = new PriorityQueue<>(Math.max(1, candidates.size()),
+                Comparator.<RoomCursor>comparingLong(cursor -> cursor.nextStart).thenComparingInt(rank::get));
+
+        for (RoomProperties room : candidates) {
+            RoomCursor cursor = new RoomCursor(room, bookings, query, acceptable, firstDay, lastDay, examined);
+            rank.put(cursor, rank.size());
+            if (cursor.advance())
+                queue.add(cursor);
+        }
+
+        List<FreeScheduleSlot> result = new ArrayList<>(query.getLimit());
+        while (result.size() < query.getLimit() && !queue.isEmpty()) {
+            RoomCursor cursor = queue.poll();
+            result.add(toFreeSlot(cursor.nextStart, query.getDuration(), cursor.room));
+            if (cursor.advance())
+                queue.add(cursor);
+        }
+        return result;
+    }
+
+    static FreeScheduleSlot toFreeSlot(long absoluteStart, int duration, RoomProperties room) {
+        int startMinute = Math.floorMod(absoluteStart, MINUTES_IN_DAY);
+        return new FreeScheduleSlot.Builder()
+                .setDate(fromEpochDay(Math.floorDiv(absoluteStart, MINUTES_IN_DAY)))
+                .setStartTime(formatMinuteOfDay(startMinute))
+                .setDuration(duration)
+                .setEndTime(formatMinuteOfDay(startMinute + duration))
+                .setLocation(room)
+                .build();
+    }
+
+    static int weekDayIndex(long epochDay) {
+        // epoch day 0 (1970-01-01) was a thursday
+        return Math.floorMod(epochDay + WeekDay.THURSDAY.ordinal(), WeekDay.values().length);
+    }
+}
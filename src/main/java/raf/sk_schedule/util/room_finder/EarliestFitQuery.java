@@ -0,0 +1,235 @@
+package raf.sk_schedule.util.room_finder;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `EarliestFitQuery` class describes the search for the earliest times when a room satisfying the requirements
+ * is free for the requested duration, for example "the first 5 times in the next 4 weeks when any room with capacity 60
+ * and a projector is free for 90 minutes on a working day".
+ */
+public class EarliestFitQuery {
+
+    private final Date searchIntervalStart;
+    private final Date searchIntervalEnd;
+    private final List<WeekDay> acceptableDays;
+    private final String earliestTime;
+    private final String latestTime;
+    private final int duration;
+    private final int limit;
+
+    private final int capacity;
+    private final int hasComputers;
+    private final Boolean hasProjector;
+    private final Map<String, Object> attributes;
+
+    private EarliestFitQuery(Date searchIntervalStart, Date searchIntervalEnd, List<WeekDay> acceptableDays,
+                             String earliestTime, String latestTime, int duration, int limit,
+                             int capacity, int hasComputers, Boolean hasProjector, Map<String, Object> attributes) {
+        this.searchIntervalStart = searchIntervalStart;
+        this.searchIntervalEnd = searchIntervalEnd;
+        this.acceptableDays = acceptableDays;
+        this.earliestTime = earliestTime;
+        this.latestTime = latestTime;
+        this.duration = duration;
+        this.limit = limit;
+        this.capacity = capacity;
+        this.hasComputers = hasComputers;
+        this.hasProjector = hasProjector;
+        this.attributes = attributes;
+    }
+
+    public Date getSearchIntervalStart() {
+        return searchIntervalStart;
+    }
+
+    public Date getSearchIntervalEnd() {
+        return searchIntervalEnd;
+    }
+
+    /**
+     * @return The days of the week the result can fall on, or null if the acceptable days of the schedule should be used.
+     */
+    public List<WeekDay> getAcceptableDays() {
+        return acceptableDays == null ? null : new ArrayList<>(acceptableDays);
+    }
+
+    public String getEarliestTime() {
+        return earliestTime;
+    }
+
+    public String getLatestTime() {
+        return latestTime;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int hasComputers() {
+        return hasComputers;
+    }
+
+    public Boolean hasProjector() {
+        return hasProjector;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return new HashMap<>(attributes);
+    }
+
+    /**
+     * The `Builder` class is responsible for constructing instances of the `EarliestFitQuery` class.
+     */
+    public static class Builder {
+        private Date searchIntervalStart;
+        private Date searchIntervalEnd;
+        private List<WeekDay> acceptableDays;
+        private String earliestTime;
+        private String latestTime;
+        private int duration;
+        private int limit;
+
+        private int capacity;
+        private int hasComputers;
+        private Boolean hasProjector;
+        private final Map<String, Object> attributes;
+
+        /**
+         * Default constructor initializes the search of the first free time within the whole day without room requirements.
+         */
+        public Builder() {
+            acceptableDays = null;
+            earliestTime = "00:00";
+            latestTime = "23:59";
+            limit = 1;
+            capacity = 0;
+            hasComputers = 0;
+            hasProjector = null;
+            attributes = new HashMap<>();
+        }
+
+        /**
+         * Sets the first day of the search.
+         *
+         * @param searchIntervalStart The start date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSearchIntervalStart(Object searchIntervalStart) {
+            this.searchIntervalStart = toDate(searchIntervalStart);
+            return this;
+        }
+
+        /**
+         * Sets the end of the search (exclusive).
+         *
+         * @param searchIntervalEnd The end date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSearchIntervalEnd(Object searchIntervalEnd) {
+            this.searchIntervalEnd = toDate(searchIntervalEnd);
+            return this;
+        }
+
+        public Builder setAcceptableDays(WeekDay... acceptableDays) {
+            this.acceptableDays = Arrays.asList(acceptableDays);
+            return this;
+        }
+
+        /**
+         * Sets the time of the day before which the results can not start.
+         *
+         * @param earliestTime The time in "HH:mm" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setEarliestTime(String earliestTime) {
+            this.earliestTime = earliestTime;
+            return this;
+        }
+
+        /**
+         * Sets the time of the day after which the results can not end.
+         *
+         * @param latestTime The time in "HH:mm" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setLatestTime(String latestTime) {
+            this.latestTime = latestTime;
+            return this;
+        }
+
+        public Builder setDuration(int duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Sets the maximal number of results, the search stops as soon as this many results are found.
+         *
+         * @param limit The maximal number of results.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setLimit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder setHasComputers(int hasComputers) {
+            this.hasComputers = hasComputers;
+            return this;
+        }
+
+        public Builder setHasProjector(Boolean hasProjector) {
+            this.hasProjector = hasProjector;
+            return this;
+        }
+
+        public Builder setAttribute(String attributeName, Object attributeValue) {
+            attributes.put(attributeName, attributeValue);
+            return this;
+        }
+
+        private static Date toDate(Object date) {
+            if (date instanceof Date)
+                return (Date) date;
+            if (date instanceof String)
+                return parseDate((String) date);
+            throw new ScheduleException("Date parameter can be set only as String or java.util Date instance!");
+        }
+
+        /**
+         * Builds an instance of the `EarliestFitQuery` class with the specified settings.
+         *
+         * @return An instance of `EarliestFitQuery`.
+         * @throws ScheduleException If the search interval is not defined or the duration does not fit into the daily time window.
+         */
+        public EarliestFitQuery build() {
+            if (searchIntervalStart == null || searchIntervalEnd == null)
+                throw new ScheduleException("EarliestFitQuery: the search interval is not defined!");
+            if (duration <= 0 || toMinuteOfDay(latestTime) - toMinuteOfDay(earliestTime) < duration)
+                throw new ScheduleException("EarliestFitQuery: the duration has to be positive and fit between the earliest and the latest time!");
+            if (limit <= 0)
+                throw new ScheduleException("EarliestFitQuery: the limit of results has to be positive!");
+
+            return new EarliestFitQuery(searchIntervalStart, searchIntervalEnd, acceptableDays == null ? null : new ArrayList<>(acceptableDays),
+                    earliestTime, latestTime, duration, limit, capacity, hasComputers, hasProjector, new HashMap<>(attributes));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package raf.sk_schedule.util.room_finder;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.IntervalIndex;
+import raf.sk_schedule.util.index.ScheduleChangeListener;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.LAST_MINUTE_OF_DAY;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.MINUTES_IN_DAY;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.toEpochDay;
+
+/**
+ * Memo of the free intervals of every room and day. The free intervals of a room-day are computed from the booking index
+ * the first time they are requested and kept until a slot of that room and day is booked, moved or removed,
+ * so overlapping free slot queries are assembled from the day fragments that are already computed.
+ * The number of memoized room-days is bounded, when the memo is full the least recently used room-day is evicted.
+ */
+public class FreeSlotMemo implements ScheduleChangeListener {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final int[] NO_FRAGMENTS = new int[0];
+
+    /**
+     * Key of the memoized free intervals of one room on one day.
+     */
+    private static final class RoomDay {
+        private final String room;
+        private final long epochDay;
+
+        private RoomDay(String room, long epochDay) {
+            this.room = room;
+            this.epochDay = epochDay;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RoomDay && ((RoomDay) obj).epochDay == epochDay && ((RoomDay) obj).room.equals(room);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * room.hashCode() + Long.hashCode(epochDay);
+        }
+    }
+
+    private final IntervalIndex<String> bookings;
+    private final int capacity;
+
+    /**
+     * Free intervals by room-day, stored as the pairs of the start (inclusive) and end (exclusive) minutes of the day.
+     */
+    private final LinkedHashMap<RoomDay, int[]> fragments;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+
+    /**
+     * @param bookings The index of booked slots grouped by room name the free intervals are computed from.
+     */
+    public FreeSlotMemo(IntervalIndex<String> bookings) {
+        this(bookings, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param bookings The index of booked slots grouped by room name the free intervals are computed from.
+     * @param capacity The maximum number of memoized room-days.
+     */
+    public FreeSlotMemo(IntervalIndex<String> bookings, int capacity) {
+        this.bookings = bookings;
+        this.capacity = capacity;
+        // access ordered, so the eldest entry is the least recently used one
+        this.fragments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RoomDay, int[]> eldest) {
+                if (size() <= FreeSlotMemo.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the free intervals of the room on the day.
+     *
+     * @param room     The name of the room.
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The pairs of the start (inclusive) and end (exclusive) minutes of the day of the free intervals, ordered by start.
+     */
+    public synchronized int[] freeIntervals(String room, long epochDay) {
+        RoomDay key = new RoomDay(room, epochDay);
+        int[] free = fragments.get(key);
+        if (free != null) {
+            hits++;
+            return free;
+        }
+        misses++;
+
+        long dayStart = epochDay * MINUTES_IN_DAY;
+        List<long[]> intervals = new ArrayList<>();
+        // the free tail of the day ends at 23:59, so every returned interval can be booked as it is
+        bookings.freeIntervals(room, dayStart, dayStart + LAST_MINUTE_OF_DAY).forEachRemaining(intervals::add);
+
+        free = intervals.isEmpty() ? NO_FRAGMENTS : new int[intervals.size() * 2];
+        for (int i = 0; i < intervals.size(); i++) {
+            free[2 * i] = (int) (intervals.get(i)[0] - dayStart);
+            free[2 * i + 1] = (int) (intervals.get(i)[1] - dayStart);
+        }
+        if (capacity > 0)
+            fragments.put(key, free);
+        return free;
+    }
+
+    /**
+     * Assembles the free slots of the rooms within the range of days from the memoized day fragments.
+     *
+     * @param rooms          The rooms whose free slots are returned.
+     * @param fromDay        The first epoch day of the range (inclusive).
+     * @param toDay          The last epoch day of the range (inclusive).
+     * @param acceptableDays The days of the week that are part of the schedule.
+     * @return The free slots ordered by date, then by the order of the rooms and then by start time.
+     */
+    public List<FreeScheduleSlot> findFreeSlots(Collection<RoomProperties> rooms, long fromDay, long toDay, Collection<WeekDay> acceptableDays) {
+        return findFreeSlots(rooms, fromDay, toDay, acceptableDays, new int[1]);
+    }
+
+    /**
+     * Assembles the free slots of the rooms within the range of days from the memoized day fragments,
+     * and counts the room-days whose free intervals were examined.
+     *
+     * @param rooms          The rooms whose free slots are returned.
+     * @param fromDay        The first epoch day of the range (inclusive).
+     * @param toDay          The last epoch day of the range (inclusive).
+     * @param acceptableDays The days of the week that are part of the schedule.
+     * @param examined       The counter the number of examined room-days is added to, at index 0.
+     * @return The free slots ordered by date, then by the order of the rooms and then by start time.
+     */
+    public List<FreeScheduleSlot> findFreeSlots(Collection<RoomProperties> rooms, long fromDay, long toDay, Collection<WeekDay> acceptableDays,
+                                                int[] examined) {
+        boolean[] acceptable = new boolean[WeekDay.values().length];
+        for (WeekDay day : acceptableDays)
+            acceptable[day.ordinal()] = true;
+
+        List<FreeScheduleSlot> result = new ArrayList<>();
+        for (long day = fromDay; day <= toDay; day++) {
+            if (!acceptable[EarliestFitFinder.weekDayIndex(day)])
+                continue;
+            for (RoomProperties room : rooms) {
+                int[] free = freeIntervals(room.getName(), day);
+                examined[0]++;
+                for (int i = 0; i < free.length; i += 2)
+                    result.add(EarliestFitFinder.toFreeSlot(day * MINUTES_IN_DAY + free[i], free[i + 1] - free[i], room));
+            }
+        }
+        return result;
+    }
+
+    private synchronized void invalidate(ScheduleSlot slot) {
+        if (slot.getLocation() != null)
+            fragments.remove(new RoomDay(slot.getLocation().getName(), toEpochDay(slot.getDate())));
+    }
+
+    public synchronized void clear() {
+        fragments.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return The number of room-days evicted because the memo was full.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return fragments.size();
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+        invalidate(slot);
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+        invalidate(slot);
+    }
+
+    @Override
+    public synchronized void onRoomRemoved(RoomProperties room) {
+        fragments.keySet().removeIf(key -> key.room.equals(room.getName()));
+    }
+
+    @Override
+    public void onCleared() {
+        clear();
+    }
+}
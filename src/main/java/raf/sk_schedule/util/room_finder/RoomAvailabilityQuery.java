@@ -0,0 +1,250 @@
+package raf.sk_schedule.util.room_finder;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `RoomAvailabilityQuery` class describes the booking that a room is looked for: the time of the day,
+ * the duration, the recurrence of the occurrences and the requirements the room has to satisfy.
+ * The recurrence parameters have the same meaning as in {@link RepetitiveScheduleMapper} for a positive recurrence period,
+ * so a room found by this query can be booked by the mapper with the same parameters. A non-positive period maps only
+ * the first occurrence here, while the mapper falls back to {@link RepetitiveScheduleMapper#DEFAULT_RECURRENCE_PERIOD}.
+ */
+public class RoomAvailabilityQuery {
+
+    private final Date schedulingIntervalStart;
+    private final Date schedulingIntervalEnd;
+    private final WeekDay weekDay;
+    private final int recurrencePeriod;
+    private final String startTime;
+    private final int duration;
+
+    private final int capacity;
+    private final int hasComputers;
+    private final Boolean hasProjector;
+    private final Map<String, Object> attributes;
+
+    private RoomAvailabilityQuery(Date schedulingIntervalStart, Date schedulingIntervalEnd, WeekDay weekDay, int recurrencePeriod,
+                                  String startTime, int duration,
+                                  int capacity, int hasComputers, Boolean hasProjector, Map<String, Object> attributes) {
+        this.schedulingIntervalStart = schedulingIntervalStart;
+        this.schedulingIntervalEnd = schedulingIntervalEnd;
+        this.weekDay = weekDay;
+        this.recurrencePeriod = recurrencePeriod;
+        this.startTime = startTime;
+        this.duration = duration;
+        this.capacity = capacity;
+        this.hasComputers = hasComputers;
+        this.hasProjector = hasProjector;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Maps the occurrences of the queried booking to absolute start minutes (minutes since the epoch day 0).
+     * The first occurrence is the first day of the scheduling interval that falls on the week day,
+     * or the start of the scheduling interval if the week day is not set. Every next occurrence is mapped
+     * after the recurrence period (in days) has passed, as long as it is before the end of the scheduling interval.
+     * A non-positive recurrence period or a missing interval end maps only the first occurrence.
+     *
+     * @return The absolute start minutes of all occurrences in ascending order.
+     */
+    public long[] mapOccurrences() {
+        long firstDay = toEpochDay(schedulingIntervalStart);
+        long endDay = schedulingIntervalEnd == null ? firstDay + 1 : toEpochDay(schedulingIntervalEnd);
+
+        if (weekDay != null) {
+            firstDay += Math.floorMod(weekDay.ordinal() - EarliestFitFinder.weekDayIndex(firstDay), WeekDay.values().length);
+        }
+
+        if (firstDay >= endDay)
+            return new long[0];
+
+        int count = recurrencePeriod > 0 ? (int) ((endDay - firstDay - 1) / recurrencePeriod) + 1 : 1;
+        long[] occurrences = new long[count];
+        long startMinute = toMinuteOfDay(startTime);
+        for (int i = 0; i < count; i++)
+            occurrences[i] = (firstDay + (long) i * recurrencePeriod) * MINUTES_IN_DAY + startMinute;
+
+        return occurrences;
+    }
+
+    public Date getSchedulingIntervalStart() {
+        return schedulingIntervalStart;
+    }
+
+    public Date getSchedulingIntervalEnd() {
+        return schedulingIntervalEnd;
+    }
+
+    public WeekDay getWeekDay() {
+        return weekDay;
+    }
+
+    public int getRecurrencePeriod() {
+        return recurrencePeriod;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int hasComputers() {
+        return hasComputers;
+    }
+
+    public Boolean hasProjector() {
+        return hasProjector;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return new HashMap<>(attributes);
+    }
+
+    /**
+     * The `Builder` class is responsible for constructing instances of the `RoomAvailabilityQuery` class.
+     */
+    public static class Builder {
+        private Date schedulingIntervalStart;
+        private Date schedulingIntervalEnd;
+        private WeekDay weekDay;
+        private int recurrencePeriod;
+        private String startTime;
+        private String endTime;
+        private int duration;
+
+        private int capacity;
+        private int hasComputers;
+        private Boolean hasProjector;
+        private final Map<String, Object> attributes;
+
+        /**
+         * Default constructor initializes a single occurrence query without room requirements.
+         */
+        public Builder() {
+            recurrencePeriod = 0;
+            capacity = 0;
+            hasComputers = 0;
+            hasProjector = null;
+            attributes = new HashMap<>();
+        }
+
+        /**
+         * Sets the start of the scheduling interval.
+         *
+         * @param schedulingIntervalStart The start date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSchedulingIntervalStart(Object schedulingIntervalStart) {
+            this.schedulingIntervalStart = toDate(schedulingIntervalStart);
+            return this;
+        }
+
+        /**
+         * Sets the end of the scheduling interval (exclusive).
+         *
+         * @param schedulingIntervalEnd The end date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSchedulingIntervalEnd(Object schedulingIntervalEnd) {
+            this.schedulingIntervalEnd = toDate(schedulingIntervalEnd);
+            return this;
+        }
+
+        public Builder setWeekDay(WeekDay weekDay) {
+            this.weekDay = weekDay;
+            return this;
+        }
+
+        /**
+         * Sets the number of days between two occurrences, for example 7 for weekly occurrences.
+         *
+         * @param recurrencePeriod The recurrence period in days.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setRecurrencePeriod(int recurrencePeriod) {
+            this.recurrencePeriod = recurrencePeriod;
+            return this;
+        }
+
+        public Builder setStartTime(String startTime) {
+            this.startTime = startTime;
+            return this;
+        }
+
+        public Builder setEndTime(String endTime) {
+            this.endTime = endTime;
+            return this;
+        }
+
+        public Builder setDuration(int duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder setHasComputers(int hasComputers) {
+            this.hasComputers = hasComputers;
+            return this;
+        }
+
+        public Builder setHasProjector(Boolean hasProjector) {
+            this.hasProjector = hasProjector;
+            return this;
+        }
+
+        public Builder setAttribute(String attributeName, Object attributeValue) {
+            attributes.put(attributeName, attributeValue);
+            return this;
+        }
+
+        private static Date toDate(Object date) {
+            if (date instanceof Date)
+                return (Date) date;
+            if (date instanceof String)
+                return parseDate((String) date);
+            throw new ScheduleException("Date parameter can be set only as String or java.util Date instance!");
+        }
+
+        /**
+         * Builds an instance of the `RoomAvailabilityQuery` class with the specified settings.
+         *
+         * @return An instance of `RoomAvailabilityQuery`.
+         * @throws ScheduleException If the start of the interval, the start time or the duration is not defined.
+         */
+        public RoomAvailabilityQuery build() {
+            if (schedulingIntervalStart == null)
+                throw new ScheduleException("RoomAvailabilityQuery: the start of the scheduling interval is not defined!");
+            if (startTime == null)
+                throw new ScheduleException("RoomAvailabilityQuery: the start time is not defined!");
+
+            int calculatedDuration = duration;
+            if (endTime != null) {
+                calculatedDuration = toMinuteOfDay(endTime) - toMinuteOfDay(startTime);
+                if (duration > 0 && duration != calculatedDuration)
+                    throw new ScheduleException("RoomAvailabilityQuery: end time and duration does not match.");
+            }
+            if (calculatedDuration <= 0 || toMinuteOfDay(startTime) + calculatedDuration > LAST_MINUTE_OF_DAY)
+                throw new ScheduleException("RoomAvailabilityQuery: the occupied time has to be positive and can't overflow to another day!");
+
+            return new RoomAvailabilityQuery(schedulingIntervalStart, schedulingIntervalEnd, weekDay, recurrencePeriod,
+                    startTime, calculatedDuration, capacity, hasComputers, hasProjector, new HashMap<>(attributes));
+        }
+    }
+}
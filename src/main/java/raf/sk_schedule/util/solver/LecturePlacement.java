@@ -0,0 +1,83 @@
+package raf.sk_schedule.util.solver;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+
+import java.util.Date;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatMinuteOfDay;
+
+/**
+ * The `LecturePlacement` class holds the weekly time and the room that the {@link TimetableSolver} has assigned to a lecture.
+ * The placement can be turned into a {@link RepetitiveScheduleMapper} and booked through
+ * {@link raf.sk_schedule.api.ScheduleManager#bookRepetitiveScheduleSlot(RepetitiveScheduleMapper)}.
+ */
+public class LecturePlacement {
+
+    private final LectureRequest lecture;
+    private final RoomProperties room;
+    private final WeekDay weekDay;
+    private final int startMinute;
+    private final Date schedulingIntervalStart;
+    private final Date schedulingIntervalEnd;
+
+    LecturePlacement(LectureRequest lecture, RoomProperties room, WeekDay weekDay, int startMinute,
+                     Date schedulingIntervalStart, Date schedulingIntervalEnd) {
+        this.lecture = lecture;
+        this.room = room;
+        this.weekDay = weekDay;
+        this.startMinute = startMinute;
+        this.schedulingIntervalStart = schedulingIntervalStart;
+        this.schedulingIntervalEnd = schedulingIntervalEnd;
+    }
+
+    /**
+     * Builds the weekly repetitive mapper for the placement, the mapper carries the attributes of the lecture.
+     *
+     * @return The mapper that can be used to book the placed lecture.
+     */
+    public RepetitiveScheduleMapper toRepetitiveScheduleMapper() {
+        RepetitiveScheduleMapper mapper = new RepetitiveScheduleMapper.Builder()
+                .setLocation(room)
+                .setRecurrenceIntervalStart(schedulingIntervalStart)
+                .setRecurrenceIntervalEnd(schedulingIntervalEnd)
+                .setRecurrencePeriod(RepetitiveScheduleMapper.DEFAULT_RECURRENCE_PERIOD)
+                .setWeekDay(weekDay)
+                .setStartTime(getStartTime())
+                .setEndTime(getEndTime())
+                .setDuration(lecture.getDuration())
+                .build();
+        mapper.setAttributes(lecture.getAttributes());
+        return mapper;
+    }
+
+    @Override
+    public String toString() {
+        return "<lecture: " + lecture.getName()
+                + "> <on day: " + weekDay
+                + "> <starts at: " + getStartTime()
+                + "> <ends_at: " + getEndTime()
+                + "> <location: " + room.getName() + ">";
+    }
+
+    public LectureRequest getLecture() {
+        return lecture;
+    }
+
+    public RoomProperties getRoom() {
+        return room;
+    }
+
+    public WeekDay getWeekDay() {
+        return weekDay;
+    }
+
+    public String getStartTime() {
+        return formatMinuteOfDay(startMinute);
+    }
+
+    public String getEndTime() {
+        return formatMinuteOfDay(startMinute + lecture.getDuration());
+    }
+}
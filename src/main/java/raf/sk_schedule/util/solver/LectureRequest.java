@@ -0,0 +1,206 @@
+package raf.sk_schedule.util.solver;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.LAST_MINUTE_OF_DAY;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.toMinuteOfDay;
+
+/**
+ * The `LectureRequest` class describes an unscheduled weekly lecture that the {@link TimetableSolver} has to place:
+ * its duration, the days and the daily time window it can be placed in, the requirements of the room
+ * and the attributes (professor, student group...) that the mapped slots will carry.
+ */
+public class LectureRequest {
+
+    private final String name;
+    private final int duration;
+    private final List<WeekDay> allowedDays;
+    private final int earliestMinute;
+    private final int latestMinute;
+
+    private final int capacity;
+    private final int hasComputers;
+    private final Boolean hasProjector;
+    private final Map<String, Object> roomAttributes;
+
+    private final Map<String, Object> attributes;
+
+    private LectureRequest(String name, int duration, List<WeekDay> allowedDays, int earliestMinute, int latestMinute,
+                           int capacity, int hasComputers, Boolean hasProjector, Map<String, Object> roomAttributes,
+                           Map<String, Object> attributes) {
+        this.name = name;
+        this.duration = duration;
+        this.allowedDays = allowedDays;
+        this.earliestMinute = earliestMinute;
+        this.latestMinute = latestMinute;
+        this.capacity = capacity;
+        this.hasComputers = hasComputers;
+        this.hasProjector = hasProjector;
+        this.roomAttributes = roomAttributes;
+        this.attributes = attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "<lecture: " + name + "> <duration: " + duration + "> <attributes: " + attributes + ">";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return The days the lecture can be placed on, or null if every acceptable day of the solver can be used.
+     */
+    public List<WeekDay> getAllowedDays() {
+        return allowedDays == null ? null : new ArrayList<>(allowedDays);
+    }
+
+    public int getEarliestMinute() {
+        return earliestMinute;
+    }
+
+    public int getLatestMinute() {
+        return latestMinute;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int hasComputers() {
+        return hasComputers;
+    }
+
+    public Boolean hasProjector() {
+        return hasProjector;
+    }
+
+    public Map<String, Object> getRoomAttributes() {
+        return new HashMap<>(roomAttributes);
+    }
+
+    public Object getAttribute(String attributeName) {
+        return attributes.get(attributeName);
+    }
+
+    public Map<String, Object> getAttributes() {
+        return new HashMap<>(attributes);
+    }
+
+    /**
+     * The `Builder` class is responsible for constructing instances of the `LectureRequest` class.
+     */
+    public static class Builder {
+        private String name;
+        private int duration;
+        private List<WeekDay> allowedDays;
+        private String earliestTime;
+        private String latestTime;
+
+        private int capacity;
+        private int hasComputers;
+        private Boolean hasProjector;
+        private final Map<String, Object> roomAttributes;
+
+        private final Map<String, Object> attributes;
+
+        public Builder() {
+            allowedDays = null;
+            earliestTime = "00:00";
+            latestTime = "23:59";
+            capacity = 0;
+            hasComputers = 0;
+            hasProjector = null;
+            roomAttributes = new HashMap<>();
+            attributes = new HashMap<>();
+        }
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setDuration(int duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder setAllowedDays(WeekDay... allowedDays) {
+            this.allowedDays = Arrays.asList(allowedDays);
+            return this;
+        }
+
+        /**
+         * Sets the time of the day before which the lecture can not start.
+         *
+         * @param earliestTime The time in "HH:mm" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setEarliestTime(String earliestTime) {
+            this.earliestTime = earliestTime;
+            return this;
+        }
+
+        /**
+         * Sets the time of the day after which the lecture can not end.
+         *
+         * @param latestTime The time in "HH:mm" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setLatestTime(String latestTime) {
+            this.latestTime = latestTime;
+            return this;
+        }
+
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder setHasComputers(int hasComputers) {
+            this.hasComputers = hasComputers;
+            return this;
+        }
+
+        public Builder setHasProjector(Boolean hasProjector) {
+            this.hasProjector = hasProjector;
+            return this;
+        }
+
+        public Builder setRoomAttribute(String attributeName, Object attributeValue) {
+            roomAttributes.put(attributeName, attributeValue);
+            return this;
+        }
+
+        /**
+         * Sets the attribute of the lecture, the attribute is copied to every slot mapped for the lecture.
+         * Attributes that are configured as conflict keys of the solver (for example "professor") can not overlap in time.
+         *
+         * @param attributeName  The name of the attribute.
+         * @param attributeValue The value of the attribute.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setAttribute(String attributeName, Object attributeValue) {
+            attributes.put(attributeName, attributeValue);
+            return this;
+        }
+
+        public LectureRequest build() {
+            int earliestMinute = toMinuteOfDay(earliestTime);
+            int latestMinute = toMinuteOfDay(latestTime);
+            if (duration <= 0 || latestMinute > LAST_MINUTE_OF_DAY || latestMinute - earliestMinute < duration)
+                throw new ScheduleException("LectureRequest: the duration has to be positive and fit between the earliest and the latest time!");
+
+            return new LectureRequest(name, duration, allowedDays == null ? null : new ArrayList<>(allowedDays),
+                    earliestMinute, latestMinute, capacity, hasComputers, hasProjector, new HashMap<>(roomAttributes), new HashMap<>(attributes));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package raf.sk_schedule.util.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `SolverResult` class holds the best timetable found by the {@link TimetableSolver}.
+ * The objective score rewards every placed lecture and penalizes the unused capacity of the assigned rooms,
+ * so between two timetables that place the same number of lectures the one with tighter room fits scores higher.
+ */
+public class SolverResult {
+
+    /**
+     * The score every placed lecture contributes to the objective.
+     */
+    public static final long PLACEMENT_REWARD = 1_000_000L;
+
+    private final List<LecturePlacement> placements;
+    private final List<LectureRequest> unplaced;
+    private final long score;
+    private final long iterations;
+    private final long elapsedMillis;
+
+    SolverResult(List<LecturePlacement> placements, List<LectureRequest> unplaced, long score, long iterations, long elapsedMillis) {
+        this.placements = placements;
+        this.unplaced = unplaced;
+        this.score = score;
+        this.iterations = iterations;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "<placed: " + placements.size() + "> <unplaced: " + unplaced.size() + "> <score: " + score
+                + "> <iterations: " + iterations + "> <elapsed: " + elapsedMillis + "ms>";
+    }
+
+    public List<LecturePlacement> getPlacements() {
+        return new ArrayList<>(placements);
+    }
+
+    public List<LectureRequest> getUnplaced() {
+        return new ArrayList<>(unplaced);
+    }
+
+    /**
+     * @return The objective score: {@link SolverResult#PLACEMENT_REWARD} for every placed lecture minus the unused seats of the assigned rooms.
+     */
+    public long getScore() {
+        return score;
+    }
+
+    /**
+     * @return The total number of local search moves evaluated by all solver threads.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isComplete() {
+        return unplaced.isEmpty();
+    }
+}
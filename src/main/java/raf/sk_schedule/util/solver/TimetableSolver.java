@@ -0,0 +1,644 @@
+package raf.sk_schedule.util.solver;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `TimetableSolver` class places unscheduled weekly lectures into the rooms of the schedule.
+ * <p>
+ * The day is divided into blocks of {@code granularity} minutes. A lecture is placed by assigning it a week day,
+ * a starting block and a room that satisfies its requirements. The hard constraints are that a room is never used by two lectures
+ * at the same time, and that the lectures sharing a value of a conflict key attribute (for example the same professor or student group)
+ * never overlap. Slots that are already booked within the scheduling interval are respected as well: if a room or a conflict key value
+ * is busy at some time in any week of the interval, that time is considered busy in every week.
+ * </p>
+ * <p>
+ * Every worker thread builds a greedy initial timetable, starting from the most constrained lectures,
+ * and then improves it by local search: unplaced lectures are inserted, possibly by kicking out a single blocking lecture,
+ * and placed lectures are moved into tighter fitting rooms. Workers use different random seeds and run until the time budget
+ * is spent, the best score hasn't improved for the configured number of iterations, or every placeable lecture is placed
+ * into its tightest fitting room. The timetable with the best objective score among all workers is returned.
+ * If no lecture has a single option to be placed in, no worker is started at all.
+ * </p>
+ */
+public class TimetableSolver {
+
+    private static final int RANDOM_ATTEMPTS = 24;
+
+    /**
+     * Default number of search iterations without an improvement of the best score after which a worker stops.
+     */
+    public static final long DEFAULT_STALL_ITERATIONS = 200_000;
+
+    private final Date schedulingIntervalStart;
+    private final Date schedulingIntervalEnd;
+    private final List<WeekDay> acceptableDays;
+    private final List<String> conflictKeys;
+    private final int granularity;
+    private final long timeBudgetMillis;
+    private final long stallIterations;
+    private final int threads;
+    private final long seed;
+
+    private TimetableSolver(Date schedulingIntervalStart, Date schedulingIntervalEnd, List<WeekDay> acceptableDays, List<String> conflictKeys,
+                            int granularity, long timeBudgetMillis, long stallIterations, int threads, long seed) {
+        this.schedulingIntervalStart = schedulingIntervalStart;
+        this.schedulingIntervalEnd = schedulingIntervalEnd;
+        this.acceptableDays = acceptableDays;
+        this.conflictKeys = conflictKeys;
+        this.granularity = granularity;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.stallIterations = stallIterations;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Places the lectures into the rooms of the index without colliding with the existing schedule.
+     *
+     * @param lectures         The lectures to be placed.
+     * @param rooms            The index of rooms the lectures can be placed in.
+     * @param existingSchedule The slots that are already booked.
+     * @return The best timetable found within the time budget.
+     * @throws ScheduleException If the solver threads are interrupted.
+     */
+    public SolverResult solve(List<LectureRequest> lectures, RoomFeatureIndex rooms, Collection<ScheduleSlot> existingSchedule) {
+        return solve(lectures, rooms, existingSchedule, Collections.emptyList());
+    }
+
+    /**
+     * Places the lectures into the rooms of the index without colliding with the existing schedule,
+     * additionally respecting the conflict keys of the schedule the lectures are placed into.
+     *
+     * @param lectures             The lectures to be placed.
+     * @param rooms                The index of rooms the lectures can be placed in.
+     * @param existingSchedule     The slots that are already booked.
+     * @param scheduleConflictKeys The conflict keys of the schedule, used together with the ones the solver is configured with.
+     * @return The best timetable found within the time budget.
+     * @throws ScheduleException If the solver threads are interrupted.
+     */
+    public SolverResult solve(List<LectureRequest> lectures, RoomFeatureIndex rooms, Collection<ScheduleSlot> existingSchedule,
+                              Collection<String> scheduleConflictKeys) {
+        long started = System.currentTimeMillis();
+        Set<String> keys = new LinkedHashSet<>(conflictKeys);
+        keys.addAll(scheduleConflictKeys);
+        Problem problem = new Problem(lectures, rooms, existingSchedule, keys);
+        long deadline = started + timeBudgetMillis;
+
+        if (problem.placeable == 0) {
+            // nothing can be placed, so there is nothing to search for
+            SearchState empty = new SearchState(problem, new SplittableRandom(seed));
+            empty.saveBest();
+            return problem.toResult(empty, 0, System.currentTimeMillis() - started);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SearchState>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                SearchState state = new SearchState(problem, new SplittableRandom(seed + 0x9E3779B97F4A7C15L * i));
+                workers.add(pool.submit(() -> state.search(deadline, stallIterations)));
+            }
+
+            SearchState best = null;
+            long iterations = 0;
+            for (Future<SearchState> worker : workers) {
+                SearchState state = worker.get();
+                iterations += state.iterations;
+                if (best == null || state.bestScore > best.bestScore)
+                    best = state;
+            }
+            return problem.toResult(best, iterations, System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScheduleException(e);
+        } catch (ExecutionException e) {
+            throw new ScheduleException(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Immutable description of the problem that is shared by all worker threads.
+     */
+    private final class Problem {
+        private final LectureRequest[] lectures;
+        private final RoomProperties[] rooms;
+        private final int blocksPerDay;
+
+        private final int[] length;
+        private final int[] firstBlock;
+        private final int[] lastBlock;
+        private final int[][] lectureRooms;
+        private final int[][] lectureDays;
+        private final int[][] lectureGroups;
+        private final int[][] waste;
+
+        private final boolean[][] roomBusy;
+        private final boolean[][] groupBusy;
+
+        private final int placeable;
+        private final long scoreBound;
+
+        private Problem(List<LectureRequest> lectureList, RoomFeatureIndex roomIndex, Collection<ScheduleSlot> existingSchedule,
+                        Collection<String> conflictKeys) {
+            int days = WeekDay.values().length;
+            lectures = lectureList.toArray(new LectureRequest[0]);
+            blocksPerDay = MINUTES_IN_DAY / granularity;
+
+            int n = lectures.length;
+            length = new int[n];
+            firstBlock = new int[n];
+            lastBlock = new int[n];
+            lectureRooms = new int[n][];
+            lectureDays = new int[n][];
+            lectureGroups = new int[n][];
+            waste = new int[n][];
+
+            Map<String, Integer> roomIds = new LinkedHashMap<>();
+            List<RoomProperties> roomList = new ArrayList<>();
+            Map<List<Object>, Integer> groupIds = new HashMap<>();
+
+            long firstDay = toEpochDay(schedulingIntervalStart);
+            long endDay = toEpochDay(schedulingIntervalEnd);
+            // a lecture can be placed only on the week days that occur within the scheduling interval
+            Set<WeekDay> intervalDays = EnumSet.noneOf(WeekDay.class);
+            for (long d = firstDay; d < endDay && intervalDays.size() < days; d++)
+                intervalDays.add(WeekDay.values()[LocalDate.ofEpochDay(d).getDayOfWeek().getValue() % days]);
+
+            int placeableLectures = 0;
+            long bound = 0;
+            for (int l = 0; l < n; l++) {
+                LectureRequest lecture = lectures[l];
+                length[l] = (lecture.getDuration() + granularity - 1) / granularity;
+                firstBlock[l] = (lecture.getEarliestMinute() + granularity - 1) / granularity;
+                // a placement has to end by the last minute of the day, otherwise it could not be booked
+                lastBlock[l] = (Math.min(lecture.getLatestMinute(), LAST_MINUTE_OF_DAY) - lecture.getDuration()) / granularity;
+
+                List<RoomProperties> candidates = roomIndex.candidates(lecture.getCapacity(), lecture.hasComputers(),
+                        lecture.hasProjector(), lecture.getRoomAttributes());
+                lectureRooms[l] = new int[candidates.size()];
+                waste[l] = new int[candidates.size()];
+                for (int i = 0; i < candidates.size(); i++) {
+                    RoomProperties room = candidates.get(i);
+                    Integer id = roomIds.get(room.getName());
+                    if (id == null) {
+                        roomIds.put(room.getName(), id = roomList.size());
+                        roomList.add(room);
+                    }
+                    lectureRooms[l][i] = id;
+                    waste[l][i] = room.getCapacity() - lecture.getCapacity();
+                }
+
+                List<WeekDay> allowed = lecture.getAllowedDays() != null ? lecture.getAllowedDays() : acceptableDays;
+                lectureDays[l] = allowed.stream().filter(acceptableDays::contains).filter(intervalDays::contains)
+                        .mapToInt(Enum::ordinal).distinct().toArray();
+
+                List<Integer> groups = new ArrayList<>();
+                for (String key : conflictKeys) {
+                    Object value = lecture.getAttribute(key);
+                    if (value != null)
+                        groups.add(groupIds.computeIfAbsent(List.of(key, value), g -> groupIds.size()));
+                }
+                lectureGroups[l] = groups.stream().mapToInt(Integer::intValue).toArray();
+
+                if (optionCount(l) > 0) {
+                    // candidates are ordered by capacity, so the first one wastes the fewest seats
+                    placeableLectures++;
+                    bound += SolverResult.PLACEMENT_REWARD - waste[l][0];
+                }
+            }
+            placeable = placeableLectures;
+            scoreBound = bound;
+
+            rooms = roomList.toArray(new RoomProperties[0]);
+            roomBusy = new boolean[rooms.length * days][blocksPerDay];
+            groupBusy = new boolean[groupIds.size() * days][blocksPerDay];
+
+            for (ScheduleSlot slot : existingSchedule) {
+                long start = slot.getAbsoluteStartMinute();
+                long day = Math.floorDiv(start, MINUTES_IN_DAY);
+                if (day < firstDay || day >= endDay)
+                    continue;
+
+                int weekDay = slot.getDayOfWeek().ordinal();
+                int from = (int) (start - day * MINUTES_IN_DAY) / granularity;
+                int to = Math.min(blocksPerDay, ((int) (start - day * MINUTES_IN_DAY) + slot.getDuration() + granularity - 1) / granularity);
+
+                Integer room = slot.getLocation() == null ? null : roomIds.get(slot.getLocation().getName());
+                if (room != null)
+                    Arrays.fill(roomBusy[room * days + weekDay], from, to, true);
+
+                for (String key : conflictKeys) {
+                    Object value = slot.getAttribute(key);
+                    Integer group = value == null ? null : groupIds.get(List.of(key, value));
+                    if (group != null)
+                        Arrays.fill(groupBusy[group * days + weekDay], from, to, true);
+                }
+            }
+        }
+
+        private int optionCount(int l) {
+            return lectureRooms[l].length * lectureDays[l].length * Math.max(0, lastBlock[l] - firstBlock[l] + 1);
+        }
+
+        private SolverResult toResult(SearchState state, long iterations, long elapsedMillis) {
+            List<LecturePlacement> placements = new ArrayList<>();
+            List<LectureRequest> unplaced = new ArrayList<>();
+            for (int l = 0; l < lectures.length; l++) {
+                if (state.bestRoom[l] < 0) {
+                    unplaced.add(lectures[l]);
+                    continue;
+                }
+                placements.add(new LecturePlacement(lectures[l], rooms[lectureRooms[l][state.bestRoom[l]]],
+                        WeekDay.values()[state.bestDay[l]], state.bestBlock[l] * granularity,
+                        schedulingIntervalStart, schedulingIntervalEnd));
+            }
+            return new SolverResult(placements, unplaced, state.bestScore, iterations, elapsedMillis);
+        }
+    }
+
+    /**
+     * Mutable timetable of a single worker thread. Rooms are referred to by their position in the candidate list of the lecture.
+     */
+    private static final class SearchState {
+        private final Problem problem;
+        private final SplittableRandom random;
+        private final int days;
+
+        private final int[] room;
+        private final int[] day;
+        private final int[] block;
+        private final int[][] roomOwner;
+        private final int[][] groupOwner;
+
+        private long score;
+        private int placed;
+        private long iterations;
+
+        private long bestScore;
+        private final int[] bestRoom;
+        private final int[] bestDay;
+        private final int[] bestBlock;
+
+        private SearchState(Problem problem, SplittableRandom random) {
+            this.problem = problem;
+            this.random = random;
+            this.days = WeekDay.values().length;
+
+            int n = problem.lectures.length;
+            room = new int[n];
+            day = new int[n];
+            block = new int[n];
+            Arrays.fill(room, -1);
+            bestRoom = room.clone();
+            bestDay = new int[n];
+            bestBlock = new int[n];
+            bestScore = Long.MIN_VALUE;
+
+            roomOwner = new int[problem.roomBusy.length][problem.blocksPerDay];
+            groupOwner = new int[problem.groupBusy.length][problem.blocksPerDay];
+            for (int[] owners : roomOwner)
+                Arrays.fill(owners, -1);
+            for (int[] owners : groupOwner)
+                Arrays.fill(owners, -1);
+        }
+
+        private SearchState search(long deadline, long stallIterations) {
+            construct();
+            saveBest();
+
+            int n = problem.lectures.length;
+            long stagnation = 0;
+            while (bestScore < problem.scoreBound && System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+                for (int i = 0; i < 1024; i++) {
+                    int l = random.nextInt(n);
+                    if (room[l] < 0)
+                        insert(l);
+                    else
+                        improve(l);
+                    iterations++;
+                }
+
+                if (score > bestScore) {
+                    saveBest();
+                    stagnation = 0;
+                } else if ((stagnation += 1024) > stallIterations)
+                    break;
+            }
+            return this;
+        }
+
+        /**
+         * Greedy construction, the lectures with the fewest options are placed first.
+         */
+        private void construct() {
+            int n = problem.lectures.length;
+            Integer[] order = new Integer[n];
+            long[] tieBreak = new long[n];
+            for (int l = 0; l < n; l++) {
+                order[l] = l;
+                tieBreak[l] = random.nextLong();
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(problem::optionCount)
+                    .thenComparing(l -> -problem.lectures[l].getDuration())
+                    .thenComparingLong(l -> tieBreak[l]));
+
+            for (int l : order) {
+                if (!placeRandomly(l))
+                    placeFirstFit(l);
+            }
+        }
+
+        private boolean placeRandomly(int l) {
+            int span = problem.lastBlock[l] - problem.firstBlock[l] + 1;
+            if (problem.lectureRooms[l].length == 0 || problem.lectureDays[l].length == 0 || span <= 0)
+                return false;
+
+            for (int attempt = 0; attempt < RANDOM_ATTEMPTS; attempt++) {
+                int r = random.nextInt(problem.lectureRooms[l].length);
+                int d = problem.lectureDays[l][random.nextInt(problem.lectureDays[l].length)];
+                int b = problem.firstBlock[l] + random.nextInt(span);
+                if (fits(l, r, d, b, -1)) {
+                    assign(l, r, d, b);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean placeFirstFit(int l) {
+            for (int r = 0; r < problem.lectureRooms[l].length; r++)
+                for (int d : problem.lectureDays[l])
+                    for (int b = problem.firstBlock[l]; b <= problem.lastBlock[l]; b++)
+                        if (fits(l, r, d, b, -1)) {
+                            assign(l, r, d, b);
+                            return true;
+                        }
+            return false;
+        }
+
+        /**
+         * Tries to insert an unplaced lecture. If no free option is found, a random option that is blocked by exactly one
+         * other lecture is taken, and the kicked out lecture is re-inserted elsewhere if possible.
+         */
+        private void insert(int l) {
+            if (placeRandomly(l))
+                return;
+
+            int span = problem.lastBlock[l] - problem.firstBlock[l] + 1;
+            if (problem.lectureRooms[l].length == 0 || problem.lectureDays[l].length == 0 || span <= 0)
+                return;
+
+            int r = random.nextInt(problem.lectureRooms[l].length);
+            int d = problem.lectureDays[l][random.nextInt(problem.lectureDays[l].length)];
+            int b = problem.firstBlock[l] + random.nextInt(span);
+            int blocker = singleBlocker(l, r, d, b);
+            if (blocker < 0)
+                return;
+
+            unassign(blocker);
+            assign(l, r, d, b);
+            placeRandomly(blocker);
+        }
+
+        /**
+         * Moves a placed lecture to a random option that wastes no more seats than the current one.
+         */
+        private void improve(int l) {
+            int r = random.nextInt(problem.lectureRooms[l].length);
+            if (problem.waste[l][r] > problem.waste[l][room[l]])
+                return;
+
+            int d = problem.lectureDays[l][random.nextInt(problem.lectureDays[l].length)];
+            int b = problem.firstBlock[l] + random.nextInt(problem.lastBlock[l] - problem.firstBlock[l] + 1);
+            if (fits(l, r, d, b, l)) {
+                unassign(l);
+                assign(l, r, d, b);
+            }
+        }
+
+        private boolean fits(int l, int r, int d, int b, int ignored) {
+            int end = b + problem.length[l];
+            int roomRow = problem.lectureRooms[l][r] * days + d;
+            for (int i = b; i < end; i++) {
+                if (problem.roomBusy[roomRow][i] || (roomOwner[roomRow][i] >= 0 && roomOwner[roomRow][i] != ignored))
+                    return false;
+            }
+            for (int group : problem.lectureGroups[l]) {
+                int groupRow = group * days + d;
+                for (int i = b; i < end; i++) {
+                    if (problem.groupBusy[groupRow][i] || (groupOwner[groupRow][i] >= 0 && groupOwner[groupRow][i] != ignored))
+                        return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return The only lecture that blocks the option, or -1 if the option is free, blocked by the existing schedule or by more lectures.
+         */
+        private int singleBlocker(int l, int r, int d, int b) {
+            int blocker = -1;
+            int end = b + problem.length[l];
+            int roomRow = problem.lectureRooms[l][r] * days + d;
+            for (int i = b; i < end; i++) {
+                if (problem.roomBusy[roomRow][i])
+                    return -1;
+                int owner = roomOwner[roomRow][i];
+                if (owner >= 0) {
+                    if (blocker >= 0 && owner != blocker)
+                        return -1;
+                    blocker = owner;
+                }
+            }
+            for (int group : problem.lectureGroups[l]) {
+                int groupRow = group * days + d;
+                for (int i = b; i < end; i++) {
+                    if (problem.groupBusy[groupRow][i])
+                        return -1;
+                    int owner = groupOwner[groupRow][i];
+                    if (owner >= 0) {
+                        if (blocker >= 0 && owner != blocker)
+                            return -1;
+                        blocker = owner;
+                    }
+                }
+            }
+            return blocker;
+        }
+
+        private void assign(int l, int r, int d, int b) {
+            mark(l, r, d, b, l);
+            room[l] = r;
+            day[l] = d;
+            block[l] = b;
+            placed++;
+            score += SolverResult.PLACEMENT_REWARD - problem.waste[l][r];
+        }
+
+        private void unassign(int l) {
+            mark(l, room[l], day[l], block[l], -1);
+            score -= SolverResult.PLACEMENT_REWARD - problem.waste[l][room[l]];
+            placed--;
+            room[l] = -1;
+        }
+
+        private void mark(int l, int r, int d, int b, int owner) {
+            int end = b + problem.length[l];
+            Arrays.fill(roomOwner[problem.lectureRooms[l][r] * days + d], b, end, owner);
+            for (int group : problem.lectureGroups[l])
+                Arrays.fill(groupOwner[group * days + d], b, end, owner);
+        }
+
+        private void saveBest() {
+            bestScore = score;
+            System.arraycopy(room, 0, bestRoom, 0, room.length);
+            System.arraycopy(day, 0, bestDay, 0, day.length);
+            System.arraycopy(block, 0, bestBlock, 0, block.length);
+        }
+    }
+
+    /**
+     * The `Builder` class is responsible for constructing instances of the `TimetableSolver` class.
+     */
+    public static class Builder {
+        private Date schedulingIntervalStart;
+        private Date schedulingIntervalEnd;
+        private List<WeekDay> acceptableDays;
+        private final List<String> conflictKeys;
+        private int granularity;
+        private long timeBudgetMillis;
+        private long stallIterations;
+        private int threads;
+        private long seed;
+
+        /**
+         * Default constructor initializes the solver to use 15 minute blocks, all available processors, a one minute time budget
+         * and {@link #DEFAULT_STALL_ITERATIONS} iterations without an improvement before a worker stops.
+         */
+        public Builder() {
+            acceptableDays = Arrays.asList(WeekDay.values());
+            conflictKeys = new ArrayList<>();
+            granularity = 15;
+            timeBudgetMillis = 60_000;
+            stallIterations = DEFAULT_STALL_ITERATIONS;
+            threads = Runtime.getRuntime().availableProcessors();
+            seed = System.nanoTime();
+        }
+
+        /**
+         * Sets the start of the scheduling interval, every lecture is placed weekly from this date.
+         *
+         * @param schedulingIntervalStart The start date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSchedulingIntervalStart(Object schedulingIntervalStart) {
+            this.schedulingIntervalStart = toDate(schedulingIntervalStart);
+            return this;
+        }
+
+        /**
+         * Sets the end of the scheduling interval (exclusive).
+         *
+         * @param schedulingIntervalEnd The end date as {@code java.util.Date} or a string in "yyyy-MM-dd" format.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSchedulingIntervalEnd(Object schedulingIntervalEnd) {
+            this.schedulingIntervalEnd = toDate(schedulingIntervalEnd);
+            return this;
+        }
+
+        public Builder setAcceptableDays(List<WeekDay> acceptableDays) {
+            this.acceptableDays = new ArrayList<>(acceptableDays);
+            return this;
+        }
+
+        /**
+         * Adds the attribute names whose values must not overlap in time, for example "professor" or "group".
+         *
+         * @param conflictKeys The names of the attributes.
+         * @return The builder instance for method chaining.
+         */
+        public Builder addConflictKeys(String... conflictKeys) {
+            this.conflictKeys.addAll(Arrays.asList(conflictKeys));
+            return this;
+        }
+
+        /**
+         * Sets the length of the time block in minutes, lectures can start only at the beginning of a block.
+         *
+         * @param granularity The length of the block, it has to divide the number of minutes in a day.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setGranularity(int granularity) {
+            this.granularity = granularity;
+            return this;
+        }
+
+        public Builder setTimeBudgetMillis(long timeBudgetMillis) {
+            this.timeBudgetMillis = timeBudgetMillis;
+            return this;
+        }
+
+        /**
+         * Sets the number of search iterations without an improvement of the best score after which a worker stops
+         * even if the time budget is not spent.
+         *
+         * @param stallIterations The number of iterations, it has to be positive.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setStallIterations(long stallIterations) {
+            this.stallIterations = stallIterations;
+            return this;
+        }
+
+        public Builder setThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random generators, solving the same problem with the same seed and one thread gives the same timetable.
+         *
+         * @param seed The seed of the random generators.
+         * @return The builder instance for method chaining.
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        private static Date toDate(Object date) {
+            if (date instanceof Date)
+                return (Date) date;
+            if (date instanceof String)
+                return parseDate((String) date);
+            throw new ScheduleException("Date parameter can be set only as String or java.util Date instance!");
+        }
+
+        public TimetableSolver build() {
+            if (schedulingIntervalStart == null || schedulingIntervalEnd == null)
+                throw new ScheduleException("TimetableSolver: the scheduling interval is not defined!");
+            if (granularity <= 0 || MINUTES_IN_DAY % granularity != 0)
+                throw new ScheduleException("TimetableSolver: the granularity has to divide the number of minutes in a day!");
+            if (threads <= 0 || timeBudgetMillis < 0)
+                throw new ScheduleException("TimetableSolver: the number of threads has to be positive and the time budget can't be negative!");
+            if (stallIterations <= 0)
+                throw new ScheduleException("TimetableSolver: the number of stall iterations has to be positive!");
+
+            return new TimetableSolver(schedulingIntervalStart, schedulingIntervalEnd, new ArrayList<>(acceptableDays),
+                    new ArrayList<>(conflictKeys), granularity, timeBudgetMillis, stallIterations, threads, seed);
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package raf.sk_schedule.util.sort;
 
 import raf.sk_schedule.model.schedule_node.ScheduleSlot;
-import raf.sk_schedule.util.sort.default_sorts.AbsolutStartComparator;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import static java.lang.Math.signum;
 
@@ -53,17 +53,416 @@ public class ScheduleSlotSorter {
         return new ArrayList<>(bufferList);
     }
 
+    /**
+     * The key used to order the slots that start at the same time, see {@link ScheduleSlotSorter#sortByAbsoluteStartTime(List, int, SecondaryKey)}.
+     */
+    public enum SecondaryKey {
+        /**
+         * Slots that start at the same time keep their relative order.
+         */
+        NONE,
+        /**
+         * Slots that start at the same time are ordered by the room name, slots without a location come first.
+         */
+        ROOM,
+        /**
+         * Slots that start at the same time are ordered by the duration.
+         */
+        DURATION
+    }
+
+    /**
+     * Number of bits sorted in one pass of the radix sort.
+     */
+    private static final int RADIX_BITS = 11;
+
+    /**
+     * Default size of the schedule from which the parallel variants split the work across the fork-join pool.
+     * Below it the cost of splitting outweighs the gain and the sequential variants are used.
+     * The parallel filter of {@link raf.sk_schedule.util.filter.SearchCriteria} uses the same threshold.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * Sorts a list of ScheduleSlot instances by the absolute start time.
+     * Slots that start at the same time keep their relative order.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param ascendingOrder An integer indicating the sorting order:
+     *                       Use {@link ScheduleSlotComparator#ASCENDING_ORDER} for ascending order.
+     *                       Use {@link ScheduleSlotComparator#DESCENDING_ORDER} for descending order.
+     *                       Zero treats all slots as equal, so the copy keeps the order of the schedule.
+     * @return The sorted list.
+     */
     public static List<ScheduleSlot> sortByAbsoluteStartTime(List<ScheduleSlot> schedule, int ascendingOrder) {
-        // init buffer
-        List<ScheduleSlot> bufferList = new ArrayList<>(schedule);
+        return sortByAbsoluteStartTime(schedule, ascendingOrder, SecondaryKey.NONE);
+    }
 
-        // perform sort with default StartTimeComparator support class
-        bufferList.sort(new AbsolutStartComparator(ascendingOrder)::compare);
+    /**
+     * Sorts a list of ScheduleSlot instances by the absolute start time and the secondary key.
+     * Instead of comparing the slots, the start minute and the secondary key of every slot are packed into one {@code long} key
+     * once, the slot indices are radix sorted by the keys, and the slots are permuted into the result. The sort is stable
+     * and its cost is linear in the number of slots.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param ascendingOrder An integer indicating the sorting order:
+     *                       Use {@link ScheduleSlotComparator#ASCENDING_ORDER} for ascending order.
+     *                       Use {@link ScheduleSlotComparator#DESCENDING_ORDER} for descending order.
+     *                       The order applies to both the start time and the secondary key.
+     *                       Zero treats all slots as equal, so the copy keeps the order of the schedule.
+     * @param secondaryKey   The key ordering the slots that start at the same time.
+     * @return The sorted list.
+     */
+    public static List<ScheduleSlot> sortByAbsoluteStartTime(List<ScheduleSlot> schedule, int ascendingOrder, SecondaryKey secondaryKey) {
+        if (ascendingOrder == 0)
+            return new ArrayList<>(schedule);
 
+        ScheduleSlot[] slots = schedule.toArray(new ScheduleSlot[0]);
+        long[] keys = sortKeys(slots, ascendingOrder, secondaryKey, false);
+        return permute(slots, radixSort(keys, maxBits(keys)));
+    }
 
-        return new ArrayList<>(bufferList);
+    /**
+     * Sorts a list of ScheduleSlot instances by the absolute start time and the secondary key using all cores of the common fork-join pool.
+     * The keys are extracted in parallel, and every key is packed together with the index of its slot into one {@code long}
+     * that is sorted by {@link Arrays#parallelSort(long[])}. The result is the same as the result of
+     * {@link ScheduleSlotSorter#sortByAbsoluteStartTime(List, int, SecondaryKey)}, which is used for schedules smaller than the threshold.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param ascendingOrder An integer indicating the sorting order:
+     *                       Use {@link ScheduleSlotComparator#ASCENDING_ORDER} for ascending order.
+     *                       Use {@link ScheduleSlotComparator#DESCENDING_ORDER} for descending order.
+     *                       Zero treats all slots as equal, so the copy keeps the order of the schedule.
+     * @param secondaryKey   The key ordering the slots that start at the same time.
+     * @param threshold      The size of the schedule from which the sort runs in parallel, see {@link ScheduleSlotSorter#DEFAULT_PARALLEL_THRESHOLD}.
+     * @return The sorted list.
+     */
+    public static List<ScheduleSlot> parallelSortByAbsoluteStartTime(List<ScheduleSlot> schedule, int ascendingOrder, SecondaryKey secondaryKey, int threshold) {
+        if (schedule.size() < threshold || ascendingOrder == 0)
+            return sortByAbsoluteStartTime(schedule, ascendingOrder, secondaryKey);
+
+        ScheduleSlot[] slots = schedule.toArray(new ScheduleSlot[0]);
+        int n = slots.length;
+        long[] keys = sortKeys(slots, ascendingOrder, secondaryKey, true);
+        int keyBits = maxBits(keys);
+        int indexBits = 32 - Integer.numberOfLeadingZeros(n - 1);
+        // the index in the low bits keeps equal keys in the original order, so the packed sort is stable
+        if (keyBits + indexBits > 63)
+            return permute(slots, radixSort(keys, keyBits));
+
+        long[] packed = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> packed[i] = (keys[i] << indexBits) | i);
+        Arrays.parallelSort(packed);
+
+        long indexMask = (1L << indexBits) - 1;
+        int[] order = new int[n];
+        IntStream.range(0, n).parallel().forEach(i -> order[i] = (int) (packed[i] & indexMask));
+        return permute(slots, order);
+    }
+
+    /**
+     * Sorts a list of ScheduleSlot instances by the absolute start time and the secondary key in parallel,
+     * using the {@link ScheduleSlotSorter#DEFAULT_PARALLEL_THRESHOLD}.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param ascendingOrder An integer indicating the sorting order.
+     * @param secondaryKey   The key ordering the slots that start at the same time.
+     * @return The sorted list.
+     */
+    public static List<ScheduleSlot> parallelSortByAbsoluteStartTime(List<ScheduleSlot> schedule, int ascendingOrder, SecondaryKey secondaryKey) {
+        return parallelSortByAbsoluteStartTime(schedule, ascendingOrder, secondaryKey, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts a list of ScheduleSlot instances based on the provided comparator and order using the parallel merge sort
+     * of {@link Arrays#parallelSort(Object[], Comparator)}. The comparator has to be thread safe.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param slotComparator The custom comparator defining the schedule-slots sorting logic.
+     * @param ascendingOrder An integer indicating the sorting order:
+     *                       Use {@link ScheduleSlotComparator#ASCENDING_ORDER} for ascending order.
+     *                       Use {@link ScheduleSlotComparator#DESCENDING_ORDER} for descending order.
+     * @param threshold      The size of the schedule from which the sort runs in parallel, see {@link ScheduleSlotSorter#DEFAULT_PARALLEL_THRESHOLD}.
+     * @return The sorted list.
+     */
+    public static List<ScheduleSlot> parallelSort(List<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, int ascendingOrder, int threshold) {
+        if (schedule.size() < threshold)
+            return sort(schedule, slotComparator, ascendingOrder);
+
+        int order = (int) signum(ascendingOrder);
+        ScheduleSlot[] slots = schedule.toArray(new ScheduleSlot[0]);
+        Arrays.parallelSort(slots, (slot1, slot2) -> order * slotComparator.compare(slot1, slot2));
+        return new ArrayList<>(Arrays.asList(slots));
+    }
 
+    /**
+     * Sorts a list of ScheduleSlot instances based on the provided comparator and order in parallel,
+     * using the {@link ScheduleSlotSorter#DEFAULT_PARALLEL_THRESHOLD}.
+     *
+     * @param schedule       The list of ScheduleSlot instances to be sorted.
+     * @param slotComparator The custom comparator defining the schedule-slots sorting logic.
+     * @param ascendingOrder An integer indicating the sorting order.
+     * @return The sorted list.
+     */
+    public static List<ScheduleSlot> parallelSort(List<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, int ascendingOrder) {
+        return parallelSort(schedule, slotComparator, ascendingOrder, DEFAULT_PARALLEL_THRESHOLD);
     }
 
+    /**
+     * Packs the start minute relative to the earliest start and the secondary key of every slot into a non-negative key.
+     * In descending order the keys are inverted, which keeps the sort stable.
+     */
+    private static long[] sortKeys(ScheduleSlot[] slots, int ascendingOrder, SecondaryKey secondaryKey, boolean parallel) {
+        int n = slots.length;
+        long[] keys = new long[n];
+        IntStream indices = parallel ? IntStream.range(0, n).parallel() : IntStream.range(0, n);
+        indices.forEach(i -> keys[i] = slots[i].getAbsoluteStartMinute());
+
+        long minStart = Long.MAX_VALUE;
+        for (long key : keys)
+            minStart = Math.min(minStart, key);
+
+        int[] secondary = secondaryKeys(slots, secondaryKey);
+        int maxSecondary = 0;
+        for (int value : secondary)
+            maxSecondary = Math.max(maxSecondary, value);
+        int secondaryBits = 32 - Integer.numberOfLeadingZeros(maxSecondary);
+
+        long maxKey = 0;
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((keys[i] - minStart) << secondaryBits) | secondary[i];
+            maxKey = Math.max(maxKey, keys[i]);
+        }
+        if (signum(ascendingOrder) < 0)
+            for (int i = 0; i < n; i++)
+                keys[i] = maxKey - keys[i];
+        return keys;
+    }
+
+    private static int maxBits(long[] keys) {
+        long maxKey = 0;
+        for (long key : keys)
+            maxKey = Math.max(maxKey, key);
+        return 64 - Long.numberOfLeadingZeros(maxKey);
+    }
+
+    private static List<ScheduleSlot> permute(ScheduleSlot[] slots, int[] order) {
+        List<ScheduleSlot> result = new ArrayList<>(order.length);
+        for (int index : order)
+            result.add(slots[index]);
+        return result;
+    }
+
+    private static int[] secondaryKeys(ScheduleSlot[] slots, SecondaryKey secondaryKey) {
+        int[] secondary = new int[slots.length];
+        if (secondaryKey == SecondaryKey.DURATION) {
+            for (int i = 0; i < slots.length; i++)
+                secondary[i] = Math.max(slots[i].getDuration(), 0);
+        } else if (secondaryKey == SecondaryKey.ROOM) {
+            // rank of the room name among the distinct names, 0 is reserved for the slots without a location
+            Map<String, Integer> ranks = new HashMap<>();
+            for (ScheduleSlot slot : slots)
+                if (slot.getLocation() != null)
+                    ranks.put(slot.getLocation().getName(), 0);
+            List<String> names = new ArrayList<>(ranks.keySet());
+            Collections.sort(names);
+            for (int rank = 0; rank < names.size(); rank++)
+                ranks.put(names.get(rank), rank + 1);
+            for (int i = 0; i < slots.length; i++)
+                secondary[i] = slots[i].getLocation() == null ? 0 : ranks.get(slots[i].getLocation().getName());
+        }
+        return secondary;
+    }
+
+    /**
+     * Least significant digit radix sort of the indices by the non-negative keys.
+     *
+     * @param keys    The keys of the indices.
+     * @param keyBits The number of significant bits of the largest key.
+     * @return The indices ordered by the keys, indices with equal keys keep their order.
+     */
+    private static int[] radixSort(long[] keys, int keyBits) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+
+        // the keys are moved together with the indices, so every pass reads them sequentially
+        long[] sortedKeys = keys.clone();
+        long[] keyBuffer = new long[n];
+        int[] buffer = new int[n];
+        int[] counts = new int[1 << RADIX_BITS];
+        long mask = (1L << RADIX_BITS) - 1;
+        for (int shift = 0; shift < keyBits; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[(int) ((sortedKeys[i] >>> shift) & mask)]++;
+            for (int digit = 0, position = 0; digit < counts.length; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[(int) ((sortedKeys[i] >>> shift) & mask)]++;
+                keyBuffer[position] = sortedKeys[i];
+                buffer[position] = order[i];
+            }
+
+            long[] swapKeys = sortedKeys;
+            sortedKeys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+
+    /**
+     * Returns the first k ScheduleSlot instances in the order of the provided comparator without sorting the whole schedule.
+     * The slots are passed through a bounded heap of size k, so the cost is O(n log k) and only k slots are held in memory.
+     *
+     * @param schedule       The ScheduleSlot instances to be searched.
+     * @param slotComparator The custom comparator defining the schedule-slots sorting logic.
+     * @param k              The maximum number of slots to be returned.
+     * @return The first k slots sorted in the order of the comparator.
+     */
+    public static List<ScheduleSlot> topK(Iterable<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, int k) {
+        return topK(schedule, slotComparator, slot -> true, k);
+    }
+
+    private static List<ScheduleSlot> topK(Iterable<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, Predicate<ScheduleSlot> accepted, int k) {
+        if (k <= 0)
+            return new ArrayList<>();
+
+        // the heap head is the worst of the kept slots, so it is the one replaced by a better slot
+        Comparator<ScheduleSlot> order = slotComparator::compare;
+        PriorityQueue<ScheduleSlot> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, order.reversed());
+        for (ScheduleSlot slot : schedule) {
+            if (!accepted.test(slot))
+                continue;
+            if (heap.size() < k)
+                heap.add(slot);
+            else if (order.compare(slot, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(slot);
+            }
+        }
+
+        List<ScheduleSlot> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Returns the first k ScheduleSlot instances in the order of the provided comparator and order.
+     *
+     * @param schedule       The ScheduleSlot instances to be searched.
+     * @param slotComparator The custom comparator defining the schedule-slots sorting logic.
+     * @param ascendingOrder An integer indicating the sorting order:
+     *                       Use {@link ScheduleSlotComparator#ASCENDING_ORDER} for ascending order.
+     *                       Use {@link ScheduleSlotComparator#DESCENDING_ORDER} for descending order.
+     * @param k              The maximum number of slots to be returned.
+     * @return The first k slots sorted in the requested order.
+     */
+    public static List<ScheduleSlot> topK(Iterable<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, int ascendingOrder, int k) {
+        int order = (int) signum(ascendingOrder);
+        return topK(schedule, (slot1, slot2) -> order * slotComparator.compare(slot1, slot2), k);
+    }
+
+    /**
+     * Merges lists that are already sorted by the provided comparator, for example the per-room schedules, into one sorted list.
+     * A heap holds the head of every list, so the cost is O(n log m) for m lists, and the merge stops after the limit is reached.
+     *
+     * @param sortedLists    The lists sorted in the order of the comparator.
+     * @param slotComparator The comparator the lists are sorted by.
+     * @param limit          The maximum number of slots to be returned.
+     * @return The first slots of the merged order.
+     */
+    public static List<ScheduleSlot> mergeSorted(Collection<? extends List<ScheduleSlot>> sortedLists, ScheduleSlotComparator slotComparator, int limit) {
+        List<ScheduleSlot> result = new ArrayList<>();
+        if (limit <= 0)
+            return result;
+
+        PriorityQueue<MergeCursor> heads = new PriorityQueue<>((cursor1, cursor2) -> slotComparator.compare(cursor1.head, cursor2.head));
+        for (List<ScheduleSlot> list : sortedLists) {
+            Iterator<ScheduleSlot> iterator = list.iterator();
+            if (iterator.hasNext())
+                heads.add(new MergeCursor(iterator));
+        }
+
+        while (result.size() < limit && !heads.isEmpty()) {
+            MergeCursor cursor = heads.poll();
+            result.add(cursor.head);
+            if (cursor.advance())
+                heads.add(cursor);
+        }
+        return result;
+    }
+
+    /**
+     * Merges lists that are already sorted by the provided comparator into one sorted list.
+     *
+     * @param sortedLists    The lists sorted in the order of the comparator.
+     * @param slotComparator The comparator the lists are sorted by.
+     * @return The merged list.
+     */
+    public static List<ScheduleSlot> mergeSorted(Collection<? extends List<ScheduleSlot>> sortedLists, ScheduleSlotComparator slotComparator) {
+        return mergeSorted(sortedLists, slotComparator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the page of slots that follow the last slot of the previous page in the order of the provided comparator (keyset pagination).
+     * Unlike an offset, the key does not require the skipped slots to be sorted, so every page costs O(n log limit).
+     * The comparator should order every two distinct slots, otherwise the slots equal to the key are skipped.
+     *
+     * @param schedule       The ScheduleSlot instances to be paged.
+     * @param slotComparator The custom comparator defining the schedule-slots sorting logic.
+     * @param after          The last slot of the previous page, or null for the first page.
+     * @param limit          The maximum number of slots in the page.
+     * @return The slots of the page sorted in the order of the comparator.
+     */
+    public static List<ScheduleSlot> pageAfter(Iterable<ScheduleSlot> schedule, ScheduleSlotComparator slotComparator, ScheduleSlot after, int limit) {
+        if (after == null)
+            return topK(schedule, slotComparator, limit);
+        return topK(schedule, slotComparator, slot -> slotComparator.compare(slot, after) > 0, limit);
+    }
+
+    /**
+     * Returns the page of slots that start after the specified absolute start minute, ordered by the absolute start.
+     * This is the page of the "next classes" starting after the last class of the previous page or after the current time.
+     *
+     * @param schedule         The ScheduleSlot instances to be paged.
+     * @param afterStartMinute The absolute start minute the slots of the page start after, see {@link ScheduleSlot#getAbsoluteStartMinute()}.
+     * @param limit            The maximum number of slots in the page.
+     * @return The slots of the page ordered by the absolute start.
+     */
+    public static List<ScheduleSlot> pageAfter(Iterable<ScheduleSlot> schedule, long afterStartMinute, int limit) {
+        return topK(schedule,
+                (slot1, slot2) -> Long.compare(slot1.getAbsoluteStartMinute(), slot2.getAbsoluteStartMinute()),
+                slot -> slot.getAbsoluteStartMinute() > afterStartMinute,
+                limit);
+    }
+
+    /**
+     * Head of one of the merged lists.
+     */
+    private static final class MergeCursor {
+        private final Iterator<ScheduleSlot> iterator;
+        private ScheduleSlot head;
+
+        private MergeCursor(Iterator<ScheduleSlot> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        private boolean advance() {
+            if (!iterator.hasNext())
+                return false;
+            head = iterator.next();
+            return true;
+        }
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package raf.sk_schedule.util.store;
+
+import java.util.*;
+
+/**
+ * Intern table of slot attribute maps. Slots of the same course usually carry equal attributes (the same professor, group and
+ * type of the class), so every distinct map is stored once and referenced by an int handle. The stored maps are unmodifiable
+ * and can be shared freely. The handle {@value EMPTY} always refers to the empty map.
+ */
+public class AttributeTable {
+
+    public static final int EMPTY = 0;
+
+    private final Map<Map<String, Object>, Integer> handles;
+    private final List<Map<String, Object>> maps;
+
+
+    public AttributeTable() {
+        handles = new HashMap<>();
+        maps = new ArrayList<>();
+        maps.add(Collections.emptyMap());
+        handles.put(Collections.emptyMap(), EMPTY);
+    }
+
+    /**
+     * Returns the handle of the map equal to the passed one, the map is copied into the table if it is not there yet.
+     *
+     * @param attributes The attributes to be interned, null is treated as the empty map.
+     * @return The handle of the attributes.
+     */
+    public synchronized int intern(Map<String, Object> attributes) {
+        if (attributes == null || attributes.isEmpty())
+            return EMPTY;
+        Integer handle = handles.get(attributes);
+        if (handle != null)
+            return handle;
+
+        Map<String, Object> copy = Collections.unmodifiableMap(new HashMap<>(attributes));
+        handles.put(copy, maps.size());
+        maps.add(copy);
+        return maps.size() - 1;
+    }
+
+    /**
+     * @param handle The handle returned by {@link AttributeTable#intern(Map)}.
+     * @return The unmodifiable attributes of the handle.
+     * @throws IndexOutOfBoundsException If the handle was not issued by this table.
+     */
+    public synchronized Map<String, Object> get(int handle) {
+        return maps.get(handle);
+    }
+
+    /**
+     * @return The number of distinct attribute maps, the empty map included.
+     */
+    public synchronized int size() {
+        return maps.size();
+    }
+}
@@ -0,0 +1,406 @@
+package raf.sk_schedule.util.store;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.CompactScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlotView;
+import raf.sk_schedule.util.index.RoomRegistry;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * Append-only store of slots kept outside of the Java heap, meant for the historical archive of the schedule.
+ * Every slot is a fixed 16 byte record holding the fields of a {@link CompactScheduleSlot}:
+ * <pre>
+ *     int epochDay | short startMinute | short duration | int roomId | int attributesHandle
+ * </pre>
+ * The records are written into chunks of direct buffers or of a memory-mapped file. The only on-heap structure is the index
+ * of the record numbers by day, held in primitive arrays, so tens of millions of slots add no objects for the garbage collector to trace.
+ * <p>
+ * The archive is read through a flyweight {@link Cursor} implementing {@link ScheduleSlotView}, or through views that convert
+ * the records to {@link ScheduleSlot} objects one at a time, so {@code getSchedule}, searches and exports can run on the archive.
+ * The room ids and the attribute handles refer to the {@link RoomRegistry} and the {@link AttributeTable} of the store,
+ * which are kept on the heap, so a memory-mapped file serves as the storage of the running archive and can't be reopened on its own.
+ * </p>
+ */
+public class OffHeapSlotStore implements Closeable {
+
+    public static final int RECORD_BYTES = 16;
+
+    /**
+     * Number of records in one chunk, 1 MiB chunks.
+     */
+    private static final int CHUNK_RECORDS = 1 << 16;
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_BYTES;
+
+    private static final int DAY_OFFSET = 0;
+    private static final int START_OFFSET = 4;
+    private static final int DURATION_OFFSET = 6;
+    private static final int ROOM_OFFSET = 8;
+    private static final int ATTRIBUTES_OFFSET = 12;
+
+    private final List<ByteBuffer> chunks;
+    private final FileChannel channel;
+    private final RoomRegistry rooms;
+    private final AttributeTable attributes;
+
+    /**
+     * Record numbers of every day, the first element of every array is the number of used elements.
+     */
+    private final TreeMap<Integer, int[]> days;
+
+    private int size;
+
+
+    /**
+     * Creates a store that keeps the records in direct buffers.
+     */
+    public OffHeapSlotStore() {
+        this(new RoomRegistry(), new AttributeTable());
+    }
+
+    /**
+     * Creates a store that keeps the records in direct buffers.
+     *
+     * @param rooms      The registry of the room ids. It only grows, so the archived records keep resolving to their rooms;
+     *                   it can be shared with other archives that should use the same ids, but not with a structure that renumbers rooms.
+     * @param attributes The intern table of the attributes.
+     */
+    public OffHeapSlotStore(RoomRegistry rooms, AttributeTable attributes) {
+        this.chunks = new ArrayList<>();
+        this.channel = null;
+        this.rooms = rooms;
+        this.attributes = attributes;
+        this.days = new TreeMap<>();
+    }
+
+    /**
+     * Creates a store that keeps the records in a memory-mapped file. The existing content of the file is overwritten.
+     *
+     * @param file       The file backing the store.
+     * @param rooms      The registry of the room ids, see {@link #OffHeapSlotStore(RoomRegistry, AttributeTable)}.
+     * @param attributes The intern table of the attributes.
+     * @throws ScheduleIOException If the file can't be opened.
+     */
+    public OffHeapSlotStore(File file, RoomRegistry rooms, AttributeTable attributes) throws ScheduleIOException {
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            randomAccessFile.setLength(0);
+            this.channel = randomAccessFile.getChannel();
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+        this.chunks = new ArrayList<>();
+        this.rooms = rooms;
+        this.attributes = attributes;
+        this.days = new TreeMap<>();
+    }
+
+    private ByteBuffer allocateChunk() {
+        if (channel == null)
+            return ByteBuffer.allocateDirect(CHUNK_BYTES);
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * CHUNK_BYTES, CHUNK_BYTES);
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    /**
+     * Appends the slot to the archive.
+     *
+     * @param slot The slot to be archived.
+     * @return The number of the record.
+     * @throws ScheduleException If the slot overflows to the next day.
+     */
+    public int append(ScheduleSlot slot) {
+        return append(CompactScheduleSlot.of(slot, rooms, attributes));
+    }
+
+    /**
+     * Appends the slot to the archive. The room id and the attributes handle must have been issued by the registry and
+     * the table of this store.
+     *
+     * @param slot The slot to be archived.
+     * @return The number of the record.
+     */
+    public synchronized int append(CompactScheduleSlot slot) {
+        int record = size;
+        if (record == chunks.size() * CHUNK_RECORDS)
+            chunks.add(allocateChunk());
+
+        ByteBuffer chunk = chunks.get(record / CHUNK_RECORDS);
+        int offset = (record % CHUNK_RECORDS) * RECORD_BYTES;
+        chunk.putInt(offset + DAY_OFFSET, slot.epochDay());
+        chunk.putShort(offset + START_OFFSET, slot.startMinute());
+        chunk.putShort(offset + DURATION_OFFSET, slot.duration());
+        chunk.putInt(offset + ROOM_OFFSET, slot.roomId());
+        chunk.putInt(offset + ATTRIBUTES_OFFSET, slot.attributesHandle());
+
+        int[] records = days.computeIfAbsent(slot.epochDay(), d -> new int[8]);
+        if (records[0] + 1 == records.length)
+            days.put(slot.epochDay(), records = Arrays.copyOf(records, records.length * 2));
+        records[++records[0]] = record;
+
+        size++;
+        return record;
+    }
+
+    /**
+     * @param record The number of the record.
+     * @return The record as a compact slot.
+     */
+    public CompactScheduleSlot get(int record) {
+        ByteBuffer chunk = chunk(record);
+        int offset = (record % CHUNK_RECORDS) * RECORD_BYTES;
+        return new CompactScheduleSlot(chunk.getInt(offset + DAY_OFFSET), chunk.getShort(offset + START_OFFSET),
+                chunk.getShort(offset + DURATION_OFFSET), chunk.getInt(offset + ROOM_OFFSET), chunk.getInt(offset + ATTRIBUTES_OFFSET));
+    }
+
+    private synchronized ByteBuffer chunk(int record) {
+        if (record < 0 || record >= size)
+            throw new IndexOutOfBoundsException("Record: " + record + ", Size: " + size);
+        return chunks.get(record / CHUNK_RECORDS);
+    }
+
+    /**
+     * Returns the numbers of the records within the range of days, ordered by day and, within a day, by the order of appending.
+     *
+     * @param fromDay The first epoch day (inclusive), or null if the range is not bounded from below.
+     * @param toDay   The last epoch day (inclusive), or null if the range is not bounded from above.
+     * @return The record numbers.
+     */
+    public synchronized int[] records(Integer fromDay, Integer toDay) {
+        NavigableMap<Integer, int[]> selected = days;
+        if (fromDay != null && toDay != null)
+            selected = fromDay > toDay ? Collections.emptyNavigableMap() : days.subMap(fromDay, true, toDay, true);
+        else if (fromDay != null)
+            selected = days.tailMap(fromDay, true);
+        else if (toDay != null)
+            selected = days.headMap(toDay, true);
+
+        int count = 0;
+        for (int[] records : selected.values())
+            count += records[0];
+        int[] result = new int[count];
+        int position = 0;
+        for (int[] records : selected.values()) {
+            System.arraycopy(records, 1, result, position, records[0]);
+            position += records[0];
+        }
+        return result;
+    }
+
+    /**
+     * Visits the records within the range of days with one flyweight cursor, no objects are created per record.
+     * The cursor is moved to the next record after the consumer returns, so the consumer must not keep it.
+     *
+     * @param fromDay  The first epoch day (inclusive), or null if the range is not bounded from below.
+     * @param toDay    The last epoch day (inclusive), or null if the range is not bounded from above.
+     * @param consumer The consumer of the records.
+     */
+    public void forEach(Integer fromDay, Integer toDay, Consumer<? super ScheduleSlotView> consumer) {
+        Cursor cursor = cursor();
+        for (int record : records(fromDay, toDay))
+            consumer.accept(cursor.moveTo(record));
+    }
+
+    /**
+     * Returns the archived slots whose dates are within the specified bounds, the archive counterpart of {@code getSchedule}.
+     *
+     * @param lowerDateBound The lower date bound (inclusive) as {@code java.util.Date} or a string in "yyyy-MM-dd" format. If null the range is not bounded from below.
+     * @param upperDateBound The upper date bound (inclusive) as {@code java.util.Date} or a string in "yyyy-MM-dd" format. If null the range is not bounded from above.
+     * @return The read-only view of the slots within the bounds ordered by date.
+     * @throws ScheduleException If the bound is not a String or java.util Date instance.
+     */
+    public List<ScheduleSlot> getSchedule(Object lowerDateBound, Object upperDateBound) {
+        Integer fromDay = lowerDateBound == null ? null : (int) toEpochDay(toDate(lowerDateBound));
+        Integer toDay = upperDateBound == null ? null : (int) toEpochDay(toDate(upperDateBound));
+        return range(fromDay, toDay);
+    }
+
+    /**
+     * Returns the records within the range of days as a read-only list of {@link ScheduleSlot} objects that are created
+     * when an element is read, so the list can be passed to the searches and exports without materializing the whole range.
+     *
+     * @param fromDay The first epoch day (inclusive), or null if the range is not bounded from below.
+     * @param toDay   The last epoch day (inclusive), or null if the range is not bounded from above.
+     * @return The view of the records ordered by day.
+     */
+    public List<ScheduleSlot> range(Integer fromDay, Integer toDay) {
+        int[] records = records(fromDay, toDay);
+        return new AbstractList<>() {
+            @Override
+            public ScheduleSlot get(int index) {
+                return OffHeapSlotStore.this.get(records[index]).toScheduleSlot(rooms, attributes);
+            }
+
+            @Override
+            public int size() {
+                return records.length;
+            }
+        };
+    }
+
+    /**
+     * @return A new flyweight cursor over the records of the store.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of bytes the records take outside of the heap.
+     */
+    public synchronized long getOffHeapBytes() {
+        return (long) chunks.size() * CHUNK_BYTES;
+    }
+
+    public RoomRegistry getRooms() {
+        return rooms;
+    }
+
+    public AttributeTable getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Releases the file backing the store. The direct buffers are released by the garbage collector.
+     *
+     * @throws ScheduleIOException If the file can't be closed.
+     */
+    @Override
+    public synchronized void close() throws ScheduleIOException {
+        if (channel == null)
+            return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ScheduleIOException(e);
+        }
+    }
+
+    private static Date toDate(Object date) {
+        if (date instanceof Date)
+            return (Date) date;
+        if (date instanceof String)
+            return parseDate((String) date);
+        throw new ScheduleException("Date bound can be set only as String or java.util Date instance!");
+    }
+
+    /**
+     * Flyweight view of one record, moved over the records with {@link Cursor#moveTo(int)}. The fields are read from the
+     * buffer on every call, so a cursor must not be kept after it has been moved and must not be shared between threads.
+     */
+    public class Cursor implements ScheduleSlotView {
+        private ByteBuffer chunk;
+        private int offset;
+        private int record = -1;
+
+        private Cursor() {
+        }
+
+        public Cursor moveTo(int record) {
+            this.chunk = chunk(record);
+            this.offset = (record % CHUNK_RECORDS) * RECORD_BYTES;
+            this.record = record;
+            return this;
+        }
+
+        public int getRecord() {
+            return record;
+        }
+
+        public int getEpochDay() {
+            return chunk.getInt(offset + DAY_OFFSET);
+        }
+
+        public int getStartMinute() {
+            return chunk.getShort(offset + START_OFFSET);
+        }
+
+        public int getRoomId() {
+            return chunk.getInt(offset + ROOM_OFFSET);
+        }
+
+        @Override
+        public Date getDate() {
+            return fromEpochDay(getEpochDay());
+        }
+
+        @Override
+        public String getStartTime() {
+            return formatMinuteOfDay(getStartMinute());
+        }
+
+        @Override
+        public String getEndTime() {
+            return formatMinuteOfDay(getStartMinute() + getDuration());
+        }
+
+        @Override
+        public int getDuration() {
+            return chunk.getShort(offset + DURATION_OFFSET);
+        }
+
+        @Override
+        public RoomProperties getLocation() {
+            int roomId = getRoomId();
+            return roomId == RoomRegistry.NO_ROOM ? null : rooms.resolve(roomId);
+        }
+
+        @Override
+        public Object getAttribute(String attributeName) {
+            return getAttributes().get(attributeName);
+        }
+
+        @Override
+        public boolean hasAttribute(String attributeName) {
+            return getAttributes().containsKey(attributeName);
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes.get(chunk.getInt(offset + ATTRIBUTES_OFFSET));
+        }
+
+        @Override
+        public WeekDay getDayOfWeek() {
+            // epoch day 0 (1970-01-01) was a thursday
+            return WeekDay.values()[Math.floorMod(getEpochDay() + WeekDay.THURSDAY.ordinal(), WeekDay.values().length)];
+        }
+
+        @Override
+        public long getAbsoluteStartMinute() {
+            return (long) getEpochDay() * MINUTES_IN_DAY + getStartMinute();
+        }
+
+        @Override
+        public long getAbsoluteEndMinute() {
+            return getAbsoluteStartMinute() + getDuration();
+        }
+
+        /**
+         * @return The current record as a new {@link ScheduleSlot} that can be kept after the cursor is moved.
+         */
+        public ScheduleSlot toScheduleSlot() {
+            return get(record).toScheduleSlot(rooms, attributes);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package raf.sk_schedule.util.store;
+
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.ScheduleChangeListener;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * Schedule store partitioned into buckets by the epoch day of the slot date. A date range query visits only the buckets
+ * of the days within the range and returns a lazily concatenated view over them, so the cost of loading one week
+ * depends on the number of slots in that week and not on the size of the whole archive.
+ * The views are fail-fast: once the store is changed, reading a view created before the change throws
+ * {@link ConcurrentModificationException}, so a view has to be copied if it outlives the current read.
+ */
+public class PartitionedScheduleStore implements ScheduleChangeListener {
+
+    private final TreeMap<Long, List<ScheduleSlot>> buckets;
+
+    /**
+     * The bucket every slot has been put in, so the slot can be removed even after its date has been changed.
+     */
+    private final Map<ScheduleSlot, Long> slotDays;
+
+    /**
+     * Number of structural changes of the store, used by the views to detect that the buckets have changed under them.
+     */
+    private int version;
+
+    public PartitionedScheduleStore() {
+        buckets = new TreeMap<>();
+        slotDays = new IdentityHashMap<>();
+    }
+
+    public void add(ScheduleSlot slot) {
+        remove(slot);
+        long day = toEpochDay(slot.getDate());
+        buckets.computeIfAbsent(day, d -> new ArrayList<>()).add(slot);
+        slotDays.put(slot, day);
+        version++;
+    }
+
+    public boolean remove(ScheduleSlot slot) {
+        Long day = slotDays.remove(slot);
+        if (day == null)
+            return false;
+
+        List<ScheduleSlot> bucket = buckets.get(day);
+        bucket.removeIf(other -> other == slot);
+        if (bucket.isEmpty())
+            buckets.remove(day);
+        version++;
+        return true;
+    }
+
+    /**
+     * Returns the slots whose dates are within the specified bounds.
+     *
+     * @param lowerDateBound The lower date bound (inclusive) as {@code java.util.Date} or a string in "yyyy-MM-dd" format. If null the range is not bounded from below.
+     * @param upperDateBound The upper date bound (inclusive) as {@code java.util.Date} or a string in "yyyy-MM-dd" format. If null the range is not bounded from above.
+     * @return The read-only, fail-fast view of the slots within the bounds ordered by date.
+     * @throws ScheduleException If the bound is not a String or java.util Date instance.
+     */
+    public List<ScheduleSlot> range(Object lowerDateBound, Object upperDateBound) {
+        Long fromDay = lowerDateBound == null ? null : toEpochDay(toDate(lowerDateBound));
+        Long toDay = upperDateBound == null ? null : toEpochDay(toDate(upperDateBound));
+        return range(fromDay, toDay);
+    }
+
+    /**
+     * Returns the slots whose epoch days are within the specified bounds. The returned list is a view that concatenates
+     * the buckets of the range without copying them. Reading the view after the store has been changed
+     * throws {@link ConcurrentModificationException}.
+     *
+     * @param fromDay The first epoch day (inclusive), or null if the range is not bounded from below.
+     * @param toDay   The last epoch day (inclusive), or null if the range is not bounded from above.
+     * @return The read-only, fail-fast view of the slots within the bounds ordered by date.
+     */
+    public List<ScheduleSlot> range(Long fromDay, Long toDay) {
+        NavigableMap<Long, List<ScheduleSlot>> selected = buckets;
+        if (fromDay != null && toDay != null)
+            selected = fromDay > toDay ? Collections.emptyNavigableMap() : buckets.subMap(fromDay, true, toDay, true);
+        else if (fromDay != null)
+            selected = buckets.tailMap(fromDay, true);
+        else if (toDay != null)
+            selected = buckets.headMap(toDay, true);
+
+        return new ConcatenatedView(new ArrayList<>(selected.values()));
+    }
+
+    public List<ScheduleSlot> getWholeSchedule() {
+        return range((Long) null, null);
+    }
+
+    /**
+     * @return The epoch day of the earliest slot, or null if the store is empty.
+     */
+    public Long getFirstDay() {
+        return buckets.isEmpty() ? null : buckets.firstKey();
+    }
+
+    /**
+     * @return The epoch day of the latest slot, or null if the store is empty.
+     */
+    public Long getLastDay() {
+        return buckets.isEmpty() ? null : buckets.lastKey();
+    }
+
+    public int size() {
+        return slotDays.size();
+    }
+
+    public void clear() {
+        buckets.clear();
+        slotDays.clear();
+        version++;
+    }
+
+    private static Date toDate(Object date) {
+        if (date instanceof Date)
+            return (Date) date;
+        if (date instanceof String)
+            return parseDate((String) date);
+        throw new ScheduleException("Date bound can be set only as String or java.util Date instance!");
+    }
+
+    @Override
+    public void onSlotBooked(ScheduleSlot slot) {
+        add(slot);
+    }
+
+    @Override
+    public void onSlotRemoved(ScheduleSlot slot) {
+        remove(slot);
+    }
+
+    @Override
+    public void onCleared() {
+        clear();
+    }
+
+    /**
+     * Read-only list that concatenates the buckets. Random access finds the bucket by binary search over the bucket offsets.
+     */
+    private final class ConcatenatedView extends AbstractList<ScheduleSlot> implements RandomAccess {
+        private final List<List<ScheduleSlot>> parts;
+        private final int[] offsets;
+        private final int expectedVersion;
+
+        private ConcatenatedView(List<List<ScheduleSlot>> parts) {
+            this.parts = parts;
+            this.offsets = new int[parts.size() + 1];
+            for (int i = 0; i < parts.size(); i++)
+                offsets[i + 1] = offsets[i] + parts.get(i).size();
+            this.expectedVersion = version;
+        }
+
+        private void checkForComodification() {
+            if (version != expectedVersion)
+                throw new ConcurrentModificationException("The schedule store has been changed after the view was created");
+        }
+
+        @Override
+        public ScheduleSlot get(int index) {
+            checkForComodification();
+            if (index < 0 || index >= size())
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            // buckets are never empty, so the offsets are strictly increasing
+            int part = Arrays.binarySearch(offsets, index);
+            part = part >= 0 ? part : -part - 2;
+            return parts.get(part).get(index - offsets[part]);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return offsets[parts.size()];
+        }
+
+        @Override
+        public Iterator<ScheduleSlot> iterator() {
+            return new Iterator<>() {
+                private int part = 0;
+                private Iterator<ScheduleSlot> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    checkForComodification();
+                    while (!current.hasNext() && part < parts.size())
+                        current = parts.get(part++).iterator();
+                    return current.hasNext();
+                }
+
+                @Override
+                public ScheduleSlot next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return current.next();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package raf.sk_schedule.util.store;
+
+import raf.sk_schedule.model.schedule_node.CompactScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.RoomRegistry;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of the values the slots had when the snapshot was taken. The slots are captured as {@link CompactScheduleSlot}
+ * records with their own room registry and attribute table, and every read creates a new {@link ScheduleSlot} from the record,
+ * so the snapshot can be read by another thread after the lock guarding the schedule is released, and the slots that are moved
+ * or changed meanwhile are still read with their values at the time of the snapshot.
+ */
+public class ScheduleSnapshot extends AbstractList<ScheduleSlot> implements RandomAccess {
+
+    private final CompactScheduleSlot[] slots;
+    private final RoomRegistry rooms;
+    private final AttributeTable attributes;
+
+
+    private ScheduleSnapshot(CompactScheduleSlot[] slots, RoomRegistry rooms, AttributeTable attributes) {
+        this.slots = slots;
+        this.rooms = rooms;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Captures the values of the slots. It has to be called while the slots can't be changed.
+     *
+     * @param schedule The slots to be captured.
+     * @return The snapshot of the slots in the order of the collection.
+     */
+    public static ScheduleSnapshot of(Collection<ScheduleSlot> schedule) {
+        RoomRegistry rooms = new RoomRegistry();
+        AttributeTable attributes = new AttributeTable();
+        CompactScheduleSlot[] slots = new CompactScheduleSlot[schedule.size()];
+        int i = 0;
+        for (ScheduleSlot slot : schedule)
+            slots[i++] = CompactScheduleSlot.of(slot, rooms, attributes);
+        return new ScheduleSnapshot(slots, rooms, attributes);
+    }
+
+    /**
+     * @param index The index of the slot.
+     * @return A new slot with the captured values, the room is the instance the slot was located in when it was captured.
+     */
+    @Override
+    public ScheduleSlot get(int index) {
+        return slots[index].toScheduleSlot(rooms, attributes);
+    }
+
+    /**
+     * @param index The index of the slot.
+     * @return The captured record of the slot, its room id and attributes handle refer to {@link #getRooms()} and {@link #getAttributes()}.
+     */
+    public CompactScheduleSlot getCompact(int index) {
+        return slots[index];
+    }
+
+    @Override
+    public int size() {
+        return slots.length;
+    }
+
+    public RoomRegistry getRooms() {
+        return rooms;
+    }
+
+    public AttributeTable getAttributes() {
+        return attributes;
+    }
+}
@@ -0,0 +1,218 @@
+package raf.sk_schedule.util.transaction;
+
+import raf.sk_schedule.api.ScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+/**
+ * The `ScheduleTransaction` class groups the bookings, deletions and moves of slots that are validated and applied together
+ * by {@link ScheduleManager#applyTransaction(ScheduleTransaction)}. Only the final state of the schedule is validated,
+ * so two lectures can be swapped, or a whole group can be shifted to another day, although the intermediate states would conflict.
+ * <p>
+ * The targets of the moves are resolved against the fields of the slots at the time they are added to the builder.
+ * </p>
+ */
+public class ScheduleTransaction {
+
+    private final List<ScheduleSlot> deletions;
+    private final List<Move> moves;
+    private final List<ScheduleSlot> bookings;
+
+    private ScheduleTransaction(List<ScheduleSlot> deletions, List<Move> moves, List<ScheduleSlot> bookings) {
+        this.deletions = deletions;
+        this.moves = moves;
+        this.bookings = bookings;
+    }
+
+    /**
+     * @return The slots to be deleted, the deletions are applied first.
+     */
+    public List<ScheduleSlot> getDeletions() {
+        return Collections.unmodifiableList(deletions);
+    }
+
+    /**
+     * @return The moves of booked slots, applied after the deletions.
+     */
+    public List<Move> getMoves() {
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * @return The slots to be booked, the bookings are applied last.
+     */
+    public List<ScheduleSlot> getBookings() {
+        return Collections.unmodifiableList(bookings);
+    }
+
+    public int size() {
+        return deletions.size() + moves.size() + bookings.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * The target of a slot that is moved within the transaction.
+     */
+    public static class Move {
+        private final ScheduleSlot slot;
+        private final long epochDay;
+        private final int startMinute;
+        private final int endMinute;
+        private final RoomProperties location;
+
+        private Move(ScheduleSlot slot, long epochDay, int startMinute, int endMinute, RoomProperties location) {
+            this.slot = slot;
+            this.epochDay = epochDay;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.location = location;
+        }
+
+        @Override
+        public String toString() {
+            return "<move: " + slot + "> <to: " + formatDate(getDate()) + " " + formatMinuteOfDay(startMinute) + "-"
+                    + formatMinuteOfDay(endMinute) + "> <location: " + (location == null ? null : location.getName()) + ">";
+        }
+
+        public ScheduleSlot getSlot() {
+            return slot;
+        }
+
+        public Date getDate() {
+            return fromEpochDay(epochDay);
+        }
+
+        public long getEpochDay() {
+            return epochDay;
+        }
+
+        public int getStartMinute() {
+            return startMinute;
+        }
+
+        public int getEndMinute() {
+            return endMinute;
+        }
+
+        public RoomProperties getLocation() {
+            return location;
+        }
+
+        public long getAbsoluteStartMinute() {
+            return epochDay * MINUTES_IN_DAY + startMinute;
+        }
+
+        public long getAbsoluteEndMinute() {
+            return epochDay * MINUTES_IN_DAY + endMinute;
+        }
+    }
+
+    /**
+     * The `Builder` class is responsible for constructing instances of the `ScheduleTransaction` class.
+     * Every slot can be part of the transaction only once.
+     */
+    public static class Builder {
+        private final List<ScheduleSlot> deletions;
+        private final List<Move> moves;
+        private final List<ScheduleSlot> bookings;
+        private final Set<ScheduleSlot> slots;
+
+        public Builder() {
+            deletions = new ArrayList<>();
+            moves = new ArrayList<>();
+            bookings = new ArrayList<>();
+            slots = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+
+        public Builder bookSlot(ScheduleSlot slot) {
+            bookings.add(register(slot));
+            return this;
+        }
+
+        public Builder deleteSlot(ScheduleSlot slot) {
+            deletions.add(register(slot));
+            return this;
+        }
+
+        /**
+         * Moves the booked slot. The {@code null} arguments keep the current values of the slot, a missing end time keeps its duration.
+         *
+         * @param slot         The slot to be moved.
+         * @param newDate      The new date for the slot, as String or java.util Date instance.
+         * @param newStartTime The new start time for the slot in "HH:mm" format.
+         * @param newEndTime   The new end time for the slot in "HH:mm" format.
+         * @param newLocation  The new location for the slot.
+         * @return This builder.
+         * @throws ScheduleException If the new time interval is not within one day or the slot is already part of the transaction.
+         */
+        public Builder moveSlot(ScheduleSlot slot, Object newDate, String newStartTime, String newEndTime, RoomProperties newLocation) {
+            long epochDay = newDate == null ? toEpochDay(slot.getDate()) : toEpochDay(toDate(newDate));
+            int startMinute = toMinuteOfDay(newStartTime == null ? slot.getStartTime() : newStartTime);
+            int endMinute = newEndTime == null ? startMinute + slot.getDuration() : toMinuteOfDay(newEndTime);
+            return move(slot, epochDay, startMinute, endMinute, newLocation == null ? slot.getLocation() : newLocation);
+        }
+
+        /**
+         * Swaps the date, start time and location of two booked slots, each of them keeps its own duration.
+         *
+         * @param first  The first slot.
+         * @param second The second slot.
+         * @return This builder.
+         */
+        public Builder swapSlots(ScheduleSlot first, ScheduleSlot second) {
+            int firstStart = toMinuteOfDay(first.getStartTime());
+            int secondStart = toMinuteOfDay(second.getStartTime());
+            move(first, toEpochDay(second.getDate()), secondStart, secondStart + first.getDuration(), second.getLocation());
+            return move(second, toEpochDay(first.getDate()), firstStart, firstStart + second.getDuration(), first.getLocation());
+        }
+
+        /**
+         * Shifts the booked slots by the number of days, keeping their times and locations.
+         *
+         * @param slots The slots to be shifted, for example all the lectures of a group on one day.
+         * @param days  The number of days, negative values shift the slots to the past.
+         * @return This builder.
+         */
+        public Builder shiftSlots(Collection<ScheduleSlot> slots, int days) {
+            for (ScheduleSlot slot : slots) {
+                int startMinute = toMinuteOfDay(slot.getStartTime());
+                move(slot, toEpochDay(slot.getDate()) + days, startMinute, startMinute + slot.getDuration(), slot.getLocation());
+            }
+            return this;
+        }
+
+        private Builder move(ScheduleSlot slot, long epochDay, int startMinute, int endMinute, RoomProperties location) {
+            if (startMinute >= endMinute || endMinute > LAST_MINUTE_OF_DAY)
+                throw new ScheduleException("Slot " + slot + " can't be moved, the new time interval is not within one day!");
+            moves.add(new Move(register(slot), epochDay, startMinute, endMinute, location));
+            return this;
+        }
+
+        private ScheduleSlot register(ScheduleSlot slot) {
+            Objects.requireNonNull(slot);
+            if (!slots.add(slot))
+                throw new ScheduleException("Slot " + slot + " is already part of the transaction!");
+            return slot;
+        }
+
+        private static Date toDate(Object date) {
+            if (date instanceof Date)
+                return (Date) date;
+            if (date instanceof String)
+                return parseDate((String) date);
+            throw new ScheduleException("Date can be set only as String or java.util Date instance!");
+        }
+
+        public ScheduleTransaction build() {
+            return new ScheduleTransaction(new ArrayList<>(deletions), new ArrayList<>(moves), new ArrayList<>(bookings));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package raf.sk_schedule.util.transaction;
+
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.conflict.ConflictDetector;
+import raf.sk_schedule.util.conflict.SlotConflict;
+import raf.sk_schedule.util.index.AttributeConflictIndex;
+import raf.sk_schedule.util.index.RoomIntervalIndex;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * The `TransactionValidator` class validates the schedule as it will be after a {@link ScheduleTransaction} is applied.
+ * The targets of the transaction are grouped by the room and by the conflict key values. Every group is merged with the booked
+ * slots overlapping its targets, found through the indexes, leaving out the slots that are deleted or moved by the transaction.
+ * The merged group is then checked once by the {@link ConflictDetector#sweep} line, so the cost doesn't depend on the order
+ * of the steps and no step is validated against an intermediate state.
+ */
+public class TransactionValidator {
+
+    private TransactionValidator() {
+    }
+
+    /**
+     * Finds the conflicts of the final schedule that involve at least one booked or moved slot of the transaction.
+     * The conflicts that already exist between the untouched slots are not reported.
+     *
+     * @param transaction     The transaction to be validated.
+     * @param bookingIndex    The interval index of the booked slots by room.
+     * @param attributeIndex  The interval indexes of the booked slots by conflict key values.
+     * @return The list of conflicts, empty if the transaction can be applied.
+     */
+    public static List<SlotConflict> validate(ScheduleTransaction transaction, RoomIntervalIndex bookingIndex, AttributeConflictIndex attributeIndex) {
+        Set<ScheduleSlot> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        touched.addAll(transaction.getDeletions());
+
+        List<Target> targets = new ArrayList<>();
+        for (ScheduleTransaction.Move move : transaction.getMoves()) {
+            touched.add(move.getSlot());
+            targets.add(new Target(move.getSlot(), move.getAbsoluteStartMinute(), move.getAbsoluteEndMinute(),
+                    move.getLocation() == null ? null : move.getLocation().getName()));
+        }
+        for (ScheduleSlot slot : transaction.getBookings())
+            targets.add(new Target(slot, slot.getAbsoluteStartMinute(), slot.getAbsoluteEndMinute(),
+                    slot.getLocation() == null ? null : slot.getLocation().getName()));
+
+        Set<ScheduleSlot> targetSlots = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Target target : targets)
+            targetSlots.add(target.slot);
+
+        List<SlotConflict> conflicts = new ArrayList<>();
+        Map<String, List<Target>> rooms = new HashMap<>();
+        for (Target target : targets)
+            if (target.room != null)
+                rooms.computeIfAbsent(target.room, r -> new ArrayList<>()).add(target);
+        for (Map.Entry<String, List<Target>> room : rooms.entrySet())
+            sweep(room.getValue(), touched, targetSlots, SlotConflict.Type.ROOM, ConflictDetector.LOCATION_KEY, room.getKey(),
+                    (start, end) -> bookingIndex.overlapping(room.getKey(), start, end), conflicts);
+
+        for (String key : attributeIndex.getConflictKeys()) {
+            Map<Object, List<Target>> values = new HashMap<>();
+            for (Target target : targets) {
+                Object value = target.slot.getAttribute(key);
+                if (value != null)
+                    values.computeIfAbsent(value, v -> new ArrayList<>()).add(target);
+            }
+            for (Map.Entry<Object, List<Target>> value : values.entrySet())
+                sweep(value.getValue(), touched, targetSlots, SlotConflict.Type.ATTRIBUTE, key, value.getKey(),
+                        (start, end) -> attributeIndex.overlapping(key, value.getKey(), start, end), conflicts);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Merges the targets sharing a resource with the booked slots of the resource that overlap them and sweeps the merged group.
+     */
+    private static void sweep(List<Target> targets, Set<ScheduleSlot> touched, Set<ScheduleSlot> targetSlots,
+                              SlotConflict.Type type, String key, Object value,
+                              BiFunction<Long, Long, List<ScheduleSlot>> booked, List<SlotConflict> conflicts) {
+        Set<ScheduleSlot> merged = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ScheduleSlot> group = new ArrayList<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (Target target : targets) {
+            for (ScheduleSlot slot : booked.apply(target.start, target.end)) {
+                if (!touched.contains(slot) && merged.add(slot)) {
+                    group.add(slot);
+                    long start = slot.getAbsoluteStartMinute();
+                    intervals.add(new long[]{start, start + slot.getDuration()});
+                }
+            }
+        }
+        if (group.isEmpty() && targets.size() < 2)
+            return;
+
+        for (Target target : targets) {
+            group.add(target.slot);
+            intervals.add(new long[]{target.start, target.end});
+        }
+        long[] starts = new long[group.size()];
+        long[] ends = new long[group.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = intervals.get(i)[0];
+            ends[i] = intervals.get(i)[1];
+        }
+        ConflictDetector.sweep(group, starts, ends, type, key, value, conflict -> {
+            if (targetSlots.contains(conflict.getFirst()) || targetSlots.contains(conflict.getSecond()))
+                conflicts.add(conflict);
+        });
+    }
+
+    private static final class Target {
+        private final ScheduleSlot slot;
+        private final long start;
+        private final long end;
+        private final String room;
+
+        private Target(ScheduleSlot slot, long start, long end, String room) {
+            this.slot = slot;
+            this.start = start;
+            this.end = end;
+            this.room = room;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package raf.sk_schedule.api;
+
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.filter.SearchCriteria;
+
+import java.util.*;
+
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+/**
+ * Minimal implementation of the adapter keeping the rooms and the slots in memory, used by the tests.
+ * The notification methods are called only when the manager reports its changes, so both modes of the adapter can be tested.
+ * Deleting a slot of a series deletes the whole series, like the implementations of the component do.
+ */
+public class InMemoryScheduleManager extends ScheduleManagerAdapter {
+
+    public final Map<String, RoomProperties> rooms = new LinkedHashMap<>();
+    public final List<ScheduleSlot> slots = new ArrayList<>();
+    private final boolean reportsChanges;
+
+    public InMemoryScheduleManager() {
+        this(true);
+    }
+
+    public InMemoryScheduleManager(boolean reportsChanges) {
+        super(reportsChanges);
+        this.reportsChanges = reportsChanges;
+    }
+
+    public static RoomProperties room(String name, int capacity) {
+        return new RoomProperties.Builder().setName(name).setCapacity(capacity).build();
+    }
+
+    public static ScheduleSlot slot(String date, String startTime, String endTime, RoomProperties room, Object... attributes) {
+        ScheduleSlot.Builder builder = new ScheduleSlot.Builder()
+                .setDate(parseDate(date))
+                .setStartTime(startTime)
+                .setEndTime(endTime)
+                .setLocation(room);
+        for (int i = 0; i < attributes.length; i += 2)
+            builder.setAttribute((String) attributes[i], attributes[i + 1]);
+        return builder.build();
+    }
+
+    /**
+     * Creates a weekly series in the room from the first date until the end date, the end date is excluded.
+     */
+    public static RepetitiveScheduleMapper weekly(String from, String until, String startTime, String endTime, RoomProperties room) {
+        return new RepetitiveScheduleMapper.Builder()
+                .setRecurrenceIntervalStart(parseDate(from))
+                .setRecurrenceIntervalEnd(parseDate(until))
+                .setRecurrencePeriod(7)
+                .setStartTime(startTime)
+                .setEndTime(endTime)
+                .setLocation(room)
+                .build();
+    }
+
+    /**
+     * Creates a manager with three rooms and up to {@code size} random slots in January 2024, the colliding slots are skipped.
+     */
+    public static InMemoryScheduleManager random(long seed, int size) {
+        Random random = new Random(seed);
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties[] rooms = {room("A", 30), room("B", 60), room("C", 90)};
+        for (RoomProperties room : rooms)
+            manager.addRoom(room);
+        for (int i = 0; i < size; i++) {
+            int hour = 8 + random.nextInt(12);
+            String date = String.format("2024-01-%02d", 1 + random.nextInt(28));
+            ScheduleSlot slot = slot(date, String.format("%02d:00", hour), String.format("%02d:00", hour + 1),
+                    rooms[random.nextInt(rooms.length)], "professor", "P" + random.nextInt(6), "group", "G" + random.nextInt(4));
+            try {
+                manager.bookScheduleSlot(slot);
+            } catch (ScheduleException colliding) {
+                // the random slot overlaps a booked one in the same room
+            }
+        }
+        return manager;
+    }
+
+    @Override
+    public int loadRoomsSCV(String csvPath) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int loadScheduleSCV(String csvPath) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasRoom(String roomName) {
+        return rooms.containsKey(roomName);
+    }
+
+    @Override
+    public void addRoom(RoomProperties properties) {
+        rooms.put(properties.getName(), properties);
+        if (reportsChanges)
+            notifyRoomAdded(properties);
+    }
+
+    @Override
+    public void updateRoom(String name, RoomProperties newProp) {
+        RoomProperties previous = rooms.remove(name);
+        if (previous == null)
+            throw new ScheduleException("Room " + name + " doesn't exist!");
+        if (reportsChanges)
+            notifyRoomRemoved(previous);
+        rooms.put(newProp.getName(), newProp);
+        if (reportsChanges)
+            notifyRoomAdded(newProp);
+    }
+
+    @Override
+    public RoomProperties getRoomByName(String roomName) {
+        return rooms.get(roomName);
+    }
+
+    @Override
+    public List<RoomProperties> roomLookUp(String name, int capacity, int hasComputers, Boolean hasProjector, Map<String, String> attributes) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean deleteRoom(String name) {
+        RoomProperties removed = rooms.remove(name);
+        if (removed != null && reportsChanges)
+            notifyRoomRemoved(removed);
+        return removed != null;
+    }
+
+    @Override
+    public boolean bookScheduleSlot(ScheduleSlot scheduleSlot) {
+        validateBooking(scheduleSlot);
+        slots.add(scheduleSlot);
+        if (reportsChanges)
+            notifySlotBooked(scheduleSlot);
+        return true;
+    }
+
+    @Override
+    public List<ScheduleSlot> bookRepetitiveScheduleSlot(String startTime, int duration, String endTime, WeekDay weekDay,
+                                                         int recurrencePeriod, String schedulingIntervalStart, String schedulingIntervalEnd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ScheduleSlot> bookRepetitiveScheduleSlot(RepetitiveScheduleMapper recurrenceInterval) {
+        List<ScheduleSlot> series = recurrenceInterval.mapSchedule();
+        for (ScheduleSlot slot : series)
+            bookScheduleSlot(slot);
+        return series;
+    }
+
+    @Override
+    public ScheduleSlot getScheduleSlot(Object date, String startTime, String endTime, String location) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ScheduleSlot> deleteScheduleSlot(ScheduleSlot scheduleSlot) {
+        List<ScheduleSlot> deleted = scheduleSlot.getSharedState() == null
+                ? List.of(scheduleSlot)
+                : scheduleSlot.getSharedState().getLinkedSlotInstances();
+        List<ScheduleSlot> removed = new ArrayList<>();
+        for (ScheduleSlot slot : deleted) {
+            if (slots.removeIf(other -> other == slot)) {
+                removed.add(slot);
+                if (reportsChanges)
+                    notifySlotRemoved(slot);
+            }
+        }
+        if (removed.isEmpty())
+            throw new ScheduleException("Slot " + scheduleSlot + " is not booked!");
+        return removed;
+    }
+
+    @Override
+    public List<ScheduleSlot> isScheduleSlotAvailable(ScheduleSlot scheduleSlot) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ScheduleSlot> isScheduleSlotAvailable(Object date, String startTime, String endTime, String location) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int exportScheduleCSV(String filePath, Object lowerDateBound, Object upperDateBound, String... includedAttributes) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int exportFilteredScheduleCSV(String filePath, SearchCriteria searchCriteria, String... includedAttributes) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int exportScheduleJSON(String filePath, Object lowerDateBound, Object upperDateBound) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int exportFilteredScheduleJSON(String filePath, SearchCriteria searchCriteria) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<RoomProperties> getAllRooms() {
+        return new ArrayList<>(rooms.values());
+    }
+
+    @Override
+    public List<ScheduleSlot> getWholeSchedule() {
+        return new ArrayList<>(slots);
+    }
+}
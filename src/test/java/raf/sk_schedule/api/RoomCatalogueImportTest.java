@@ -0,0 +1,153 @@
+package raf.sk_schedule.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.catalogue.RoomCatalogueDiff;
+import raf.sk_schedule.util.index.ScheduleChangeListener;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class RoomCatalogueImportTest {
+
+    @TempDir
+    Path directory;
+
+    private final RoomProperties a = room("A", 10);
+    private final RoomProperties b = room("B", 20);
+    private final RoomProperties c = room("C", 30);
+
+    private InMemoryScheduleManager manager() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        manager.addRoom(a);
+        manager.addRoom(b);
+        manager.addRoom(c);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", a));
+        manager.bookScheduleSlot(slot("2024-01-02", "08:00", "10:00", a));
+        return manager;
+    }
+
+    @Test
+    void catalogueIsAppliedAndTheSlotsFollowTheRenamedRoom() {
+        InMemoryScheduleManager manager = manager();
+        List<ScheduleSlot> slots = manager.getRoomSlots("A");
+        RoomProperties renamed = room("A2", 15);
+
+        RoomCatalogueDiff diff = manager.applyRoomCatalogue(List.of(renamed, room("B", 25), room("D", 40)), Map.of("A", "A2"), true);
+        assertEquals(1, diff.getAdded().size());
+        assertEquals(2, diff.getChanged().size());
+        assertEquals(List.of(c), diff.getRemoved());
+
+        assertEquals(Set.of("A2", "B", "D"), manager.rooms.keySet());
+        for (ScheduleSlot slot : slots)
+            assertSame(renamed, slot.getLocation());
+        assertTrue(manager.getRoomSlots("A").isEmpty());
+        assertEquals(2, manager.getRoomSlots("A2").size());
+        assertEquals(25, manager.getRoomByName("B").getCapacity());
+    }
+
+    @Test
+    void implementationIsToldAboutTheSlotsOfTheRenamedRoom() {
+        List<String> relocated = new ArrayList<>();
+        InMemoryScheduleManager manager = new InMemoryScheduleManager() {
+            @Override
+            protected void relocateSlot(ScheduleSlot slot, Date date, int startMinute, int endMinute, RoomProperties location) {
+                super.relocateSlot(slot, date, startMinute, endMinute, location);
+                relocated.add(slot.getStartTime() + " " + slot.getLocation().getName());
+            }
+        };
+        manager.addRoom(a);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", a));
+        manager.bookScheduleSlot(slot("2024-01-02", "09:00", "10:00", a));
+
+        manager.applyRoomCatalogue(List.of(room("A2", 10)), Map.of("A", "A2"), true);
+        assertEquals(List.of("08:00 A2", "09:00 A2"), relocated);
+    }
+
+    @Test
+    void roomNotificationsAreDeliveredAsOneBatch() {
+        InMemoryScheduleManager manager = manager();
+        List<String> batches = new ArrayList<>();
+        manager.addScheduleChangeListener(new ScheduleChangeListener() {
+            @Override
+            public void onSlotBooked(ScheduleSlot slot) {
+            }
+
+            @Override
+            public void onSlotRemoved(ScheduleSlot slot) {
+            }
+
+            @Override
+            public void onRoomAdded(RoomProperties room) {
+                batches.add("added " + room.getName());
+            }
+
+            @Override
+            public void onRoomsChanged(Collection<RoomProperties> removed, Collection<RoomProperties> added) {
+                List<String> names = new ArrayList<>();
+                removed.forEach(room -> names.add("-" + room.getName()));
+                added.forEach(room -> names.add("+" + room.getName()));
+                batches.add(String.join(" ", names));
+            }
+        });
+
+        // the listener is brought up to date with the existing rooms first
+        assertEquals(List.of("added A", "added B", "added C"), batches);
+        batches.clear();
+
+        manager.applyRoomCatalogue(List.of(a, room("B", 99), c, room("D", 1)), null, false);
+        assertEquals(List.of("-B +B +D"), batches);
+    }
+
+    @Test
+    void bookedRoomsAreNotRemoved() {
+        InMemoryScheduleManager manager = manager();
+        assertThrows(ScheduleException.class, () -> manager.applyRoomCatalogue(List.of(b, c), null, true));
+        assertEquals(Set.of("A", "B", "C"), manager.rooms.keySet());
+        assertEquals(2, manager.getRoomSlots("A").size());
+    }
+
+    @Test
+    void failedChangeRevertsTheAppliedChanges() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager() {
+            @Override
+            public void addRoom(RoomProperties properties) {
+                if (properties.getName().equals("Broken"))
+                    throw new ScheduleException("Room can't be added!");
+                super.addRoom(properties);
+            }
+        };
+        manager.addRoom(a);
+        manager.addRoom(b);
+        ScheduleSlot lecture = slot("2024-01-01", "08:00", "10:00", a);
+        manager.bookScheduleSlot(lecture);
+
+        RoomProperties renamed = room("A2", 10);
+        assertThrows(ScheduleException.class,
+                () -> manager.applyRoomCatalogue(List.of(renamed, room("Broken", 1)), Map.of("A", "A2"), true));
+        assertEquals(Set.of("A", "B"), manager.rooms.keySet());
+        assertSame(a, lecture.getLocation());
+        assertEquals(List.of(lecture), manager.getRoomSlots("A"));
+        assertTrue(manager.getRoomSlots("A2").isEmpty());
+        assertEquals(List.of(lecture), manager.getSchedule("2024-01-01", "2024-01-01"));
+    }
+
+    @Test
+    void catalogueIsImportedFromCsv() throws Exception {
+        InMemoryScheduleManager manager = manager();
+        Path csv = directory.resolve("rooms.csv");
+        Files.writeString(csv, "name,capacity,has_computers,has_projector\nA,10,0,false\nB,20,0,false\nE,60,30,true\n");
+        RoomCatalogueDiff diff = manager.importRoomCatalogueCSV(csv.toString(), null, false);
+        assertEquals(1, diff.getAdded().size());
+        assertTrue(manager.getRoomByName("E").hasProjector());
+        assertTrue(manager.hasRoom("C"));
+    }
+}
@@ -0,0 +1,352 @@
+package raf.sk_schedule.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.catalogue.RoomCascadePolicy;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.metrics.MetricsRegistry;
+import raf.sk_schedule.util.metrics.Operation;
+import raf.sk_schedule.util.room_finder.EarliestFitQuery;
+import raf.sk_schedule.util.room_finder.RoomAvailabilityQuery;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.api.InMemoryScheduleManager.weekly;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+class ScheduleManagerAdapterTest {
+
+    private static RoomAvailabilityQuery mondayMorning(int capacity) {
+        return new RoomAvailabilityQuery.Builder()
+                .setSchedulingIntervalStart("2024-01-01")
+                .setSchedulingIntervalEnd("2024-01-15")
+                .setRecurrencePeriod(7)
+                .setStartTime("09:00")
+                .setEndTime("11:00")
+                .setCapacity(capacity)
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void findsTheBestFittingFreeRooms(boolean reportsChanges) {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager(reportsChanges);
+        assertEquals(reportsChanges, manager.isReportingChanges());
+        RoomProperties small = room("Small", 10);
+        RoomProperties medium = room("Medium", 40);
+        RoomProperties large = room("Large", 100);
+        manager.addRoom(large);
+        manager.addRoom(small);
+        manager.addRoom(medium);
+
+        assertEquals(List.of(medium, large), manager.findAvailableRooms(mondayMorning(20)));
+
+        // the second occurrence collides, the booking ends exactly when the queried one starts
+        manager.bookScheduleSlot(slot("2024-01-08", "10:00", "12:00", medium));
+        manager.bookScheduleSlot(slot("2024-01-01", "07:00", "09:00", large));
+        assertEquals(List.of(large), manager.findAvailableRooms(mondayMorning(20)));
+        assertEquals(List.of(small, large), manager.findAvailableRooms(mondayMorning(0)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void answersFollowTheChangesMadeAfterTheFirstRead(boolean reportsChanges) {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager(reportsChanges);
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        assertEquals(List.of(hall), manager.findAvailableRooms(mondayMorning(0)));
+
+        ScheduleSlot booked = slot("2024-01-01", "09:30", "10:00", hall);
+        manager.bookScheduleSlot(booked);
+        assertTrue(manager.findAvailableRooms(mondayMorning(0)).isEmpty());
+        assertThrows(ScheduleException.class, () -> manager.bookScheduleSlot(slot("2024-01-01", "09:00", "09:45", hall)));
+
+        manager.deleteScheduleSlot(booked);
+        RoomProperties annex = room("Annex", 5);
+        manager.addRoom(annex);
+        assertEquals(List.of(annex, hall), manager.findAvailableRooms(mondayMorning(0)));
+    }
+
+    static void assertSameSlots(List<ScheduleSlot> expected, List<ScheduleSlot> actual) {
+        assertEquals(expected.size(), actual.size());
+        Set<ScheduleSlot> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        identities.addAll(actual);
+        for (ScheduleSlot slot : expected)
+            assertTrue(identities.contains(slot), slot.toString());
+    }
+
+    @Test
+    void getScheduleMatchesTheLinearFilterOfTheWholeSchedule() {
+        InMemoryScheduleManager manager = InMemoryScheduleManager.random(5, 400);
+        String[][] bounds = {{null, null}, {"2024-01-05", "2024-01-05"}, {"2024-01-10", null}, {null, "2024-01-03"}, {"2024-01-20", "2024-01-10"}};
+        for (String[] bound : bounds) {
+            List<ScheduleSlot> expected = new ArrayList<>();
+            for (ScheduleSlot slot : manager.getWholeSchedule())
+                if ((bound[0] == null || !slot.getDate().before(parseDate(bound[0])))
+                        && (bound[1] == null || !slot.getDate().after(parseDate(bound[1]))))
+                    expected.add(slot);
+            assertSameSlots(expected, manager.getSchedule(bound[0], bound[1]));
+        }
+    }
+
+    @Test
+    void getScheduleReturnsACopyThatSurvivesLaterChanges() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 30);
+        manager.addRoom(a);
+        ScheduleSlot first = slot("2024-01-01", "10:00", "11:00", a);
+        manager.bookScheduleSlot(first);
+
+        List<ScheduleSlot> schedule = manager.getSchedule("2024-01-01", "2024-01-01");
+        manager.bookScheduleSlot(slot("2024-01-01", "12:00", "13:00", a));
+        manager.deleteScheduleSlot(first);
+        assertEquals(List.of(first), schedule);
+
+        schedule.clear();
+        assertEquals(1, manager.getSchedule("2024-01-01", "2024-01-01").size());
+    }
+
+    @Test
+    void freeSlotsReportTheExaminedRoomDays() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        MetricsRegistry registry = new MetricsRegistry();
+        manager.setMetrics(registry);
+        RoomProperties hall = room("Hall", 50);
+        RoomProperties lab = room("Lab", 20);
+        manager.addRoom(hall);
+        manager.addRoom(lab);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", hall));
+
+        List<FreeScheduleSlot> free = manager.getFreeScheduleSlots("2024-01-01", "2024-01-03");
+        // three days of two rooms, the hall is split by its booking on the first day
+        assertEquals(7, free.size());
+        assertEquals(6, registry.snapshot(Operation.FREE_SLOTS).getScannedRows());
+        assertEquals(7, registry.snapshot(Operation.FREE_SLOTS).getReturnedRows());
+
+        manager.bookScheduleSlot(slot("2024-01-02", "12:00", "13:00", lab));
+        assertEquals(8, manager.getFreeScheduleSlots("2024-01-01", "2024-01-03").size());
+        assertEquals(12, registry.snapshot(Operation.FREE_SLOTS).getScannedRows());
+    }
+
+    @Test
+    void earliestFreeSlotsReportTheExaminedRoomDays() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        MetricsRegistry registry = new MetricsRegistry();
+        manager.setMetrics(registry);
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        manager.addRoom(room("Lab", 20));
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "12:00", hall));
+
+        EarliestFitQuery query = new EarliestFitQuery.Builder().setSearchIntervalStart("2024-01-01").setSearchIntervalEnd("2024-01-10")
+                .setEarliestTime("08:00").setLatestTime("12:00").setDuration(60).setLimit(1).build();
+        assertEquals(1, manager.findEarliestFreeSlots(query).size());
+        // the first two days of both rooms: the hall is booked for the whole first morning,
+        // and the cursor of the lab moves on to its next day after its first day is taken
+        assertEquals(4, registry.snapshot(Operation.FREE_SLOTS).getScannedRows());
+    }
+
+    @Test
+    void pagedSearchReportsTheSlotsEvaluatedForThePage() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        MetricsRegistry registry = new MetricsRegistry();
+        manager.setMetrics(registry);
+        RoomProperties hall = room("Hall", 50);
+        RoomProperties lab = room("Lab", 20);
+        manager.addRoom(hall);
+        manager.addRoom(lab);
+        for (int day = 1; day <= 9; day++)
+            manager.bookScheduleSlot(slot("2024-01-0" + day, "08:00", "10:00", day % 2 == 1 ? hall : lab));
+
+        SearchCriteria inHall = new SearchCriteria.Builder().setCriteria(CriteriaFilter.LOCATION_KEY, "Hall").build();
+        assertEquals(2, manager.searchScheduleSlots(inHall, 1, 2).size());
+        // the third slot of the hall is the fifth slot of the schedule, the evaluation stops there
+        assertEquals(5, registry.snapshot(Operation.SEARCH).getScannedRows());
+        assertEquals(2, registry.snapshot(Operation.SEARCH).getReturnedRows());
+    }
+
+    @Test
+    void freeSlotsAreNotMemoizedWithoutChangeReports() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager(false);
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", hall));
+
+        assertEquals(2, manager.getFreeScheduleSlots("2024-01-01", "2024-01-01").size());
+        manager.slots.clear();
+        assertEquals(1, manager.getFreeScheduleSlots("2024-01-01", "2024-01-01").size());
+        assertEquals(0, manager.freeSlotMemo.size());
+        assertEquals(0, manager.freeSlotMemo.getHits());
+        assertEquals(2, manager.freeSlotMemo.getMisses());
+    }
+
+    @Test
+    void freeSlotsCanBeBookedAsTheyAreReturned() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "11:00", hall));
+
+        List<FreeScheduleSlot> free = manager.getFreeScheduleSlots("2024-01-01", "2024-01-01");
+        assertEquals(2, free.size());
+        assertEquals("23:59", free.get(1).getEndTime());
+        for (FreeScheduleSlot slot : free)
+            assertTrue(manager.bookScheduleSlot(slot(formatDate(slot.getDate()), slot.getStartTime(), slot.getEndTime(), hall)));
+        assertTrue(manager.getFreeScheduleSlots("2024-01-01", "2024-01-01").isEmpty());
+    }
+
+    /**
+     * Books a weekly series in the room A and moves its second occurrence to the room B without detaching it from the series,
+     * like the slots of a series that were changed one by one.
+     */
+    private static List<ScheduleSlot> seriesAcrossRooms(InMemoryScheduleManager manager, RoomProperties a, RoomProperties b) {
+        List<ScheduleSlot> series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a).mapSchedule();
+        series.get(1).setLocation(b);
+        for (ScheduleSlot slot : series)
+            manager.bookScheduleSlot(slot);
+        return series;
+    }
+
+    @Test
+    void cascadeDeleteReturnsEverySlotThatWasDeleted() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 10);
+        RoomProperties b = room("B", 10);
+        manager.addRoom(a);
+        manager.addRoom(b);
+        List<ScheduleSlot> series = seriesAcrossRooms(manager, a, b);
+        ScheduleSlot single = slot("2024-01-02", "08:00", "10:00", a);
+        ScheduleSlot other = slot("2024-01-03", "08:00", "10:00", b);
+        manager.bookScheduleSlot(single);
+        manager.bookScheduleSlot(other);
+
+        List<ScheduleSlot> deleted = manager.deleteRoom("A", RoomCascadePolicy.CASCADE_DELETE, null);
+        assertEquals(4, deleted.size());
+        Set<ScheduleSlot> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+        expected.addAll(series);
+        expected.add(single);
+        for (ScheduleSlot slot : deleted)
+            assertTrue(expected.remove(slot));
+        assertFalse(manager.hasRoom("A"));
+        assertEquals(List.of(other), manager.slots);
+        assertEquals(List.of(other), manager.getRoomSlots("B"));
+    }
+
+    @Test
+    void cascadeUpdateReturnsEverySlotThatWasDeleted() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 10);
+        RoomProperties b = room("B", 10);
+        manager.addRoom(a);
+        manager.addRoom(b);
+        List<ScheduleSlot> series = seriesAcrossRooms(manager, a, b);
+
+        // the occurrence in the room B is deleted with its series
+        List<ScheduleSlot> deleted = manager.updateRoom("B", room("B2", 20), RoomCascadePolicy.CASCADE_DELETE);
+        assertEquals(3, deleted.size());
+        for (int i = 0; i < series.size(); i++)
+            assertSame(series.get(i), deleted.get(i));
+        assertTrue(manager.slots.isEmpty());
+        assertTrue(manager.getRoomSlots("A").isEmpty());
+        assertEquals(20, manager.getRoomByName("B2").getCapacity());
+    }
+
+    @Test
+    void otherPoliciesReturnTheSlotsOfTheRoom() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 10);
+        RoomProperties b = room("B", 10);
+        manager.addRoom(a);
+        manager.addRoom(b);
+        ScheduleSlot booked = slot("2024-01-01", "08:00", "10:00", a);
+        manager.bookScheduleSlot(booked);
+
+        assertThrows(ScheduleException.class, () -> manager.deleteRoom("A", RoomCascadePolicy.REJECT_IF_BOOKED, null));
+        assertThrows(ScheduleException.class, () -> manager.deleteRoom("A", RoomCascadePolicy.REASSIGN, room("C", 10)));
+        assertTrue(manager.hasRoom("A"));
+
+        assertEquals(List.of(booked), manager.deleteRoom("A", RoomCascadePolicy.REASSIGN, b));
+        assertSame(b, booked.getLocation());
+        assertEquals(List.of(booked), manager.getRoomSlots("B"));
+        assertTrue(manager.deleteRoom("B", RoomCascadePolicy.CASCADE_DELETE, null).contains(booked));
+        assertThrows(ScheduleException.class, () -> manager.deleteRoom("A", RoomCascadePolicy.CASCADE_DELETE, null));
+    }
+
+    @Test
+    void reassignedSlotsAreMovedThroughTheImplementation() {
+        List<String> relocated = new ArrayList<>();
+        InMemoryScheduleManager manager = new InMemoryScheduleManager() {
+            @Override
+            protected void relocateSlot(ScheduleSlot slot, Date date, int startMinute, int endMinute, RoomProperties location) {
+                super.relocateSlot(slot, date, startMinute, endMinute, location);
+                relocated.add(slot.getStartTime() + " " + slot.getLocation().getName());
+            }
+        };
+        manager.addRoom(room("A", 10));
+        manager.addRoom(room("B", 10));
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", manager.getRoomByName("A")));
+
+        manager.deleteRoom("A", RoomCascadePolicy.REASSIGN, manager.getRoomByName("B"));
+        manager.updateRoom("B", room("B2", 10), RoomCascadePolicy.REASSIGN);
+        assertEquals(List.of("08:00 B", "08:00 B2"), relocated);
+    }
+
+    @Test
+    void publisherReadsTheScheduleOnlyWhenASubscriberSubscribes() {
+        int[] reads = {0};
+        InMemoryScheduleManager manager = new InMemoryScheduleManager() {
+            @Override
+            protected List<ScheduleSlot> candidateSlots(SearchCriteria criteria) {
+                reads[0]++;
+                return super.candidateSlots(criteria);
+            }
+        };
+        manager.addRoom(room("A", 10));
+        Flow.Publisher<ScheduleSlot> publisher = manager.publishScheduleSlots(new SearchCriteria.Builder().build());
+        assertEquals(0, reads[0]);
+
+        ScheduleSlot booked = slot("2024-01-01", "08:00", "10:00", manager.getRoomByName("A"));
+        manager.bookScheduleSlot(booked);
+        CompletableFuture<List<ScheduleSlot>> received = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final List<ScheduleSlot> slots = new ArrayList<>();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ScheduleSlot item) {
+                slots.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                received.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                received.complete(slots);
+            }
+        });
+        assertEquals(1, reads[0]);
+        List<ScheduleSlot> slots = received.orTimeout(10, TimeUnit.SECONDS).join();
+        assertEquals(1, slots.size());
+        assertEquals("08:00", slots.get(0).getStartTime());
+    }
+}
@@ -0,0 +1,114 @@
+package raf.sk_schedule.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_mapper.SeriesScope;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.api.InMemoryScheduleManager.weekly;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+class ScheduleMoveTest {
+
+    private final RoomProperties a = room("A", 10);
+    private final RoomProperties b = room("B", 10);
+    private InMemoryScheduleManager manager;
+    private RepetitiveScheduleMapper series;
+    private List<ScheduleSlot> slots;
+
+    @BeforeEach
+    void bookSeries() {
+        manager = new InMemoryScheduleManager();
+        manager.addRoom(a);
+        manager.addRoom(b);
+        series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a);
+        slots = manager.bookRepetitiveScheduleSlot(series);
+    }
+
+    @Test
+    void movedOccurrenceIsDetachedFromItsSeries() {
+        ScheduleSlot moved = slots.get(1);
+        assertEquals(List.of(moved), manager.moveScheduleSlot(moved, "2024-01-09", "12:00", null, b, SeriesScope.THIS));
+        assertEquals("2024-01-09", formatDate(moved.getDate()));
+        assertEquals("12:00", moved.getStartTime());
+        assertEquals(120, moved.getDuration());
+        assertSame(b, moved.getLocation());
+
+        assertNull(moved.getSharedState());
+        assertEquals(List.of(slots.get(0), slots.get(2)), series.getLinkedSlotInstances());
+        assertEquals("08:00", series.getStartTime());
+        assertSame(a, series.getLocation());
+        assertEquals(List.of(moved), manager.getRoomSlots("B"));
+
+        // the series and the moved occurrence are deleted separately
+        assertEquals(2, manager.deleteScheduleSlot(slots.get(0)).size());
+        assertEquals(List.of(moved), manager.slots);
+        assertEquals(List.of(moved), manager.deleteScheduleSlot(moved));
+    }
+
+    @Test
+    void legacyMoveDetachesTheOccurrence() {
+        manager.moveScheduleSlot(slots.get(0), null, "10:00", "11:00", null);
+        assertNull(slots.get(0).getSharedState());
+        assertEquals(60, slots.get(0).getDuration());
+        assertEquals(2, series.getLinkedSlotInstances().size());
+    }
+
+    @Test
+    void followingOccurrencesAreSplitIntoANewSeries() {
+        List<ScheduleSlot> moved = manager.moveScheduleSlot(slots.get(1), null, "10:00", "12:00", null, SeriesScope.THIS_AND_FOLLOWING);
+        assertEquals(List.of(slots.get(1), slots.get(2)), moved);
+
+        assertEquals(List.of(slots.get(0)), series.getLinkedSlotInstances());
+        assertEquals(parseDate("2024-01-08"), series.getRecurrenceIntervalEnd());
+        assertEquals("08:00", slots.get(0).getStartTime());
+
+        RepetitiveScheduleMapper following = slots.get(1).getSharedState();
+        assertNotSame(series, following);
+        assertSame(following, slots.get(2).getSharedState());
+        assertEquals("10:00", following.getStartTime());
+        assertEquals("12:00", following.getEndTime());
+        for (ScheduleSlot slot : moved)
+            assertEquals("10:00", slot.getStartTime());
+        assertEquals(1, manager.getSchedule("2024-01-08", "2024-01-08").size());
+    }
+
+    @Test
+    void wholeSeriesIsRescheduled() {
+        List<ScheduleSlot> moved = manager.moveScheduleSlot(slots.get(1), "2024-01-10", null, null, b, SeriesScope.ALL);
+        assertEquals(slots, moved);
+        assertEquals(List.of("2024-01-03", "2024-01-10", "2024-01-17"), slots.stream().map(slot -> formatDate(slot.getDate())).toList());
+        assertEquals(slots, series.getLinkedSlotInstances());
+        assertEquals(parseDate("2024-01-03"), series.getRecurrenceIntervalStart());
+        assertEquals(parseDate("2024-01-24"), series.getRecurrenceIntervalEnd());
+        assertSame(b, series.getLocation());
+        assertTrue(manager.getRoomSlots("A").isEmpty());
+        assertEquals(3, manager.getRoomSlots("B").size());
+    }
+
+    @Test
+    void rejectedMoveLeavesTheSeriesUntouched() {
+        ScheduleSlot blocking = slot("2024-01-15", "10:00", "11:00", a);
+        manager.bookScheduleSlot(blocking);
+
+        assertThrows(ScheduleException.class, () -> manager.moveScheduleSlot(slots.get(1), null, "09:00", "11:00", null, SeriesScope.THIS_AND_FOLLOWING));
+        assertThrows(ScheduleException.class, () -> manager.moveScheduleSlot(slots.get(2), null, "09:00", "11:00", null, SeriesScope.THIS));
+        assertThrows(ScheduleException.class, () -> manager.moveScheduleSlot(slots.get(2), null, "23:00", "24:30", null, SeriesScope.THIS));
+        // the slots last two hours, so keeping the duration would end the move at 24:00
+        assertThrows(ScheduleException.class, () -> manager.moveScheduleSlot(slots.get(2), null, "22:00", null, null, SeriesScope.THIS));
+        assertEquals(slots, series.getLinkedSlotInstances());
+        for (ScheduleSlot slot : slots) {
+            assertSame(series, slot.getSharedState());
+            assertEquals("08:00", slot.getStartTime());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package raf.sk_schedule.api;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.metrics.Operation;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+
+class ScheduleServiceTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportWritesTheSlotsAsTheyWereWhenItStarted() throws Exception {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        ScheduleSlot lecture = slot("2024-01-01", "08:00", "10:00", hall, "professor", "P1");
+        manager.bookScheduleSlot(lecture);
+
+        // the export is started under the read lock, but its file is written only when the queued task runs
+        List<Runnable> exports = new ArrayList<>();
+        manager.setExportExecutor(exports::add);
+        ScheduleService service = new ScheduleService.Builder(manager).setExecutor(DIRECT).build();
+        Path file = directory.resolve("schedule.csv");
+        CompletableFuture<Integer> export = service.exportScheduleCSV(file.toString(), null, null, "professor");
+
+        service.moveScheduleSlot(lecture, "2024-01-03", "12:00", "14:00", hall).join();
+        assertEquals("12:00", lecture.getStartTime());
+        assertEquals(1, service.getBulkhead(Operation.EXPORT).getActive());
+
+        exports.forEach(Runnable::run);
+        assertEquals(1, export.get(10, TimeUnit.SECONDS));
+        String content = Files.readString(file);
+        assertTrue(content.contains("2024-01-01, 08:00, 10:00, Hall, P1"), content);
+        assertEquals(0, service.getBulkhead(Operation.EXPORT).getActive());
+    }
+
+    @Test
+    void publisherEmitsTheSlotsAsTheyWereWhenTheSubscriberSubscribed() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        ScheduleSlot lecture = slot("2024-01-01", "08:00", "10:00", hall);
+        manager.bookScheduleSlot(lecture);
+        ScheduleService service = new ScheduleService.Builder(manager).setExecutor(DIRECT).build();
+
+        Flow.Publisher<ScheduleSlot> publisher = service.publishScheduleSlots(
+                new SearchCriteria.Builder().setCriteria(CriteriaFilter.LOCATION_KEY, "Hall").build());
+        service.moveScheduleSlot(lecture, "2024-01-02", "12:00", "14:00", hall).join();
+
+        List<ScheduleSlot> received = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ScheduleSlot item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        done.orTimeout(10, TimeUnit.SECONDS).join();
+        assertEquals(1, received.size());
+        // nothing was captured when the publisher was created
+        assertEquals("2024-01-02", formatDate(received.get(0).getDate()));
+        assertEquals("12:00", received.get(0).getStartTime());
+        assertNotSame(lecture, received.get(0));
+    }
+
+    @Test
+    void concurrentReadsAndWritesKeepTheScheduleConsistent() throws Exception {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            ScheduleService service = new ScheduleService.Builder(manager).setExecutor(pool).build();
+            List<CompletableFuture<?>> calls = new ArrayList<>();
+            for (int day = 1; day <= 28; day++) {
+                String date = String.format("2024-01-%02d", day);
+                for (int hour = 8; hour < 18; hour++) {
+                    calls.add(service.bookScheduleSlot(slot(date, String.format("%02d:00", hour), String.format("%02d:00", hour + 1), hall)));
+                    calls.add(service.getSchedule(date, date));
+                }
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertEquals(280, service.getSchedule(null, null).get(10, TimeUnit.SECONDS).size());
+            assertEquals(280, manager.slots.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void failuresAndRejectionsCompleteTheFutures() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", hall));
+
+        ScheduleService service = new ScheduleService.Builder(manager).setExecutor(DIRECT).build();
+        CompletableFuture<Boolean> colliding = service.bookScheduleSlot(slot("2024-01-01", "09:00", "11:00", hall));
+        assertInstanceOf(ScheduleException.class, assertThrows(CompletionException.class, colliding::join).getCause());
+
+        ScheduleService rejecting = new ScheduleService.Builder(manager).setExecutor(command -> {
+            throw new RejectedExecutionException();
+        }).build();
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(CompletionException.class, () -> rejecting.getSchedule(null, null).join()).getCause());
+
+        // the only validate permit is taken, so the call is rejected at once
+        ScheduleService limited = new ScheduleService.Builder(manager).setExecutor(DIRECT).setBulkheadTimeoutMillis(0).build();
+        limited.getBulkhead(Operation.VALIDATE).acquire();
+        assertInstanceOf(ScheduleException.class, assertThrows(CompletionException.class, () -> limited.validateSchedule().join()).getCause());
+        limited.getBulkhead(Operation.VALIDATE).release();
+        assertTrue(limited.validateSchedule().join().isEmpty());
+
+        assertTrue(service.hasRoom("Hall"));
+        assertSame(hall, service.getRoomByName("Hall"));
+        assertThrows(ScheduleException.class, () -> new ScheduleService.Builder(null).build());
+        assertThrows(ScheduleException.class, () -> new ScheduleService.Builder(manager).setExecutor(null).build());
+    }
+}
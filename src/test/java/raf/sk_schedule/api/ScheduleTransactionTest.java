@@ -0,0 +1,183 @@
+package raf.sk_schedule.api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_mapper.RepetitiveScheduleMapper;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.metrics.MetricsRegistry;
+import raf.sk_schedule.util.metrics.Operation;
+import raf.sk_schedule.util.transaction.ScheduleTransaction;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.api.InMemoryScheduleManager.weekly;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+
+class ScheduleTransactionTest {
+
+    /**
+     * Unlinks the deleted slots from their series, like the implementations that drop the series of the deleted slots,
+     * fails to book the poisoned slot after the transaction has been validated and records the moves it is told about.
+     */
+    private static class UnlinkingManager extends InMemoryScheduleManager {
+        ScheduleSlot poisoned;
+        final List<String> relocated = new ArrayList<>();
+
+        @Override
+        protected void relocateSlot(ScheduleSlot slot, Date date, int startMinute, int endMinute, RoomProperties location) {
+            super.relocateSlot(slot, date, startMinute, endMinute, location);
+            relocated.add(formatDate(slot.getDate()) + " " + slot.getStartTime() + " " + slot.getLocation().getName());
+        }
+
+        @Override
+        public boolean bookScheduleSlot(ScheduleSlot scheduleSlot) {
+            if (scheduleSlot == poisoned)
+                throw new ScheduleException("Slot " + scheduleSlot + " can't be stored!");
+            return super.bookScheduleSlot(scheduleSlot);
+        }
+
+        @Override
+        public List<ScheduleSlot> deleteScheduleSlot(ScheduleSlot scheduleSlot) {
+            List<ScheduleSlot> deleted = super.deleteScheduleSlot(scheduleSlot);
+            for (ScheduleSlot slot : deleted)
+                slot.stopListeningToStatePropagation();
+            return deleted;
+        }
+    }
+
+    private final RoomProperties a = room("A", 10);
+    private final RoomProperties b = room("B", 10);
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private UnlinkingManager manager;
+    private RepetitiveScheduleMapper series;
+    private List<ScheduleSlot> slots;
+
+    @BeforeEach
+    void bookSeries() {
+        manager = new UnlinkingManager();
+        manager.setMetrics(registry);
+        manager.addRoom(a);
+        manager.addRoom(b);
+        series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a);
+        slots = manager.bookRepetitiveScheduleSlot(series);
+    }
+
+    @Test
+    void slotsAreSwappedAtomically() {
+        ScheduleSlot other = slot("2024-01-01", "10:00", "12:00", a);
+        manager.bookScheduleSlot(other);
+        ScheduleSlot first = slots.get(0);
+
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder().swapSlots(first, other).build();
+        assertTrue(manager.validateTransaction(transaction).isEmpty());
+        assertTrue(manager.applyTransaction(transaction).isEmpty());
+        assertEquals("10:00", first.getStartTime());
+        assertEquals("08:00", other.getStartTime());
+        // the moved occurrence no longer follows its series
+        assertNull(first.getSharedState());
+        assertEquals(List.of(slots.get(1), slots.get(2)), series.getLinkedSlotInstances());
+        assertEquals(1, registry.snapshot(Operation.TRANSACTION).getCount());
+        assertEquals(List.of("2024-01-01 10:00 A", "2024-01-01 08:00 A"), manager.relocated);
+    }
+
+    @Test
+    void conflictingTransactionIsRejectedBeforeAnyChange() {
+        ScheduleSlot other = slot("2024-01-01", "10:00", "12:00", b);
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder()
+                .moveSlot(slots.get(0), null, "09:00", null, null)
+                .bookSlot(other)
+                .bookSlot(slot("2024-01-08", "09:00", "11:00", a))
+                .build();
+
+        assertEquals(1, manager.validateTransaction(transaction).size());
+        assertEquals(1, registry.snapshot(Operation.VALIDATE).getReturnedRows());
+        assertThrows(ScheduleException.class, () -> manager.applyTransaction(transaction));
+        assertEquals(1, registry.snapshot(Operation.TRANSACTION).getFailures());
+        assertEquals("08:00", slots.get(0).getStartTime());
+        assertSame(series, slots.get(0).getSharedState());
+        assertEquals(slots, manager.slots);
+    }
+
+    @Test
+    void rollbackRestoresTheDeletedSeries() {
+        ScheduleSlot single = slot("2024-01-02", "08:00", "10:00", a);
+        manager.bookScheduleSlot(single);
+        ScheduleSlot booking = slot("2024-01-03", "08:00", "10:00", b);
+        manager.poisoned = booking;
+
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder()
+                .deleteSlot(slots.get(1))
+                .moveSlot(single, null, "12:00", "13:00", b)
+                .bookSlot(booking)
+                .build();
+        assertThrows(ScheduleException.class, () -> manager.applyTransaction(transaction));
+
+        assertEquals(4, manager.slots.size());
+        assertEquals(slots, series.getLinkedSlotInstances());
+        for (ScheduleSlot slot : slots)
+            assertSame(series, slot.getSharedState());
+        assertEquals("08:00", single.getStartTime());
+        assertSame(a, single.getLocation());
+        assertEquals(4, manager.getRoomSlots("A").size());
+        assertTrue(manager.getRoomSlots("B").isEmpty());
+
+        // the restored series is deleted as a whole again
+        manager.poisoned = null;
+        assertEquals(3, manager.applyTransaction(new ScheduleTransaction.Builder().deleteSlot(slots.get(2)).build()).size());
+        assertEquals(List.of(single), manager.slots);
+    }
+
+    @Test
+    void rollbackRelinksTheMovedOccurrence() {
+        ScheduleSlot booking = slot("2024-01-03", "08:00", "10:00", b);
+        manager.poisoned = booking;
+        ScheduleSlot moved = slots.get(2);
+
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder()
+                .moveSlot(moved, "2024-01-16", null, null, b)
+                .bookSlot(booking)
+                .build();
+        assertThrows(ScheduleException.class, () -> manager.applyTransaction(transaction));
+        assertEquals("2024-01-15", formatDate(moved.getDate()));
+        assertSame(a, moved.getLocation());
+        assertSame(series, moved.getSharedState());
+        assertEquals(3, series.getLinkedSlotInstances().size());
+        assertEquals(3, manager.getRoomSlots("A").size());
+        // the implementation is told about the move and about its rollback
+        assertEquals(List.of("2024-01-16 08:00 B", "2024-01-15 08:00 A"), manager.relocated);
+    }
+
+    @Test
+    void builderRejectsMovesThatEndAtMidnight() {
+        // the slots last two hours, so both moves would end at 24:00
+        assertThrows(ScheduleException.class, () -> new ScheduleTransaction.Builder().moveSlot(slots.get(0), null, "22:00", null, null));
+        ScheduleSlot late = slot("2024-01-01", "22:00", "23:59", b);
+        assertThrows(ScheduleException.class, () -> new ScheduleTransaction.Builder().swapSlots(slots.get(0), late));
+
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder().moveSlot(slots.get(0), null, "21:59", null, null).build();
+        assertTrue(manager.applyTransaction(transaction).isEmpty());
+        assertEquals("23:59", slots.get(0).getEndTime());
+    }
+
+    @Test
+    void failedValidationIsRecorded() {
+        InMemoryScheduleManager failing = new InMemoryScheduleManager() {
+            @Override
+            public List<ScheduleSlot> getWholeSchedule() {
+                throw new ScheduleException("Schedule can't be read!");
+            }
+        };
+        failing.setMetrics(registry);
+        ScheduleTransaction transaction = new ScheduleTransaction.Builder().bookSlot(slot("2024-01-01", "08:00", "10:00", a)).build();
+
+        assertThrows(ScheduleException.class, () -> failing.validateTransaction(transaction));
+        assertEquals(1, registry.snapshot(Operation.VALIDATE).getFailures());
+    }
+}
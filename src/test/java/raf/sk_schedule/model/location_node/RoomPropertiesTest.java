@@ -0,0 +1,25 @@
+package raf.sk_schedule.model.location_node;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+
+class RoomPropertiesTest {
+
+    @Test
+    void hashCodeIsConsistentWithEquals() {
+        RoomProperties first = room("A", 10);
+        RoomProperties second = room("A", 50);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        Set<RoomProperties> rooms = new HashSet<>();
+        rooms.add(first);
+        assertTrue(rooms.contains(second));
+        assertFalse(rooms.contains(room("B", 10)));
+    }
+}
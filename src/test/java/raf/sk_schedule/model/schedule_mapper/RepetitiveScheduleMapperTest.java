@@ -0,0 +1,93 @@
+package raf.sk_schedule.model.schedule_mapper;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.api.InMemoryScheduleManager.weekly;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+class RepetitiveScheduleMapperTest {
+
+    private final RoomProperties a = room("A", 10);
+
+    @Test
+    void mappedSlotsAreLinkedToTheSeries() {
+        RepetitiveScheduleMapper series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a);
+        List<ScheduleSlot> slots = series.mapSchedule();
+        assertEquals(List.of("2024-01-01", "2024-01-08", "2024-01-15"), slots.stream().map(slot -> formatDate(slot.getDate())).toList());
+        for (ScheduleSlot slot : slots)
+            assertSame(series, slot.getSharedState());
+        assertEquals(slots, series.getLinkedSlotInstances());
+    }
+
+    @Test
+    void splitMovesTheOccurrencesFromTheDateToTheNewSeries() {
+        RepetitiveScheduleMapper series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a);
+        List<ScheduleSlot> slots = series.mapSchedule();
+
+        RepetitiveScheduleMapper following = series.splitAt(parseDate("2024-01-08"));
+        assertEquals(List.of(slots.get(0)), series.getLinkedSlotInstances());
+        assertEquals(List.of(slots.get(1), slots.get(2)), following.getLinkedSlotInstances());
+        assertSame(series, slots.get(0).getSharedState());
+        assertSame(following, slots.get(1).getSharedState());
+        assertEquals(parseDate("2024-01-08"), series.getRecurrenceIntervalEnd());
+        assertEquals(parseDate("2024-01-08"), following.getRecurrenceIntervalStart());
+        assertEquals(parseDate("2024-01-22"), following.getRecurrenceIntervalEnd());
+        assertEquals("08:00", following.getStartTime());
+        assertSame(a, following.getLocation());
+
+        // splitting at the first occurrence moves all of them
+        RepetitiveScheduleMapper all = following.splitAt(parseDate("2024-01-08"));
+        assertTrue(following.getLinkedSlotInstances().isEmpty());
+        assertEquals(2, all.getLinkedSlotInstances().size());
+    }
+
+    @Test
+    void rescheduleShiftsTheRecurrenceSettings() {
+        RepetitiveScheduleMapper series = new RepetitiveScheduleMapper.Builder()
+                .setRecurrenceIntervalStart(parseDate("2024-01-01"))
+                .setRecurrenceIntervalEnd(parseDate("2024-01-22"))
+                .setWeekDay(WeekDay.MONDAY)
+                .setStartTime("08:00")
+                .setEndTime("10:00")
+                .setLocation(a)
+                .build();
+        RoomProperties b = room("B", 10);
+
+        series.reschedule(-2, "12:00", "13:30", 90, b);
+        assertEquals(parseDate("2023-12-30"), series.getRecurrenceIntervalStart());
+        assertEquals(parseDate("2024-01-20"), series.getRecurrenceIntervalEnd());
+        assertEquals(WeekDay.SATURDAY, series.getWeekDay());
+        assertEquals("12:00", series.getStartTime());
+        assertEquals("13:30", series.getEndTime());
+        assertEquals(90, series.getDuration());
+        assertSame(b, series.getLocation());
+
+        series.reschedule(0, "12:00", "13:30", 90, b);
+        assertEquals(WeekDay.SATURDAY, series.getWeekDay());
+    }
+
+    @Test
+    void detachedSlotLeavesTheSeries() {
+        RepetitiveScheduleMapper series = weekly("2024-01-01", "2024-01-22", "08:00", "10:00", a);
+        List<ScheduleSlot> slots = series.mapSchedule();
+
+        assertSame(slots.get(1), slots.get(1).stopListeningToStatePropagation());
+        assertNull(slots.get(1).getSharedState());
+        assertEquals(List.of(slots.get(0), slots.get(2)), series.getLinkedSlotInstances());
+        slots.get(1).stopListeningToStatePropagation();
+        assertEquals(2, series.getLinkedSlotInstances().size());
+
+        // an equal slot that isn't linked is not removed
+        series.removeLinkedSlot(slot("2024-01-01", "08:00", "10:00", a));
+        assertEquals(2, series.getLinkedSlotInstances().size());
+    }
+}
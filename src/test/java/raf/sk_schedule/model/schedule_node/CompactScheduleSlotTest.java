@@ -0,0 +1,90 @@
+package raf.sk_schedule.model.schedule_node;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.util.index.RoomRegistry;
+import raf.sk_schedule.util.store.AttributeTable;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+
+class CompactScheduleSlotTest {
+
+    private final RoomRegistry rooms = new RoomRegistry();
+    private final AttributeTable attributes = new AttributeTable();
+
+    @Test
+    void convertsToAndFromTheScheduleSlot() {
+        RoomProperties hall = room("Hall", 50);
+        ScheduleSlot original = slot("2024-02-29", "00:00", "23:59", hall, "professor", "P1", "group", 3);
+        CompactScheduleSlot compact = CompactScheduleSlot.of(original, rooms, attributes);
+
+        assertEquals(0, compact.startMinute());
+        assertEquals(23 * 60 + 59, compact.duration());
+        assertEquals(original.getAbsoluteStartMinute(), compact.getAbsoluteStartMinute());
+        assertEquals(original.getAbsoluteEndMinute(), compact.getAbsoluteEndMinute());
+        assertSame(hall, compact.getLocation(rooms));
+
+        ScheduleSlot copy = compact.toScheduleSlot(rooms, attributes);
+        assertNotSame(original, copy);
+        assertEquals(formatDate(original.getDate()), formatDate(copy.getDate()));
+        assertEquals(original.getStartTime(), copy.getStartTime());
+        assertEquals(original.getEndTime(), copy.getEndTime());
+        assertEquals(original.getAttributes(), copy.getAttributes());
+        // the copy of the attributes can be changed without touching the interned map
+        copy.setAttribute("professor", "P2");
+        assertEquals("P1", attributes.get(compact.attributesHandle()).get("professor"));
+    }
+
+    @Test
+    void slotsWithoutLocationOrAttributesUseTheReservedValues() {
+        CompactScheduleSlot compact = CompactScheduleSlot.of(slot("2024-01-01", "08:00", "09:00", null), rooms, attributes);
+        assertEquals(RoomRegistry.NO_ROOM, compact.roomId());
+        assertEquals(AttributeTable.EMPTY, compact.attributesHandle());
+        assertNull(compact.getLocation(rooms));
+        assertFalse(compact.isCollidingWith(compact));
+    }
+
+    @Test
+    void slotsOverflowingTheDayAreRejected() {
+        assertThrows(ScheduleException.class, () -> new CompactScheduleSlot(0, (short) 1400, (short) 60, 0, 0));
+        assertThrows(ScheduleException.class, () -> new CompactScheduleSlot(0, (short) -1, (short) 60, 0, 0));
+        assertThrows(ScheduleException.class, () -> new CompactScheduleSlot(0, (short) 0, (short) -1, 0, 0));
+    }
+
+    @Test
+    void equalSlotsHaveEqualRecords() {
+        RoomProperties hall = room("Hall", 50);
+        CompactScheduleSlot first = CompactScheduleSlot.of(slot("2024-01-01", "08:00", "09:00", hall, "type", "lab"), rooms, attributes);
+        CompactScheduleSlot second = CompactScheduleSlot.of(slot("2024-01-01", "08:00", "09:00", room("Hall", 99), "type", "lab"), rooms, attributes);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    void collisionMatchesTheScheduleSlot() {
+        Random random = new Random(17);
+        RoomProperties[] located = {room("A", 10), room("B", 10)};
+        for (int i = 0; i < 10_000; i++) {
+            ScheduleSlot first = randomSlot(random, located);
+            ScheduleSlot second = randomSlot(random, located);
+            assertEquals(first.isCollidingWith(second),
+                    CompactScheduleSlot.of(first, rooms, attributes).isCollidingWith(CompactScheduleSlot.of(second, rooms, attributes)),
+                    first + " / " + second);
+        }
+    }
+
+    private static ScheduleSlot randomSlot(Random random, RoomProperties[] rooms) {
+        int start = random.nextInt(22 * 60);
+        int end = start + 1 + random.nextInt(120);
+        return slot(String.format("2024-01-%02d", 1 + random.nextInt(2)),
+                String.format("%02d:%02d", start / 60, start % 60),
+                String.format("%02d:%02d", end / 60, end % 60),
+                rooms[random.nextInt(rooms.length)]);
+    }
+}
@@ -0,0 +1,100 @@
+package raf.sk_schedule.model.schedule_node;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class ScheduleSlotTest {
+
+    /**
+     * The collision check as it worked before the minute arithmetic, with the location comparison applied to both time cases.
+     */
+    private static boolean collidingByMillis(ScheduleSlot first, ScheduleSlot second) {
+        long start_1 = first.getAbsoluteStartTimeMillis();
+        long end_1 = first.getAbsoluteEndTimeMillis();
+        long start_2 = second.getAbsoluteStartTimeMillis();
+        long end_2 = second.getAbsoluteEndTimeMillis();
+        return first.getLocation().equals(second.getLocation())
+                && ((start_1 <= start_2 && start_2 < end_1) || (start_2 <= start_1 && start_1 < end_2));
+    }
+
+    private static ScheduleSlot randomSlot(Random random, RoomProperties... rooms) {
+        int start = 7 * 60 + random.nextInt(12 * 60);
+        int end = start + 1 + random.nextInt(180);
+        return slot(String.format("2024-01-%02d", 1 + random.nextInt(3)),
+                String.format("%02d:%02d", start / 60, start % 60),
+                String.format("%02d:%02d", end / 60, end % 60),
+                rooms[random.nextInt(rooms.length)]);
+    }
+
+    @Test
+    void collisionMatchesTheMillisecondCheck() {
+        Random random = new Random(11);
+        // the second room with the same name is a distinct reference of an equal room
+        RoomProperties[] rooms = {room("A", 10), room("B", 10), room("A", 20)};
+        int colliding = 0;
+        for (int i = 0; i < 20_000; i++) {
+            ScheduleSlot first = randomSlot(random, rooms);
+            ScheduleSlot second = randomSlot(random, rooms);
+            boolean expected = collidingByMillis(first, second);
+            assertEquals(expected, first.isCollidingWith(second), first + " / " + second);
+            assertEquals(expected, second.isCollidingWith(first), second + " / " + first);
+            if (expected)
+                colliding++;
+        }
+        assertTrue(colliding > 100);
+    }
+
+    @Test
+    void touchingSlotsDoNotCollide() {
+        RoomProperties hall = room("Hall", 10);
+        ScheduleSlot morning = slot("2024-01-01", "08:00", "10:00", hall);
+        assertFalse(morning.isCollidingWith(slot("2024-01-01", "10:00", "11:00", hall)));
+        assertFalse(morning.isCollidingWith(slot("2024-01-01", "07:00", "08:00", hall)));
+        assertTrue(morning.isCollidingWith(slot("2024-01-01", "09:59", "11:00", hall)));
+        assertTrue(morning.isCollidingWith(slot("2024-01-01", "08:30", "09:00", hall)));
+        assertTrue(morning.isCollidingWith(morning));
+        assertFalse(morning.isCollidingWith(slot("2024-01-02", "08:00", "10:00", hall)));
+    }
+
+    @Test
+    void slotsInDifferentRoomsNeverCollide() {
+        // the second slot starts first, which the operator precedence of the old check reported as a collision
+        ScheduleSlot later = slot("2024-01-01", "09:00", "10:00", room("A", 10));
+        ScheduleSlot earlier = slot("2024-01-01", "08:00", "10:00", room("B", 10));
+        assertFalse(later.isCollidingWith(earlier));
+        assertFalse(earlier.isCollidingWith(later));
+        assertFalse(later.isCollidingWith(slot("2024-01-01", "09:00", "10:00", null)));
+    }
+
+    @Test
+    void slotsWithoutLocationCollideOnlyWithEachOther() {
+        ScheduleSlot first = slot("2024-01-01", "09:00", "10:00", null);
+        assertTrue(first.isCollidingWith(slot("2024-01-01", "09:30", "10:30", null)));
+        assertFalse(slot("2024-01-01", "09:00", "10:00", room("A", 10)).isCollidingWith(first));
+    }
+
+    @Test
+    void absoluteMillisIncludeTheTimeOfDay() {
+        ScheduleSlot slot = slot("2024-01-01", "09:30", "11:00", room("A", 10));
+        assertEquals(slot.getAbsoluteStartMinute() * 60_000, slot.getAbsoluteStartTimeMillis());
+        assertEquals(slot.getAbsoluteEndMinute() * 60_000, slot.getAbsoluteEndTimeMillis());
+    }
+
+    @Test
+    void movesEndByTheLastMinuteOfTheDay() {
+        ScheduleSlot slot = slot("2024-01-01", "09:00", "10:00", room("A", 10));
+        assertThrows(ScheduleException.class, () -> slot.moveTo(slot.getDate(), 23 * 60, 24 * 60, slot.getLocation()));
+        assertEquals("09:00", slot.getStartTime());
+
+        slot.moveTo(slot.getDate(), 23 * 60, 23 * 60 + 59, slot.getLocation());
+        assertEquals("23:59", slot.getEndTime());
+        assertEquals(59, slot.getDuration());
+    }
+}
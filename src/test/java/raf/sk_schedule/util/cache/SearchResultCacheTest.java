@@ -0,0 +1,154 @@
+package raf.sk_schedule.util.cache;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+class SearchResultCacheTest {
+
+    private final RoomProperties a = room("A", 30);
+    private final RoomProperties b = room("B", 30);
+
+    private static SearchCriteria week(Object room) {
+        return new SearchCriteria.Builder()
+                .setCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY, "2024-01-01")
+                .setCriteria(CriteriaFilter.UPPER_BOUND_DATE_KEY, "2024-01-07")
+                .setCriteria(CriteriaFilter.LOCATION_KEY, room)
+                .build();
+    }
+
+    private static List<ScheduleSlot> search(SearchResultCache cache, SearchCriteria criteria, int[] searches) {
+        return cache.get(criteria, () -> {
+            searches[0]++;
+            return new ArrayList<>();
+        });
+    }
+
+    @Test
+    void equivalentCriteriaShareTheResult() {
+        SearchResultCache cache = new SearchResultCache();
+        int[] searches = {0};
+        search(cache, week("A"), searches);
+        SearchCriteria sameWeek = new SearchCriteria.Builder()
+                .setCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY, parseDate("2024-01-01"))
+                .setCriteria(CriteriaFilter.UPPER_BOUND_DATE_KEY, parseDate("2024-01-07"))
+                .setCriteria(CriteriaFilter.LOCATION_KEY, a)
+                .build();
+        search(cache, sameWeek, searches);
+        assertEquals(1, searches[0]);
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    void changedCriteriaAreNotServedTheOldResult() {
+        SearchResultCache cache = new SearchResultCache();
+        int[] searches = {0};
+        SearchCriteria criteria = week("A");
+        search(cache, criteria, searches);
+        criteria.setCriteria(CriteriaFilter.LOCATION_KEY, "B");
+        search(cache, criteria, searches);
+        assertEquals(2, searches[0]);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void onlyTheAffectedResultsAreInvalidated() {
+        SearchResultCache cache = new SearchResultCache();
+        int[] searches = {0};
+        search(cache, week("A"), searches);
+        search(cache, week("B"), searches);
+
+        cache.onSlotBooked(slot("2024-01-10", "10:00", "11:00", a));
+        cache.onSlotBooked(slot("2024-01-03", "10:00", "11:00", b));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getInvalidations());
+
+        search(cache, week("A"), searches);
+        assertEquals(2, searches[0]);
+        cache.onSlotRemoved(slot("2024-01-07", "10:00", "11:00", a));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedResultIsEvicted() {
+        SearchResultCache cache = new SearchResultCache(2);
+        int[] searches = {0};
+        search(cache, week("A"), searches);
+        search(cache, week("B"), searches);
+        search(cache, week("A"), searches);
+        search(cache, week("C"), searches);
+        assertEquals(1, cache.getEvictions());
+
+        search(cache, week("A"), searches);
+        assertEquals(3, searches[0]);
+        search(cache, week("B"), searches);
+        assertEquals(4, searches[0]);
+    }
+
+    @Test
+    void resultComputedDuringAChangeIsNotStored() {
+        SearchResultCache cache = new SearchResultCache();
+        cache.get(week("A"), () -> {
+            cache.onSlotBooked(slot("2024-01-20", "10:00", "11:00", b));
+            return new ArrayList<>();
+        });
+        assertEquals(0, cache.size());
+
+        SearchResultCache disabled = new SearchResultCache(0);
+        int[] searches = {0};
+        search(disabled, week("A"), searches);
+        search(disabled, week("A"), searches);
+        assertEquals(2, searches[0]);
+    }
+
+    @Test
+    void cachedSearchesFollowTheSchedule() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        manager.addRoom(a);
+        manager.addRoom(b);
+        SearchCriteria criteria = week("A");
+        assertTrue(manager.searchScheduleSlots(criteria).isEmpty());
+
+        ScheduleSlot booked = slot("2024-01-02", "10:00", "11:00", a);
+        manager.bookScheduleSlot(booked);
+        manager.bookScheduleSlot(slot("2024-01-02", "10:00", "11:00", b));
+        assertEquals(List.of(booked), manager.searchScheduleSlots(criteria));
+        assertEquals(List.of(booked), manager.searchScheduleSlots(week(a)));
+        assertEquals(1, manager.getSearchResultCache().getHits());
+
+        criteria.setCriteria(CriteriaFilter.LOCATION_KEY, "B");
+        assertEquals("B", manager.searchScheduleSlots(criteria).get(0).getLocation().getName());
+
+        manager.deleteScheduleSlot(booked);
+        assertTrue(manager.searchScheduleSlots(week("A")).isEmpty());
+    }
+
+    @Test
+    void searchesBypassTheCacheWithoutChangeReports() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager(false);
+        manager.addRoom(a);
+        ScheduleSlot booked = slot("2024-01-02", "10:00", "11:00", a);
+        manager.bookScheduleSlot(booked);
+
+        for (int i = 0; i < 5; i++)
+            assertEquals(List.of(booked), manager.searchScheduleSlots(week("A")));
+        // the unreported deletion is seen by the next search
+        manager.slots.clear();
+        assertTrue(manager.searchScheduleSlots(week("A")).isEmpty());
+        assertEquals(0, manager.getSearchResultCache().getHits());
+        assertEquals(0, manager.getSearchResultCache().getMisses());
+        assertEquals(0, manager.getSearchResultCache().size());
+    }
+}
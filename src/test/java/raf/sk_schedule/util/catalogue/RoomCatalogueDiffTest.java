@@ -0,0 +1,73 @@
+package raf.sk_schedule.util.catalogue;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+
+class RoomCatalogueDiffTest {
+
+    private final List<RoomProperties> current = List.of(room("A", 10), room("B", 20), room("C", 30));
+
+    private static List<String> names(List<RoomProperties> rooms) {
+        return rooms.stream().map(RoomProperties::getName).toList();
+    }
+
+    @Test
+    void roomsAreMatchedByName() {
+        RoomCatalogueDiff diff = RoomCatalogueDiff.compute(current, List.of(room("A", 10), room("B", 25), room("D", 40)), null, false);
+        assertEquals(List.of("D"), names(diff.getAdded()));
+        assertEquals(1, diff.getChanged().size());
+        assertEquals("B", diff.getChanged().get(0).toString());
+        assertEquals(25, diff.getChanged().get(0).getUpdated().getCapacity());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertEquals(1, diff.getUnchanged());
+        assertFalse(diff.isEmpty());
+
+        RoomCatalogueDiff removing = RoomCatalogueDiff.compute(current, List.of(room("A", 10)), null, true);
+        assertEquals(List.of("B", "C"), names(removing.getRemoved()));
+        assertTrue(RoomCatalogueDiff.compute(current, current, null, false).isEmpty());
+    }
+
+    @Test
+    void attributesAndEquipmentAreCompared() {
+        RoomProperties projector = new RoomProperties.Builder().setName("A").setCapacity(10).setHasProjector(true).build();
+        RoomProperties floor = new RoomProperties.Builder().setName("A").setCapacity(10).setAttribute("floor", "2").build();
+        assertFalse(RoomCatalogueDiff.hasSameProperties(current.get(0), projector));
+        assertFalse(RoomCatalogueDiff.hasSameProperties(current.get(0), floor));
+        assertTrue(RoomCatalogueDiff.hasSameProperties(current.get(0), room("A", 10)));
+    }
+
+    @Test
+    void renamedRoomTakesOverTheExistingRoom() {
+        RoomCatalogueDiff diff = RoomCatalogueDiff.compute(current, List.of(room("A2", 10), room("B", 20), room("C", 30)),
+                Map.of("A", "A2"), true);
+        assertTrue(diff.getAdded().isEmpty());
+        assertTrue(diff.getRemoved().isEmpty());
+        assertEquals(1, diff.getChanged().size());
+        assertTrue(diff.getChanged().get(0).isRenamed());
+        assertEquals("A -> A2", diff.getChanged().get(0).toString());
+
+        // the renamed room takes the name of a removed room, and the freed name is taken by a new room
+        RoomCatalogueDiff swap = RoomCatalogueDiff.compute(current, List.of(room("B", 10), room("A", 50)), Map.of("A", "B"), true);
+        assertEquals(List.of("A"), names(swap.getAdded()));
+        assertEquals("A -> B", swap.getChanged().get(0).toString());
+        assertEquals(List.of("B", "C"), names(swap.getRemoved()));
+    }
+
+    @Test
+    void invalidCataloguesAreRejected() {
+        assertThrows(ScheduleException.class, () -> RoomCatalogueDiff.compute(current, List.of(room("A", 1), room("A", 2)), null, false));
+        assertThrows(ScheduleException.class, () -> RoomCatalogueDiff.compute(current, List.of(room("X", 1)), Map.of("Z", "X"), false));
+        assertThrows(ScheduleException.class, () -> RoomCatalogueDiff.compute(current, List.of(room("X", 1)), Map.of("A", "Y"), false));
+        assertThrows(ScheduleException.class,
+                () -> RoomCatalogueDiff.compute(current, List.of(room("X", 1)), Map.of("A", "X", "B", "X"), false));
+        // B is kept, so A can't take its name
+        assertThrows(ScheduleException.class, () -> RoomCatalogueDiff.compute(current, List.of(room("B", 10)), Map.of("A", "B"), false));
+    }
+}
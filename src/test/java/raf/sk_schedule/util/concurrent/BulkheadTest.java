@@ -0,0 +1,58 @@
+package raf.sk_schedule.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void callsBeyondThePermitsAreRejected() {
+        Bulkhead bulkhead = new Bulkhead("export", 2, 0);
+        bulkhead.acquire();
+        bulkhead.acquire();
+        assertEquals(2, bulkhead.getActive());
+
+        ScheduleException e = assertThrows(ScheduleException.class, bulkhead::acquire);
+        assertTrue(e.getMessage().contains("export"));
+        assertEquals(1, bulkhead.getRejected());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        assertEquals(2, bulkhead.getActive());
+    }
+
+    @Test
+    void waitingCallerGetsTheReleasedPermit() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("import", 1, 10_000);
+        bulkhead.acquire();
+        Thread waiting = new Thread(bulkhead::acquire);
+        waiting.start();
+        bulkhead.release();
+        waiting.join(10_000);
+        assertFalse(waiting.isAlive());
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(0, bulkhead.getRejected());
+    }
+
+    @Test
+    void interruptedCallerIsRejected() {
+        Bulkhead bulkhead = new Bulkhead("validate", 1, 10_000);
+        bulkhead.acquire();
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(ScheduleException.class, bulkhead::acquire);
+            assertTrue(Thread.interrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1, bulkhead.getRejected());
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrows(ScheduleException.class, () -> new Bulkhead("x", 0, 0));
+        assertThrows(ScheduleException.class, () -> new Bulkhead("x", 1, -1));
+    }
+}
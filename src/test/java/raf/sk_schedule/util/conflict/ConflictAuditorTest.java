@@ -0,0 +1,44 @@
+package raf.sk_schedule.util.conflict;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.util.conflict.ConflictDetectorTest.*;
+
+class ConflictAuditorTest {
+
+    @Test
+    void auditFindsTheSamePairsAsComparingEveryPair() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ConflictAuditor auditor = new ConflictAuditor(pool);
+            for (long seed = 0; seed < 10; seed++) {
+                List<ScheduleSlot> schedule = randomSchedule(seed, 400);
+                assertEquals(bruteForcePairs(schedule, "professor"), pairs(schedule, auditor.audit(schedule, List.of("professor"))), "seed " + seed);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void streamedCountMatchesTheDeliveredConflicts() {
+        List<ScheduleSlot> schedule = randomSchedule(7, 300);
+        List<SlotConflict> delivered = new ArrayList<>();
+        int found = new ConflictAuditor().audit(schedule, List.of("professor"), delivered::add);
+        assertEquals(delivered.size(), found);
+        assertEquals(ConflictDetector.findRoomConflicts(schedule).size(), delivered.stream().filter(c -> c.getType() == SlotConflict.Type.ROOM).count());
+    }
+
+    @Test
+    void emptyScheduleAndUnknownKeysHaveNoConflicts() {
+        assertTrue(new ConflictAuditor().audit(List.of(), List.of("professor")).isEmpty());
+        List<ScheduleSlot> schedule = randomSchedule(3, 50);
+        assertEquals(ConflictDetector.findRoomConflicts(schedule).size(), new ConflictAuditor().audit(schedule, List.of("course")).size());
+    }
+}
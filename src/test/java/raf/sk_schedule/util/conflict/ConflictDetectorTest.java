@@ -0,0 +1,111 @@
+package raf.sk_schedule.util.conflict;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatMinuteOfDay;
+
+class ConflictDetectorTest {
+
+    private static final RoomProperties[] ROOMS = {room("A", 30), room("B", 30), room("C", 30)};
+
+    static List<ScheduleSlot> randomSchedule(long seed, int size) {
+        Random random = new Random(seed);
+        List<ScheduleSlot> schedule = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int start = 8 * 60 + random.nextInt(40) * 15;
+            int duration = 15 * (1 + random.nextInt(8));
+            schedule.add(slot("2024-01-0" + (1 + random.nextInt(3)), formatMinuteOfDay(start), formatMinuteOfDay(start + duration),
+                    ROOMS[random.nextInt(ROOMS.length)], "professor", "P" + random.nextInt(5)));
+        }
+        return schedule;
+    }
+
+    private static boolean overlap(ScheduleSlot first, ScheduleSlot second) {
+        return first.getAbsoluteStartMinute() < second.getAbsoluteEndMinute() && second.getAbsoluteStartMinute() < first.getAbsoluteEndMinute();
+    }
+
+    /**
+     * Pairs of positions in the schedule, so the comparison doesn't depend on the equality of the slots.
+     */
+    static Set<List<Integer>> pairs(List<ScheduleSlot> schedule, Collection<SlotConflict> conflicts) {
+        Map<ScheduleSlot, Integer> position = new IdentityHashMap<>();
+        for (ScheduleSlot slot : schedule)
+            position.put(slot, position.size());
+        Set<List<Integer>> pairs = new HashSet<>();
+        for (SlotConflict conflict : conflicts) {
+            int first = position.get(conflict.getFirst());
+            int second = position.get(conflict.getSecond());
+            assertTrue(pairs.add(List.of(conflict.getType().ordinal(), Math.min(first, second), Math.max(first, second))), conflict.toString());
+        }
+        return pairs;
+    }
+
+    static Set<List<Integer>> bruteForcePairs(List<ScheduleSlot> schedule, String key) {
+        Set<List<Integer>> pairs = new HashSet<>();
+        for (int i = 0; i < schedule.size(); i++)
+            for (int j = i + 1; j < schedule.size(); j++) {
+                ScheduleSlot first = schedule.get(i);
+                ScheduleSlot second = schedule.get(j);
+                if (!overlap(first, second))
+                    continue;
+                if (first.getLocation().getName().equals(second.getLocation().getName()))
+                    pairs.add(List.of(SlotConflict.Type.ROOM.ordinal(), i, j));
+                if (first.getAttribute(key).equals(second.getAttribute(key)))
+                    pairs.add(List.of(SlotConflict.Type.ATTRIBUTE.ordinal(), i, j));
+            }
+        return pairs;
+    }
+
+    @Test
+    void sweepFindsTheSamePairsAsComparingEveryPair() {
+        for (long seed = 0; seed < 20; seed++) {
+            List<ScheduleSlot> schedule = randomSchedule(seed, 120);
+            List<SlotConflict> conflicts = new ArrayList<>(ConflictDetector.findRoomConflicts(schedule));
+            conflicts.addAll(ConflictDetector.findAttributeConflicts(schedule, List.of("professor")));
+            assertEquals(bruteForcePairs(schedule, "professor"), pairs(schedule, conflicts), "seed " + seed);
+        }
+    }
+
+    @Test
+    void touchingSlotsDoNotConflict() {
+        RoomProperties a = ROOMS[0];
+        List<ScheduleSlot> group = List.of(
+                slot("2024-01-01", "08:00", "09:00", a),
+                slot("2024-01-01", "09:00", "10:00", a),
+                slot("2024-01-01", "10:00", "11:00", a));
+        assertEquals(0, ConflictDetector.sweep(group, SlotConflict.Type.ROOM, ConflictDetector.LOCATION_KEY, "A", c -> fail(c.toString())));
+        assertTrue(ConflictDetector.findRoomConflicts(group).isEmpty());
+    }
+
+    @Test
+    void nestedSlotConflictsWithEveryActiveSlot() {
+        RoomProperties a = ROOMS[0];
+        ScheduleSlot day = slot("2024-01-01", "08:00", "16:00", a);
+        ScheduleSlot morning = slot("2024-01-01", "09:00", "12:00", a);
+        ScheduleSlot nested = slot("2024-01-01", "10:00", "11:00", a);
+        List<SlotConflict> conflicts = new ArrayList<>();
+        assertEquals(3, ConflictDetector.sweep(List.of(nested, day, morning), SlotConflict.Type.ROOM, ConflictDetector.LOCATION_KEY, "A", conflicts::add));
+        for (SlotConflict conflict : conflicts) {
+            assertEquals(SlotConflict.Type.ROOM, conflict.getType());
+            assertEquals("A", conflict.getValue());
+            // the earlier slot is reported first
+            assertTrue(conflict.getFirst().getAbsoluteStartMinute() <= conflict.getSecond().getAbsoluteStartMinute());
+        }
+    }
+
+    @Test
+    void sweepUsesTheProvidedIntervals() {
+        RoomProperties a = ROOMS[0];
+        List<ScheduleSlot> group = List.of(slot("2024-01-01", "08:00", "09:00", a), slot("2024-01-01", "12:00", "13:00", a));
+        assertEquals(1, ConflictDetector.sweep(group, new long[]{100, 150}, new long[]{200, 160}, SlotConflict.Type.ROOM, "location", "A", c -> { }));
+        assertEquals(0, ConflictDetector.sweep(group, new long[]{100, 200}, new long[]{200, 300}, SlotConflict.Type.ROOM, "location", "A", c -> { }));
+        assertEquals(0, ConflictDetector.sweep(group.subList(0, 1), SlotConflict.Type.ROOM, "location", "A", c -> fail()));
+    }
+}
@@ -0,0 +1,68 @@
+package raf.sk_schedule.util.conflict;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class ConflictReportWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private static SlotConflict conflict() {
+        RoomProperties a = room("A", 30);
+        ScheduleSlot first = slot("2024-01-01", "10:00", "12:00", a);
+        ScheduleSlot second = slot("2024-01-01", "11:00", "13:00", a);
+        return new SlotConflict(SlotConflict.Type.ROOM, ConflictDetector.LOCATION_KEY, "A", first, second);
+    }
+
+    @Test
+    void writesOneCSVLinePerConflict() throws IOException {
+        File file = directory.resolve("report.csv").toFile();
+        try (ConflictReportWriter writer = new ConflictReportWriter(file, ConflictReportWriter.Format.CSV)) {
+            writer.accept(conflict());
+            writer.accept(conflict());
+            assertEquals(2, writer.getWritten());
+        }
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("type, key, value"));
+        assertEquals("ROOM, location, A, 2024-01-01, 10:00, 12:00, A, 11:00, 13:00, A", lines.get(1));
+    }
+
+    @Test
+    void writesAJSONArray() throws IOException {
+        File empty = directory.resolve("empty.json").toFile();
+        new ConflictReportWriter(empty, ConflictReportWriter.Format.JSON).close();
+        assertEquals("[ ]", Files.readString(empty.toPath()).trim());
+
+        File file = directory.resolve("report.json").toFile();
+        try (ConflictReportWriter writer = new ConflictReportWriter(file, ConflictReportWriter.Format.JSON)) {
+            writer.accept(conflict());
+            writer.accept(conflict());
+        }
+        String content = Files.readString(file.toPath()).trim();
+        assertTrue(content.startsWith("[") && content.endsWith("]"));
+        assertEquals(2, content.split("\"type\": \"ROOM\"", -1).length - 1);
+        assertEquals(1, content.split("},\n", -1).length - 1);
+    }
+
+    @Test
+    void failsWhenTheFileCanNotBeOpened() {
+        File missing = directory.resolve("missing").resolve("report.csv").toFile();
+        assertThrows(ScheduleIOException.class, () -> new ConflictReportWriter(missing, ConflictReportWriter.Format.CSV));
+        assertThrows(ScheduleIOException.class, () -> new ConflictReportWriter(directory.toFile(), ConflictReportWriter.Format.CSV));
+    }
+}
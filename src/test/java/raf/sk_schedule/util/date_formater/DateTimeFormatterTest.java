@@ -0,0 +1,47 @@
+package raf.sk_schedule.util.date_formater;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+class DateTimeFormatterTest {
+
+    @Test
+    void parsesMinuteOfDayBoundaries() {
+        assertEquals(0, toMinuteOfDay("00:00"));
+        assertEquals(570, toMinuteOfDay("9:30"));
+        assertEquals(LAST_MINUTE_OF_DAY, toMinuteOfDay("23:59"));
+    }
+
+    @Test
+    void rejectsTimesPastTheEndOfTheDay() {
+        for (String time : new String[]{"24:00", "24:01", "24:59", "25:00", "99:00"})
+            assertThrows(ScheduleException.class, () -> toMinuteOfDay(time), time);
+    }
+
+    @Test
+    void rejectsMalformedTimes() {
+        for (String time : new String[]{null, "", "1200", "12:60", "12:5", "12:5a", ":30", "ab:00"})
+            assertThrows(ScheduleException.class, () -> toMinuteOfDay(time), String.valueOf(time));
+    }
+
+    @Test
+    void formatsMinuteOfDayBackToTheSameTime() {
+        for (int minute = 0; minute < MINUTES_IN_DAY; minute += 7)
+            assertEquals(minute, toMinuteOfDay(formatMinuteOfDay(minute)));
+        assertEquals("08:05", formatMinuteOfDay(8 * 60 + 5));
+        assertEquals("23:59", formatMinuteOfDay(LAST_MINUTE_OF_DAY));
+    }
+
+    @Test
+    void convertsEpochDaysBothWays() {
+        long day = LocalDate.of(2024, 1, 1).toEpochDay();
+        assertEquals(day, toEpochDay(parseDate("2024-01-01")));
+        assertEquals(parseDate("2024-01-01"), fromEpochDay(day));
+        assertEquals(parseDateTime("2024-01-01 10:30"), fromAbsoluteMinute(day * MINUTES_IN_DAY + 630));
+    }
+}
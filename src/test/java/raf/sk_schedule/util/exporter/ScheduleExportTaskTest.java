@@ -0,0 +1,176 @@
+package raf.sk_schedule.util.exporter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.filter.CriteriaFilter;
+import raf.sk_schedule.util.filter.SearchCriteria;
+import raf.sk_schedule.util.metrics.MetricsRegistry;
+import raf.sk_schedule.util.metrics.Operation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class ScheduleExportTaskTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @TempDir
+    Path directory;
+
+    private String read(File file) throws IOException {
+        return Files.readString(file.toPath());
+    }
+
+    private List<String> partFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(Path::toString).filter(name -> name.endsWith(".part")).toList();
+        }
+    }
+
+    @Test
+    void writerOutputMatchesTheWholeListExport() throws IOException {
+        List<ScheduleSlot> schedule = random(31, 200).getWholeSchedule();
+        File csv = directory.resolve("schedule.csv").toFile();
+        File json = directory.resolve("schedule.json").toFile();
+        for (String[] attributes : new String[][]{{}, {"professor", "missing"}}) {
+            try (ScheduleExportWriter writer = new ScheduleExportWriter(csv, ScheduleExportWriter.Format.CSV, attributes)) {
+                schedule.forEach(writer);
+                assertEquals(schedule.size(), writer.getWritten());
+            }
+            assertEquals(ScheduleExporterCSV.listToCSV(schedule, attributes) + System.lineSeparator(), read(csv));
+        }
+
+        try (ScheduleExportWriter writer = new ScheduleExportWriter(json, ScheduleExportWriter.Format.JSON)) {
+            schedule.forEach(writer);
+        }
+        assertEquals(ScheduleExporterJSON.serializeObject(schedule) + System.lineSeparator(), read(json));
+        try (ScheduleExportWriter ignored = new ScheduleExportWriter(json, ScheduleExportWriter.Format.JSON)) {
+            // nothing is written
+        }
+        assertEquals(ScheduleExporterJSON.serializeObject(Collections.emptyList()) + System.lineSeparator(), read(json));
+    }
+
+    @Test
+    void taskWritesTheMatchingSlotsAndReportsTheProgress() throws IOException {
+        List<ScheduleSlot> schedule = random(32, 300).getWholeSchedule();
+        File target = directory.resolve("export.csv").toFile();
+        List<Double> progress = new ArrayList<>();
+        ScheduleExportTask task = ScheduleExportTask.start(DIRECT, target, ScheduleExportWriter.Format.CSV,
+                schedule.iterator(), schedule.size(), slot -> slot.getLocation().getName().equals("A"));
+        task.onProgress(running -> progress.add(running.getProgress()));
+
+        List<ScheduleSlot> expected = schedule.stream().filter(slot -> slot.getLocation().getName().equals("A")).toList();
+        assertEquals(expected.size(), task.join());
+        assertEquals(schedule.size(), task.getScanned());
+        assertEquals(expected.size(), task.getWritten());
+        assertEquals(1.0, task.getProgress());
+        assertEquals(ScheduleExporterCSV.listToCSV(expected) + System.lineSeparator(), read(target));
+        assertSame(target, task.getTarget());
+        assertTrue(partFiles().isEmpty());
+    }
+
+    @Test
+    void progressIsReportedEveryInterval() {
+        RoomProperties hall = room("Hall", 10);
+        ScheduleSlot slot = slot("2024-01-01", "08:00", "09:00", hall);
+        int total = 2 * ScheduleExportTask.PROGRESS_INTERVAL + 1;
+        List<Integer> scanned = new ArrayList<>();
+        // the listener is set before the export runs
+        List<Runnable> queued = new ArrayList<>();
+        ScheduleExportTask task = ScheduleExportTask.start(queued::add, directory.resolve("big.csv").toFile(),
+                ScheduleExportWriter.Format.CSV, Collections.nCopies(total, slot).iterator(), total, null);
+        task.onProgress(running -> scanned.add(running.getScanned()));
+        assertEquals(0, task.getProgress());
+        queued.forEach(Runnable::run);
+
+        assertEquals(List.of(ScheduleExportTask.PROGRESS_INTERVAL, 2 * ScheduleExportTask.PROGRESS_INTERVAL, total), scanned);
+        assertEquals(total, task.join());
+    }
+
+    @Test
+    void cancelledExportLeavesTheTargetIntact() throws IOException {
+        File target = directory.resolve("export.csv").toFile();
+        Files.writeString(target.toPath(), "previous");
+        RoomProperties hall = room("Hall", 10);
+        int total = 3 * ScheduleExportTask.PROGRESS_INTERVAL;
+
+        List<Runnable> queued = new ArrayList<>();
+        ScheduleExportTask task = ScheduleExportTask.start(queued::add, target, ScheduleExportWriter.Format.CSV,
+                Collections.nCopies(total, slot("2024-01-01", "08:00", "09:00", hall)).iterator(), total, null);
+        // the export is cancelled at the first progress notification
+        task.onProgress(running -> running.cancel(false));
+        queued.forEach(Runnable::run);
+
+        assertTrue(task.isCancelled());
+        assertThrows(CancellationException.class, task::join);
+        assertEquals(ScheduleExportTask.PROGRESS_INTERVAL, task.getScanned());
+        assertEquals("previous", read(target));
+        assertTrue(partFiles().isEmpty());
+
+        // cancelled before it has started
+        queued.clear();
+        ScheduleExportTask idle = ScheduleExportTask.start(queued::add, target, ScheduleExportWriter.Format.JSON,
+                Collections.<ScheduleSlot>emptyIterator(), 0, null);
+        idle.cancel(false);
+        queued.forEach(Runnable::run);
+        assertEquals("previous", read(target));
+        assertEquals(1.0, idle.getProgress());
+    }
+
+    @Test
+    void failuresCompleteTheTaskExceptionally() {
+        File missingDirectory = directory.resolve("missing").resolve("export.csv").toFile();
+        ScheduleExportTask failed = ScheduleExportTask.start(DIRECT, missingDirectory, ScheduleExportWriter.Format.CSV,
+                Collections.<ScheduleSlot>emptyIterator(), 0, null);
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(ScheduleIOException.class, e.getCause());
+
+        ScheduleExportTask rejected = ScheduleExportTask.start(command -> {
+            throw new RejectedExecutionException();
+        }, directory.resolve("export.csv").toFile(), ScheduleExportWriter.Format.CSV, Collections.<ScheduleSlot>emptyIterator(), 0, null);
+        assertInstanceOf(RejectedExecutionException.class, assertThrows(CompletionException.class, rejected::join).getCause());
+    }
+
+    @Test
+    void managerExportsRunOnTheExportExecutor() throws Exception {
+        InMemoryScheduleManager manager = random(33, 200);
+        File csv = directory.resolve("week.csv").toFile();
+        File json = directory.resolve("filtered.json").toFile();
+
+        ScheduleExportTask week = manager.exportScheduleCSVAsync(csv.getPath(), "2024-01-08", "2024-01-14", "professor");
+        assertEquals(manager.getSchedule("2024-01-08", "2024-01-14").size(), week.get(10, TimeUnit.SECONDS));
+        assertEquals(ScheduleExporterCSV.listToCSV(manager.getSchedule("2024-01-08", "2024-01-14"), "professor") + System.lineSeparator(), read(csv));
+
+        // the metrics are recorded when the task completes, so the export runs on the calling thread
+        MetricsRegistry registry = new MetricsRegistry();
+        manager.setMetrics(registry);
+        manager.setExportExecutor(DIRECT);
+        SearchCriteria criteria = new SearchCriteria.Builder().setCriteria(CriteriaFilter.LOCATION_KEY, "B").build();
+        ScheduleExportTask filtered = manager.exportFilteredScheduleJSONAsync(json.getPath(), criteria);
+        List<ScheduleSlot> expected = manager.searchScheduleSlots(criteria);
+        assertEquals(expected.size(), filtered.join());
+        assertEquals(ScheduleExporterJSON.serializeObject(expected) + System.lineSeparator(), read(json));
+
+        assertEquals(1, registry.snapshot(Operation.EXPORT).getCount());
+        assertEquals(manager.getWholeSchedule().size(), registry.snapshot(Operation.EXPORT).getScannedRows());
+    }
+}
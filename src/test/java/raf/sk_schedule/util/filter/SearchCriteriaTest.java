@@ -0,0 +1,127 @@
+package raf.sk_schedule.util.filter;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+
+class SearchCriteriaTest {
+
+    private static SearchCriteria mondayMornings() {
+        return new SearchCriteria.Builder()
+                .setCriteria(CriteriaFilter.WEEK_DAY_KEY, List.of(WeekDay.MONDAY, WeekDay.TUESDAY))
+                .setCriteria(CriteriaFilter.UPPER_BOUND_TIME_KEY, "13:00")
+                .setCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY, "2024-01-03")
+                .build();
+    }
+
+    /**
+     * The filter as it worked before the single pass: the schedule was copied and the rejected slots were removed one by one.
+     */
+    private static List<ScheduleSlot> removeRejected(SearchCriteria criteria, List<ScheduleSlot> schedule) {
+        List<ScheduleSlot> result = new ArrayList<>(schedule);
+        result.removeIf(slot -> !criteria.matches(slot));
+        return result;
+    }
+
+    @Test
+    void filterKeepsTheMatchingSlotsInOrder() {
+        List<ScheduleSlot> schedule = random(1, 300).getWholeSchedule();
+        SearchCriteria criteria = mondayMornings();
+        List<ScheduleSlot> expected = removeRejected(criteria, schedule);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, criteria.filter(schedule));
+        assertEquals(expected, criteria.stream(schedule).collect(Collectors.toList()));
+
+        List<ScheduleSlot> iterated = new ArrayList<>();
+        criteria.iterator(schedule.iterator()).forEachRemaining(iterated::add);
+        assertEquals(expected, iterated);
+        for (ScheduleSlot slot : expected) {
+            assertTrue(EnumSet.of(WeekDay.MONDAY, WeekDay.TUESDAY).contains(slot.getDayOfWeek()));
+            assertTrue(slot.getEndTime().compareTo("13:00") <= 0);
+        }
+    }
+
+    @Test
+    void pagesConcatenateToTheWholeResult() {
+        List<ScheduleSlot> schedule = random(2, 300).getWholeSchedule();
+        SearchCriteria criteria = mondayMornings();
+        List<ScheduleSlot> expected = criteria.filter(schedule);
+
+        for (int pageSize : new int[]{1, 7, expected.size(), expected.size() + 1}) {
+            List<ScheduleSlot> pages = new ArrayList<>();
+            for (int offset = 0; offset <= expected.size(); offset += pageSize)
+                pages.addAll(criteria.filter(schedule, offset, pageSize));
+            assertEquals(expected, pages, "page size " + pageSize);
+        }
+        assertTrue(criteria.filter(schedule, expected.size(), 10).isEmpty());
+        assertTrue(criteria.filter(schedule, 0, 0).isEmpty());
+        assertThrows(ScheduleException.class, () -> criteria.filter(schedule, -1, 10));
+        assertThrows(ScheduleException.class, () -> criteria.filter(schedule, 0, -1));
+    }
+
+    @Test
+    void pageStopsPullingOnceItIsFull() {
+        List<ScheduleSlot> schedule = random(3, 200).getWholeSchedule();
+        SearchCriteria all = new SearchCriteria.Builder().build();
+        int[] pulled = {0};
+        Iterable<ScheduleSlot> counting = () -> schedule.stream().peek(slot -> pulled[0]++).iterator();
+
+        assertEquals(schedule.subList(5, 15), all.filter(counting, 5, 10));
+        assertEquals(15, pulled[0]);
+
+        pulled[0] = 0;
+        Iterator<ScheduleSlot> lazy = all.iterator(counting.iterator());
+        assertSame(schedule.get(0), lazy.next());
+        assertEquals(1, pulled[0]);
+    }
+
+    @Test
+    void iteratorFailsPastTheLastMatch() {
+        Iterator<ScheduleSlot> iterator = mondayMornings().iterator(Collections.emptyIterator());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void managerPagesAndStreamsMatchTheSearch() {
+        InMemoryScheduleManager manager = random(4, 400);
+        SearchCriteria criteria = new SearchCriteria.Builder()
+                .setCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY, "2024-01-08")
+                .setCriteria(CriteriaFilter.UPPER_BOUND_DATE_KEY, "2024-01-14")
+                .setDynamicAttributes(Map.of("group", "G1"))
+                .build();
+        List<ScheduleSlot> expected = removeRejected(criteria, manager.getWholeSchedule());
+        List<ScheduleSlot> searched = manager.searchScheduleSlots(criteria);
+        assertEquals(new HashSet<>(ids(expected)), new HashSet<>(ids(searched)));
+        assertEquals(ids(searched), ids(manager.streamScheduleSlots(criteria).collect(Collectors.toList())));
+
+        List<ScheduleSlot> pages = new ArrayList<>();
+        for (int offset = 0; offset < searched.size() + 5; offset += 5)
+            pages.addAll(manager.searchScheduleSlots(criteria, offset, 5));
+        assertEquals(ids(searched), ids(pages));
+    }
+
+    private static List<Integer> ids(List<ScheduleSlot> slots) {
+        return slots.stream().map(System::identityHashCode).collect(Collectors.toList());
+    }
+
+    @Test
+    void parallelFilterMatchesTheSequentialOne() {
+        List<ScheduleSlot> schedule = new ArrayList<>();
+        for (long seed = 20; seed < 25; seed++)
+            schedule.addAll(random(seed, 400).getWholeSchedule());
+        SearchCriteria criteria = mondayMornings();
+        List<ScheduleSlot> expected = criteria.filter(schedule);
+        assertEquals(expected, criteria.parallelFilter(schedule, 1));
+        assertEquals(expected, criteria.parallelFilter(schedule));
+        assertTrue(criteria.parallelFilter(List.of(), 0).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package raf.sk_schedule.util.filter;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+
+class SearchExplanationTest {
+
+    private static SearchCriteria.Builder mondayMornings() {
+        return new SearchCriteria.Builder()
+                .setCriteria(CriteriaFilter.WEEK_DAY_KEY, List.of(WeekDay.MONDAY))
+                .setCriteria(CriteriaFilter.UPPER_BOUND_TIME_KEY, "12:00");
+    }
+
+    @Test
+    void explainModeDoesNotChangeTheResult() {
+        List<ScheduleSlot> schedule = random(2, 300).getWholeSchedule();
+        List<ScheduleSlot> expected = mondayMornings().build().filter(schedule);
+
+        SearchCriteria criteria = mondayMornings().build();
+        assertNull(criteria.getExplanation());
+        SearchExplanation explanation = criteria.explain();
+        assertSame(explanation, criteria.explain());
+        assertEquals(expected, criteria.filter(schedule));
+
+        assertEquals(schedule.size(), explanation.getEvaluatedSlots());
+        assertEquals(expected.size(), explanation.getMatchedSlots());
+        assertNull(explanation.getIndexUsed());
+    }
+
+    @Test
+    void filterProfilesCountEveryInvocationAndRejection() {
+        List<ScheduleSlot> schedule = random(3, 200).getWholeSchedule();
+        SearchCriteria criteria = mondayMornings().build();
+        SearchExplanation explanation = criteria.explain();
+        criteria.filter(schedule);
+
+        List<SearchExplanation.FilterProfile> profiles = explanation.getFilterProfiles();
+        assertEquals(2, profiles.size());
+        long rejections = profiles.stream().mapToLong(SearchExplanation.FilterProfile::getRejections).sum();
+        assertEquals(explanation.getEvaluatedSlots() - explanation.getMatchedSlots(), rejections);
+        // every slot reaches the first filter, only the slots it accepts reach the second one
+        SearchExplanation.FilterProfile first = profiles.stream().max((x, y) -> Long.compare(x.getInvocations(), y.getInvocations())).orElseThrow();
+        assertEquals(schedule.size(), first.getInvocations());
+        for (SearchExplanation.FilterProfile profile : profiles) {
+            assertTrue(profile.getSelectivity() >= 0 && profile.getSelectivity() <= 1);
+            assertTrue(profile.toString().startsWith(profile.getName() + ":"));
+        }
+        assertTrue(explanation.toString().startsWith("index: none (full scan)"));
+    }
+
+    @Test
+    void resetAndDisableStopTheProfiling() {
+        List<ScheduleSlot> schedule = random(4, 100).getWholeSchedule();
+        SearchCriteria criteria = mondayMornings().build();
+        SearchExplanation explanation = criteria.explain();
+        criteria.filter(schedule);
+        explanation.reset();
+        assertEquals(0, explanation.getEvaluatedSlots());
+        assertTrue(explanation.getFilterProfiles().isEmpty());
+
+        criteria.disableExplain();
+        assertNull(criteria.getExplanation());
+        criteria.filter(schedule);
+        assertEquals(0, explanation.getEvaluatedSlots());
+    }
+
+    @Test
+    void managerReportsTheIndexOfTheCandidates() {
+        InMemoryScheduleManager manager = random(5, 300);
+        SearchCriteria criteria = mondayMornings()
+                .setCriteria(CriteriaFilter.LOWER_BOUND_DATE_KEY, "2024-01-08")
+                .setCriteria(CriteriaFilter.UPPER_BOUND_DATE_KEY, "2024-01-14")
+                .build();
+        SearchExplanation explanation = criteria.explain();
+
+        List<ScheduleSlot> first = manager.searchScheduleSlots(criteria);
+        assertTrue(explanation.getIndexUsed().startsWith("date partitions [2024-01-08, 2024-01-14]"), explanation.getIndexUsed());
+        assertTrue(explanation.getEvaluatedSlots() < manager.getWholeSchedule().size());
+
+        // the repeated search is answered by the cache without filtering
+        long evaluated = explanation.getEvaluatedSlots();
+        assertEquals(first, manager.searchScheduleSlots(criteria));
+        assertEquals("search result cache", explanation.getIndexUsed());
+        assertEquals(evaluated, explanation.getEvaluatedSlots());
+    }
+}
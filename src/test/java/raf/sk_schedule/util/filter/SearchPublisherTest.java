@@ -0,0 +1,294 @@
+package raf.sk_schedule.util.filter;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+
+class SearchPublisherTest {
+
+    /**
+     * Executor running the submitted tasks only when the test drains it, so the emission can be followed step by step.
+     */
+    private static final class QueuedExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private int submitted;
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+            submitted++;
+        }
+
+        void drain() {
+            Runnable task;
+            while ((task = tasks.poll()) != null)
+                task.run();
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<ScheduleSlot> {
+        private final long initialRequest;
+        private final List<ScheduleSlot> received = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0)
+                subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(ScheduleSlot item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+    private static SearchCriteria mondays() {
+        return new SearchCriteria.Builder().setCriteria(CriteriaFilter.WEEK_DAY_KEY, List.of(WeekDay.MONDAY)).build();
+    }
+
+    @Test
+    void unboundedDemandReceivesTheWholeResultInBatches() {
+        List<ScheduleSlot> schedule = random(41, 600).getWholeSchedule();
+        List<ScheduleSlot> expected = mondays().filter(schedule);
+        QueuedExecutor executor = new QueuedExecutor();
+        SearchPublisher publisher = new SearchPublisher(mondays(), schedule, executor, 10);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        executor.drain();
+
+        assertEquals(expected, subscriber.received);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        // one task per batch, and the last one completes the subscriber
+        assertEquals(expected.size() / 10 + 1, executor.submitted);
+    }
+
+    @Test
+    void onlyTheRequestedSlotsAreEmitted() {
+        List<ScheduleSlot> schedule = random(42, 600).getWholeSchedule();
+        List<ScheduleSlot> expected = mondays().filter(schedule);
+        assertTrue(expected.size() > 5);
+        QueuedExecutor executor = new QueuedExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber(3);
+        new SearchPublisher(mondays(), schedule, executor, 256).subscribe(subscriber);
+        executor.drain();
+        assertEquals(expected.subList(0, 3), subscriber.received);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(2);
+        subscriber.subscription.request(1);
+        executor.drain();
+        assertEquals(expected.subList(0, 6), subscriber.received);
+
+        subscriber.subscription.request(expected.size());
+        executor.drain();
+        assertEquals(expected, subscriber.received);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void everySubscriberGetsItsOwnPass() {
+        List<ScheduleSlot> schedule = random(43, 200).getWholeSchedule();
+        QueuedExecutor executor = new QueuedExecutor();
+        SearchPublisher publisher = new SearchPublisher(mondays(), schedule, executor, 7);
+        RecordingSubscriber first = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        executor.drain();
+        assertEquals(mondays().filter(schedule), first.received);
+        assertEquals(first.received, second.received);
+    }
+
+    @Test
+    void cancelledSubscriptionStopsTheEmission() {
+        List<ScheduleSlot> schedule = random(44, 600).getWholeSchedule();
+        QueuedExecutor executor = new QueuedExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        new SearchPublisher(mondays(), schedule, executor, 5).subscribe(subscriber);
+        executor.tasks.poll().run();
+        subscriber.subscription.cancel();
+        executor.drain();
+        assertEquals(5, subscriber.received.size());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void emptyResultCompletesOnTheFirstRequest() {
+        QueuedExecutor executor = new QueuedExecutor();
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        new SearchPublisher(mondays(), List.of(), executor, 5).subscribe(subscriber);
+        executor.drain();
+        assertTrue(subscriber.received.isEmpty());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void demandEqualToTheResultCompletesTheSubscriber() {
+        List<ScheduleSlot> schedule = random(46, 100).getWholeSchedule();
+        List<ScheduleSlot> expected = mondays().filter(schedule);
+        assertFalse(expected.isEmpty());
+        for (int batchSize : new int[]{expected.size(), 256}) {
+            QueuedExecutor executor = new QueuedExecutor();
+            RecordingSubscriber subscriber = new RecordingSubscriber(expected.size());
+            new SearchPublisher(mondays(), schedule, executor, batchSize).subscribe(subscriber);
+            executor.drain();
+            assertEquals(expected, subscriber.received);
+            assertTrue(subscriber.completed);
+        }
+    }
+
+    @Test
+    void deferredSourceIsCapturedForEverySubscriberWhenItSubscribes() {
+        List<ScheduleSlot> schedule = new ArrayList<>();
+        List<Integer> captures = new ArrayList<>();
+        QueuedExecutor executor = new QueuedExecutor();
+        SearchPublisher publisher = SearchPublisher.deferred(mondays(), () -> {
+            captures.add(schedule.size());
+            return new ArrayList<>(schedule);
+        }, executor, 5);
+        assertTrue(captures.isEmpty());
+
+        RecordingSubscriber first = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(first);
+        schedule.addAll(random(47, 100).getWholeSchedule());
+        RecordingSubscriber second = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(second);
+        executor.drain();
+
+        assertEquals(List.of(0, schedule.size()), captures);
+        assertTrue(first.received.isEmpty());
+        assertTrue(first.completed);
+        assertEquals(mondays().filter(schedule), second.received);
+    }
+
+    @Test
+    void failedCaptureIsSignalledToTheSubscriber() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        SearchPublisher.deferred(mondays(), () -> {
+            throw new ScheduleException("Schedule can't be read!");
+        }, new QueuedExecutor(), 5).subscribe(subscriber);
+        assertNotNull(subscriber.subscription);
+        assertInstanceOf(ScheduleException.class, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void errorsAreSignalledToTheSubscriber() {
+        List<ScheduleSlot> schedule = random(45, 100).getWholeSchedule();
+        QueuedExecutor executor = new QueuedExecutor();
+        RecordingSubscriber invalid = new RecordingSubscriber(0);
+        new SearchPublisher(mondays(), schedule, executor, 5).subscribe(invalid);
+        invalid.subscription.request(-1);
+        executor.drain();
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+        assertTrue(invalid.received.isEmpty());
+
+        RecordingSubscriber rejected = new RecordingSubscriber(1);
+        new SearchPublisher(mondays(), schedule, command -> {
+            throw new RejectedExecutionException();
+        }, 5).subscribe(rejected);
+        assertInstanceOf(RejectedExecutionException.class, rejected.error);
+
+        // the criteria fail while the slots are matched
+        SearchCriteria broken = new SearchCriteria.Builder().setCriteria(CriteriaFilter.LOCATION_KEY, 42).build();
+        RecordingSubscriber failed = new RecordingSubscriber(1);
+        new SearchPublisher(broken, schedule, executor, 5).subscribe(failed);
+        executor.drain();
+        assertInstanceOf(ScheduleException.class, failed.error);
+    }
+
+    @Test
+    void failingSubscriberIsTreatedAsCancelled() {
+        List<ScheduleSlot> schedule = random(46, 200).getWholeSchedule();
+        QueuedExecutor executor = new QueuedExecutor();
+        List<ScheduleSlot> received = new ArrayList<>();
+        new SearchPublisher(mondays(), schedule, executor, 5).subscribe(new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(ScheduleSlot item) {
+                received.add(item);
+                throw new IllegalStateException();
+            }
+        });
+        executor.drain();
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(ScheduleException.class, () -> new SearchPublisher(mondays(), List.of(), Runnable::run, 0));
+        assertThrows(NullPointerException.class, () -> new SearchPublisher(mondays(), List.of()).subscribe(null));
+    }
+
+    @Test
+    void managerPublishesToConcurrentSubscribers() throws Exception {
+        InMemoryScheduleManager manager = random(47, 600);
+        SearchCriteria criteria = mondays();
+        List<String> expected = manager.searchScheduleSlots(criteria).stream().map(ScheduleSlot::toString).toList();
+        Flow.Publisher<ScheduleSlot> publisher = manager.publishScheduleSlots(criteria);
+
+        List<CompletableFuture<List<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<List<String>> result = new CompletableFuture<>();
+            List<String> received = new CopyOnWriteArrayList<>();
+            publisher.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ScheduleSlot item) {
+                    received.add(item.toString());
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    result.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    result.complete(received);
+                }
+            });
+            results.add(result);
+        }
+        for (CompletableFuture<List<String>> result : results)
+            assertEquals(expected, result.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,142 @@
+package raf.sk_schedule.util.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.exception.ScheduleIOException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCSVReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedCSVReader open(byte[] content) throws IOException {
+        Path file = directory.resolve("data.csv");
+        Files.write(file, content);
+        return new MappedCSVReader(file.toString());
+    }
+
+    private MappedCSVReader open(String content) throws IOException {
+        return open(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rowsAreTokenisedAndTrimmed() throws IOException {
+        try (MappedCSVReader reader = open("name , capacity\r\n\n  \r\n Hall\t,  50 \r\nLab,\n")) {
+            assertTrue(reader.nextRow());
+            assertEquals(1, reader.getRow());
+            assertEquals(2, reader.getFieldCount());
+            assertEquals("name", reader.getString(0));
+            assertEquals("capacity", reader.getString(1));
+
+            // the blank rows are skipped but counted
+            assertTrue(reader.nextRow());
+            assertEquals(4, reader.getRow());
+            assertEquals("Hall", reader.getString(0));
+            assertEquals(50, reader.getInt(1));
+
+            assertTrue(reader.nextRow());
+            assertEquals(2, reader.getFieldCount());
+            assertTrue(reader.isEmpty(1));
+            assertThrows(ScheduleException.class, () -> reader.getString(2));
+
+            assertFalse(reader.nextRow());
+            assertEquals(0, reader.getFieldCount());
+        }
+    }
+
+    @Test
+    void byteOrderMarkIsSkippedAndUtf8IsDecoded() throws IOException {
+        byte[] text = "Učionica,Đorđe\n".getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[text.length + 3];
+        content[0] = (byte) 0xEF;
+        content[1] = (byte) 0xBB;
+        content[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, content, 3, text.length);
+        try (MappedCSVReader reader = open(content)) {
+            assertTrue(reader.nextRow());
+            assertEquals("Učionica", reader.getString(0));
+            assertEquals("Đorđe", reader.getInternedString(1));
+        }
+    }
+
+    @Test
+    void emptyFileHasNoRows() throws IOException {
+        try (MappedCSVReader reader = open("")) {
+            assertFalse(reader.nextRow());
+        }
+        assertThrows(ScheduleIOException.class, () -> new MappedCSVReader(directory.resolve("missing.csv").toString()));
+    }
+
+    @Test
+    void repeatedValuesShareTheirStrings() throws IOException {
+        try (MappedCSVReader reader = open("Hall,P1\nHall,P2\n")) {
+            reader.nextRow();
+            String first = reader.getInternedString(0);
+            reader.nextRow();
+            assertSame(first, reader.getInternedString(0));
+            assertEquals("P2", reader.getInternedString(1));
+        }
+    }
+
+    @Test
+    void integersAreParsedLikeIntegerParseInt() throws IOException {
+        try (MappedCSVReader reader = open("0,-15,+7,2147483647,-2147483648,2147483648,12a,-,\n")) {
+            reader.nextRow();
+            assertEquals(0, reader.getInt(0));
+            assertEquals(-15, reader.getInt(1));
+            assertEquals(7, reader.getInt(2));
+            assertEquals(Integer.MAX_VALUE, reader.getInt(3));
+            assertEquals(Integer.MIN_VALUE, reader.getInt(4));
+            for (int field = 5; field < 9; field++) {
+                int column = field;
+                assertThrows(ScheduleException.class, () -> reader.getInt(column), "column " + column);
+            }
+        }
+    }
+
+    @Test
+    void booleansAreParsedLikeBooleanParseBoolean() throws IOException {
+        try (MappedCSVReader reader = open("true,TRUE,TrUe,false,yes,1,\n")) {
+            reader.nextRow();
+            for (int field = 0; field < reader.getFieldCount(); field++)
+                assertEquals(Boolean.parseBoolean(reader.getString(field)), reader.getBoolean(field), reader.getString(field));
+        }
+    }
+
+    @Test
+    void datesAreValidated() throws IOException {
+        try (MappedCSVReader reader = open("2024-02-29,2024-1-5,2023-02-29,2024/01/01,2024-01,-2024-01-01\n")) {
+            reader.nextRow();
+            assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), reader.getEpochDay(0));
+            assertEquals(LocalDate.of(2024, 1, 5).toEpochDay(), reader.getEpochDay(1));
+            for (int field = 2; field < 6; field++) {
+                int column = field;
+                assertThrows(ScheduleException.class, () -> reader.getEpochDay(column), "column " + column);
+            }
+        }
+    }
+
+    @Test
+    void timesAreNormalised() throws IOException {
+        try (MappedCSVReader reader = open("8:05,00:00,23:59,24:00,24:01,12:60,1205,:30\n")) {
+            reader.nextRow();
+            assertEquals("08:05", reader.getTime(0));
+            assertEquals(0, reader.getMinuteOfDay(1));
+            assertEquals(23 * 60 + 59, reader.getMinuteOfDay(2));
+            for (int field = 3; field < 8; field++) {
+                int column = field;
+                ScheduleException e = assertThrows(ScheduleException.class, () -> reader.getMinuteOfDay(column), "column " + column);
+                assertTrue(e.getMessage().contains("row 1, column " + (column + 1)), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package raf.sk_schedule.util.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.exception.ScheduleIOException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+import static raf.sk_schedule.util.persistence.ScheduleFileOperationUnit.readFileToString;
+
+class ScheduleImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private String write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content);
+        return file.toString();
+    }
+
+    /**
+     * The room import as it worked before the mapped reader: the file was read into a String and split by lines and commas.
+     */
+    private static Map<String, RoomProperties> splitRooms(String csvPath) {
+        String[] lines = readFileToString(csvPath).split("\n");
+        String[] columnNames = lines[0].split(",");
+        int nameIndex = -1, capacityIndex = -1, hasComputersIndex = -1, hasProjectorIndex = -1;
+        for (int i = 0; i < columnNames.length; i++) {
+            switch (columnNames[i].trim().toLowerCase()) {
+                case "name" -> nameIndex = i;
+                case "capacity" -> capacityIndex = i;
+                case "has_computers" -> hasComputersIndex = i;
+                case "has_projector" -> hasProjectorIndex = i;
+            }
+        }
+        Map<String, RoomProperties> rooms = new HashMap<>();
+        for (int row = 1; row < lines.length; row++) {
+            String[] values = lines[row].split(",");
+            if (values.length < 4)
+                continue;
+            RoomProperties.Builder builder = new RoomProperties.Builder()
+                    .setName(values[nameIndex].trim())
+                    .setCapacity(Integer.parseInt(values[capacityIndex].trim()))
+                    .setHasComputers(Integer.parseInt(values[hasComputersIndex].trim()))
+                    .setHasProjector(Boolean.parseBoolean(values[hasProjectorIndex].trim()));
+            for (int i = 0; i < columnNames.length; i++)
+                if (i != nameIndex && i != capacityIndex && i != hasComputersIndex && i != hasProjectorIndex)
+                    builder.setAttribute(columnNames[i].trim(), values[i].trim());
+            RoomProperties room = builder.build();
+            rooms.put(room.getName(), room);
+        }
+        return rooms;
+    }
+
+    /**
+     * The schedule import as it worked before the mapped reader.
+     */
+    private static List<ScheduleSlot> splitSchedule(String csvPath, Map<String, RoomProperties> rooms) {
+        String[] lines = readFileToString(csvPath).split("\n");
+        String[] columnNames = lines[0].split(",");
+        int dateIndex = -1, startIndex = -1, endIndex = -1, durationIndex = -1, locationIndex = -1;
+        for (int i = 0; i < columnNames.length; i++) {
+            switch (columnNames[i].trim().toLowerCase()) {
+                case "date" -> dateIndex = i;
+                case "start" -> startIndex = i;
+                case "end" -> endIndex = i;
+                case "duration" -> durationIndex = i;
+                case "location" -> locationIndex = i;
+            }
+        }
+        List<ScheduleSlot> slots = new ArrayList<>();
+        for (int row = 1; row < lines.length; row++) {
+            String[] values = lines[row].split(",");
+            ScheduleSlot.Builder builder = new ScheduleSlot.Builder()
+                    .setDate(parseDate(values[dateIndex].trim()))
+                    .setStartTime(values[startIndex].trim())
+                    .setLocation(rooms.get(values[locationIndex].trim()));
+            if (durationIndex != -1)
+                builder.setDuration(Integer.parseInt(values[durationIndex].trim()));
+            if (endIndex != -1)
+                builder.setEndTime(values[endIndex].trim());
+            for (int i = 0; i < columnNames.length; i++)
+                if (i != dateIndex && i != startIndex && i != locationIndex && i != durationIndex && i != endIndex)
+                    builder.setAttribute(columnNames[i].trim(), values[i].trim());
+            slots.add(builder.build());
+        }
+        return slots;
+    }
+
+    private static String describe(RoomProperties room) {
+        return room.getName() + " " + room.getCapacity() + " " + room.hasComputers() + " " + room.hasProjector() + " " + room.getAttributes();
+    }
+
+    private static String describe(ScheduleSlot slot) {
+        return formatDate(slot.getDate()) + " " + slot.getStartTime() + "-" + slot.getEndTime() + " " + slot.getDuration()
+                + " " + slot.getLocation().getName() + " " + new TreeMap<>(slot.getAttributes());
+    }
+
+    private String randomRooms(Random random) throws IOException {
+        StringBuilder csv = new StringBuilder("name, capacity ,has_computers,HAS_PROJECTOR,floor\n");
+        for (int i = 0; i < 20; i++)
+            csv.append("R").append(i).append(", ").append(10 + random.nextInt(200)).append(",").append(random.nextInt(40))
+                    .append(" ,").append(random.nextBoolean() ? "true" : "False").append(",").append(random.nextInt(5)).append(i % 3 == 0 ? "\r\n" : "\n");
+        return write("rooms.csv", csv.toString());
+    }
+
+    @Test
+    void roomsMatchTheSplitImport() throws IOException {
+        String path = randomRooms(new Random(5));
+        Map<String, RoomProperties> expected = splitRooms(path);
+        Map<String, RoomProperties> actual = ScheduleImporter.importRoomsCSV(path);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String name : expected.keySet())
+            assertEquals(describe(expected.get(name)), describe(actual.get(name)));
+    }
+
+    @Test
+    void scheduleMatchesTheSplitImport() throws IOException {
+        Random random = new Random(9);
+        Map<String, RoomProperties> rooms = ScheduleImporter.importRoomsCSV(randomRooms(random));
+        for (boolean withEnd : new boolean[]{true, false}) {
+            StringBuilder csv = new StringBuilder(withEnd ? "date,start,end,location,professor,group\n" : "Location , Date,Start,Duration,End,professor\n");
+            for (int i = 0; i < 500; i++) {
+                int start = 7 * 60 + random.nextInt(12 * 60);
+                int duration = 15 + random.nextInt(180);
+                String date = String.format("2024-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28));
+                String startTime = String.format("%02d:%02d", start / 60, start % 60);
+                String room = "R" + random.nextInt(20);
+                if (withEnd)
+                    csv.append(date).append(",").append(startTime).append(",")
+                            .append(String.format("%02d:%02d", (start + duration) / 60, (start + duration) % 60))
+                            .append(",").append(room).append(", P").append(random.nextInt(9)).append(",G").append(random.nextInt(4)).append("\n");
+                else
+                    csv.append(room).append(",").append(date).append(" , ").append(startTime).append(",").append(duration).append(",")
+                            .append(String.format("%02d:%02d", (start + duration) / 60, (start + duration) % 60))
+                            .append(",P").append(random.nextInt(9)).append("\r\n");
+            }
+            String path = write("schedule.csv", csv.toString());
+
+            List<String> expected = splitSchedule(path, rooms).stream().map(ScheduleImporterTest::describe).toList();
+            List<ScheduleSlot> actual = ScheduleImporter.importScheduleCSV(path, rooms);
+            assertEquals(expected, actual.stream().map(ScheduleImporterTest::describe).toList());
+            for (ScheduleSlot slot : actual)
+                assertSame(rooms.get(slot.getLocation().getName()), slot.getLocation());
+        }
+    }
+
+    @Test
+    void malformedFilesAreRejected() throws IOException {
+        Map<String, RoomProperties> rooms = Map.of("Hall", new RoomProperties.Builder().setName("Hall").setCapacity(10).build());
+        assertThrows(ScheduleIOException.class, () -> ScheduleImporter.importScheduleCSV(write("empty.csv", "\n\n"), rooms));
+        assertThrows(ScheduleIOException.class, () -> ScheduleImporter.importScheduleCSV(write("header.csv", "date,start,location\n"), rooms));
+        assertThrows(ScheduleIOException.class,
+                () -> ScheduleImporter.importScheduleCSV(write("room.csv", "date,start,end,location\n2024-01-01,08:00,09:00,Annex\n"), rooms));
+        assertThrows(ScheduleIOException.class,
+                () -> ScheduleImporter.importScheduleCSV(write("short.csv", "date,start,end,location\n2024-01-01,08:00,09:00\n"), rooms));
+        ScheduleException e = assertThrows(ScheduleException.class,
+                () -> ScheduleImporter.importScheduleCSV(write("date.csv", "date,start,end,location\n2024-13-01,08:00,09:00,Hall\n"), rooms));
+        assertTrue(e.getMessage().contains("row 2, column 1"), e.getMessage());
+    }
+}
@@ -0,0 +1,72 @@
+package raf.sk_schedule.util.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class AttributeConflictIndexTest {
+
+    private final RoomProperties a = room("A", 30);
+    private final RoomProperties b = room("B", 30);
+    private AttributeConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AttributeConflictIndex();
+        index.setConflictKeys(List.of("professor", "group"));
+    }
+
+    @Test
+    void slotSharingSeveralKeysIsReportedOnce() {
+        ScheduleSlot booked = slot("2024-01-01", "10:00", "12:00", a, "professor", "Smith", "group", "G1");
+        index.onSlotBooked(booked);
+
+        ScheduleSlot checked = slot("2024-01-01", "11:00", "13:00", b, "professor", "Smith", "group", "G1");
+        assertEquals(List.of(booked), index.findConflicts(checked));
+        assertFalse(index.isFree(checked, checked.getAbsoluteStartMinute(), checked.getAbsoluteEndMinute()));
+    }
+
+    @Test
+    void bookedSlotDoesNotConflictWithItself() {
+        ScheduleSlot booked = slot("2024-01-01", "10:00", "12:00", a, "professor", "Smith");
+        index.onSlotBooked(booked);
+        assertTrue(index.findConflicts(booked).isEmpty());
+    }
+
+    @Test
+    void onlyOverlappingSlotsWithTheSameValueConflict() {
+        ScheduleSlot smith = slot("2024-01-01", "10:00", "12:00", a, "professor", "Smith");
+        ScheduleSlot jones = slot("2024-01-01", "10:00", "12:00", b, "professor", "Jones");
+        index.onSlotBooked(smith);
+        index.onSlotBooked(jones);
+
+        assertTrue(index.findConflicts(slot("2024-01-01", "12:00", "13:00", b, "professor", "Smith")).isEmpty());
+        assertTrue(index.findConflicts(slot("2024-01-01", "08:00", "10:00", b, "professor", "Smith")).isEmpty());
+        assertTrue(index.findConflicts(slot("2024-01-01", "10:00", "12:00", b, "room", "Smith")).isEmpty());
+        assertEquals(List.of(jones), index.findConflicts(slot("2024-01-01", "11:59", "12:30", a, "professor", "Jones")));
+        assertEquals(List.of(smith), index.overlapping("professor", "Smith", smith.getAbsoluteStartMinute(), smith.getAbsoluteEndMinute()));
+        assertTrue(index.overlapping("course", "Smith", 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void removedSlotsAndDroppedKeysNoLongerConflict() {
+        ScheduleSlot booked = slot("2024-01-01", "10:00", "12:00", a, "professor", "Smith", "group", "G1");
+        index.onSlotBooked(booked);
+        ScheduleSlot checked = slot("2024-01-01", "10:00", "11:00", b, "professor", "Smith", "group", "G1");
+
+        index.setConflictKeys(List.of("group"));
+        assertEquals(Set.of("group"), index.getConflictKeys());
+        assertEquals(List.of(booked), index.findConflicts(checked));
+
+        index.onSlotRemoved(booked);
+        assertTrue(index.findConflicts(checked).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package raf.sk_schedule.util.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.MINUTES_IN_DAY;
+
+class IntervalIndexTest {
+
+    private final RoomProperties r1 = room("R1", 30);
+    private IntervalIndex<String> index;
+    private ScheduleSlot morning;
+    private ScheduleSlot noon;
+    private long day;
+
+    @BeforeEach
+    void setUp() {
+        index = new IntervalIndex<>();
+        morning = slot("2024-01-01", "08:00", "10:00", r1);
+        noon = slot("2024-01-01", "12:00", "13:00", r1);
+        index.add("R1", morning);
+        index.add("R1", noon);
+        day = morning.getAbsoluteStartMinute() / MINUTES_IN_DAY;
+    }
+
+    private long at(int hour, int minute) {
+        return day * MINUTES_IN_DAY + hour * 60 + minute;
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        assertTrue(index.overlapping("R1", at(10, 0), at(12, 0)).isEmpty());
+        assertTrue(index.isFree("R1", at(10, 0), at(12, 0)));
+        assertTrue(index.isFree("R1", at(7, 0), at(8, 0)));
+        assertTrue(index.isFree("R1", at(13, 0), at(14, 0)));
+    }
+
+    @Test
+    void findsEveryOverlappingSlotInStartOrder() {
+        assertEquals(List.of(morning), index.overlapping("R1", at(9, 59), at(10, 1)));
+        assertEquals(List.of(morning, noon), index.overlapping("R1", at(0, 0), at(24, 0)));
+        assertEquals(List.of(noon), index.overlapping("R1", at(12, 30), at(12, 31)));
+        assertFalse(index.isFree("R1", at(7, 0), at(8, 1)));
+    }
+
+    @Test
+    void findsSlotsOfThePreviousDay() {
+        ScheduleSlot late = slot("2023-12-31", "22:00", "23:59", r1);
+        index.add("R1", late);
+        assertEquals(List.of(late), index.overlapping("R1", at(0, 0) - 30, at(0, 0)));
+        assertTrue(index.isFree("R1", at(0, 0), at(1, 0)));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        assertTrue(index.isFree("R2", at(8, 0), at(10, 0)));
+        assertTrue(index.getSlots("R2").isEmpty());
+        assertEquals(0, index.count("R2"));
+        assertEquals(2, index.count("R1"));
+    }
+
+    @Test
+    void removesSlotsByIdentity() {
+        assertTrue(index.contains(morning));
+        assertEquals("R1", index.getKey(morning));
+        assertTrue(index.remove(morning));
+        assertFalse(index.remove(morning));
+        assertFalse(index.contains(morning));
+        assertTrue(index.isFree("R1", at(8, 0), at(10, 0)));
+        assertEquals(1, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.keys().isEmpty());
+    }
+
+    @Test
+    void freeIntervalsAreTheGapsBetweenBookings() {
+        List<long[]> free = collect(index.freeIntervals("R1", at(0, 0), at(24, 0)));
+        assertEquals(3, free.size());
+        assertArrayEquals(new long[]{at(0, 0), at(8, 0)}, free.get(0));
+        assertArrayEquals(new long[]{at(10, 0), at(12, 0)}, free.get(1));
+        assertArrayEquals(new long[]{at(13, 0), at(24, 0)}, free.get(2));
+    }
+
+    @Test
+    void freeIntervalsAreClippedToTheSearchedInterval() {
+        List<long[]> free = collect(index.freeIntervals("R1", at(9, 0), at(12, 30)));
+        assertEquals(1, free.size());
+        assertArrayEquals(new long[]{at(10, 0), at(12, 0)}, free.get(0));
+
+        assertTrue(collect(index.freeIntervals("R1", at(8, 0), at(10, 0))).isEmpty());
+        List<long[]> unknownKey = collect(index.freeIntervals("R2", at(8, 0), at(10, 0)));
+        assertArrayEquals(new long[]{at(8, 0), at(10, 0)}, unknownKey.get(0));
+    }
+
+    @Test
+    void freeIntervalsMergeOverlappingBookings() {
+        index.add("R1", slot("2024-01-01", "09:00", "11:00", r1));
+        List<long[]> free = collect(index.freeIntervals("R1", at(8, 0), at(13, 0)));
+        assertEquals(1, free.size());
+        assertArrayEquals(new long[]{at(11, 0), at(12, 0)}, free.get(0));
+    }
+
+    private static List<long[]> collect(Iterator<long[]> iterator) {
+        List<long[]> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+}
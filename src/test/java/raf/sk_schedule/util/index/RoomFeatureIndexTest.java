@@ -0,0 +1,64 @@
+package raf.sk_schedule.util.index;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomFeatureIndexTest {
+
+    private static RoomProperties room(String name, int capacity, int computers, boolean projector) {
+        return new RoomProperties.Builder().setName(name).setCapacity(capacity)
+                .setHasComputers(computers).setHasProjector(projector).build();
+    }
+
+    @Test
+    void candidatesAreOrderedByTheBestFit() {
+        RoomFeatureIndex index = new RoomFeatureIndex();
+        RoomProperties big = room("Big", 100, 0, true);
+        RoomProperties b = room("B", 30, 0, false);
+        RoomProperties a = room("A", 30, 0, false);
+        RoomProperties small = room("Small", 10, 0, false);
+        for (RoomProperties room : List.of(big, b, a, small))
+            index.addRoom(room);
+
+        assertEquals(List.of(a, b, big), index.candidates(30, 0, null, null));
+        assertEquals(List.of(small, a, b, big), index.candidates(0, 0, null, Map.of()));
+        assertTrue(index.candidates(101, 0, null, null).isEmpty());
+    }
+
+    @Test
+    void candidatesSatisfyEveryRequirement() {
+        RoomFeatureIndex index = new RoomFeatureIndex();
+        RoomProperties lab = new RoomProperties.Builder().setName("Lab").setCapacity(20).setHasComputers(20)
+                .setHasProjector(true).setAttribute("floor", 2).build();
+        RoomProperties hall = room("Hall", 20, 0, true);
+        index.addRoom(lab);
+        index.addRoom(hall);
+
+        assertEquals(List.of(lab), index.candidates(0, 20, null, null));
+        assertEquals(List.of(hall, lab), index.candidates(0, 0, true, null));
+        assertTrue(index.candidates(0, 0, false, null).isEmpty());
+        assertEquals(List.of(lab), index.candidates(0, 0, null, Map.of("floor", "2")));
+        assertTrue(index.candidates(0, 0, null, Map.of("floor", 3)).isEmpty());
+    }
+
+    @Test
+    void removedAndReplacedRoomsAreNotCandidates() {
+        RoomFeatureIndex index = new RoomFeatureIndex();
+        RoomProperties a = room("A", 30, 0, false);
+        index.addRoom(a);
+        index.addRoom(room("B", 30, 0, false));
+        assertSame(a, index.removeRoom("A"));
+        assertNull(index.removeRoom("A"));
+        assertEquals(1, index.size());
+
+        RoomProperties bigger = room("B", 60, 0, false);
+        index.onRoomsChanged(List.of(index.getRoom("B")), List.of(bigger));
+        assertEquals(List.of(bigger), index.candidates(40, 0, null, null));
+        assertSame(bigger, index.getRoom("B"));
+    }
+}
@@ -0,0 +1,42 @@
+package raf.sk_schedule.util.index;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class RoomRegistryTest {
+
+    private final RoomProperties a = room("A", 10);
+    private final RoomProperties b = room("B", 20);
+
+    @Test
+    void idsAreDenseAndStable() {
+        RoomRegistry registry = new RoomRegistry();
+        assertEquals(0, registry.register(a));
+        assertEquals(1, registry.register(b));
+        assertEquals(0, registry.register(room("A", 99)));
+        assertEquals(2, registry.size());
+
+        assertEquals(1, registry.idOf("B"));
+        assertEquals(1, registry.idOf((Object) b));
+        assertEquals(RoomRegistry.NO_ROOM, registry.idOf("C"));
+        assertEquals(RoomRegistry.NO_ROOM, registry.idOf((Object) 42));
+        assertEquals("B", registry.nameOf(1));
+        assertNull(registry.nameOf(2));
+        assertNull(registry.resolve(-1));
+        // the last registered properties of the name are resolved
+        assertEquals(99, registry.resolve(0).getCapacity());
+    }
+
+    @Test
+    void slotLocationsAreLookedUp() {
+        RoomRegistry registry = new RoomRegistry();
+        registry.register(b);
+        assertEquals(0, registry.idOf(slot("2024-01-01", "10:00", "11:00", b)));
+        assertEquals(RoomRegistry.NO_ROOM, registry.idOf(slot("2024-01-01", "10:00", "11:00", a)));
+        assertEquals(RoomRegistry.NO_ROOM, registry.idOf(slot("2024-01-01", "10:00", "11:00", null)));
+    }
+}
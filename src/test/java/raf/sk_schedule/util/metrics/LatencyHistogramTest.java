@@ -0,0 +1,80 @@
+package raf.sk_schedule.util.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueWithBoundedError() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 1023, 1024, 123_456_789, Long.MAX_VALUE / 2, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            assertTrue(upper >= value, "upper bound of " + value);
+            assertTrue(upper - value <= value / 8, "relative error of " + value);
+            if (bucket > 0)
+                assertTrue(LatencyHistogram.bucketUpperBound(bucket - 1) < value, "previous bucket of " + value);
+        }
+    }
+
+    @Test
+    void bucketsAreMonotonic() {
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            long a = random.nextLong() >>> random.nextInt(63);
+            long b = a + random.nextInt(1000);
+            if (b >= a)
+                assertTrue(LatencyHistogram.bucket(a) <= LatencyHistogram.bucket(b));
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    void percentilesFollowTheSortedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        long[] values = new long[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 + random.nextInt(1_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        assertEquals(Arrays.stream(values).average().orElse(0), histogram.getMeanNanos(), 1e-6);
+        for (double percentile : new double[]{1, 50, 90, 99, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getPercentileNanos(percentile);
+            assertTrue(reported >= exact && reported - exact <= exact / 8, percentile + "th percentile " + reported + " vs " + exact);
+        }
+        assertEquals(histogram.getMaxNanos(), histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZeroAndResetClears() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+
+        histogram.record(100);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getTotalNanos());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,98 @@
+package raf.sk_schedule.util.metrics;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class MetricsRegistryTest {
+
+    @Test
+    void recordsRowsAndFailuresPerOperation() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record(Operation.SEARCH, registry.start(), 100, 3);
+        registry.record(Operation.SEARCH, registry.start(), 50, 2);
+        registry.recordFailure(Operation.SEARCH, registry.start());
+
+        OperationSnapshot search = registry.snapshot(Operation.SEARCH);
+        assertEquals("SEARCH", search.getOperation());
+        assertEquals(3, search.getCount());
+        assertEquals(1, search.getFailures());
+        assertEquals(150, search.getScannedRows());
+        assertEquals(5, search.getReturnedRows());
+        assertTrue(search.getP50Nanos() <= search.getP99Nanos());
+        assertTrue(search.getP99Nanos() <= search.getMaxNanos());
+
+        assertEquals(0, registry.snapshot(Operation.EXPORT).getCount());
+    }
+
+    @Test
+    void onlyRecordedOperationsAreExported() {
+        MetricsRegistry registry = new MetricsRegistry();
+        List<OperationSnapshot> exported = new ArrayList<>();
+        registry.exportTo(exported::addAll);
+        assertTrue(exported.isEmpty());
+
+        registry.record(Operation.BOOK_SLOT, registry.start(), 0, 1);
+        registry.exportTo(exported::addAll);
+        assertEquals(List.of("BOOK_SLOT"), exported.stream().map(OperationSnapshot::getOperation).toList());
+
+        registry.reset();
+        assertTrue(registry.getOperations().isEmpty());
+    }
+
+    @Test
+    void noopRecorderIgnoresMeasurements() {
+        assertEquals(0, ScheduleMetrics.NOOP.start());
+        ScheduleMetrics.NOOP.record(Operation.SEARCH, 0, 1, 1);
+        ScheduleMetrics.NOOP.recordFailure(Operation.SEARCH, 0);
+    }
+
+    @Test
+    void managerOperationsAreRecorded() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        assertSame(ScheduleMetrics.NOOP, manager.getMetrics());
+        MetricsRegistry registry = new MetricsRegistry();
+        manager.setMetrics(registry);
+        RoomProperties hall = room("Hall", 50);
+        manager.addRoom(hall);
+
+        manager.bookScheduleSlot(slot("2024-01-01", "08:00", "10:00", hall));
+        manager.bookScheduleSlot(slot("2024-01-02", "08:00", "10:00", hall));
+        assertEquals(1, manager.getSchedule("2024-01-01", "2024-01-01").size());
+        assertThrows(RuntimeException.class, () -> manager.getSchedule("not a date", "2024-01-02"));
+
+        OperationSnapshot schedule = registry.snapshot(Operation.GET_SCHEDULE);
+        assertEquals(2, schedule.getCount());
+        assertEquals(1, schedule.getFailures());
+        assertEquals(1, schedule.getReturnedRows());
+
+        manager.setMetrics(null);
+        assertSame(ScheduleMetrics.NOOP, manager.getMetrics());
+    }
+
+    @Test
+    void registersInThePlatformMBeanServer() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record(Operation.SEARCH, registry.start(), 10, 1);
+        ObjectName name = registry.registerMBean("raf.sk_schedule:type=ScheduleMetrics,name=test");
+        try {
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+            assertThrows(ScheduleException.class, () -> registry.registerMBean(name.toString()));
+        } finally {
+            registry.unregisterMBean(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertThrows(ScheduleException.class, () -> registry.unregisterMBean(name));
+        assertThrows(ScheduleException.class, () -> registry.registerMBean("not a name"));
+    }
+}
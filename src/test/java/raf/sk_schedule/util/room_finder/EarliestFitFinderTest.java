@@ -0,0 +1,115 @@
+package raf.sk_schedule.util.room_finder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.util.index.IntervalIndex;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+class EarliestFitFinderTest {
+
+    private static final List<WeekDay> ALL_DAYS = Arrays.asList(WeekDay.values());
+
+    private final RoomProperties a = room("A", 30);
+    private final RoomProperties b = room("B", 50);
+    private RoomFeatureIndex rooms;
+    private IntervalIndex<String> bookings;
+
+    @BeforeEach
+    void setUp() {
+        rooms = new RoomFeatureIndex();
+        rooms.addRoom(b);
+        rooms.addRoom(a);
+        bookings = new IntervalIndex<>();
+        // 2024-01-01 is a Monday
+        bookings.add("A", slot("2024-01-01", "08:00", "10:00", a));
+        bookings.add("B", slot("2024-01-01", "08:00", "09:00", b));
+    }
+
+    private static EarliestFitQuery.Builder morning(int duration) {
+        return new EarliestFitQuery.Builder()
+                .setSearchIntervalStart("2024-01-01")
+                .setSearchIntervalEnd("2024-01-03")
+                .setEarliestTime("08:00")
+                .setLatestTime("12:00")
+                .setDuration(duration);
+    }
+
+    private static String describe(FreeScheduleSlot slot) {
+        return formatDate(slot.getDate()) + " " + slot.getStartTime() + "-" + slot.getEndTime() + " " + slot.getLocation().getName();
+    }
+
+    @Test
+    void resultsAreOrderedByStartThenByTheBestFittingRoom() {
+        List<FreeScheduleSlot> result = EarliestFitFinder.findEarliestFreeSlots(morning(60).setLimit(3).build(), ALL_DAYS, rooms, bookings);
+        assertEquals(List.of("2024-01-01 09:00-10:00 B", "2024-01-01 10:00-11:00 A", "2024-01-02 08:00-09:00 A"),
+                result.stream().map(EarliestFitFinderTest::describe).toList());
+    }
+
+    @Test
+    void gapOfExactlyTheDurationFits() {
+        bookings.add("B", slot("2024-01-01", "10:00", "12:00", b));
+        List<FreeScheduleSlot> result = EarliestFitFinder.findEarliestFreeSlots(morning(60).setCapacity(40).build(), ALL_DAYS, rooms, bookings);
+        assertEquals(List.of("2024-01-01 09:00-10:00 B"), result.stream().map(EarliestFitFinderTest::describe).toList());
+
+        result = EarliestFitFinder.findEarliestFreeSlots(morning(61).setCapacity(40).build(), ALL_DAYS, rooms, bookings);
+        assertEquals(List.of("2024-01-02 08:00-09:01 B"), result.stream().map(EarliestFitFinderTest::describe).toList());
+    }
+
+    @Test
+    void skipsTheDaysThatAreNotAcceptable() {
+        List<FreeScheduleSlot> result = EarliestFitFinder.findEarliestFreeSlots(morning(60).setLimit(10).build(),
+                List.of(WeekDay.TUESDAY), rooms, bookings);
+        assertEquals(List.of("2024-01-02 08:00-09:00 A", "2024-01-02 08:00-09:00 B"),
+                result.stream().map(EarliestFitFinderTest::describe).toList());
+
+        // the days of the query take precedence over the default ones
+        result = EarliestFitFinder.findEarliestFreeSlots(morning(60).setAcceptableDays(WeekDay.MONDAY).setLimit(10).build(),
+                List.of(WeekDay.TUESDAY), rooms, bookings);
+        assertEquals(List.of("2024-01-01 09:00-10:00 B", "2024-01-01 10:00-11:00 A"),
+                result.stream().map(EarliestFitFinderTest::describe).toList());
+    }
+
+    @Test
+    void endOfTheSearchIntervalIsExclusive() {
+        EarliestFitQuery query = morning(60).setSearchIntervalEnd("2024-01-01").build();
+        assertTrue(EarliestFitFinder.findEarliestFreeSlots(query, ALL_DAYS, rooms, bookings).isEmpty());
+        query = morning(60).setCapacity(51).build();
+        assertTrue(EarliestFitFinder.findEarliestFreeSlots(query, ALL_DAYS, rooms, bookings).isEmpty());
+    }
+
+    @Test
+    void freeSlotEndsAtTheLastMinuteOfTheDay() {
+        FreeScheduleSlot slot = EarliestFitFinder.toFreeSlot(LocalDate.of(2024, 1, 1).toEpochDay() * MINUTES_IN_DAY + 23 * 60, 59, a);
+        assertEquals("2024-01-01 23:00-23:59 A", describe(slot));
+        // the default latest time is 23:59, so an hour starting at 23:00 doesn't fit
+        assertThrows(ScheduleException.class, () -> new EarliestFitQuery.Builder()
+                .setSearchIntervalStart("2024-01-01").setSearchIntervalEnd("2024-01-02").setEarliestTime("23:00").setDuration(60).build());
+    }
+
+    @Test
+    void weekDayIndexMatchesTheCalendar() {
+        for (long day = LocalDate.of(2023, 12, 25).toEpochDay(); day < LocalDate.of(2024, 1, 8).toEpochDay(); day++)
+            assertEquals(LocalDate.ofEpochDay(day).getDayOfWeek().getValue() % 7, EarliestFitFinder.weekDayIndex(day));
+        assertEquals(WeekDay.WEDNESDAY.ordinal(), EarliestFitFinder.weekDayIndex(-1));
+    }
+
+    @Test
+    void rejectsDurationsOutsideOfTheDailyWindow() {
+        assertThrows(ScheduleException.class, () -> morning(241).build());
+        assertThrows(ScheduleException.class, () -> morning(0).build());
+        assertThrows(ScheduleException.class, () -> morning(60).setLimit(0).build());
+    }
+}
@@ -0,0 +1,142 @@
+package raf.sk_schedule.util.room_finder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.FreeScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.IntervalIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+class FreeSlotMemoTest {
+
+    private static final List<WeekDay> ALL_DAYS = Arrays.asList(WeekDay.values());
+
+    private final RoomProperties a = room("A", 30);
+    private final RoomProperties b = room("B", 50);
+    private IntervalIndex<String> bookings;
+    private long monday;
+
+    @BeforeEach
+    void setUp() {
+        bookings = new IntervalIndex<>();
+        monday = toEpochDay(parseDate("2024-01-01"));
+        book(slot("2024-01-01", "08:00", "10:00", a), null);
+        book(slot("2024-01-01", "12:00", "13:00", a), null);
+    }
+
+    private void book(ScheduleSlot slot, FreeSlotMemo memo) {
+        bookings.add(slot.getLocation().getName(), slot);
+        if (memo != null)
+            memo.onSlotBooked(slot);
+    }
+
+    private static String describe(FreeScheduleSlot slot) {
+        return formatDate(slot.getDate()) + " " + slot.getStartTime() + "-" + slot.getEndTime() + " " + slot.getLocation().getName();
+    }
+
+    @Test
+    void freeIntervalsMatchTheIndex() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings);
+        long dayStart = monday * MINUTES_IN_DAY;
+        List<Long> expected = new ArrayList<>();
+        bookings.freeIntervals("A", dayStart, dayStart + LAST_MINUTE_OF_DAY).forEachRemaining(interval -> {
+            expected.add(interval[0] - dayStart);
+            expected.add(interval[1] - dayStart);
+        });
+        int[] free = memo.freeIntervals("A", monday);
+        assertEquals(expected, Arrays.stream(free).mapToObj(Long::valueOf).toList());
+        assertArrayEquals(new int[]{0, 8 * 60, 10 * 60, 12 * 60, 13 * 60, LAST_MINUTE_OF_DAY}, free);
+        assertArrayEquals(new int[]{0, LAST_MINUTE_OF_DAY}, memo.freeIntervals("B", monday));
+    }
+
+    @Test
+    void repeatedDaysAreServedFromTheMemo() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings);
+        int[] examined = {0};
+        List<FreeScheduleSlot> first = memo.findFreeSlots(List.of(a, b), monday, monday + 1, ALL_DAYS, examined);
+        assertEquals(4, examined[0]);
+        assertEquals(4, memo.getMisses());
+        assertEquals(0, memo.getHits());
+
+        List<FreeScheduleSlot> second = memo.findFreeSlots(List.of(a, b), monday, monday + 1, ALL_DAYS, examined);
+        assertEquals(8, examined[0]);
+        assertEquals(4, memo.getMisses());
+        assertEquals(4, memo.getHits());
+        assertEquals(first.stream().map(FreeSlotMemoTest::describe).toList(), second.stream().map(FreeSlotMemoTest::describe).toList());
+        assertEquals("2024-01-01 00:00-08:00 A", describe(first.get(0)));
+    }
+
+    @Test
+    void daysOutsideTheAcceptableWeekDaysAreNotExamined() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings);
+        int[] examined = {0};
+        // 2024-01-01 to 2024-01-07 is a whole week
+        List<FreeScheduleSlot> result = memo.findFreeSlots(List.of(a), monday, monday + 6, List.of(WeekDay.MONDAY), examined);
+        assertEquals(1, examined[0]);
+        assertEquals(3, result.size());
+    }
+
+    @Test
+    void bookingInvalidatesOnlyItsRoomDay() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings);
+        memo.findFreeSlots(List.of(a, b), monday, monday + 1, ALL_DAYS);
+        assertEquals(4, memo.size());
+
+        book(slot("2024-01-02", "09:00", "10:00", b), memo);
+        assertEquals(3, memo.size());
+        assertArrayEquals(new int[]{0, 9 * 60, 10 * 60, LAST_MINUTE_OF_DAY}, memo.freeIntervals("B", monday + 1));
+        assertEquals(5, memo.getMisses());
+
+        ScheduleSlot removed = bookings.getSlots("A").get(0);
+        bookings.remove(removed);
+        memo.onSlotRemoved(removed);
+        assertArrayEquals(new int[]{0, 12 * 60, 13 * 60, LAST_MINUTE_OF_DAY}, memo.freeIntervals("A", monday));
+    }
+
+    @Test
+    void leastRecentlyUsedRoomDaysAreEvicted() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings, 2);
+        memo.freeIntervals("A", monday);
+        memo.freeIntervals("A", monday + 1);
+        memo.freeIntervals("A", monday);
+        memo.freeIntervals("A", monday + 2);
+        assertEquals(2, memo.size());
+        assertEquals(1, memo.getEvictions());
+
+        // the second day was the least recently used one
+        memo.freeIntervals("A", monday);
+        assertEquals(2, memo.getHits());
+        long misses = memo.getMisses();
+        memo.freeIntervals("A", monday + 1);
+        assertEquals(misses + 1, memo.getMisses());
+    }
+
+    @Test
+    void zeroCapacityMemoizesNothing() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings, 0);
+        memo.findFreeSlots(List.of(a, b), monday, monday + 3, ALL_DAYS);
+        assertEquals(0, memo.size());
+        assertEquals(0, memo.getHits());
+        assertArrayEquals(new int[]{0, 8 * 60, 10 * 60, 12 * 60, 13 * 60, LAST_MINUTE_OF_DAY}, memo.freeIntervals("A", monday));
+    }
+
+    @Test
+    void removedRoomsAreForgotten() {
+        FreeSlotMemo memo = new FreeSlotMemo(bookings);
+        memo.findFreeSlots(List.of(a, b), monday, monday + 2, ALL_DAYS);
+        memo.onRoomRemoved(a);
+        assertEquals(3, memo.size());
+        memo.clear();
+        assertEquals(0, memo.size());
+    }
+}
@@ -0,0 +1,73 @@
+package raf.sk_schedule.util.room_finder;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.exception.ScheduleException;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.MINUTES_IN_DAY;
+
+class RoomAvailabilityQueryTest {
+
+    // 2024-01-01 is a Monday
+    private static final long MONDAY = LocalDate.of(2024, 1, 1).toEpochDay();
+
+    private static RoomAvailabilityQuery.Builder weekly() {
+        return new RoomAvailabilityQuery.Builder()
+                .setSchedulingIntervalStart("2024-01-01")
+                .setSchedulingIntervalEnd("2024-01-29")
+                .setRecurrencePeriod(7)
+                .setStartTime("10:00")
+                .setDuration(90);
+    }
+
+    @Test
+    void mapsEveryOccurrenceBeforeTheEndOfTheInterval() {
+        long[] occurrences = weekly().build().mapOccurrences();
+        assertEquals(4, occurrences.length);
+        for (int i = 0; i < occurrences.length; i++)
+            assertEquals((MONDAY + 7L * i) * MINUTES_IN_DAY + 600, occurrences[i]);
+    }
+
+    @Test
+    void firstOccurrenceFallsOnTheWeekDay() {
+        long[] occurrences = weekly().setWeekDay(WeekDay.WEDNESDAY).build().mapOccurrences();
+        assertEquals(4, occurrences.length);
+        assertEquals((MONDAY + 2) * MINUTES_IN_DAY + 600, occurrences[0]);
+    }
+
+    @Test
+    void weekDayOutsideOfAShortIntervalMapsNoOccurrence() {
+        long[] occurrences = weekly().setSchedulingIntervalEnd("2024-01-03").setWeekDay(WeekDay.FRIDAY).build().mapOccurrences();
+        assertEquals(0, occurrences.length);
+    }
+
+    @Test
+    void nonPositivePeriodMapsOnlyTheFirstOccurrence() {
+        assertEquals(1, weekly().setRecurrencePeriod(0).build().mapOccurrences().length);
+        assertEquals(1, weekly().setRecurrencePeriod(-7).build().mapOccurrences().length);
+        RoomAvailabilityQuery withoutEnd = new RoomAvailabilityQuery.Builder()
+                .setSchedulingIntervalStart("2024-01-01").setRecurrencePeriod(7).setStartTime("10:00").setDuration(90).build();
+        assertEquals(1, withoutEnd.mapOccurrences().length);
+    }
+
+    @Test
+    void durationIsTakenFromTheEndTime() {
+        RoomAvailabilityQuery query = weekly().setDuration(0).setEndTime("23:59").build();
+        assertEquals(14 * 60 - 1, query.getDuration());
+        assertThrows(ScheduleException.class, () -> weekly().setDuration(0).setEndTime("24:00").build());
+        assertThrows(ScheduleException.class, () -> weekly().setEndTime("12:00").build());
+    }
+
+    @Test
+    void rejectsOccurrencesThatAreEmptyOrOverflowTheDay() {
+        assertThrows(ScheduleException.class, () -> weekly().setDuration(0).build());
+        assertThrows(ScheduleException.class, () -> weekly().setStartTime("23:00").setDuration(61).build());
+        assertThrows(ScheduleException.class, () -> weekly().setDuration(0).setEndTime("24:30").build());
+        assertThrows(ScheduleException.class, () -> weekly().setStartTime(null).build());
+        assertThrows(ScheduleException.class, () -> weekly().setSchedulingIntervalStart(42));
+        assertThrows(ScheduleException.class, () -> new RoomAvailabilityQuery.Builder().setStartTime("10:00").setDuration(90).build());
+    }
+}
@@ -0,0 +1,191 @@
+package raf.sk_schedule.util.solver;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.api.Constants.WeekDay;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.index.RoomFeatureIndex;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class TimetableSolverTest {
+
+    private static final Duration FAST = Duration.ofSeconds(10);
+
+    // 2024-01-01 is a Monday, the default budget of one minute is used unless the test says otherwise
+    private static TimetableSolver.Builder solver(String end) {
+        return new TimetableSolver.Builder()
+                .setSchedulingIntervalStart("2024-01-01")
+                .setSchedulingIntervalEnd(end)
+                .setThreads(2)
+                .setSeed(42);
+    }
+
+    private static LectureRequest lecture(String name, int capacity, Object... attributes) {
+        LectureRequest.Builder builder = new LectureRequest.Builder().setName(name).setDuration(90)
+                .setEarliestTime("08:00").setLatestTime("20:00").setCapacity(capacity);
+        for (int i = 0; i < attributes.length; i += 2)
+            builder.setAttribute((String) attributes[i], attributes[i + 1]);
+        return builder.build();
+    }
+
+    private static RoomFeatureIndex rooms(RoomProperties... rooms) {
+        RoomFeatureIndex index = new RoomFeatureIndex();
+        for (RoomProperties room : rooms)
+            index.addRoom(room);
+        return index;
+    }
+
+    @Test
+    void placesLecturesOnlyOnTheDaysOfAShortInterval() {
+        List<LectureRequest> lectures = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            lectures.add(lecture("L" + i, 20));
+
+        SolverResult result = assertTimeoutPreemptively(FAST,
+                () -> solver("2024-01-03").build().solve(lectures, rooms(room("A", 30)), List.of()));
+
+        assertTrue(result.isComplete());
+        for (LecturePlacement placement : result.getPlacements()) {
+            assertTrue(EnumSet.of(WeekDay.MONDAY, WeekDay.TUESDAY).contains(placement.getWeekDay()), placement.toString());
+            assertEquals(1, placement.toRepetitiveScheduleMapper().mapSchedule().size());
+        }
+    }
+
+    @Test
+    void placedLecturesNeverOverlapInARoomOrAConflictKey() {
+        List<LectureRequest> lectures = new ArrayList<>();
+        for (int i = 0; i < 30; i++)
+            lectures.add(lecture("L" + i, 10 + i % 3 * 20, "professor", "P" + i % 4));
+
+        SolverResult result = assertTimeoutPreemptively(FAST, () -> solver("2024-01-15")
+                .setAcceptableDays(List.of(WeekDay.MONDAY, WeekDay.TUESDAY))
+                .addConflictKeys("professor").build()
+                .solve(lectures, rooms(room("A", 20), room("B", 40), room("C", 60)), List.of()));
+
+        assertTrue(result.isComplete());
+        List<ScheduleSlot> booked = new ArrayList<>();
+        for (LecturePlacement placement : result.getPlacements())
+            booked.addAll(placement.toRepetitiveScheduleMapper().mapSchedule());
+        for (ScheduleSlot slot : booked) {
+            assertTrue(EnumSet.of(WeekDay.MONDAY, WeekDay.TUESDAY).contains(slot.getDayOfWeek()));
+            for (ScheduleSlot other : booked)
+                if (slot != other && slot.getAbsoluteStartMinute() < other.getAbsoluteEndMinute()
+                        && other.getAbsoluteStartMinute() < slot.getAbsoluteEndMinute()) {
+                    assertNotEquals(slot.getLocation().getName(), other.getLocation().getName());
+                    assertNotEquals(slot.getAttribute("professor"), other.getAttribute("professor"));
+                }
+        }
+    }
+
+    @Test
+    void stopsAtOnceWhenNoLectureCanBePlaced() {
+        // the interval ends on a saturday, so no sunday occurs in it
+        LectureRequest sunday = new LectureRequest.Builder().setName("Sunday").setDuration(60).setAllowedDays(WeekDay.SUNDAY).build();
+
+        SolverResult result = assertTimeoutPreemptively(FAST, () -> solver("2024-01-07")
+                .build().solve(List.of(lecture("Huge", 500), sunday), rooms(room("A", 30)), List.of()));
+
+        assertEquals(0, result.getIterations());
+        assertEquals(2, result.getUnplaced().size());
+        assertTrue(result.getPlacements().isEmpty());
+    }
+
+    @Test
+    void stopsWhenTheBestScoreStalls() {
+        // only one of the lectures fits into the single free window of the only room
+        LectureRequest.Builder builder = new LectureRequest.Builder().setDuration(120).setAllowedDays(WeekDay.MONDAY)
+                .setEarliestTime("09:00").setLatestTime("12:00");
+        List<LectureRequest> lectures = List.of(builder.setName("First").build(), builder.setName("Second").build());
+
+        SolverResult result = assertTimeoutPreemptively(FAST, () -> solver("2024-01-08")
+                .setStallIterations(10_000).build().solve(lectures, rooms(room("A", 30)), List.of()));
+
+        assertEquals(1, result.getPlacements().size());
+        assertEquals(1, result.getUnplaced().size());
+        assertFalse(result.isComplete());
+    }
+
+    @Test
+    void respectsTheExistingScheduleInEveryWeek() {
+        RoomProperties a = room("A", 30);
+        LectureRequest morning = new LectureRequest.Builder().setName("Morning").setDuration(120)
+                .setAllowedDays(WeekDay.MONDAY).setEarliestTime("08:00").setLatestTime("12:00").build();
+        // the existing slot is booked in the second week only
+        List<ScheduleSlot> blocking = List.of(slot("2024-01-08", "09:00", "10:30", a));
+        SolverResult result = assertTimeoutPreemptively(FAST,
+                () -> solver("2024-01-15").build().solve(List.of(morning), rooms(a), blocking));
+        assertTrue(result.getPlacements().isEmpty());
+
+        List<ScheduleSlot> late = List.of(slot("2024-01-08", "10:00", "12:00", a));
+        LecturePlacement placement = assertTimeoutPreemptively(FAST,
+                () -> solver("2024-01-15").build().solve(List.of(morning), rooms(a), late)).getPlacements().get(0);
+        assertEquals("08:00", placement.getStartTime());
+        assertEquals("10:00", placement.getEndTime());
+    }
+
+    @Test
+    void managerPassesItsConflictKeysToTheSolver() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 30);
+        RoomProperties b = room("B", 30);
+        manager.addRoom(a);
+        manager.addRoom(b);
+        manager.bookScheduleSlot(slot("2024-01-01", "09:00", "11:00", b, "professor", "Smith"));
+
+        LectureRequest lecture = new LectureRequest.Builder().setName("Algebra").setDuration(120).setAllowedDays(WeekDay.MONDAY)
+                .setEarliestTime("09:00").setLatestTime("11:00").setAttribute("professor", "Smith").build();
+        TimetableSolver solver = solver("2024-01-08").build();
+
+        assertEquals(1, assertTimeoutPreemptively(FAST, () -> manager.solveTimetable(solver, List.of(lecture))).getPlacements().size());
+        manager.setConflictKeys("professor");
+        assertEquals(1, assertTimeoutPreemptively(FAST, () -> manager.solveTimetable(solver, List.of(lecture))).getUnplaced().size());
+    }
+
+    @Test
+    void sameSeedAndOneThreadGiveTheSameTimetable() {
+        List<LectureRequest> lectures = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            lectures.add(lecture("L" + i, 25, "group", "G" + i % 3));
+        RoomFeatureIndex rooms = rooms(room("A", 30), room("B", 30));
+        TimetableSolver solver = solver("2024-01-08").setThreads(1).addConflictKeys("group").build();
+
+        List<String> first = assertTimeoutPreemptively(FAST, () -> solver.solve(lectures, rooms, List.of())).getPlacements().stream().map(Object::toString).toList();
+        List<String> second = assertTimeoutPreemptively(FAST, () -> solver.solve(lectures, rooms, List.of())).getPlacements().stream().map(Object::toString).toList();
+        assertEquals(first, second);
+    }
+
+    @Test
+    void lecturesAtTheEndOfTheDayCanBeBookedAsTheyArePlaced() {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        manager.addRoom(room("A", 30));
+        List<LectureRequest> lectures = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            lectures.add(new LectureRequest.Builder().setName("L" + i).setDuration(90).setCapacity(20)
+                    .setEarliestTime("22:00").build());
+        TimetableSolver solver = solver("2024-01-15").setGranularity(15).build();
+
+        SolverResult result = assertTimeoutPreemptively(FAST, () -> manager.solveTimetable(solver, lectures));
+
+        assertTrue(result.isComplete());
+        for (LecturePlacement placement : result.getPlacements()) {
+            assertTrue(placement.getEndTime().compareTo("23:59") <= 0, placement.toString());
+            assertEquals(2, manager.bookRepetitiveScheduleSlot(placement.toRepetitiveScheduleMapper()).size());
+        }
+        assertEquals(10, manager.getWholeSchedule().size());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(ScheduleException.class, () -> solver("2024-01-08").setGranularity(7).build());
+        assertThrows(ScheduleException.class, () -> solver("2024-01-08").setStallIterations(0).build());
+        assertThrows(ScheduleException.class, () -> new TimetableSolver.Builder().setSchedulingIntervalStart("2024-01-01").build());
+    }
+}
@@ -0,0 +1,170 @@
+package raf.sk_schedule.util.sort;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.util.sort.ScheduleSlotSorter.SecondaryKey;
+import raf.sk_schedule.util.sort.default_sorts.AbsolutStartComparator;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+
+class ScheduleSlotSorterTest {
+
+    /**
+     * Total order of the slots of a schedule without room collisions.
+     */
+    private static final ScheduleSlotComparator BY_START_AND_ROOM = (slot1, slot2) -> {
+        int byStart = Long.compare(slot1.getAbsoluteStartMinute(), slot2.getAbsoluteStartMinute());
+        return byStart != 0 ? byStart : slot1.getLocation().getName().compareTo(slot2.getLocation().getName());
+    };
+
+    private static List<ScheduleSlot> schedule(long seed) {
+        List<ScheduleSlot> schedule = random(seed, 500).getWholeSchedule();
+        Collections.shuffle(schedule, new Random(seed));
+        return schedule;
+    }
+
+    @Test
+    void topKIsThePrefixOfTheSortedSchedule() {
+        List<ScheduleSlot> schedule = schedule(1);
+        List<ScheduleSlot> sorted = ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM);
+        for (int k : new int[]{1, 10, sorted.size() - 1, sorted.size()})
+            assertEquals(sorted.subList(0, k), ScheduleSlotSorter.topK(schedule, BY_START_AND_ROOM, k), "k " + k);
+        assertEquals(sorted, ScheduleSlotSorter.topK(schedule, BY_START_AND_ROOM, sorted.size() + 10));
+        assertTrue(ScheduleSlotSorter.topK(schedule, BY_START_AND_ROOM, 0).isEmpty());
+
+        List<ScheduleSlot> descending = ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM, ScheduleSlotComparator.DESCENDING_ORDER);
+        assertEquals(descending.subList(0, 5), ScheduleSlotSorter.topK(schedule, BY_START_AND_ROOM, ScheduleSlotComparator.DESCENDING_ORDER, 5));
+    }
+
+    @Test
+    void mergedListsEqualTheSortedSchedule() {
+        List<ScheduleSlot> schedule = schedule(2);
+        Map<String, List<ScheduleSlot>> byRoom = new TreeMap<>();
+        for (ScheduleSlot slot : schedule)
+            byRoom.computeIfAbsent(slot.getLocation().getName(), room -> new ArrayList<>()).add(slot);
+        List<List<ScheduleSlot>> sortedLists = new ArrayList<>();
+        for (List<ScheduleSlot> roomSchedule : byRoom.values())
+            sortedLists.add(ScheduleSlotSorter.sort(roomSchedule, BY_START_AND_ROOM));
+        sortedLists.add(new ArrayList<>());
+
+        List<ScheduleSlot> sorted = ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM);
+        assertEquals(sorted, ScheduleSlotSorter.mergeSorted(sortedLists, BY_START_AND_ROOM));
+        assertEquals(sorted.subList(0, 17), ScheduleSlotSorter.mergeSorted(sortedLists, BY_START_AND_ROOM, 17));
+        assertTrue(ScheduleSlotSorter.mergeSorted(sortedLists, BY_START_AND_ROOM, 0).isEmpty());
+        assertTrue(ScheduleSlotSorter.mergeSorted(List.of(), BY_START_AND_ROOM).isEmpty());
+    }
+
+    @Test
+    void keysetPagesConcatenateToTheSortedSchedule() {
+        List<ScheduleSlot> schedule = schedule(3);
+        List<ScheduleSlot> sorted = ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM);
+
+        List<ScheduleSlot> pages = new ArrayList<>();
+        ScheduleSlot after = null;
+        List<ScheduleSlot> page;
+        while (!(page = ScheduleSlotSorter.pageAfter(schedule, BY_START_AND_ROOM, after, 33)).isEmpty()) {
+            assertTrue(page.size() <= 33);
+            pages.addAll(page);
+            after = page.get(page.size() - 1);
+        }
+        assertEquals(sorted, pages);
+    }
+
+    @Test
+    void pageAfterMinuteSkipsTheSlotsStartingAtThatMinute() {
+        List<ScheduleSlot> schedule = schedule(4);
+        List<ScheduleSlot> sorted = ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM);
+        long minute = sorted.get(40).getAbsoluteStartMinute();
+
+        List<ScheduleSlot> page = ScheduleSlotSorter.pageAfter(schedule, minute, 10);
+        assertEquals(10, page.size());
+        long previous = minute;
+        for (ScheduleSlot slot : page) {
+            assertTrue(slot.getAbsoluteStartMinute() > minute);
+            assertTrue(slot.getAbsoluteStartMinute() >= previous);
+            previous = slot.getAbsoluteStartMinute();
+        }
+        long firstLater = sorted.stream().mapToLong(ScheduleSlot::getAbsoluteStartMinute).filter(start -> start > minute).min().orElseThrow();
+        assertEquals(firstLater, page.get(0).getAbsoluteStartMinute());
+        assertTrue(ScheduleSlotSorter.pageAfter(schedule, sorted.get(sorted.size() - 1).getAbsoluteStartMinute(), 10).isEmpty());
+    }
+
+    /**
+     * The sort by absolute start as it worked before the radix sort: a stable sort by {@link AbsolutStartComparator}.
+     */
+    private static List<ScheduleSlot> comparatorSort(List<ScheduleSlot> schedule, int ascendingOrder, Comparator<ScheduleSlot> secondary) {
+        List<ScheduleSlot> result = new ArrayList<>(schedule);
+        AbsolutStartComparator byStart = new AbsolutStartComparator(ascendingOrder);
+        Comparator<ScheduleSlot> order = byStart::compare;
+        if (secondary != null)
+            order = order.thenComparing(ascendingOrder < 0 ? secondary.reversed() : secondary);
+        result.sort(order);
+        return result;
+    }
+
+    @Test
+    void radixSortMatchesTheComparatorSortInEveryOrder() {
+        for (long seed = 0; seed < 5; seed++) {
+            List<ScheduleSlot> schedule = schedule(seed);
+            for (int order : new int[]{ScheduleSlotComparator.ASCENDING_ORDER, ScheduleSlotComparator.DESCENDING_ORDER, 0, 5, -5})
+                assertEquals(comparatorSort(schedule, order, null), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, order), "order " + order);
+        }
+    }
+
+    @Test
+    void orderZeroKeepsTheInputOrder() {
+        List<ScheduleSlot> schedule = schedule(6);
+        assertEquals(schedule, ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, 0));
+        assertEquals(schedule, ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, 0, SecondaryKey.ROOM));
+        assertNotSame(schedule, ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, 0));
+    }
+
+    @Test
+    void secondaryKeysOrderTheSlotsStartingTogether() {
+        List<ScheduleSlot> schedule = schedule(7);
+        Comparator<ScheduleSlot> byRoom = Comparator.comparing(slot -> slot.getLocation().getName());
+        Comparator<ScheduleSlot> byDuration = Comparator.comparingInt(ScheduleSlot::getDuration);
+        for (int order : new int[]{ScheduleSlotComparator.ASCENDING_ORDER, ScheduleSlotComparator.DESCENDING_ORDER}) {
+            assertEquals(comparatorSort(schedule, order, byRoom), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, order, SecondaryKey.ROOM));
+            assertEquals(comparatorSort(schedule, order, byDuration), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, order, SecondaryKey.DURATION));
+        }
+    }
+
+    @Test
+    void sortsSlotsWithoutLocationAndBeforeTheEpoch() {
+        ScheduleSlot old = slot("1969-12-31", "23:00", "23:30", room("A", 10));
+        ScheduleSlot noRoom = slot("2024-01-01", "10:00", "11:00", null);
+        ScheduleSlot roomB = slot("2024-01-01", "10:00", "10:30", room("B", 10));
+        ScheduleSlot later = slot("2024-01-01", "10:01", "10:30", room("A", 10));
+        List<ScheduleSlot> schedule = List.of(later, roomB, noRoom, old);
+
+        assertEquals(List.of(old, noRoom, roomB, later), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, 1, SecondaryKey.ROOM));
+        assertEquals(List.of(old, roomB, noRoom, later), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, 1, SecondaryKey.DURATION));
+        assertEquals(List.of(later, roomB, noRoom, old), ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, -1));
+        assertTrue(ScheduleSlotSorter.sortByAbsoluteStartTime(List.of(), 1).isEmpty());
+    }
+
+    @Test
+    void parallelSortsMatchTheSequentialOnes() {
+        List<ScheduleSlot> schedule = new ArrayList<>();
+        for (long seed = 10; seed < 14; seed++)
+            schedule.addAll(schedule(seed));
+        for (int order : new int[]{ScheduleSlotComparator.ASCENDING_ORDER, ScheduleSlotComparator.DESCENDING_ORDER, 0})
+            for (SecondaryKey key : SecondaryKey.values())
+                for (int threshold : new int[]{1, ScheduleSlotSorter.DEFAULT_PARALLEL_THRESHOLD})
+                    assertEquals(ScheduleSlotSorter.sortByAbsoluteStartTime(schedule, order, key),
+                            ScheduleSlotSorter.parallelSortByAbsoluteStartTime(schedule, order, key, threshold),
+                            order + " " + key + " " + threshold);
+
+        for (int order : new int[]{ScheduleSlotComparator.ASCENDING_ORDER, ScheduleSlotComparator.DESCENDING_ORDER}) {
+            assertEquals(ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM, order), ScheduleSlotSorter.parallelSort(schedule, BY_START_AND_ROOM, order, 1));
+            assertEquals(ScheduleSlotSorter.sort(schedule, BY_START_AND_ROOM, order), ScheduleSlotSorter.parallelSort(schedule, BY_START_AND_ROOM, order));
+        }
+        assertTrue(ScheduleSlotSorter.parallelSortByAbsoluteStartTime(List.of(), 1, SecondaryKey.NONE, 0).isEmpty());
+    }
+}
@@ -0,0 +1,36 @@
+package raf.sk_schedule.util.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttributeTableTest {
+
+    @Test
+    void equalMapsShareOneHandle() {
+        AttributeTable table = new AttributeTable();
+        Map<String, Object> attributes = new HashMap<>(Map.of("professor", "P1", "group", 3));
+        int handle = table.intern(attributes);
+        assertEquals(handle, table.intern(Map.of("group", 3, "professor", "P1")));
+        assertNotEquals(handle, table.intern(Map.of("professor", "P2")));
+        assertEquals(3, table.size());
+
+        // the table keeps its own copy
+        attributes.put("professor", "P9");
+        assertEquals("P1", table.get(handle).get("professor"));
+        assertThrows(UnsupportedOperationException.class, () -> table.get(handle).put("x", 1));
+    }
+
+    @Test
+    void emptyAndNullMapsUseTheEmptyHandle() {
+        AttributeTable table = new AttributeTable();
+        assertEquals(AttributeTable.EMPTY, table.intern(null));
+        assertEquals(AttributeTable.EMPTY, table.intern(new HashMap<>()));
+        assertTrue(table.get(AttributeTable.EMPTY).isEmpty());
+        assertEquals(1, table.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(5));
+    }
+}
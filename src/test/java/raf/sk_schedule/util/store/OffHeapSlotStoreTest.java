@@ -0,0 +1,142 @@
+package raf.sk_schedule.util.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import raf.sk_schedule.api.InMemoryScheduleManager;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+import raf.sk_schedule.model.schedule_node.ScheduleSlotView;
+import raf.sk_schedule.util.index.RoomRegistry;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.random;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.*;
+
+class OffHeapSlotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private OffHeapSlotStore open(boolean mapped) {
+        if (!mapped)
+            return new OffHeapSlotStore();
+        return new OffHeapSlotStore(new File(directory.toFile(), "archive.bin"), new RoomRegistry(), new AttributeTable());
+    }
+
+    private static String describe(ScheduleSlotView slot) {
+        return formatDate(slot.getDate()) + " " + slot.getStartTime() + "-" + slot.getEndTime() + " " + slot.getDayOfWeek()
+                + " " + (slot.getLocation() == null ? null : slot.getLocation().getName()) + " " + slot.getAttributes();
+    }
+
+    private static List<String> describeAll(List<? extends ScheduleSlotView> slots) {
+        List<String> result = new ArrayList<>();
+        for (ScheduleSlotView slot : slots)
+            result.add(describe(slot));
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void rangesMatchTheScheduleOfTheManager(boolean mapped) {
+        InMemoryScheduleManager manager = random(21, 400);
+        try (OffHeapSlotStore store = open(mapped)) {
+            for (ScheduleSlot slot : manager.getWholeSchedule())
+                store.append(slot);
+            assertEquals(manager.getWholeSchedule().size(), store.size());
+
+            // within a day the archive keeps the order of appending, so both sides are compared as sorted descriptions
+            for (String[] bounds : new String[][]{{"2024-01-05", "2024-01-11"}, {"2024-01-07", "2024-01-07"}, {null, "2024-01-03"}, {"2024-01-27", null}, {null, null}}) {
+                List<String> expected = describeAll(manager.getSchedule(bounds[0], bounds[1]));
+                List<String> actual = describeAll(store.getSchedule(bounds[0], bounds[1]));
+                expected.sort(null);
+                actual.sort(null);
+                assertEquals(expected, actual, bounds[0] + " - " + bounds[1]);
+            }
+            assertTrue(store.getSchedule("2024-01-11", "2024-01-05").isEmpty());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void archiveKeepsItsRoomsWhileTheManagerRebuildsItsIndexes(boolean mapped) {
+        InMemoryScheduleManager manager = new InMemoryScheduleManager();
+        RoomProperties a = room("A", 10);
+        RoomProperties c = room("C", 30);
+        manager.addRoom(a);
+        manager.addRoom(c);
+        try (OffHeapSlotStore store = open(mapped)) {
+            store.append(slot("2024-01-01", "08:00", "10:00", a));
+            store.append(slot("2024-01-02", "08:00", "10:00", c));
+
+            manager.deleteRoom("A");
+            manager.setConflictKeys("professor");
+            manager.addRoom(room("D", 40));
+            manager.getSchedule(null, null);
+
+            assertEquals(List.of("A", "C"), store.getSchedule(null, null).stream().map(slot -> slot.getLocation().getName()).toList());
+            assertSame(c, store.getSchedule("2024-01-02", "2024-01-02").get(0).getLocation());
+            assertEquals(2, store.getRooms().size());
+        }
+    }
+
+    @Test
+    void cursorReadsTheSameFieldsAsTheSlot() {
+        RoomProperties hall = room("Hall", 50);
+        List<ScheduleSlot> slots = List.of(
+                slot("2024-01-04", "08:15", "09:45", hall, "professor", "P1"),
+                slot("2024-01-02", "00:00", "23:59", null),
+                slot("2024-01-04", "12:00", "13:00", hall, "professor", "P1"));
+        try (OffHeapSlotStore store = new OffHeapSlotStore()) {
+            slots.forEach(store::append);
+
+            List<String> visited = new ArrayList<>();
+            store.forEach(null, null, view -> visited.add(describe(view)));
+            assertEquals(List.of(describe(slots.get(1)), describe(slots.get(0)), describe(slots.get(2))), visited);
+
+            OffHeapSlotStore.Cursor cursor = store.cursor().moveTo(0);
+            assertEquals(0, cursor.getRecord());
+            assertEquals(slots.get(0).getAbsoluteStartMinute(), cursor.getAbsoluteStartMinute());
+            assertEquals(slots.get(0).getAbsoluteEndMinute(), cursor.getAbsoluteEndMinute());
+            assertSame(hall, cursor.getLocation());
+            assertEquals("P1", cursor.getAttribute("professor"));
+            assertFalse(cursor.hasAttribute("group"));
+            assertEquals(describe(slots.get(0)), describe(cursor.toScheduleSlot()));
+            // the same attributes are stored once
+            assertEquals(2, store.getAttributes().size());
+        }
+    }
+
+    @Test
+    void recordsSpanMoreThanOneChunk() {
+        RoomProperties hall = room("Hall", 50);
+        int count = (1 << 16) + 3;
+        try (OffHeapSlotStore store = new OffHeapSlotStore()) {
+            ScheduleSlot slot = slot("2024-01-01", "08:00", "09:00", hall);
+            for (int i = 0; i < count; i++)
+                store.append(slot);
+            assertEquals(2L * (1 << 16) * OffHeapSlotStore.RECORD_BYTES, store.getOffHeapBytes());
+            assertEquals(count, store.records(null, null).length);
+            assertEquals(store.get(0), store.get(count - 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(count));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.cursor().moveTo(-1));
+        }
+    }
+
+    @Test
+    void invalidBoundsAreRejected() {
+        try (OffHeapSlotStore store = new OffHeapSlotStore()) {
+            assertThrows(ScheduleException.class, () -> store.getSchedule(42, null));
+            assertTrue(store.getSchedule(parseDate("2024-01-01"), null).isEmpty());
+        }
+    }
+}
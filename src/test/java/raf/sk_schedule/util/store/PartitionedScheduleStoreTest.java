@@ -0,0 +1,105 @@
+package raf.sk_schedule.util.store;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.exception.ScheduleException;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.toEpochDay;
+
+class PartitionedScheduleStoreTest {
+
+    private final RoomProperties a = room("A", 30);
+
+    @Test
+    void rangeIsInclusiveOnBothEnds() {
+        PartitionedScheduleStore store = new PartitionedScheduleStore();
+        ScheduleSlot first = slot("2024-01-01", "10:00", "11:00", a);
+        ScheduleSlot second = slot("2024-01-02", "10:00", "11:00", a);
+        ScheduleSlot third = slot("2024-01-03", "10:00", "11:00", a);
+        store.add(third);
+        store.add(first);
+        store.add(second);
+
+        assertEquals(List.of(first, second, third), store.range((Object) null, null));
+        assertEquals(List.of(second), store.range("2024-01-02", "2024-01-02"));
+        assertEquals(List.of(second, third), store.range("2024-01-02", null));
+        assertEquals(List.of(first, second), store.range(null, parseDate("2024-01-02")));
+        assertTrue(store.range("2024-01-03", "2024-01-01").isEmpty());
+        assertTrue(store.range("2024-02-01", null).isEmpty());
+        assertEquals(toEpochDay(parseDate("2024-01-01")), store.getFirstDay());
+        assertEquals(toEpochDay(parseDate("2024-01-03")), store.getLastDay());
+        assertThrows(ScheduleException.class, () -> store.range(42, null));
+    }
+
+    @Test
+    void rangeMatchesALinearScan() {
+        Random random = new Random(11);
+        PartitionedScheduleStore store = new PartitionedScheduleStore();
+        List<ScheduleSlot> all = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ScheduleSlot slot = slot(String.format("2024-01-%02d", 1 + random.nextInt(31)), "10:00", "11:00", a);
+            all.add(slot);
+            store.add(slot);
+        }
+        for (int i = 0; i < 50; i++) {
+            long from = toEpochDay(parseDate("2024-01-01")) - 2 + random.nextInt(35);
+            long to = from + random.nextInt(10);
+            List<ScheduleSlot> expected = new ArrayList<>();
+            for (ScheduleSlot slot : all) {
+                long day = toEpochDay(slot.getDate());
+                if (day >= from && day <= to)
+                    expected.add(slot);
+            }
+            List<ScheduleSlot> actual = store.range(from, to);
+            assertEquals(expected.size(), actual.size());
+            Set<ScheduleSlot> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+            identities.addAll(actual);
+            assertTrue(expected.stream().allMatch(identities::contains));
+            // random access and iteration see the same slots
+            for (int j = 0; j < actual.size(); j++)
+                assertSame(actual.get(j), new ArrayList<>(actual).get(j));
+        }
+    }
+
+    @Test
+    void viewFailsFastAfterTheStoreChanges() {
+        PartitionedScheduleStore store = new PartitionedScheduleStore();
+        store.add(slot("2024-01-01", "10:00", "11:00", a));
+        List<ScheduleSlot> view = store.range((Object) null, null);
+        Iterator<ScheduleSlot> iterator = view.iterator();
+        List<ScheduleSlot> copy = new ArrayList<>(view);
+
+        store.add(slot("2024-01-01", "12:00", "13:00", a));
+        assertThrows(ConcurrentModificationException.class, view::size);
+        assertThrows(ConcurrentModificationException.class, () -> view.get(0));
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertEquals(1, copy.size());
+        assertThrows(UnsupportedOperationException.class, () -> store.range((Object) null, null).add(copy.get(0)));
+    }
+
+    @Test
+    void removesTheSlotFromItsOriginalBucketAfterTheDateChanges() {
+        PartitionedScheduleStore store = new PartitionedScheduleStore();
+        ScheduleSlot slot = slot("2024-01-01", "10:00", "11:00", a);
+        ScheduleSlot same = slot("2024-01-01", "10:00", "11:00", a);
+        store.add(slot);
+        store.add(same);
+        slot.setDate(parseDate("2024-01-05"));
+
+        assertTrue(store.remove(slot));
+        assertFalse(store.remove(slot));
+        assertEquals(1, store.size());
+        assertSame(same, store.range("2024-01-01", "2024-01-01").get(0));
+
+        store.clear();
+        assertNull(store.getFirstDay());
+        assertTrue(store.getWholeSchedule().isEmpty());
+    }
+}
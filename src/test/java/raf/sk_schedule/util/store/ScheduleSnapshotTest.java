@@ -0,0 +1,55 @@
+package raf.sk_schedule.util.store;
+
+import org.junit.jupiter.api.Test;
+import raf.sk_schedule.model.location_node.RoomProperties;
+import raf.sk_schedule.model.schedule_node.ScheduleSlot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static raf.sk_schedule.api.InMemoryScheduleManager.room;
+import static raf.sk_schedule.api.InMemoryScheduleManager.slot;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.formatDate;
+import static raf.sk_schedule.util.date_formater.DateTimeFormatter.parseDate;
+
+class ScheduleSnapshotTest {
+
+    private static String describe(ScheduleSlot slot) {
+        return formatDate(slot.getDate()) + " " + slot.getStartTime() + "-" + slot.getEndTime() + " "
+                + (slot.getLocation() == null ? null : slot.getLocation().getName()) + " " + slot.getAttributes();
+    }
+
+    @Test
+    void snapshotKeepsTheValuesOfTheSlotsChangedLater() {
+        RoomProperties hall = room("Hall", 50);
+        RoomProperties lab = room("Lab", 20);
+        ScheduleSlot moved = slot("2024-01-01", "08:00", "10:00", hall, "professor", "P1");
+        ScheduleSlot unlocated = slot("2024-01-02", "12:00", "13:00", null);
+        List<ScheduleSlot> schedule = List.of(moved, unlocated);
+        List<String> expected = schedule.stream().map(ScheduleSnapshotTest::describe).toList();
+
+        ScheduleSnapshot snapshot = ScheduleSnapshot.of(schedule);
+        moved.moveTo(parseDate("2024-01-05"), 14 * 60, 15 * 60, lab);
+        moved.setAttribute("professor", "P2");
+
+        assertEquals(2, snapshot.size());
+        assertEquals(expected, snapshot.stream().map(ScheduleSnapshotTest::describe).toList());
+        assertSame(hall, snapshot.get(0).getLocation());
+        // every read creates a new slot
+        assertNotSame(snapshot.get(0), snapshot.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(moved));
+    }
+
+    @Test
+    void equalAttributesAreStoredOnce() {
+        RoomProperties hall = room("Hall", 50);
+        ScheduleSnapshot snapshot = ScheduleSnapshot.of(List.of(
+                slot("2024-01-01", "08:00", "09:00", hall, "group", "G1"),
+                slot("2024-01-01", "09:00", "10:00", hall, "group", "G1"),
+                slot("2024-01-01", "10:00", "11:00", hall)));
+        assertEquals(2, snapshot.getAttributes().size());
+        assertEquals(1, snapshot.getRooms().size());
+        assertEquals(snapshot.getCompact(0).attributesHandle(), snapshot.getCompact(1).attributesHandle());
+        assertTrue(ScheduleSnapshot.of(List.of()).isEmpty());
+    }
+}